@@ -107,7 +107,15 @@ public abstract class BaseRuntimeChildDefinition {
 	}
 
 	BaseRuntimeElementDefinition<?> findResourceReferenceDefinition(
+			FhirContext theContext,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
+		// This is called for every reference child, so try the standard reference type before scanning all types
+		BaseRuntimeElementDefinition<?> retVal =
+				theClassToElementDefinitions.get(theContext.getVersion().getResourceReferenceType());
+		if (retVal != null) {
+			return retVal;
+		}
+
 		for (Entry<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> next :
 				theClassToElementDefinitions.entrySet()) {
 			if (IBaseReference.class.isAssignableFrom(next.getKey())) {
@@ -36,7 +36,9 @@ import ca.uhn.fhir.model.base.composite.BaseNarrativeDt;
 import ca.uhn.fhir.model.base.composite.BaseResourceReferenceDt;
 import ca.uhn.fhir.model.primitive.BoundCodeDt;
 import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.util.CompiledTerserPath;
 import ca.uhn.fhir.util.ReflectionUtil;
+import com.google.common.cache.CacheBuilder;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBackboneElement;
@@ -71,6 +73,7 @@ public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> ext
 
 	private static final org.slf4j.Logger ourLog =
 			org.slf4j.LoggerFactory.getLogger(BaseRuntimeElementCompositeDefinition.class);
+	private static final int TERSER_PATH_CACHE_MAX_SIZE = 1000;
 	private final FhirContext myContext;
 	private Map<String, Integer> forcedOrder = null;
 	private List<BaseRuntimeChildDefinition> myChildren = new ArrayList<>();
@@ -79,6 +82,7 @@ public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> ext
 	private Map<String, BaseRuntimeChildDefinition> myNameToChild = new HashMap<>();
 	private List<ScannedField> myScannedFields = new ArrayList<>();
 	private volatile SealingStateEnum mySealed = SealingStateEnum.NOT_SEALED;
+	private volatile Map<String, CompiledTerserPath> myTerserPathCache;
 
 	@SuppressWarnings("unchecked")
 	public BaseRuntimeElementCompositeDefinition(
@@ -162,6 +166,32 @@ public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> ext
 		return retVal;
 	}
 
+	/**
+	 * Returns a bounded cache of the paths which have been compiled against this element type by
+	 * {@link ca.uhn.fhir.util.FhirTerser}, keyed by the path. The cache is created on first use.
+	 * <p>
+	 * This method is intended for internal use only.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public Map<String, CompiledTerserPath> getTerserPathCache() {
+		Map<String, CompiledTerserPath> retVal = myTerserPathCache;
+		if (retVal == null) {
+			synchronized (this) {
+				retVal = myTerserPathCache;
+				if (retVal == null) {
+					retVal = CacheBuilder.newBuilder()
+							.maximumSize(TERSER_PATH_CACHE_MAX_SIZE)
+							.<String, CompiledTerserPath>build()
+							.asMap();
+					myTerserPathCache = retVal;
+				}
+			}
+		}
+		return retVal;
+	}
+
 	@Override
 	public List<BaseRuntimeChildDefinition> getChildren() {
 		validateSealed();
@@ -28,14 +28,23 @@ import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseDatatype;
 import org.hl7.fhir.instance.model.api.IBaseReference;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
 public class RuntimeChildAny extends RuntimeChildChoiceDefinition {
 
+	/**
+	 * The choice types are the same for every "any" child in a model, and calculating them means
+	 * checking every type in the model, so the most recently calculated types are shared between
+	 * children. They are recalculated whenever the model they were calculated from changes.
+	 */
+	private static volatile AnyChoiceTypes ourLastChoiceTypes;
+
 	public RuntimeChildAny(
 			Field theField, String theElementName, Child theChildAnnotation, Description theDescriptionAnnotation) {
 		super(theField, theElementName, theChildAnnotation, theDescriptionAnnotation);
@@ -45,44 +54,78 @@ public class RuntimeChildAny extends RuntimeChildChoiceDefinition {
 	void sealAndInitialize(
 			FhirContext theContext,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
-		List<Class<? extends IBase>> choiceTypes = new ArrayList<>();
-		List<Class<? extends IBase>> specializationChoiceTypes = new ArrayList<>();
+		AnyChoiceTypes choiceTypes = ourLastChoiceTypes;
+		if (choiceTypes == null || !choiceTypes.isCalculatedFrom(theClassToElementDefinitions)) {
+			choiceTypes = new AnyChoiceTypes(theClassToElementDefinitions);
+			ourLastChoiceTypes = choiceTypes;
+		}
 
-		for (Class<? extends IBase> next : theClassToElementDefinitions.keySet()) {
-			if (next.equals(XhtmlDt.class)) {
-				continue;
-			}
+		setChoiceTypes(choiceTypes.myChoiceTypes, choiceTypes.mySpecializationChoiceTypes);
+
+		super.sealAndInitialize(theContext, theClassToElementDefinitions);
+	}
+
+	private static class AnyChoiceTypes {
+		private final WeakReference<Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>>> myDefinitions;
+		private final int myDefinitionCount;
+		private final List<Class<? extends IBase>> myChoiceTypes;
+		private final List<Class<? extends IBase>> mySpecializationChoiceTypes;
+
+		private AnyChoiceTypes(
+				Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
+			myDefinitions = new WeakReference<>(theClassToElementDefinitions);
+			myDefinitionCount = theClassToElementDefinitions.size();
 
-			boolean isSpecialization = false;
-			BaseRuntimeElementDefinition<?> nextDef = theClassToElementDefinitions.get(next);
-			if (nextDef instanceof IRuntimeDatatypeDefinition) {
-				if (((IRuntimeDatatypeDefinition) nextDef).isSpecialization()) {
-					/*
-					 * Things like BoundCodeDt shoudn't be considered as valid options for an "any" choice, since
-					 * we'll already have CodeDt as an option
-					 */
-					isSpecialization = true;
+			List<Class<? extends IBase>> choiceTypes = new ArrayList<>();
+			List<Class<? extends IBase>> specializationChoiceTypes = new ArrayList<>();
+
+			for (Map.Entry<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> nextEntry :
+					theClassToElementDefinitions.entrySet()) {
+				Class<? extends IBase> next = nextEntry.getKey();
+				if (next.equals(XhtmlDt.class)) {
+					continue;
+				}
+
+				boolean isSpecialization = false;
+				BaseRuntimeElementDefinition<?> nextDef = nextEntry.getValue();
+				if (nextDef instanceof IRuntimeDatatypeDefinition) {
+					if (((IRuntimeDatatypeDefinition) nextDef).isSpecialization()) {
+						/*
+						 * Things like BoundCodeDt shoudn't be considered as valid options for an "any" choice, since
+						 * we'll already have CodeDt as an option
+						 */
+						isSpecialization = true;
+					}
 				}
-			}
 
-			if (IResource.class.isAssignableFrom(next)
-					|| IDatatype.class.isAssignableFrom(next)
-					|| IBaseDatatype.class.isAssignableFrom(next)
-					|| IBaseReference.class.isAssignableFrom(next)) {
-				if (isSpecialization) {
-					specializationChoiceTypes.add(next);
-				} else {
-					choiceTypes.add(next);
+				if (IResource.class.isAssignableFrom(next)
+						|| IDatatype.class.isAssignableFrom(next)
+						|| IBaseDatatype.class.isAssignableFrom(next)
+						|| IBaseReference.class.isAssignableFrom(next)) {
+					if (isSpecialization) {
+						specializationChoiceTypes.add(next);
+					} else {
+						choiceTypes.add(next);
+					}
 				}
 			}
-		}
 
-		choiceTypes.sort(new ResourceTypeNameComparator());
-		specializationChoiceTypes.sort(new ResourceTypeNameComparator());
+			choiceTypes.sort(new ResourceTypeNameComparator());
+			specializationChoiceTypes.sort(new ResourceTypeNameComparator());
 
-		setChoiceTypes(choiceTypes, specializationChoiceTypes);
+			myChoiceTypes = Collections.unmodifiableList(choiceTypes);
+			mySpecializationChoiceTypes = Collections.unmodifiableList(specializationChoiceTypes);
+		}
 
-		super.sealAndInitialize(theContext, theClassToElementDefinitions);
+		/**
+		 * Definitions are only ever added to a model, so if it is the same map with the
+		 * same size then the choice types have not changed
+		 */
+		private boolean isCalculatedFrom(
+				Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
+			return myDefinitions.get() == theClassToElementDefinitions
+					&& myDefinitionCount == theClassToElementDefinitions.size();
+		}
 	}
 
 	private static class ResourceTypeNameComparator implements Comparator<Class<?>> {
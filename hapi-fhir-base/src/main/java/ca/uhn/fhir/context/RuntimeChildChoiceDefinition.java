@@ -132,7 +132,7 @@ public class RuntimeChildChoiceDefinition extends BaseRuntimeDeclaredChildDefini
 			boolean nonPreferred = false;
 			if (IBaseResource.class.isAssignableFrom(next)) {
 				elementName = getElementName() + StringUtils.capitalize(next.getSimpleName());
-				nextDef = findResourceReferenceDefinition(theClassToElementDefinitions);
+				nextDef = findResourceReferenceDefinition(theContext, theClassToElementDefinitions);
 
 				if (!theIsSpecilization) {
 					myNameToChildDefinition.put(getElementName() + "Reference", nextDef);
@@ -87,7 +87,7 @@ public class RuntimeChildResourceDefinition extends BaseRuntimeDeclaredChildDefi
 	void sealAndInitialize(
 			FhirContext theContext,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
-		myRuntimeDef = findResourceReferenceDefinition(theClassToElementDefinitions);
+		myRuntimeDef = findResourceReferenceDefinition(theContext, theClassToElementDefinitions);
 
 		myValidChildNames = new HashSet<String>();
 		myValidChildNames.add(getElementName());
@@ -51,7 +51,7 @@ public class RuntimeChildUndeclaredExtensionDefinition extends BaseRuntimeChildD
 			FhirContext theContext,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions,
 			String value) {
-		BaseRuntimeElementDefinition<?> def = findResourceReferenceDefinition(theClassToElementDefinitions);
+		BaseRuntimeElementDefinition<?> def = findResourceReferenceDefinition(theContext, theClassToElementDefinitions);
 
 		myAttributeNameToDefinition.put(value, def);
 		/*
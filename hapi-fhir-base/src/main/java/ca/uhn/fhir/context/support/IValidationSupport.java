@@ -304,6 +304,37 @@ public interface IValidationSupport {
 		return null;
 	}
 
+	/**
+	 * Validates a collection of codes at once. This is equivalent to calling
+	 * {@link #validateCode(ValidationSupportContext, ConceptValidationOptions, String, String, String, String)}
+	 * for each request (which is what the default implementation does), but allows implementations
+	 * which invoke a remote service to validate several codes in a single round trip.
+	 *
+	 * @param theValidationSupportContext The validation support module will be passed in to this method. This is convenient in cases where the operation needs to make calls to
+	 *                                    other method in the support chain, so that they can be passed through the entire chain. Implementations of this interface may always safely ignore this parameter.
+	 * @param theOptions                  Provides options controlling the validation
+	 * @param theRequests                 The codes to validate
+	 * @return Returns a list containing one validation result (which may be <code>null</code>) for each request, in the same order as the requests
+	 * @since 7.6.0
+	 */
+	@Nonnull
+	default List<CodeValidationResult> validateCodeBatch(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			List<ValidateCodeRequest> theRequests) {
+		List<CodeValidationResult> retVal = new ArrayList<>(theRequests.size());
+		for (ValidateCodeRequest next : theRequests) {
+			retVal.add(validateCode(
+					theValidationSupportContext,
+					theOptions,
+					next.getSystem(),
+					next.getCode(),
+					next.getDisplay(),
+					next.getValueSetUrl()));
+		}
+		return retVal;
+	}
+
 	/**
 	 * Validates that the given code exists and if possible returns a display
 	 * name. This method is called to check codes which are found in "example"
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.context.support;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Represents a single code which should be validated using
+ * {@link IValidationSupport#validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, java.util.List)}.
+ * @since 7.6.0
+ */
+public class ValidateCodeRequest {
+	private final String mySystem;
+	private final String myCode;
+	private final String myDisplay;
+	private final String myValueSetUrl;
+
+	/**
+	 * @param theSystem      The CodeSystem URL
+	 * @param theCode        The code
+	 * @param theDisplay     The display name, if it should also be validated
+	 * @param theValueSetUrl The ValueSet URL, or <code>null</code> if the code should only be validated against the CodeSystem
+	 */
+	public ValidateCodeRequest(String theSystem, String theCode, String theDisplay, String theValueSetUrl) {
+		mySystem = theSystem;
+		myCode = theCode;
+		myDisplay = theDisplay;
+		myValueSetUrl = theValueSetUrl;
+	}
+
+	public String getSystem() {
+		return mySystem;
+	}
+
+	public String getCode() {
+		return myCode;
+	}
+
+	public String getDisplay() {
+		return myDisplay;
+	}
+
+	public String getValueSetUrl() {
+		return myValueSetUrl;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("system", mySystem)
+				.append("code", myCode)
+				.append("display", myDisplay)
+				.append("valueSetUrl", myValueSetUrl)
+				.toString();
+	}
+}
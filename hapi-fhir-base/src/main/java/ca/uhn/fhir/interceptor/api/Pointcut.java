@@ -70,12 +70,19 @@ public enum Pointcut implements IPointcut {
 	 * <li>
 	 *    ca.uhn.fhir.rest.client.api.IRestfulClient - The client object making the request
 	 * </li>
+	 * <li>
+	 *    ca.uhn.fhir.rest.client.api.ClientRequestContext - Contains the IHttpRequest and the IRestfulClient, and
+	 *    also allows the hook to supply the resource to return instead of sending the request
+	 * </li>
 	 * </ul>
 	 * </p>
 	 * Hook methods must return <code>void</code>.
 	 */
 	CLIENT_REQUEST(
-			void.class, "ca.uhn.fhir.rest.client.api.IHttpRequest", "ca.uhn.fhir.rest.client.api.IRestfulClient"),
+			void.class,
+			"ca.uhn.fhir.rest.client.api.IHttpRequest",
+			"ca.uhn.fhir.rest.client.api.IRestfulClient",
+			"ca.uhn.fhir.rest.client.api.ClientRequestContext"),
 
 	/**
 	 * <b>Client Hook:</b>
@@ -52,6 +52,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -79,6 +80,12 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
 	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	/**
+	 * Immutable snapshot of the sorted invokers for each pointcut, rebuilt whenever the registry changes
+	 * so that invoking hooks doesn't need to acquire {@link #myRegistryMutex}
+	 */
+	private volatile Map<POINTCUT, List<BaseInvoker>> myInvokersByPointcut;
+
 	private String myName;
 	private boolean myWarnOnInterceptorWithNoHooks = true;
 
@@ -222,6 +229,14 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
 		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
 		registeredPointcuts.addAll(myGlobalInvokers.keySet());
+
+		Map<POINTCUT, List<BaseInvoker>> invokersByPointcut = new EnumMap<>(myPointcutType);
+		for (POINTCUT next : registeredPointcuts) {
+			List<BaseInvoker> invokers = union(myGlobalInvokers.get(next), myAnonymousInvokers.get(next), null);
+			invokersByPointcut.put(next, Collections.unmodifiableList(new ArrayList<>(invokers)));
+		}
+
+		myInvokersByPointcut = invokersByPointcut;
 		myRegisteredPointcuts = registeredPointcuts;
 	}
 
@@ -287,8 +302,8 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams, Object theRetVal) {
-		// use new list for loop to avoid ConcurrentModificationException in case invoker gets added while looping
-		List<BaseInvoker> invokers = new ArrayList<>(getInvokersForPointcut(thePointcut));
+		// the invoker list is an immutable snapshot, so invokers can be added while looping
+		List<BaseInvoker> invokers = getInvokersForPointcut(thePointcut);
 
 		/*
 		 * Call each hook in order
@@ -325,19 +340,12 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	/**
 	 * Returns an ordered list of invokers for the given pointcut. Note that
-	 * a new and stable list is returned to.. do whatever you want with it.
+	 * the returned list is an immutable snapshot which will not change if
+	 * interceptors are registered or unregistered while it is in use.
 	 */
 	private List<BaseInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<BaseInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<BaseInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<BaseInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			List<BaseInvoker> threadLocalInvokers = null;
-			invokers = union(globalInvokers, anonymousInvokers, threadLocalInvokers);
-		}
-
-		return invokers;
+		List<BaseInvoker> invokers = myInvokersByPointcut.get(thePointcut);
+		return invokers != null ? invokers : Collections.emptyList();
 	}
 
 	/**
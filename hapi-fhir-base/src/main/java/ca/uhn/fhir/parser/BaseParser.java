@@ -46,6 +46,7 @@ import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.CollectionUtil;
 import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.MetaUtil;
+import ca.uhn.fhir.util.PreEncodedResourceUtil;
 import ca.uhn.fhir.util.UrlUtil;
 import com.google.common.base.Charsets;
 import jakarta.annotation.Nullable;
@@ -302,6 +303,10 @@ public abstract class BaseParser implements IParser {
 					+ theResource.getStructureFhirVersionEnum());
 		}
 
+		if (!isPreEncodedResourceSupported()) {
+			PreEncodedResourceUtil.inflateResourceAndBundleEntries(myContext, theResource);
+		}
+
 		String resourceName =
 				myContext.getElementDefinition(theResource.getClass()).getName();
 		theEncodeContext.pushPath(resourceName, true);
@@ -610,6 +615,35 @@ public abstract class BaseParser implements IParser {
 		return mySummaryMode;
 	}
 
+	/**
+	 * Subclasses may return <code>true</code> if they are able to encode
+	 * {@link PreEncodedResourceUtil pre-encoded resources} themselves. Otherwise, pre-encoded
+	 * resources are inflated before being encoded.
+	 *
+	 * @since 7.6.0
+	 */
+	protected boolean isPreEncodedResourceSupported() {
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if this parser encodes every element of a resource, i.e.
+	 * no summary mode, element filtering, narrative suppression or narrative generation applies,
+	 * and references are encoded using the default rules of the context.
+	 *
+	 * @since 7.6.0
+	 */
+	protected boolean isEncodingAllElementsUnchanged() {
+		return !mySummaryMode
+				&& !mySuppressNarratives
+				&& (myEncodeElements == null || myEncodeElements.isEmpty())
+				&& (myDontEncodeElements == null || myDontEncodeElements.isEmpty())
+				&& myStripVersionsFromReferences == null
+				&& (myDontStripVersionsFromReferencesAtPaths == null
+						|| myDontStripVersionsFromReferencesAtPaths.isEmpty())
+				&& myContext.getNarrativeGenerator() == null;
+	}
+
 	/**
 	 * If set to <code>true</code> (default is <code>false</code>), narratives will not be included in the encoded
 	 * values.
@@ -54,6 +54,7 @@ import ca.uhn.fhir.parser.json.JsonLikeStructure;
 import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.util.ElementUtil;
+import ca.uhn.fhir.util.PreEncodedResourceUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.text.WordUtils;
@@ -234,6 +235,11 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		eventWriter.close();
 	}
 
+	@Override
+	protected boolean isPreEncodedResourceSupported() {
+		return true;
+	}
+
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
 		JsonLikeStructure jsonStructure = new JacksonStructure();
@@ -893,6 +899,20 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 			return;
 		}
 
+		/*
+		 * Pre-encoded resources can have their encoded elements written as-is, unless
+		 * this parser would not encode all of them unchanged
+		 */
+		String preEncodedElements = PreEncodedResourceUtil.getPreEncodedElements(theResource);
+		if (preEncodedElements != null
+				&& (theContainedResource
+						|| myPrettyPrint
+						|| !theEventWriter.isWriteRawMembersSupported()
+						|| !isEncodingAllElementsUnchanged())) {
+			PreEncodedResourceUtil.inflate(getContext(), theResource);
+			preEncodedElements = null;
+		}
+
 		if (!theContainedResource) {
 			containResourcesInReferences(theResource);
 		}
@@ -947,6 +967,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 				new CompositeChildElement(resDef, theEncodeContext),
 				theEncodeContext);
 
+		if (preEncodedElements != null) {
+			theEventWriter.writeRawMembers(preEncodedElements);
+		}
+
 		theEventWriter.endObject();
 	}
 
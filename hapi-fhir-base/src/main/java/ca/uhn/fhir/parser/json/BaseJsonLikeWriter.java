@@ -19,6 +19,8 @@
  */
 package ca.uhn.fhir.parser.json;
 
+import ca.uhn.fhir.i18n.Msg;
+
 import java.io.IOException;
 import java.io.Writer;
 import java.math.BigDecimal;
@@ -96,4 +98,25 @@ public abstract class BaseJsonLikeWriter {
 	public abstract BaseJsonLikeWriter endArray() throws IOException;
 
 	public abstract BaseJsonLikeWriter endBlock() throws IOException;
+
+	/**
+	 * Returns <code>true</code> if this writer supports {@link #writeRawMembers(String)}
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isWriteRawMembersSupported() {
+		return false;
+	}
+
+	/**
+	 * Writes one or more members (<code>"name":value</code> pairs, separated by commas) which
+	 * are already encoded as compact JSON into the object currently being written, after any
+	 * members which have already been written to it. The content is not validated.
+	 *
+	 * @since 7.6.0
+	 */
+	public BaseJsonLikeWriter writeRawMembers(String theMembers) throws IOException {
+		throw new UnsupportedOperationException(
+				Msg.code(2560) + getClass().getSimpleName() + " does not support writing raw content");
+	}
 }
@@ -196,4 +196,21 @@ public class JacksonWriter extends BaseJsonLikeWriter {
 		myJsonGenerator.writeEndObject();
 		return this;
 	}
+
+	@Override
+	public boolean isWriteRawMembersSupported() {
+		return true;
+	}
+
+	@Override
+	public BaseJsonLikeWriter writeRawMembers(String theMembers) throws IOException {
+		if (theMembers.isEmpty()) {
+			return this;
+		}
+		if (myJsonGenerator.getOutputContext().getEntryCount() > 0) {
+			myJsonGenerator.writeRaw(',');
+		}
+		myJsonGenerator.writeRaw(theMembers);
+		return this;
+	}
 }
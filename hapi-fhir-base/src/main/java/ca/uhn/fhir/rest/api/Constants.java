@@ -36,6 +36,7 @@ public class Constants {
 	public static final String CT_TEXT_CSV = "text/csv";
 	public static final String HEADER_REQUEST_ID = "X-Request-ID";
 	public static final String HEADER_REQUEST_SOURCE = "X-Request-Source";
+	public static final String CACHE_CONTROL_MAX_AGE = "max-age";
 	public static final String CACHE_CONTROL_MAX_RESULTS = "max-results";
 	public static final String CACHE_CONTROL_NO_CACHE = "no-cache";
 	public static final String CACHE_CONTROL_NO_STORE = "no-store";
@@ -114,6 +115,7 @@ public class Constants {
 	public static final String HEADER_AUTHORIZATION = "Authorization";
 	public static final String HEADER_AUTHORIZATION_VALPREFIX_BASIC = "Basic ";
 	public static final String HEADER_AUTHORIZATION_VALPREFIX_BEARER = "Bearer ";
+	public static final String HEADER_AGE = "Age";
 	public static final String HEADER_CACHE_CONTROL = "Cache-Control";
 	public static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
 	public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.api;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.StringJoiner;
+
+/**
+ * Used to pass context to {@link Pointcut#CLIENT_REQUEST}, and allows a hook to answer the
+ * request without it being sent to the server
+ *
+ * @since 7.6.0
+ */
+public class ClientRequestContext {
+	private final IHttpRequest myHttpRequest;
+	private final IRestfulClient myRestfulClient;
+	private final FhirContext myFhirContext;
+	private final Class<? extends IBaseResource> myReturnType;
+	private IBaseResource myResponseResource;
+
+	public ClientRequestContext(
+			IHttpRequest theHttpRequest,
+			IRestfulClient theRestfulClient,
+			FhirContext theFhirContext,
+			Class<? extends IBaseResource> theReturnType) {
+		myHttpRequest = theHttpRequest;
+		myRestfulClient = theRestfulClient;
+		myFhirContext = theFhirContext;
+		myReturnType = theReturnType;
+	}
+
+	public IHttpRequest getHttpRequest() {
+		return myHttpRequest;
+	}
+
+	public IRestfulClient getRestfulClient() {
+		return myRestfulClient;
+	}
+
+	public FhirContext getFhirContext() {
+		return myFhirContext;
+	}
+
+	/**
+	 * Returns the type of resource the caller expects, or <code>null</code> if the request
+	 * does not return a resource
+	 */
+	public Class<? extends IBaseResource> getReturnType() {
+		return myReturnType;
+	}
+
+	/**
+	 * Returns the resource supplied by {@link #setResponseResource(IBaseResource)}, if any
+	 */
+	public IBaseResource getResponseResource() {
+		return myResponseResource;
+	}
+
+	/**
+	 * If a hook supplies a resource here, the request is not sent and the client returns the
+	 * resource to the caller instead. The {@link Pointcut#CLIENT_RESPONSE} hooks are not called.
+	 * The resource must be an instance of {@link #getReturnType()}, and is ignored if the
+	 * request does not return a resource.
+	 */
+	public void setResponseResource(IBaseResource theResponseResource) {
+		myResponseResource = theResponseResource;
+	}
+
+	@Override
+	public String toString() {
+		return new StringJoiner(", ", ClientRequestContext.class.getSimpleName() + "[", "]")
+				.add("myHttpRequest=" + myHttpRequest)
+				.add("myRestfulClient=" + myRestfulClient)
+				.add("myFhirContext=" + myFhirContext)
+				.add("myReturnType=" + myReturnType)
+				.toString();
+	}
+}
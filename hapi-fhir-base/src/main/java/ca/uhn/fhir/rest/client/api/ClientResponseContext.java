@@ -23,8 +23,12 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  * Used to pass context to {@link Pointcut#CLIENT_RESPONSE}, including a mutable {@link IHttpResponse}
@@ -35,6 +39,8 @@ public class ClientResponseContext {
 	private final IRestfulClient myRestfulClient;
 	private final FhirContext myFhirContext;
 	private final Class<? extends IBaseResource> myReturnType;
+	private IBaseResource myResponseResource;
+	private List<Consumer<IBaseResource>> myResponseResourceListeners;
 
 	public ClientResponseContext(
 			IHttpRequest myHttpRequest,
@@ -73,6 +79,54 @@ public class ClientResponseContext {
 		this.myHttpResponse = theHttpResponse;
 	}
 
+	/**
+	 * Returns the resource supplied by {@link #setResponseResource(IBaseResource)}, if any
+	 *
+	 * @since 7.6.0
+	 */
+	public IBaseResource getResponseResource() {
+		return myResponseResource;
+	}
+
+	/**
+	 * If a hook supplies a resource here, the client returns it to the caller instead of
+	 * processing the HTTP response (which will not be read, and may have any status code).
+	 * The resource must be an instance of {@link #getReturnType()}, and is ignored if the
+	 * request does not return a resource.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setResponseResource(IBaseResource theResponseResource) {
+		myResponseResource = theResponseResource;
+	}
+
+	/**
+	 * Registers a listener which will be called with the resource which is parsed from the
+	 * response body, before it is returned to the caller. Listeners are not called if the
+	 * request failed, or does not return a resource.
+	 *
+	 * @since 7.6.0
+	 */
+	public void addResponseResourceListener(Consumer<IBaseResource> theListener) {
+		Objects.requireNonNull(theListener, "theListener must not be null");
+		if (myResponseResourceListeners == null) {
+			myResponseResourceListeners = new ArrayList<>(1);
+		}
+		myResponseResourceListeners.add(theListener);
+	}
+
+	/**
+	 * Returns the listeners registered using {@link #addResponseResourceListener(Consumer)}
+	 *
+	 * @since 7.6.0
+	 */
+	public List<Consumer<IBaseResource>> getResponseResourceListeners() {
+		if (myResponseResourceListeners == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(myResponseResourceListeners);
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
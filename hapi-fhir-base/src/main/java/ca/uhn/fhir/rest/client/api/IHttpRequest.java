@@ -22,6 +22,7 @@ package ca.uhn.fhir.rest.client.api;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Http Request. Allows addition of headers and execution of the request.
@@ -43,6 +44,25 @@ public interface IHttpRequest {
 	 */
 	IHttpResponse execute() throws IOException;
 
+	/**
+	 * Execute the request without blocking the calling thread while the request is in progress.
+	 * <p>
+	 * The default implementation simply calls {@link #execute()}, so it blocks until the response
+	 * has been received. Implementations backed by an HTTP library with a non-blocking API should
+	 * override this method.
+	 * </p>
+	 *
+	 * @return a future which is completed with the response, or completed exceptionally if the request fails
+	 * @since 7.6.0
+	 */
+	default CompletableFuture<IHttpResponse> executeAsync() {
+		try {
+			return CompletableFuture.completedFuture(execute());
+		} catch (IOException | RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	/**
 	 * @return all request headers in lower case. Note that this method
 	 * returns an <b>immutable</b> Map
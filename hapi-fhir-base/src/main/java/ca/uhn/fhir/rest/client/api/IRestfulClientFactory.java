@@ -24,6 +24,7 @@ import ca.uhn.fhir.rest.api.RequestTypeEnum;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 public interface IRestfulClientFactory {
 
@@ -62,6 +63,13 @@ public interface IRestfulClientFactory {
 	 */
 	public static final int DEFAULT_POOL_MAX_PER_ROUTE = DEFAULT_POOL_MAX;
 
+	/**
+	 * Default value for {@link #getAsyncMaxQueuedRequestsPerHost()}
+	 *
+	 * @since 7.6.0
+	 */
+	public static final int DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST = 1000;
+
 	/**
 	 * Gets the connection request timeout, in milliseconds. This is the amount of time that the HTTPClient connection
 	 * pool may wait for an available connection before failing. This setting typically does not need to be adjusted.
@@ -276,6 +284,74 @@ public interface IRestfulClientFactory {
 	 */
 	void setPoolMaxPerRoute(int thePoolMaxPerRoute);
 
+	/**
+	 * Returns the maximum number of requests started using
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()} which may be in progress
+	 * against a single host at the same time. Further requests to that host are queued until an
+	 * earlier one completes.
+	 * <p>
+	 * By default this is the same as {@link #getPoolMaxPerRoute()}
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	default int getAsyncMaxRequestsPerHost() {
+		return getPoolMaxPerRoute();
+	}
+
+	/**
+	 * Sets the maximum number of requests started using
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()} which may be in progress
+	 * against a single host at the same time. Further requests to that host are queued until an
+	 * earlier one completes.
+	 * <p>
+	 * By default this is the same as {@link #getPoolMaxPerRoute()}
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	default void setAsyncMaxRequestsPerHost(int theAsyncMaxRequestsPerHost) {}
+
+	/**
+	 * Sets the executor which runs requests started using
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}. If not set (or set to
+	 * <code>null</code>), a pool of daemon threads sized according to {@link #getPoolMaxTotal()}
+	 * will be created when it is first needed.
+	 *
+	 * @since 7.6.0
+	 */
+	default void setAsyncExecutor(Executor theAsyncExecutor) {}
+
+	/**
+	 * Returns the maximum number of requests started using
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()} which may be queued for
+	 * a single host while waiting for one of the {@link #getAsyncMaxRequestsPerHost() in progress}
+	 * requests to complete. Requests beyond this limit are rejected, i.e. the returned future
+	 * completes exceptionally with a {@link java.util.concurrent.RejectedExecutionException}.
+	 * <p>
+	 * The default value for this setting is defined by {@link #DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST}
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	default int getAsyncMaxQueuedRequestsPerHost() {
+		return DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST;
+	}
+
+	/**
+	 * Sets the maximum number of requests started using
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()} which may be queued for
+	 * a single host while waiting for one of the {@link #getAsyncMaxRequestsPerHost() in progress}
+	 * requests to complete. Requests beyond this limit are rejected, i.e. the returned future
+	 * completes exceptionally with a {@link java.util.concurrent.RejectedExecutionException}.
+	 * <p>
+	 * The default value for this setting is defined by {@link #DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST}
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	default void setAsyncMaxQueuedRequestsPerHost(int theAsyncMaxQueuedRequestsPerHost) {}
+
 	void validateServerBase(String theServerBase, IHttpClient theHttpClient, IRestfulClient theClient);
 
 	/**
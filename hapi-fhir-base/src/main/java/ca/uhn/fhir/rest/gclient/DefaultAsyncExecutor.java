@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.gclient;
+
+import ca.uhn.fhir.rest.client.api.IRestfulClientFactory;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the executor used by the default implementation of {@link IClientExecutable#executeAsync()}.
+ * Blocking client requests are run on their own pool of daemon threads rather than on the
+ * common fork/join pool, so that they can not starve other work which uses the common pool.
+ */
+final class DefaultAsyncExecutor {
+
+	private static final Executor ourExecutor = createExecutor();
+
+	private DefaultAsyncExecutor() {
+		// non instantiable
+	}
+
+	static Executor getExecutor() {
+		return ourExecutor;
+	}
+
+	private static Executor createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				IRestfulClientFactory.DEFAULT_POOL_MAX,
+				IRestfulClientFactory.DEFAULT_POOL_MAX,
+				60,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new BasicThreadFactory.Builder()
+						.namingPattern("hapi-fhir-client-async-default-%d")
+						.daemon(true)
+						.build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
@@ -26,6 +26,7 @@ import ca.uhn.fhir.rest.api.SummaryEnum;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface IClientExecutable<T extends IClientExecutable<?, Y>, Y> {
 
@@ -106,6 +107,33 @@ public interface IClientExecutable<T extends IClientExecutable<?, Y>, Y> {
 	 */
 	Y execute();
 
+	/**
+	 * Execute the client operation asynchronously. The returned future completes with the
+	 * same value that {@link #execute()} would return, or completes exceptionally with the
+	 * exception that it would throw.
+	 * <p>
+	 * The request must not be modified after this method has been called. Clients created
+	 * by a {@link ca.uhn.fhir.rest.client.api.IRestfulClientFactory} limit the number of
+	 * concurrent asynchronous requests sent to each server according to
+	 * {@link ca.uhn.fhir.rest.client.api.IRestfulClientFactory#setAsyncMaxRequestsPerHost(int)},
+	 * and queue any additional requests until a slot becomes available. Other implementations
+	 * run the request on a shared pool of daemon threads dedicated to client requests.
+	 * </p>
+	 * <p>
+	 * Whether the request blocks a thread while it is in progress depends on the HTTP client.
+	 * The OkHttp client ({@literal hapi-fhir-client-okhttp}) sends most operations (read, search,
+	 * create, update, patch, delete, history, transaction, etc.) without holding a thread while
+	 * waiting for the response. The default Apache HTTP client, and operations which post-process
+	 * the response such as {@literal $operation} invocations, occupy a thread from the client
+	 * executor for the duration of the request.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	default CompletableFuture<Y> executeAsync() {
+		return CompletableFuture.supplyAsync(this::execute, DefaultAsyncExecutor.getExecutor());
+	}
+
 	/**
 	 * Explicitly specify a custom structure type to attempt to use when parsing the response. This
 	 * is useful for invocations where the response is a Bundle/Parameters containing nested resources,
@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.gclient;
+
+import ca.uhn.fhir.rest.api.PagingHttpMethodEnum;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Iterates over the resources in a Bundle and in all of the pages which follow it, as returned
+ * by {@link IGetPage#allPages(org.hl7.fhir.instance.model.api.IBaseBundle)}.
+ * <p>
+ * While the resources of one page are being consumed, the following pages are requested and
+ * parsed in the background. The number of pages which may be held in memory ahead of the caller
+ * is bounded by {@link #prefetchPages(int)}. Pages are released as soon as their resources have
+ * been returned, so the memory used does not grow with the total number of results.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public interface IGetAllPages {
+
+	/**
+	 * The default value for {@link #prefetchPages(int)}
+	 */
+	int DEFAULT_PREFETCH_PAGES = 2;
+
+	/**
+	 * Sets the maximum number of pages which will be requested ahead of the page currently being
+	 * consumed. Higher values hide more network latency at the cost of holding more parsed pages
+	 * in memory. The default is {@link #DEFAULT_PREFETCH_PAGES}.
+	 *
+	 * @param thePageCount The number of pages, must be at least 1
+	 */
+	IGetAllPages prefetchPages(int thePageCount);
+
+	/**
+	 * Sets the HTTP method used to request each page
+	 */
+	IGetAllPages usingMethod(PagingHttpMethodEnum thePagingHttpMethod);
+
+	/**
+	 * Returns an iterator over the resources in all pages, in the order they appear in the
+	 * Bundles. This includes every resource in each Bundle, e.g. resources which were
+	 * included using <code>_include</code>.
+	 * <p>
+	 * Paging begins when this method is called. If the caller may stop iterating before the
+	 * last page, use {@link #stream()} instead so that prefetching can be stopped by closing
+	 * the stream.
+	 * </p>
+	 */
+	Iterator<IBaseResource> iterator();
+
+	/**
+	 * Returns a sequential stream over the resources in all pages. Closing the stream (e.g.
+	 * using try-with-resources) stops any further prefetching.
+	 *
+	 * @see #iterator()
+	 */
+	Stream<IBaseResource> stream();
+
+	/**
+	 * Returns a sequential stream over the resources in all pages which are instances of
+	 * the given type. This is useful for skipping resources which were included in the
+	 * results using <code>_include</code>, or <code>OperationOutcome</code> resources.
+	 *
+	 * @see #stream()
+	 */
+	<R extends IBaseResource> Stream<R> stream(Class<R> theResourceType);
+}
@@ -31,6 +31,15 @@ public interface IGetPage {
 	 */
 	<T extends IBaseBundle> IGetPageTyped<T> next(T theBundle);
 
+	/**
+	 * Iterate over the resources in the given Bundle and in every page which follows it
+	 * (using the links with relation "next"), requesting upcoming pages in the background
+	 * while earlier ones are consumed
+	 *
+	 * @since 7.6.0
+	 */
+	IGetAllPages allPages(IBaseBundle theBundle);
+
 	/**
 	 * Load the previous page of results using the link with relation "prev" in the bundle. This
 	 * method accepts a DSTU2+ Bundle resource
@@ -187,6 +187,23 @@ public class BundleBuilder {
 		return new PatchBuilder(url);
 	}
 
+	/**
+	 * Adds an entry containing a POST request which invokes an operation, with the given
+	 * Parameters resource as the request body.
+	 * Also sets the Bundle.type value to "transaction" if it is not already set, use
+	 * {@link #setType(String)} afterward in order to create a "batch" Bundle instead.
+	 *
+	 * @param theOperationUrl The operation URL, relative to the server base (e.g. <code>ValueSet/$validate-code</code>)
+	 * @param theParameters   The operation input parameters
+	 * @since 7.6.0
+	 */
+	public void addTransactionOperationEntry(String theOperationUrl, IBaseParameters theParameters) {
+		Validate.notBlank(theOperationUrl, "theOperationUrl must not be blank");
+		Validate.notNull(theParameters, "theParameters must not be null");
+
+		addAndPopulateTransactionBundleEntryRequest(theParameters, null, theOperationUrl, "POST");
+	}
+
 	/**
 	 * Adds an entry containing an update (PUT) request.
 	 * Also sets the Bundle.type value to "transaction" if it is not already set.
@@ -0,0 +1,318 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
+import ca.uhn.fhir.model.api.ExtensionDt;
+import ca.uhn.fhir.model.api.ISupportsUndeclaredExtensions;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseExtension;
+import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
+import org.hl7.fhir.instance.model.api.IBaseHasModifierExtensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A path which has been parsed and resolved against the definitions of a specific FHIR
+ * element type by {@link FhirTerser#compile(String, String)}. Evaluating a compiled path
+ * returns the same values as {@link FhirTerser#getValues(IBase, String, Class)}, but
+ * avoids parsing the path and looking up the child definitions on every call.
+ * <p>
+ * Instances are immutable and thread safe, and are intended to be created once and
+ * reused for any number of elements of the type they were compiled for.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class CompiledTerserPath {
+
+	private final BaseRuntimeElementCompositeDefinition<?> myDefinition;
+	private final String myPath;
+	private final Step[] mySteps;
+
+	CompiledTerserPath(
+			@Nonnull FhirContext theContext,
+			@Nonnull BaseRuntimeElementCompositeDefinition<?> theDefinition,
+			@Nonnull String thePath,
+			@Nonnull List<String> theParts) {
+		myDefinition = theDefinition;
+		myPath = thePath;
+		mySteps = new Step[theParts.size()];
+
+		boolean dstu2 = theContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3);
+		BaseRuntimeElementDefinition<?> expectedDefinition = theDefinition;
+		for (int i = 0; i < theParts.size(); i++) {
+			String name = theParts.get(i);
+			if (name.startsWith("extension('")) {
+				mySteps[i] = new ExtensionStep(extractExtensionUrl(name, "extension('"), false, dstu2);
+				expectedDefinition = null;
+			} else if (name.startsWith("modifierExtension('")) {
+				mySteps[i] = new ExtensionStep(extractExtensionUrl(name, "modifierExtension('"), true, dstu2);
+				expectedDefinition = null;
+			} else {
+				ChildStep step = new ChildStep(theContext, name);
+				if (expectedDefinition instanceof BaseRuntimeElementCompositeDefinition) {
+					BaseRuntimeElementCompositeDefinition<?> compositeDefinition =
+							(BaseRuntimeElementCompositeDefinition<?>) expectedDefinition;
+					// The first child must exist, the same as when evaluating the path without compiling it
+					BaseRuntimeChildDefinition child = i == 0
+							? compositeDefinition.getChildByNameOrThrowDataFormatException(name)
+							: compositeDefinition.getChildByName(name);
+					if (child != null) {
+						step.myLastResolved = new ResolvedChild(compositeDefinition.getImplementingClass(), child);
+						// The type of a wildcard choice is not known until the path is evaluated
+						expectedDefinition = step.myAllChoiceTypes ? null : child.getChildByName(name);
+					} else {
+						expectedDefinition = null;
+					}
+				} else {
+					expectedDefinition = null;
+				}
+				mySteps[i] = step;
+			}
+		}
+	}
+
+	/**
+	 * Returns the element definition that this path was compiled for
+	 */
+	@Nonnull
+	public BaseRuntimeElementCompositeDefinition<?> getDefinition() {
+		return myDefinition;
+	}
+
+	/**
+	 * Returns the path that was compiled
+	 */
+	@Nonnull
+	public String getPath() {
+		return myPath;
+	}
+
+	/**
+	 * Returns the values found at this path within the given element
+	 *
+	 * @param theElement The element to be accessed. Must be an instance of the type that this path was compiled for.
+	 */
+	@Nonnull
+	public List<IBase> getValues(@Nonnull IBase theElement) {
+		return getValues(theElement, IBase.class);
+	}
+
+	/**
+	 * Returns the values found at this path within the given element which are an instance of
+	 * <code>theWantedClass</code>
+	 *
+	 * @param theElement     The element to be accessed. Must be an instance of the type that this path was compiled for.
+	 * @param theWantedClass The desired class to be returned in a list.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nonnull
+	public <T extends IBase> List<T> getValues(@Nonnull IBase theElement, @Nonnull Class<T> theWantedClass) {
+		Validate.notNull(theElement, "theElement must not be null");
+		if (mySteps.length == 0) {
+			return Collections.emptyList();
+		}
+
+		List<IBase> current = Collections.singletonList(theElement);
+		for (int i = 0; i < mySteps.length; i++) {
+			boolean last = i == mySteps.length - 1;
+			List<IBase> next = new ArrayList<>();
+			for (IBase nextElement : current) {
+				mySteps[i].collectValues(nextElement, next, theWantedClass, last);
+			}
+			if (next.isEmpty()) {
+				return Collections.emptyList();
+			}
+			current = next;
+		}
+		return (List<T>) current;
+	}
+
+	/**
+	 * Returns the first value found at this path within the given element which is an instance of
+	 * <code>theWantedClass</code>, or <code>null</code> if there is none
+	 *
+	 * @param theElement     The element to be accessed. Must be an instance of the type that this path was compiled for.
+	 * @param theWantedClass The desired class to be returned.
+	 */
+	@Nullable
+	public <T extends IBase> T getSingleValueOrNull(@Nonnull IBase theElement, @Nonnull Class<T> theWantedClass) {
+		List<T> values = getValues(theElement, theWantedClass);
+		if (values.isEmpty()) {
+			return null;
+		}
+		return values.get(0);
+	}
+
+	@Override
+	public String toString() {
+		return myDefinition.getName() + ":" + myPath;
+	}
+
+	private static String extractExtensionUrl(String theName, String thePrefix) {
+		String retVal = theName.substring(thePrefix.length());
+		int endIndex = retVal.indexOf('\'');
+		if (endIndex != -1) {
+			retVal = retVal.substring(0, endIndex);
+		}
+		return retVal;
+	}
+
+	private abstract static class Step {
+
+		/**
+		 * Adds the values of this step within <code>theElement</code> to <code>theValues</code>
+		 */
+		abstract void collectValues(
+				IBase theElement, List<IBase> theValues, Class<? extends IBase> theWantedClass, boolean theLast);
+	}
+
+	/**
+	 * The definition of a child, which was resolved for a specific element type
+	 */
+	private static class ResolvedChild {
+		private final Class<?> myElementType;
+		private final BaseRuntimeChildDefinition myChild;
+
+		private ResolvedChild(Class<?> theElementType, BaseRuntimeChildDefinition theChild) {
+			myElementType = theElementType;
+			myChild = theChild;
+		}
+	}
+
+	private static class ChildStep extends Step {
+		private final FhirContext myContext;
+		private final String myName;
+		private final boolean myAllChoiceTypes;
+
+		/**
+		 * The most recently resolved child definition. Paths are almost always evaluated against
+		 * elements of the same type, so this avoids looking up the definitions on each call. This
+		 * is replaced (never modified) so it is safe to share between threads.
+		 */
+		private volatile ResolvedChild myLastResolved;
+
+		private ChildStep(FhirContext theContext, String theName) {
+			myContext = theContext;
+			myName = theName;
+			myAllChoiceTypes = theName.endsWith("[x]");
+		}
+
+		@Override
+		void collectValues(
+				IBase theElement, List<IBase> theValues, Class<? extends IBase> theWantedClass, boolean theLast) {
+			BaseRuntimeChildDefinition child = resolveChild(theElement);
+			List<? extends IBase> values = child.getAccessor().getValues(theElement);
+			boolean choice = child instanceof RuntimeChildChoiceDefinition && !myAllChoiceTypes;
+			for (IBase next : values) {
+				if (next == null) {
+					continue;
+				}
+				if (choice && !myName.equals(child.getChildNameByDatatype(next.getClass()))) {
+					continue;
+				}
+				if (theLast && !theWantedClass.isAssignableFrom(next.getClass())) {
+					continue;
+				}
+				theValues.add(next);
+			}
+		}
+
+		private BaseRuntimeChildDefinition resolveChild(IBase theElement) {
+			ResolvedChild resolved = myLastResolved;
+			if (resolved == null || resolved.myElementType != theElement.getClass()) {
+				BaseRuntimeElementCompositeDefinition<?> definition = (BaseRuntimeElementCompositeDefinition<?>)
+						myContext.getElementDefinition(theElement.getClass());
+				BaseRuntimeChildDefinition child = definition.getChildByNameOrThrowDataFormatException(myName);
+				resolved = new ResolvedChild(theElement.getClass(), child);
+				myLastResolved = resolved;
+			}
+			return resolved.myChild;
+		}
+	}
+
+	private static class ExtensionStep extends Step {
+		private final String myUrl;
+		private final boolean myModifier;
+		private final boolean myDstu2;
+
+		private ExtensionStep(String theUrl, boolean theModifier, boolean theDstu2) {
+			myUrl = theUrl;
+			myModifier = theModifier;
+			myDstu2 = theDstu2;
+		}
+
+		@Override
+		void collectValues(
+				IBase theElement, List<IBase> theValues, Class<? extends IBase> theWantedClass, boolean theLast) {
+			if (myDstu2) {
+				if (theElement instanceof ISupportsUndeclaredExtensions) {
+					ISupportsUndeclaredExtensions element = (ISupportsUndeclaredExtensions) theElement;
+					List<ExtensionDt> extensions =
+							myModifier ? element.getUndeclaredModifierExtensions() : element.getUndeclaredExtensions();
+					for (ExtensionDt next : extensions) {
+						if (myUrl.equals(next.getUrl())) {
+							addIfWanted(next, theValues, theWantedClass);
+						}
+					}
+				} else if (theElement instanceof IBaseExtension) {
+					for (Object next : ((IBaseExtension<?, ?>) theElement).getExtension()) {
+						addIfWanted((IBase) next, theValues, theWantedClass);
+					}
+				}
+			} else if (myModifier) {
+				if (theElement instanceof IBaseHasModifierExtensions) {
+					for (IBaseExtension<?, ?> next : ((IBaseHasModifierExtensions) theElement).getModifierExtension()) {
+						if (myUrl.equals(next.getUrl())) {
+							addIfWanted(next, theValues, theWantedClass);
+						}
+					}
+				}
+			} else if (theElement instanceof IBaseHasExtensions) {
+				for (IBaseExtension<?, ?> next : ((IBaseHasExtensions) theElement).getExtension()) {
+					if (myUrl.equals(next.getUrl())) {
+						addIfWanted(next, theValues, theWantedClass);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Note that extensions are filtered by the wanted class even if they are not the last
+		 * step of the path, which matches the behaviour of {@link FhirTerser#getValues(IBase, String, Class)}
+		 */
+		private static void addIfWanted(IBase theValue, List<IBase> theValues, Class<? extends IBase> theWantedClass) {
+			if (theWantedClass.isAssignableFrom(theValue.getClass())) {
+				theValues.add(theValue);
+			}
+		}
+	}
+}
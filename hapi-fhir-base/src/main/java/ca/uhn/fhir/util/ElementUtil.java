@@ -85,9 +85,7 @@ public class ElementUtil {
 				next = theElements.get(i);
 			} catch (ClassCastException e) {
 				List<?> elements = theElements;
-				String s = "Found instance of " + elements.get(i).getClass()
-						+ " - Did you set a field value to the incorrect type? Expected " + IBase.class.getName();
-				throw new ClassCastException(Msg.code(1748) + s);
+				throw newInvalidElementTypeException(elements.get(i));
 			}
 			if (next != null && !next.isEmpty()) {
 				return false;
@@ -96,6 +94,16 @@ public class ElementUtil {
 		return true;
 	}
 
+	/**
+	 * Creates the exception thrown when a field which should contain model elements
+	 * contains an object of another type
+	 */
+	static ClassCastException newInvalidElementTypeException(Object theValue) {
+		String s = "Found instance of " + theValue.getClass()
+				+ " - Did you set a field value to the incorrect type? Expected " + IBase.class.getName();
+		return new ClassCastException(Msg.code(1748) + s);
+	}
+
 	/**
 	 * Note that this method does not work on HL7.org structures
 	 */
@@ -28,6 +28,7 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
 import ca.uhn.fhir.context.RuntimeChildDirectResource;
+import ca.uhn.fhir.context.RuntimeChildPrimitiveDatatypeDefinition;
 import ca.uhn.fhir.context.RuntimeExtensionDtDefinition;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.context.RuntimeSearchParam;
@@ -400,13 +401,7 @@ public class FhirTerser {
 
 		BaseRuntimeElementCompositeDefinition<?> currentDef = (BaseRuntimeElementCompositeDefinition<?>) def;
 
-		List<String> parts = parsePath(currentDef, thePath);
-
-		List<T> retVal = getValues(currentDef, theTarget, parts, theWantedType);
-		if (retVal.isEmpty()) {
-			return null;
-		}
-		return retVal.get(0);
+		return getCompiledPath(currentDef, thePath).getSingleValueOrNull(theTarget, theWantedType);
 	}
 
 	public Optional<String> getSinglePrimitiveValue(IBase theTarget, String thePath) {
@@ -757,8 +752,7 @@ public class FhirTerser {
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass);
+		return getCompiledPath(def, thePath).getValues(theElement, theWantedClass);
 	}
 
 	/**
@@ -774,10 +768,7 @@ public class FhirTerser {
 	 */
 	public <T extends IBase> List<T> getValues(
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate) {
-		BaseRuntimeElementCompositeDefinition<?> def =
-				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, false);
+		return getValues(theElement, thePath, theWantedClass, theCreate, false);
 	}
 
 	/**
@@ -796,10 +787,65 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+		if (!theCreate && !theAddExtension) {
+			return getCompiledPath(def, thePath).getValues(theElement, theWantedClass);
+		}
 		List<String> parts = parsePath(def, thePath);
 		return getValues(def, theElement, parts, theWantedClass, theCreate, theAddExtension);
 	}
 
+	/**
+	 * Parses and resolves a path against the definitions of the given resource type, returning
+	 * an object which can be used to repeatedly fetch the values at that path from resources of
+	 * that type. This is useful when the same path is going to be evaluated against a large
+	 * number of resources. Compiled paths are immutable and may be shared between threads.
+	 *
+	 * @param theResourceType The resource type, e.g. <code>"Patient"</code>
+	 * @param thePath         The path, e.g. <code>"Patient.name.given"</code> or <code>"name.given"</code>
+	 * @since 7.6.0
+	 */
+	public CompiledTerserPath compile(String theResourceType, String thePath) {
+		Validate.notBlank(theResourceType, "theResourceType must not be blank");
+		Validate.notBlank(thePath, "thePath must not be blank");
+		return getCompiledPath(myContext.getResourceDefinition(theResourceType), thePath);
+	}
+
+	/**
+	 * Parses and resolves a path against the definitions of the given element type, returning
+	 * an object which can be used to repeatedly fetch the values at that path from elements of
+	 * that type. This is useful when the same path is going to be evaluated against a large
+	 * number of elements. Compiled paths are immutable and may be shared between threads.
+	 *
+	 * @param theElementType The element type, which must be a resource or a composite type
+	 * @param thePath        The path, e.g. <code>"name.given"</code>
+	 * @since 7.6.0
+	 */
+	public CompiledTerserPath compile(Class<? extends IBase> theElementType, String thePath) {
+		Validate.notNull(theElementType, "theElementType must not be null");
+		Validate.notBlank(thePath, "thePath must not be blank");
+		BaseRuntimeElementDefinition<?> def = myContext.getElementDefinition(theElementType);
+		if (!(def instanceof BaseRuntimeElementCompositeDefinition)) {
+			throw new IllegalArgumentException(
+					Msg.code(2553) + "Element type is not a composite type: " + theElementType.getName());
+		}
+		return getCompiledPath((BaseRuntimeElementCompositeDefinition<?>) def, thePath);
+	}
+
+	/**
+	 * Compiled paths are cached on the element definition rather than on this object, since a
+	 * new terser is typically created for each use
+	 */
+	private CompiledTerserPath getCompiledPath(BaseRuntimeElementCompositeDefinition<?> theDef, String thePath) {
+		Map<String, CompiledTerserPath> cache = theDef.getTerserPathCache();
+		CompiledTerserPath retVal = cache.get(thePath);
+		if (retVal == null) {
+			List<String> parts = parsePath(theDef, thePath);
+			retVal = new CompiledTerserPath(myContext, theDef, thePath, parts);
+			cache.put(thePath, retVal);
+		}
+		return retVal;
+	}
+
 	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
 		List<String> parts = new ArrayList<>();
 
@@ -1417,7 +1463,24 @@ public class FhirTerser {
 
 	private void containResourcesForEncoding(
 			ContainedResources theContained, IBaseResource theResource, boolean theModifyResource) {
-		List<IBaseReference> allReferences = getAllPopulatedChildElementsOfType(theResource, IBaseReference.class);
+		List<IBaseReference> allReferences;
+		if (theContained.hasExistingIdToContainedResource()) {
+			allReferences = getAllPopulatedChildElementsOfType(theResource, IBaseReference.class);
+		} else {
+			/*
+			 * Only references with a target resource attached can lead to anything being contained
+			 * below, so we use a cheaper scan which collects only those. Resources which have
+			 * been parsed or loaded from storage typically have none, in which case there is
+			 * nothing more to do.
+			 */
+			allReferences = new ArrayList<>();
+			findReferencesWithAttachedResource(
+					theResource, myContext.getResourceDefinition(theResource), newMap(), allReferences);
+			if (allReferences.isEmpty()) {
+				return;
+			}
+		}
+
 		for (IBaseReference next : allReferences) {
 			IBaseResource resource = next.getResource();
 			if (resource == null && next.getReferenceElement().isLocal()) {
@@ -1456,6 +1519,101 @@ public class FhirTerser {
 		}
 	}
 
+	/**
+	 * Collects all references with a target resource attached (i.e. {@link IBaseReference#getResource()}
+	 * is not null) within an element, in the same order and with the same scope as
+	 * {@link #getAllPopulatedChildElementsOfType(IBaseResource, Class)}. This avoids building the path
+	 * to each element and checking every element for emptiness, which makes it considerably cheaper
+	 * than a full visit for resources which contain no such references.
+	 */
+	private void findReferencesWithAttachedResource(
+			IBase theElement,
+			BaseRuntimeElementDefinition<?> theDefinition,
+			Map<Object, Object> theStack,
+			List<IBaseReference> theReferences) {
+		if (theStack.put(theElement, theElement) != null) {
+			return;
+		}
+
+		BaseRuntimeElementDefinition<?> def = theDefinition;
+		if (def.getChildType() == ChildTypeEnum.CONTAINED_RESOURCE_LIST) {
+			def = myContext.getElementDefinition(theElement.getClass());
+		}
+
+		if (theElement instanceof IBaseReference) {
+			IBaseReference reference = (IBaseReference) theElement;
+			IBaseResource target = reference.getResource();
+			if (target != null && !reference.isEmpty()) {
+				theReferences.add(reference);
+				if (!target.getIdElement().hasIdPart() || target.getIdElement().isLocal()) {
+					findReferencesWithAttachedResource(
+							target, myContext.getResourceDefinition(target), theStack, theReferences);
+				}
+			}
+		}
+
+		switch (def.getChildType()) {
+			case RESOURCE:
+			case RESOURCE_BLOCK:
+			case COMPOSITE_DATATYPE: {
+				BaseRuntimeElementCompositeDefinition<?> childDef = (BaseRuntimeElementCompositeDefinition<?>) def;
+				for (BaseRuntimeChildDefinition nextChild : childDef.getChildrenAndExtension()) {
+					if (nextChild instanceof RuntimeChildDirectResource) {
+						// Don't descend into embedded resources
+						continue;
+					}
+					if (nextChild instanceof RuntimeChildPrimitiveDatatypeDefinition) {
+						// Primitives can't contain references, so don't even read the values
+						continue;
+					}
+					List<?> values = nextChild.getAccessor().getValues(theElement);
+					for (Object nextValueObject : values) {
+						if (nextValueObject == null) {
+							continue;
+						}
+						if (!(nextValueObject instanceof IBase)) {
+							throw ElementUtil.newInvalidElementTypeException(nextValueObject);
+						}
+						IBase nextValue = (IBase) nextValueObject;
+						BaseRuntimeElementDefinition<?> childElementDef =
+								nextChild.getChildElementDefinitionByDatatype(nextValue.getClass());
+						if (childElementDef == null) {
+							childElementDef = myContext.getElementDefinition(nextValue.getClass());
+						}
+						if (childElementDef != null && !isPrimitive(childElementDef)) {
+							findReferencesWithAttachedResource(nextValue, childElementDef, theStack, theReferences);
+						}
+					}
+				}
+				break;
+			}
+			case CONTAINED_RESOURCES: {
+				for (IResource next : ((BaseContainedDt) theElement).getContainedResources()) {
+					findReferencesWithAttachedResource(
+							next, myContext.getResourceDefinition(next), theStack, theReferences);
+				}
+				break;
+			}
+			default:
+				// Primitives can't contain references
+				break;
+		}
+
+		theStack.remove(theElement);
+	}
+
+	private static boolean isPrimitive(BaseRuntimeElementDefinition<?> theDefinition) {
+		switch (theDefinition.getChildType()) {
+			case ID_DATATYPE:
+			case PRIMITIVE_XHTML_HL7ORG:
+			case PRIMITIVE_XHTML:
+			case PRIMITIVE_DATATYPE:
+				return true;
+			default:
+				return false;
+		}
+	}
+
 	/**
 	 * Iterate through the whole resource and identify any contained resources. Optionally this method
 	 * can also assign IDs and modify references where the resource link has been specified but not the
@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+/**
+ * Utilities for <b>pre-encoded resources</b>. A pre-encoded resource is a resource model
+ * instance which only has its ID and <code>Resource.meta</code> populated, and which carries the
+ * remaining elements in their already encoded JSON form. Storage modules can return pre-encoded
+ * resources so that a resource which was stored as JSON can be written to a JSON response without
+ * being parsed and encoded again: the {@link ca.uhn.fhir.parser.JsonParser} writes the ID and
+ * metadata from the model, followed by the encoded elements.
+ * <p>
+ * Anything other than a JSON parser which encodes every element (for example an XML parser, or a
+ * JSON parser using summary mode or element filtering) first {@link #inflate(FhirContext, IBaseResource) inflates}
+ * the resource, meaning that the encoded elements are parsed into the model.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class PreEncodedResourceUtil {
+
+	private static final String USER_DATA_KEY = PreEncodedResourceUtil.class.getName() + "_ENCODED_ELEMENTS";
+
+	private PreEncodedResourceUtil() {
+		// non-instantiable
+	}
+
+	/**
+	 * Extracts the elements from an encoded JSON resource, in a form which can be passed to
+	 * {@link #setPreEncodedElements(IBaseResource, String)}. Returns <code>null</code> if the
+	 * given JSON is not compact JSON for the given resource type, or if it contains
+	 * <code>Resource.id</code> or <code>Resource.meta</code> (which must come from the model).
+	 *
+	 * @param theResourceType The resource type, e.g. <code>Patient</code>
+	 * @param theEncodedJson  The complete resource, encoded as compact JSON
+	 */
+	@Nullable
+	public static String extractElements(@Nonnull String theResourceType, @Nonnull String theEncodedJson) {
+		String prefix = "{\"resourceType\":\"" + theResourceType + "\"";
+		if (!theEncodedJson.startsWith(prefix)
+				|| theEncodedJson.length() <= prefix.length()
+				|| theEncodedJson.charAt(theEncodedJson.length() - 1) != '}') {
+			return null;
+		}
+
+		char next = theEncodedJson.charAt(prefix.length());
+		if (next == '}') {
+			return theEncodedJson.length() == prefix.length() + 1 ? "" : null;
+		}
+		if (next != ',') {
+			return null;
+		}
+
+		String retVal = theEncodedJson.substring(prefix.length() + 1, theEncodedJson.length() - 1);
+		if (retVal.startsWith("\"id\":") || retVal.startsWith("\"_id\":") || retVal.startsWith("\"meta\":")) {
+			return null;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Marks a resource as pre-encoded
+	 *
+	 * @param theResource        The resource, which should have no elements other than its ID and metadata populated
+	 * @param theEncodedElements The encoded elements, as returned by {@link #extractElements(String, String)}
+	 */
+	public static void setPreEncodedElements(@Nonnull IBaseResource theResource, @Nonnull String theEncodedElements) {
+		theResource.setUserData(USER_DATA_KEY, theEncodedElements);
+	}
+
+	/**
+	 * Returns the encoded elements for a pre-encoded resource, or <code>null</code> if the
+	 * resource is not pre-encoded
+	 */
+	@Nullable
+	public static String getPreEncodedElements(@Nonnull IBaseResource theResource) {
+		return (String) theResource.getUserData(USER_DATA_KEY);
+	}
+
+	/**
+	 * If the given resource is pre-encoded, parses the encoded elements into it so that it becomes
+	 * a regular resource. The resource ID, metadata and user data are kept. Does nothing if the
+	 * resource is not pre-encoded.
+	 */
+	public static void inflate(@Nonnull FhirContext theContext, @Nonnull IBaseResource theResource) {
+		String encodedElements = getPreEncodedElements(theResource);
+		if (encodedElements == null) {
+			return;
+		}
+
+		RuntimeResourceDefinition resourceDef = theContext.getResourceDefinition(theResource);
+		StringBuilder json = new StringBuilder(encodedElements.length() + 40);
+		json.append("{\"resourceType\":\"").append(resourceDef.getName()).append('"');
+		if (!encodedElements.isEmpty()) {
+			json.append(',').append(encodedElements);
+		}
+		json.append('}');
+		IBaseResource parsed = theContext.newJsonParser().parseResource(theResource.getClass(), json.toString());
+
+		for (BaseRuntimeChildDefinition nextChild : resourceDef.getChildren()) {
+			String name = nextChild.getElementName();
+			if ("id".equals(name) || "meta".equals(name)) {
+				continue;
+			}
+			for (IBase nextValue : nextChild.getAccessor().getValues(parsed)) {
+				nextChild.getMutator().addValue(theResource, nextValue);
+			}
+		}
+
+		theResource.setUserData(USER_DATA_KEY, null);
+	}
+
+	/**
+	 * Inflates the given resource and, if it is a Bundle, any pre-encoded entry resources
+	 *
+	 * @see #inflate(FhirContext, IBaseResource)
+	 */
+	public static void inflateResourceAndBundleEntries(
+			@Nonnull FhirContext theContext, @Nonnull IBaseResource theResource) {
+		inflate(theContext, theResource);
+		if (theResource instanceof IBaseBundle) {
+			for (IBaseResource next : BundleUtil.toListOfResources(theContext, (IBaseBundle) theResource)) {
+				inflate(theContext, next);
+			}
+		}
+	}
+}
@@ -19,7 +19,10 @@
  */
 package ca.uhn.fhir.validation;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
@@ -27,9 +30,11 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.TerserUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
 import ca.uhn.fhir.validation.schematron.SchematronProvider;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
@@ -41,8 +46,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -62,12 +67,14 @@ public class FhirValidator {
 	private static final Logger ourLog = LoggerFactory.getLogger(FhirValidator.class);
 
 	private static final String I18N_KEY_NO_PH_ERROR = FhirValidator.class.getName() + ".noPhError";
+	private static final Pattern ENTRY_RESOURCE_LOCATION = Pattern.compile("Bundle\\.entry\\[[0-9]+]\\.resource");
 
 	private static volatile Boolean ourPhPresentOnClasspath;
 	private final FhirContext myContext;
 	private List<IValidatorModule> myValidators = new ArrayList<>();
 	private IInterceptorBroadcaster myInterceptorBroadcaster;
 	private boolean myConcurrentBundleValidation;
+	private boolean myConcurrentBundleStructureValidation;
 	private boolean mySkipContainedReferenceValidation;
 
 	private ExecutorService myExecutorService;
@@ -278,35 +285,109 @@ public class FhirValidator {
 
 	private ValidationResult validateBundleEntriesConcurrently(
 			IValidationContext<IBaseResource> theValidationContext, ValidationOptions theOptions) {
-		List<IBaseResource> entries =
-				BundleUtil.toListOfResources(myContext, (IBaseBundle) theValidationContext.getResource());
+		IBaseBundle bundle = (IBaseBundle) theValidationContext.getResource();
+		List<BundleEntryParts> entries = BundleUtil.toListOfEntries(myContext, bundle);
+
+		// The Bundle itself is validated once, with placeholders standing in for the entry resources
+		Future<ValidationResult> structureFuture = null;
+		if (myConcurrentBundleStructureValidation) {
+			IBaseBundle placeholderBundle = createBundleWithPlaceholderResources(bundle);
+			structureFuture = myExecutorService.submit(() -> validateResource(ValidationContext.forResource(
+					theValidationContext.getFhirContext(), placeholderBundle, theOptions)));
+		}
+
 		// Async validation tasks
-		List<ConcurrentValidationTask> validationTasks = IntStream.range(0, entries.size())
-				.mapToObj(index -> {
-					IBaseResource resourceToValidate;
-					IBaseResource entry = entries.get(index);
-
-					if (mySkipContainedReferenceValidation) {
-						resourceToValidate = withoutContainedResources(entry);
-					} else {
-						resourceToValidate = entry;
-					}
+		List<ConcurrentValidationTask> validationTasks = new ArrayList<>(entries.size());
+		for (int index = 0; index < entries.size(); index++) {
+			IBaseResource entry = entries.get(index).getResource();
+			if (entry == null) {
+				continue;
+			}
+
+			IBaseResource resourceToValidate;
+			if (mySkipContainedReferenceValidation) {
+				resourceToValidate = withoutContainedResources(entry);
+			} else {
+				resourceToValidate = entry;
+			}
+
+			String entryPathPrefix =
+					String.format("Bundle.entry[%d].resource.ofType(%s)", index, resourceToValidate.fhirType());
+			Future<ValidationResult> future = myExecutorService.submit(() -> {
+				IValidationContext<IBaseResource> entryValidationContext = ValidationContext.forResource(
+						theValidationContext.getFhirContext(), resourceToValidate, theOptions);
+				return validateResource(entryValidationContext);
+			});
+			validationTasks.add(new ConcurrentValidationTask(entryPathPrefix, future));
+		}
 
-					String entryPathPrefix =
-							String.format("Bundle.entry[%d].resource.ofType(%s)", index, resourceToValidate.fhirType());
-					Future<ValidationResult> future = myExecutorService.submit(() -> {
-						IValidationContext<IBaseResource> entryValidationContext = ValidationContext.forResource(
-								theValidationContext.getFhirContext(), resourceToValidate, theOptions);
-						return validateResource(entryValidationContext);
-					});
-					return new ConcurrentValidationTask(entryPathPrefix, future);
-				})
-				.collect(Collectors.toList());
-
-		List<SingleValidationMessage> validationMessages = buildValidationMessages(validationTasks);
+		List<SingleValidationMessage> validationMessages = new ArrayList<>();
+		if (structureFuture != null) {
+			validationMessages.addAll(buildBundleStructureMessages(structureFuture));
+		}
+		validationMessages.addAll(buildValidationMessages(validationTasks));
 		return new ValidationResult(myContext, validationMessages);
 	}
 
+	/**
+	 * Creates a copy of the given Bundle where each entry resource is replaced by an empty
+	 * resource of the same type and with the same ID. All other elements are shared with the
+	 * original Bundle (which is not modified), since they are only read during validation.
+	 */
+	IBaseBundle createBundleWithPlaceholderResources(IBaseBundle theBundle) {
+		RuntimeResourceDefinition bundleDef = myContext.getResourceDefinition(theBundle);
+		IBaseBundle retVal = (IBaseBundle) bundleDef.newInstance();
+		retVal.setId(theBundle.getIdElement());
+
+		for (BaseRuntimeChildDefinition nextChild : bundleDef.getChildren()) {
+			List<IBase> values = nextChild.getAccessor().getValues(theBundle);
+			if (!"entry".equals(nextChild.getElementName())) {
+				for (IBase nextValue : values) {
+					nextChild.getMutator().addValue(retVal, nextValue);
+				}
+				continue;
+			}
+
+			BaseRuntimeElementCompositeDefinition<?> entryDef =
+					(BaseRuntimeElementCompositeDefinition<?>) nextChild.getChildByName("entry");
+			for (IBase nextEntry : values) {
+				IBase entryCopy = entryDef.newInstance();
+				for (BaseRuntimeChildDefinition nextEntryChild : entryDef.getChildren()) {
+					for (IBase nextValue : nextEntryChild.getAccessor().getValues(nextEntry)) {
+						if ("resource".equals(nextEntryChild.getElementName())) {
+							IBaseResource resource = (IBaseResource) nextValue;
+							IBaseResource placeholder =
+									myContext.getResourceDefinition(resource).newInstance();
+							placeholder.setId(resource.getIdElement());
+							nextValue = placeholder;
+						}
+						nextEntryChild.getMutator().addValue(entryCopy, nextValue);
+					}
+				}
+				nextChild.getMutator().addValue(retVal, entryCopy);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the messages from validating the Bundle with placeholder resources, excluding
+	 * any which are located within an entry resource since those are about the placeholders
+	 * (the real resources are validated separately)
+	 */
+	static List<SingleValidationMessage> buildBundleStructureMessages(Future<ValidationResult> theFuture) {
+		try {
+			return theFuture.get().getMessages().stream()
+					.filter(t -> t.getLocationString() == null
+							|| !ENTRY_RESOURCE_LOCATION
+									.matcher(t.getLocationString())
+									.lookingAt())
+					.collect(Collectors.toList());
+		} catch (InterruptedException | ExecutionException exp) {
+			throw new InternalErrorException(Msg.code(2555) + exp);
+		}
+	}
+
 	IBaseResource withoutContainedResources(IBaseResource theEntry) {
 		if (TerserUtil.hasValues(myContext, theEntry, "contained")) {
 			IBaseResource deepCopy = TerserUtil.clone(myContext, theEntry);
@@ -408,6 +489,37 @@ public class FhirValidator {
 		return this;
 	}
 
+	/**
+	 * If this is true (default is false) and {@link #isConcurrentBundleValidation() concurrent bundle validation}
+	 * is enabled, the bundle structure is also validated once, in parallel with the entry resources. Rules which
+	 * apply to the Bundle itself (e.g. the uniqueness of <code>fullUrl</code> values, or the request details of
+	 * transaction entries) are checked using a copy of the Bundle where each entry resource is replaced by an
+	 * empty resource of the same type and ID. Rules which depend on the contents of other entries (e.g. those
+	 * for document and message bundles, or bundle profiles which slice entries by resource profile) may therefore
+	 * report errors which would not be reported when validating the Bundle in a single pass.
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isConcurrentBundleStructureValidation() {
+		return myConcurrentBundleStructureValidation;
+	}
+
+	/**
+	 * If this is true (default is false) and {@link #isConcurrentBundleValidation() concurrent bundle validation}
+	 * is enabled, the bundle structure is also validated once, in parallel with the entry resources. Rules which
+	 * apply to the Bundle itself (e.g. the uniqueness of <code>fullUrl</code> values, or the request details of
+	 * transaction entries) are checked using a copy of the Bundle where each entry resource is replaced by an
+	 * empty resource of the same type and ID. Rules which depend on the contents of other entries (e.g. those
+	 * for document and message bundles, or bundle profiles which slice entries by resource profile) may therefore
+	 * report errors which would not be reported when validating the Bundle in a single pass.
+	 *
+	 * @since 7.6.0
+	 */
+	public FhirValidator setConcurrentBundleStructureValidation(boolean theConcurrentBundleStructureValidation) {
+		myConcurrentBundleStructureValidation = theConcurrentBundleStructureValidation;
+		return this;
+	}
+
 	/**
 	 * If this is true, any resource that has contained resources will first be deep-copied and then the contained
 	 * resources remove from the copy and this copy without contained resources will be validated.
@@ -0,0 +1,81 @@
+package ca.uhn.fhir.interceptor.executor;
+
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.util.StopWatch;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the throughput of {@link InterceptorService#callHooks(Pointcut, HookParams)} when many
+ * threads invoke the same pointcut concurrently, which is the path that used to take the registry
+ * lock on every call. Run with:
+ * <pre>
+ * mvn test -Dtest=InterceptorServicePerfTest
+ * </pre>
+ */
+@Disabled("Performance test")
+public class InterceptorServicePerfTest {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(InterceptorServicePerfTest.class);
+	private static final int PASSES = 5;
+	private static final int INTERCEPTORS = 5;
+	private static final int CALLS_PER_THREAD = 1_000_000;
+
+	@Test
+	public void testCallHooksThroughput() throws Exception {
+		InterceptorService svc = new InterceptorService();
+		AtomicLong invocations = new AtomicLong();
+		for (int i = 0; i < INTERCEPTORS; i++) {
+			IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> invocations.incrementAndGet();
+			svc.registerAnonymousInterceptor(Pointcut.TEST_RB, i, interceptor);
+		}
+
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			for (int pass = 0; pass < PASSES; pass++) {
+				invocations.set(0);
+				HookParams params = new HookParams("A", "B");
+
+				StopWatch sw = new StopWatch();
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < threadCount; i++) {
+					futures.add(executor.submit(() -> {
+						for (int j = 0; j < CALLS_PER_THREAD; j++) {
+							svc.callHooks(Pointcut.TEST_RB, params);
+						}
+					}));
+				}
+				for (Future<?> next : futures) {
+					next.get();
+				}
+
+				long calls = (long) threadCount * CALLS_PER_THREAD;
+				ourLog.info(
+						"Pass {}: {} calls on {} threads in {} ({} calls/sec)",
+						pass,
+						calls,
+						threadCount,
+						sw,
+						sw.formatThroughput(calls, TimeUnit.SECONDS));
+				assertEquals(calls * INTERCEPTORS, invocations.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -115,6 +115,31 @@ public class InterceptorServiceTest {
 		svc.callHooks(Pointcut.TEST_RB, new HookParams("A MESSAGE", "B"));
 	}
 
+	@Test
+	public void testRegisterInterceptorWhileInvokingHooks() {
+
+		InterceptorService svc = new InterceptorService();
+		IAnonymousInterceptor second = (thePointcut, theArgs) -> myInvocations.add("second");
+		IAnonymousInterceptor first = (thePointcut, theArgs) -> {
+			myInvocations.add("first");
+			svc.registerAnonymousInterceptor(Pointcut.TEST_RB, 1, second);
+		};
+		svc.registerAnonymousInterceptor(Pointcut.TEST_RB, 0, first);
+
+		// The interceptor registered during the first call is only invoked by the next one
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations).containsExactly("first");
+
+		svc.unregisterInterceptor(first);
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations).containsExactly("first", "second");
+
+		svc.unregisterInterceptor(second);
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations).containsExactly("first", "second");
+	}
+
 	@Test
 	public void testInterceptorWithDefaultAccessHookMethod() {
 
@@ -28,12 +28,16 @@ import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.PreferReturnEnum;
 import ca.uhn.fhir.rest.api.SearchStyleEnum;
 import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
 import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
 import ca.uhn.fhir.rest.client.exceptions.InvalidResponseException;
 import ca.uhn.fhir.rest.client.impl.RestfulClientFactory;
 import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
 import ca.uhn.fhir.rest.param.DateRangeParam;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.test.utilities.server.HttpServletExtension;
 import ca.uhn.fhir.test.utilities.server.RequestCaptureServlet;
 import org.apache.commons.io.IOUtils;
@@ -46,13 +50,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class GenericOkHttpClientDstu2Test {
@@ -1116,6 +1126,90 @@ public class GenericOkHttpClientDstu2Test {
 		assertEquals("FAM", response.getName().get(0).getFamily().get(0).getValue());
 	}
 
+	@Test
+	public void testReadAsync() throws Exception {
+		Patient patient = new Patient();
+		patient.addName().addFamily("FAM");
+		MY_SERVLET.ourResponseContentType = Constants.CT_FHIR_XML + "; charset=UTF-8";
+		MY_SERVLET.ourResponseBody = ourCtx.newXmlParser().encodeResourceToString(patient);
+
+		IGenericClient client = ourCtx.newRestfulGenericClient(ourServer.getBaseUrl() + "/fhir");
+		List<String> responseThreads = new ArrayList<>();
+		client.registerInterceptor(new IClientInterceptor() {
+			@Override
+			public void interceptRequest(IHttpRequest theRequest) {
+				// nothing
+			}
+
+			@Override
+			public void interceptResponse(IHttpResponse theResponse) {
+				responseThreads.add(Thread.currentThread().getName());
+			}
+		});
+
+		Patient response = client.read().resource(Patient.class).withId("123").executeAsync().get(10, TimeUnit.SECONDS);
+		assertEquals(ourServer.getBaseUrl() + "/fhir/Patient/123", MY_SERVLET.ourRequestUri);
+		assertEquals("FAM", response.getName().get(0).getFamily().get(0).getValue());
+
+		// The response is handled by the OkHttp dispatcher rather than by a thread which waited for it
+		assertThat(responseThreads).hasSize(1);
+		assertThat(responseThreads.get(0)).startsWith("OkHttp");
+	}
+
+	@Test
+	public void testReadAsyncNotFound() {
+		OperationOutcome oo = new OperationOutcome();
+		oo.addIssue().setDiagnostics("NOT FOUND");
+		MY_SERVLET.ourResponseStatus = 404;
+		MY_SERVLET.ourResponseContentType = Constants.CT_FHIR_XML + "; charset=UTF-8";
+		MY_SERVLET.ourResponseBody = ourCtx.newXmlParser().encodeResourceToString(oo);
+
+		IGenericClient client = ourCtx.newRestfulGenericClient(ourServer.getBaseUrl() + "/fhir");
+
+		CompletableFuture<Patient> future = client.read().resource(Patient.class).withId("123").executeAsync();
+		assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasCauseInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	public void testReadAsyncNotModified() throws Exception {
+		MY_SERVLET.ourResponseStatus = 304;
+		MY_SERVLET.ourResponseContentType = Constants.CT_FHIR_XML + "; charset=UTF-8";
+		MY_SERVLET.ourResponseBody = "";
+
+		IGenericClient client = ourCtx.newRestfulGenericClient(ourServer.getBaseUrl() + "/fhir");
+
+		Patient response = client
+			.read()
+			.resource(Patient.class)
+			.withId("123")
+			.ifVersionMatches("1")
+			.returnNull()
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+		assertNull(response);
+		assertEquals("\"1\"", MY_SERVLET.ourRequestFirstHeaders.get(Constants.HEADER_IF_NONE_MATCH).getValue());
+	}
+
+	@Test
+	public void testSearchAsync() throws Exception {
+		MY_SERVLET.ourResponseContentType = Constants.CT_FHIR_XML + "; charset=UTF-8";
+		MY_SERVLET.ourResponseBody = getPatientFeedWithOneResult();
+
+		IGenericClient client = ourCtx.newRestfulGenericClient(ourServer.getBaseUrl() + "/fhir");
+
+		Bundle response = client
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.NAME.matches().value("james"))
+			.returnBundle(Bundle.class)
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+		assertEquals(ourServer.getBaseUrl() + "/fhir/Patient?name=james", MY_SERVLET.ourRequestUri);
+		assertThat(response.getEntry()).hasSize(1);
+	}
+
 	@Test
 	public void testReadUpdatedHeaderDoesntOverwriteResourceValue() throws Exception {
 
@@ -0,0 +1,275 @@
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.impl;
+
+import ca.uhn.fhir.i18n.Msg;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+
+/**
+ * Runs client requests asynchronously on behalf of
+ * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}.
+ * <p>
+ * The number of requests which are in progress for any one host is limited. Requests beyond
+ * that limit are queued (without occupying a thread) and started as earlier requests to the
+ * same host complete, so a large fan-out of requests can not exhaust the connection pool or
+ * the executor for other hosts. The number of queued requests per host is limited too, and
+ * requests beyond that limit are rejected.
+ * </p>
+ * <p>
+ * Requests submitted using {@link #submitNonBlocking(String, Supplier)} only use an executor
+ * thread to start the request, and remain in progress until the future they return completes.
+ * If the HTTP client supports non-blocking requests, no thread is held while the request is
+ * on the wire.
+ * </p>
+ */
+class AsyncRequestDispatcher {
+
+	private static final int THREAD_KEEP_ALIVE_SECONDS = 60;
+	private final Executor myExecutor;
+	private final ThreadPoolExecutor myOwnedExecutor;
+	private final int myMaxRequestsPerHost;
+	private final int myMaxQueuedRequestsPerHost;
+	private final Map<String, HostQueue> myHostQueues = new ConcurrentHashMap<>();
+	private final AtomicInteger myOutstandingRequests = new AtomicInteger();
+	private volatile boolean myShutdown;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theExecutor                 The executor to run requests on, or <code>null</code> to create a pool with
+	 *                                    <code>theMaxThreads</code> daemon threads
+	 * @param theMaxThreads               The maximum number of threads if a pool is created
+	 * @param theMaxRequestsPerHost       The maximum number of requests to a single host which may be in progress at once
+	 * @param theMaxQueuedRequestsPerHost The maximum number of requests to a single host which may be queued
+	 */
+	AsyncRequestDispatcher(
+			Executor theExecutor, int theMaxThreads, int theMaxRequestsPerHost, int theMaxQueuedRequestsPerHost) {
+		Validate.isTrue(theMaxRequestsPerHost > 0, "theMaxRequestsPerHost must be greater than 0");
+		Validate.isTrue(theMaxQueuedRequestsPerHost >= 0, "theMaxQueuedRequestsPerHost must not be negative");
+		myMaxRequestsPerHost = theMaxRequestsPerHost;
+		myMaxQueuedRequestsPerHost = theMaxQueuedRequestsPerHost;
+
+		if (theExecutor != null) {
+			myExecutor = theExecutor;
+			myOwnedExecutor = null;
+		} else {
+			Validate.isTrue(theMaxThreads > 0, "theMaxThreads must be greater than 0");
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(
+					theMaxThreads,
+					theMaxThreads,
+					THREAD_KEEP_ALIVE_SECONDS,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					new BasicThreadFactory.Builder()
+							.namingPattern("hapi-fhir-client-async-%d")
+							.daemon(true)
+							.build());
+			executor.allowCoreThreadTimeOut(true);
+			myExecutor = executor;
+			myOwnedExecutor = executor;
+		}
+	}
+
+	int getMaxRequestsPerHost() {
+		return myMaxRequestsPerHost;
+	}
+
+	int getMaxQueuedRequestsPerHost() {
+		return myMaxQueuedRequestsPerHost;
+	}
+
+	/**
+	 * Schedules a request
+	 *
+	 * @param theServerBase The base URL of the server the request is for
+	 * @param theRequest    The request, which is run on a thread belonging to the executor
+	 */
+	<T> CompletableFuture<T> submit(String theServerBase, Supplier<T> theRequest) {
+		return submitNonBlocking(theServerBase, () -> CompletableFuture.completedFuture(theRequest.get()));
+	}
+
+	/**
+	 * Schedules a request which completes asynchronously
+	 *
+	 * @param theServerBase The base URL of the server the request is for
+	 * @param theRequest    Starts the request, and is run on a thread belonging to the executor. The request
+	 *                      counts as in progress until the future this returns is complete.
+	 */
+	<T> CompletableFuture<T> submitNonBlocking(String theServerBase, Supplier<CompletableFuture<T>> theRequest) {
+		CompletableFuture<T> retVal = new CompletableFuture<>();
+		if (myShutdown) {
+			retVal.completeExceptionally(new RejectedExecutionException(
+					Msg.code(2561) + "The asynchronous request dispatcher has been shut down"));
+			return retVal;
+		}
+		String host = toHost(theServerBase);
+		HostQueue queue = myHostQueues.computeIfAbsent(host, t -> new HostQueue());
+		queue.submit(host, new QueuedRequest<>(theRequest, retVal));
+		return retVal;
+	}
+
+	/**
+	 * Stops accepting new requests. Requests which have already been accepted still run, and if
+	 * the executor was created by this dispatcher, it is shut down once they have completed so
+	 * that its threads do not linger.
+	 */
+	void shutdown() {
+		myShutdown = true;
+		shutdownExecutorIfIdle();
+	}
+
+	boolean isTerminated() {
+		return myOwnedExecutor == null || myOwnedExecutor.isTerminated();
+	}
+
+	private void requestFinished() {
+		if (myOutstandingRequests.decrementAndGet() == 0) {
+			shutdownExecutorIfIdle();
+		}
+	}
+
+	private void shutdownExecutorIfIdle() {
+		if (myShutdown && myOwnedExecutor != null && myOutstandingRequests.get() == 0) {
+			myOwnedExecutor.shutdown();
+		}
+	}
+
+	static String toHost(String theServerBase) {
+		try {
+			return defaultIfBlank(URI.create(theServerBase).getAuthority(), theServerBase);
+		} catch (IllegalArgumentException e) {
+			return theServerBase;
+		}
+	}
+
+	private static class QueuedRequest<T> {
+		private final Supplier<CompletableFuture<T>> myRequest;
+		private final CompletableFuture<T> myFuture;
+
+		private QueuedRequest(Supplier<CompletableFuture<T>> theRequest, CompletableFuture<T> theFuture) {
+			myRequest = theRequest;
+			myFuture = theFuture;
+		}
+
+		/**
+		 * Starts the request, and calls the given callback once it is complete
+		 */
+		private void run(Runnable theOnComplete) {
+			// The caller may have cancelled the request while it was queued
+			if (myFuture.isDone()) {
+				theOnComplete.run();
+				return;
+			}
+			CompletableFuture<T> response;
+			try {
+				response = myRequest.get();
+			} catch (Throwable t) {
+				myFuture.completeExceptionally(t);
+				theOnComplete.run();
+				return;
+			}
+			response.whenComplete((theResult, theError) -> {
+				try {
+					if (theError != null) {
+						myFuture.completeExceptionally(
+								theError instanceof CompletionException && theError.getCause() != null
+										? theError.getCause()
+										: theError);
+					} else {
+						myFuture.complete(theResult);
+					}
+				} finally {
+					theOnComplete.run();
+				}
+			});
+		}
+
+		private void fail(Throwable theThrowable) {
+			myFuture.completeExceptionally(theThrowable);
+		}
+	}
+
+	private class HostQueue {
+		private final Deque<QueuedRequest<?>> myPending = new ArrayDeque<>();
+		private int myInProgress;
+
+		private void submit(String theHost, QueuedRequest<?> theRequest) {
+			synchronized (this) {
+				if (myInProgress >= myMaxRequestsPerHost) {
+					if (myPending.size() >= myMaxQueuedRequestsPerHost) {
+						theRequest.fail(
+								new RejectedExecutionException(Msg.code(2562) + "Too many requests queued for host "
+										+ theHost + " (limit is " + myMaxQueuedRequestsPerHost + ")"));
+						return;
+					}
+					myOutstandingRequests.incrementAndGet();
+					myPending.add(theRequest);
+					return;
+				}
+				myOutstandingRequests.incrementAndGet();
+				myInProgress++;
+			}
+			start(theRequest);
+		}
+
+		private void start(QueuedRequest<?> theRequest) {
+			try {
+				myExecutor.execute(() -> theRequest.run(() -> {
+					requestFinished();
+					startNext();
+				}));
+			} catch (RuntimeException e) {
+				theRequest.fail(e);
+				requestFinished();
+				startNext();
+			}
+		}
+
+		private void startNext() {
+			QueuedRequest<?> next;
+			synchronized (this) {
+				next = myPending.poll();
+				if (next == null) {
+					myInProgress--;
+					return;
+				}
+			}
+			start(next);
+		}
+	}
+}
@@ -36,6 +36,7 @@ import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.RequestFormatParamStyleEnum;
 import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.client.api.ClientRequestContext;
 import ca.uhn.fhir.rest.client.api.ClientResponseContext;
 import ca.uhn.fhir.rest.client.api.IHttpClient;
 import ca.uhn.fhir.rest.client.api.IHttpRequest;
@@ -80,6 +81,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -100,6 +104,7 @@ public abstract class BaseClient implements IRestfulClient {
 	private SummaryEnum mySummary;
 	private RequestFormatParamStyleEnum myRequestFormatParamStyle = RequestFormatParamStyleEnum.SHORT;
 	private IInterceptorService myInterceptorService;
+	private AsyncRequestDispatcher myAsyncRequestDispatcher;
 
 	BaseClient(IHttpClient theClient, String theUrlBase, RestfulClientFactory theFactory) {
 		super();
@@ -134,6 +139,26 @@ public abstract class BaseClient implements IRestfulClient {
 		myInterceptorService = theInterceptorService;
 	}
 
+	/**
+	 * Returns the dispatcher for asynchronous requests, which is shared with other clients
+	 * created by the same factory
+	 */
+	AsyncRequestDispatcher getAsyncRequestDispatcher() {
+		if (myFactory != null) {
+			return myFactory.getAsyncRequestDispatcher();
+		}
+		synchronized (this) {
+			if (myAsyncRequestDispatcher == null) {
+				myAsyncRequestDispatcher = new AsyncRequestDispatcher(
+						null,
+						IRestfulClientFactory.DEFAULT_POOL_MAX,
+						IRestfulClientFactory.DEFAULT_POOL_MAX_PER_ROUTE,
+						IRestfulClientFactory.DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST);
+			}
+			return myAsyncRequestDispatcher;
+		}
+	}
+
 	protected Map<String, List<String>> createExtraParams(String theCustomAcceptHeader) {
 		HashMap<String, List<String>> retVal = new LinkedHashMap<>();
 
@@ -255,6 +280,7 @@ public abstract class BaseClient implements IRestfulClient {
 				null);
 	}
 
+	@SuppressWarnings("unchecked")
 	protected <T> T invokeClient(
 			FhirContext theContext,
 			IClientResponseHandler<T> binding,
@@ -275,87 +301,231 @@ public abstract class BaseClient implements IRestfulClient {
 		// TODO: handle non 2xx status codes by throwing the correct exception,
 		// and ensure it's passed upwards
 		IHttpRequest httpRequest = null;
-		IHttpResponse response = null;
 		try {
-			Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
-
-			if (clientInvocation instanceof HttpGetClientInvocation) {
-				if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
-					if (theEncoding == EncodingEnum.XML) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
-					} else if (theEncoding == EncodingEnum.JSON) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
-					}
-				}
+			Class<? extends IBaseResource> returnType = getReturnType(binding);
+			ClientRequestContext requestContext = createHttpRequest(
+					clientInvocation,
+					theEncoding,
+					thePrettyPrint,
+					theLogRequestAndResponse,
+					theSummaryMode,
+					theSubsetElements,
+					theCacheControlDirective,
+					theCustomAcceptHeader,
+					theCustomHeaders,
+					returnType);
+			httpRequest = requestContext.getHttpRequest();
+
+			IBaseResource suppliedResource = getSuppliedResource(requestContext);
+			if (suppliedResource != null) {
+				return (T) suppliedResource;
 			}
 
-			if (theSummaryMode != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
-			} else if (mySummary != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
-			}
+			IHttpResponse response = httpRequest.execute();
 
-			if (thePrettyPrint == Boolean.TRUE) {
-				params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
-			}
+			return handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse);
+		} catch (Exception e) {
+			throw toClientException(e, httpRequest);
+		}
+	}
 
-			if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
-				params.put(
-						Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
-			}
+	/**
+	 * Asynchronous equivalent of {@link #invokeClient(FhirContext, IClientResponseHandler, BaseHttpClientInvocation, EncodingEnum, Boolean, boolean, SummaryEnum, Set, CacheControlDirective, String, Map)}.
+	 * The request is built and the {@link Pointcut#CLIENT_REQUEST} hooks are called on the calling thread,
+	 * and the request is then sent using {@link IHttpRequest#executeAsync()}. If the HTTP client supports
+	 * non-blocking requests, the response is handled on the thread which completes the request.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> CompletableFuture<T> invokeClientAsync(
+			FhirContext theContext,
+			IClientResponseHandler<T> binding,
+			BaseHttpClientInvocation clientInvocation,
+			EncodingEnum theEncoding,
+			Boolean thePrettyPrint,
+			boolean theLogRequestAndResponse,
+			SummaryEnum theSummaryMode,
+			Set<String> theSubsetElements,
+			CacheControlDirective theCacheControlDirective,
+			String theCustomAcceptHeader,
+			Map<String, List<String>> theCustomHeaders) {
 
-			EncodingEnum encoding = getEncoding();
-			if (theEncoding != null) {
-				encoding = theEncoding;
+		IHttpRequest httpRequest;
+		try {
+			if (!myDontValidateConformance) {
+				myFactory.validateServerBaseIfConfiguredToDoSo(myUrlBase, myClient, this);
 			}
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		IBaseResource suppliedResource;
+		try {
+			ClientRequestContext requestContext = createHttpRequest(
+					clientInvocation,
+					theEncoding,
+					thePrettyPrint,
+					theLogRequestAndResponse,
+					theSummaryMode,
+					theSubsetElements,
+					theCacheControlDirective,
+					theCustomAcceptHeader,
+					theCustomHeaders,
+					getReturnType(binding));
+			httpRequest = requestContext.getHttpRequest();
+			suppliedResource = getSuppliedResource(requestContext);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(toClientException(e, null));
+		}
+		if (suppliedResource != null) {
+			return CompletableFuture.completedFuture((T) suppliedResource);
+		}
 
-			httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
-
-			if (isNotBlank(theCustomAcceptHeader)) {
-				httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
-				httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+		CompletableFuture<T> retVal = new CompletableFuture<>();
+		httpRequest.executeAsync().whenComplete((response, error) -> {
+			try {
+				if (error != null) {
+					Throwable cause =
+							error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+					retVal.completeExceptionally(
+							cause instanceof Exception ? toClientException((Exception) cause, httpRequest) : cause);
+					return;
+				}
+				retVal.complete(handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse));
+			} catch (Exception e) {
+				retVal.completeExceptionally(toClientException(e, httpRequest));
 			}
+		});
+		return retVal;
+	}
 
-			if (theCacheControlDirective != null) {
-				StringBuilder b = new StringBuilder();
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
-				if (theCacheControlDirective.getMaxResults() != null) {
-					addToCacheControlHeader(
-							b,
-							Constants.CACHE_CONTROL_MAX_RESULTS + "="
-									+ theCacheControlDirective.getMaxResults().intValue(),
-							true);
-				}
-				if (b.length() > 0) {
-					httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
+	/**
+	 * Builds the HTTP request for an invocation and calls the {@link Pointcut#CLIENT_REQUEST} hooks
+	 */
+	private ClientRequestContext createHttpRequest(
+			BaseHttpClientInvocation clientInvocation,
+			EncodingEnum theEncoding,
+			Boolean thePrettyPrint,
+			boolean theLogRequestAndResponse,
+			SummaryEnum theSummaryMode,
+			Set<String> theSubsetElements,
+			CacheControlDirective theCacheControlDirective,
+			String theCustomAcceptHeader,
+			Map<String, List<String>> theCustomHeaders,
+			Class<? extends IBaseResource> theReturnType)
+			throws IOException {
+		Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
+
+		if (clientInvocation instanceof HttpGetClientInvocation) {
+			if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
+				if (theEncoding == EncodingEnum.XML) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
+				} else if (theEncoding == EncodingEnum.JSON) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
 				}
 			}
+		}
 
-			if (theLogRequestAndResponse) {
-				ourLog.info("Client invoking: {}", httpRequest);
-				String body = httpRequest.getRequestBodyFromStream();
-				if (body != null) {
-					ourLog.info("Client request body: {}", body);
-				}
+		if (theSummaryMode != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
+		} else if (mySummary != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
+		}
+
+		if (thePrettyPrint == Boolean.TRUE) {
+			params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
+		}
+
+		if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
+			params.put(Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
+		}
+
+		EncodingEnum encoding = getEncoding();
+		if (theEncoding != null) {
+			encoding = theEncoding;
+		}
+
+		IHttpRequest httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
+
+		if (isNotBlank(theCustomAcceptHeader)) {
+			httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
+			httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+		}
+
+		if (theCacheControlDirective != null) {
+			StringBuilder b = new StringBuilder();
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
+			if (theCacheControlDirective.getMaxResults() != null) {
+				addToCacheControlHeader(
+						b,
+						Constants.CACHE_CONTROL_MAX_RESULTS + "="
+								+ theCacheControlDirective.getMaxResults().intValue(),
+						true);
+			}
+			if (b.length() > 0) {
+				httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
 			}
+		}
 
-			if (theCustomHeaders != null) {
-				AdditionalRequestHeadersInterceptor interceptor =
-						new AdditionalRequestHeadersInterceptor(theCustomHeaders);
-				interceptor.interceptRequest(httpRequest);
+		if (theLogRequestAndResponse) {
+			ourLog.info("Client invoking: {}", httpRequest);
+			String body = httpRequest.getRequestBodyFromStream();
+			if (body != null) {
+				ourLog.info("Client request body: {}", body);
 			}
+		}
+
+		if (theCustomHeaders != null) {
+			AdditionalRequestHeadersInterceptor interceptor = new AdditionalRequestHeadersInterceptor(theCustomHeaders);
+			interceptor.interceptRequest(httpRequest);
+		}
 
-			HookParams requestParams = new HookParams();
-			requestParams.add(IHttpRequest.class, httpRequest);
-			requestParams.add(IRestfulClient.class, this);
-			getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
+		ClientRequestContext requestContext =
+				new ClientRequestContext(httpRequest, this, getFhirContext(), theReturnType);
+		HookParams requestParams = new HookParams();
+		requestParams.add(IHttpRequest.class, httpRequest);
+		requestParams.add(IRestfulClient.class, this);
+		requestParams.add(ClientRequestContext.class, requestContext);
+		getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
+
+		return requestContext;
+	}
+
+	/**
+	 * Returns the resource a {@link Pointcut#CLIENT_REQUEST} hook supplied in place of sending
+	 * the request, or <code>null</code> if the request should be sent
+	 */
+	private static IBaseResource getSuppliedResource(ClientRequestContext theRequestContext) {
+		IBaseResource retVal = theRequestContext.getResponseResource();
+		Class<? extends IBaseResource> returnType = theRequestContext.getReturnType();
+		if (retVal != null && returnType != null && returnType.isInstance(retVal)) {
+			return retVal;
+		}
+		return null;
+	}
 
-			response = httpRequest.execute();
+	@SuppressWarnings("unchecked")
+	private static Class<? extends IBaseResource> getReturnType(IClientResponseHandler<?> theBinding) {
+		if (theBinding instanceof ResourceResponseHandler) {
+			return ((ResourceResponseHandler<? extends IBaseResource>) theBinding).getReturnType();
+		}
+		return null;
+	}
 
-			final Class<? extends IBaseResource> returnType = (binding instanceof ResourceResponseHandler)
-					? ((ResourceResponseHandler<? extends IBaseResource>) binding).getReturnType()
-					: null;
+	/**
+	 * Calls the {@link Pointcut#CLIENT_RESPONSE} hooks and converts the response into the
+	 * value returned to the caller. The response is closed once it has been handled.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T handleResponse(
+			FhirContext theContext,
+			IClientResponseHandler<T> binding,
+			IHttpRequest httpRequest,
+			IHttpResponse theResponse,
+			boolean theLogRequestAndResponse)
+			throws IOException {
+		IHttpResponse response = theResponse;
+		try {
+			final Class<? extends IBaseResource> returnType = getReturnType(binding);
 
 			final ClientResponseContext clientResponseContext =
 					new ClientResponseContext(httpRequest, response, this, getFhirContext(), returnType);
@@ -371,6 +541,12 @@ public abstract class BaseClient implements IRestfulClient {
 			// it no-op'd
 			response = clientResponseContext.getHttpResponse();
 
+			// A hook (e.g. a response cache) may supply the resource to return
+			IBaseResource responseResource = clientResponseContext.getResponseResource();
+			if (responseResource != null && returnType != null && returnType.isInstance(responseResource)) {
+				return (T) responseResource;
+			}
+
 			String mimeType;
 			if (Constants.STATUS_HTTP_204_NO_CONTENT == response.getStatus()) {
 				mimeType = null;
@@ -445,10 +621,26 @@ public abstract class BaseClient implements IRestfulClient {
 					inputStreamToReturn = new ByteArrayInputStream(new byte[] {});
 				}
 
-				return binding.invokeClient(mimeType, inputStreamToReturn, response.getStatus(), headers);
+				T retVal = binding.invokeClient(mimeType, inputStreamToReturn, response.getStatus(), headers);
+				if (retVal instanceof IBaseResource) {
+					for (Consumer<IBaseResource> next : clientResponseContext.getResponseResourceListeners()) {
+						next.accept((IBaseResource) retVal);
+					}
+				}
+				return retVal;
 			}
+		} finally {
+			// A hook may have replaced the response, in which case it's the replacement which is closed
+			response.close();
+		}
+	}
 
-		} catch (DataFormatException e) {
+	/**
+	 * Converts an exception thrown while invoking the client into the exception which is
+	 * thrown to the caller
+	 */
+	private RuntimeException toClientException(Exception theException, IHttpRequest httpRequest) {
+		if (theException instanceof DataFormatException) {
 			String msg;
 			if (httpRequest != null) {
 				msg = getFhirContext()
@@ -458,35 +650,34 @@ public abstract class BaseClient implements IRestfulClient {
 								"failedToParseResponse",
 								httpRequest.getHttpVerbName(),
 								httpRequest.getUri(),
-								e.toString());
+								theException.toString());
 			} else {
 				msg = getFhirContext()
 						.getLocalizer()
-						.getMessage(BaseClient.class, "failedToParseResponse", "UNKNOWN", "UNKNOWN", e.toString());
+						.getMessage(
+								BaseClient.class,
+								"failedToParseResponse",
+								"UNKNOWN",
+								"UNKNOWN",
+								theException.toString());
 			}
-			throw new FhirClientConnectionException(Msg.code(1359) + msg, e);
-		} catch (IllegalStateException e) {
-			throw new FhirClientConnectionException(Msg.code(1360) + e);
-		} catch (IOException e) {
-			String msg;
-			msg = getFhirContext()
+			return new FhirClientConnectionException(Msg.code(1359) + msg, theException);
+		} else if (theException instanceof IllegalStateException) {
+			return new FhirClientConnectionException(Msg.code(1360) + theException);
+		} else if (theException instanceof IOException) {
+			String msg = getFhirContext()
 					.getLocalizer()
 					.getMessage(
 							BaseClient.class,
 							"failedToParseResponse",
-							httpRequest.getHttpVerbName(),
-							httpRequest.getUri(),
-							e.toString());
-			throw new FhirClientConnectionException(Msg.code(1361) + msg, e);
-		} catch (RuntimeException e) {
-			throw e;
-		} catch (Exception e) {
-			throw new FhirClientConnectionException(Msg.code(1362) + e);
-		} finally {
-			if (response != null) {
-				response.close();
-			}
+							httpRequest != null ? httpRequest.getHttpVerbName() : "UNKNOWN",
+							httpRequest != null ? httpRequest.getUri() : "UNKNOWN",
+							theException.toString());
+			return new FhirClientConnectionException(Msg.code(1361) + msg, theException);
+		} else if (theException instanceof RuntimeException) {
+			return (RuntimeException) theException;
 		}
+		return new FhirClientConnectionException(Msg.code(1362) + theException);
 	}
 
 	private void addToCacheControlHeader(StringBuilder theBuilder, String theDirective, boolean theActive) {
@@ -83,6 +83,7 @@ import ca.uhn.fhir.rest.gclient.IDeleteWithQuery;
 import ca.uhn.fhir.rest.gclient.IDeleteWithQueryTyped;
 import ca.uhn.fhir.rest.gclient.IFetchConformanceTyped;
 import ca.uhn.fhir.rest.gclient.IFetchConformanceUntyped;
+import ca.uhn.fhir.rest.gclient.IGetAllPages;
 import ca.uhn.fhir.rest.gclient.IGetPage;
 import ca.uhn.fhir.rest.gclient.IGetPageTyped;
 import ca.uhn.fhir.rest.gclient.IGetPageUntyped;
@@ -163,6 +164,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -219,38 +226,10 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			Set<String> theSubsetElements,
 			String theCustomAcceptHeaderValue,
 			Map<String, List<String>> theCustomHeaders) {
-		String resName = toResourceName(theType);
-		IIdType id = theId;
-		if (!id.hasBaseUrl()) {
-			id = new IdDt(resName, id.getIdPart(), id.getVersionIdPart());
-		}
-
-		HttpGetClientInvocation invocation;
-		if (id.hasBaseUrl()) {
-			if (theVRead) {
-				invocation = ReadMethodBinding.createAbsoluteVReadInvocation(getFhirContext(), id);
-			} else {
-				invocation = ReadMethodBinding.createAbsoluteReadInvocation(getFhirContext(), id);
-			}
-		} else {
-			if (theVRead) {
-				invocation = ReadMethodBinding.createVReadInvocation(getFhirContext(), id, resName);
-			} else {
-				invocation = ReadMethodBinding.createReadInvocation(getFhirContext(), id, resName);
-			}
-		}
-		if (isKeepResponses()) {
-			myLastRequest = invocation.asHttpRequest(
-					getServerBase(), createExtraParams(theCustomAcceptHeaderValue), getEncoding(), isPrettyPrint());
-		}
-
-		if (theIfVersionMatches != null) {
-			invocation.addHeader(Constants.HEADER_IF_NONE_MATCH, '"' + theIfVersionMatches + '"');
-		}
-
-		boolean allowHtmlResponse = SummaryEnum.TEXT.equals(theSummary);
-		ResourceResponseHandler<T> binding =
-				new ResourceResponseHandler<>(theType, (Class<? extends IBaseResource>) null, id, allowHtmlResponse);
+		IIdType id = toReadId(theType, theId);
+		HttpGetClientInvocation invocation =
+				createReadInvocation(id, theVRead, theIfVersionMatches, theCustomAcceptHeaderValue);
+		ResourceResponseHandler<T> binding = createReadResponseHandler(theType, id, theSummary);
 
 		if (theNotModifiedHandler == null) {
 			return invokeClient(
@@ -284,6 +263,92 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 	}
 
+	/**
+	 * Asynchronous equivalent of {@link #doReadOrVRead(Class, IIdType, boolean, ICallable, String, Boolean, SummaryEnum, EncodingEnum, Set, String, Map)}
+	 */
+	private <T extends IBaseResource> CompletableFuture<T> doReadOrVReadAsync(
+			final Class<T> theType,
+			IIdType theId,
+			boolean theVRead,
+			ICallable<T> theNotModifiedHandler,
+			String theIfVersionMatches,
+			Boolean thePrettyPrint,
+			SummaryEnum theSummary,
+			EncodingEnum theEncoding,
+			Set<String> theSubsetElements,
+			String theCustomAcceptHeaderValue,
+			Map<String, List<String>> theCustomHeaders) {
+		IIdType id = toReadId(theType, theId);
+		HttpGetClientInvocation invocation =
+				createReadInvocation(id, theVRead, theIfVersionMatches, theCustomAcceptHeaderValue);
+		ResourceResponseHandler<T> binding = createReadResponseHandler(theType, id, theSummary);
+
+		CompletableFuture<T> retVal = invokeClientAsync(
+				myContext,
+				binding,
+				invocation,
+				theEncoding,
+				thePrettyPrint,
+				myLogRequestAndResponse,
+				theSummary,
+				theSubsetElements,
+				null,
+				theCustomAcceptHeaderValue,
+				theCustomHeaders);
+		if (theNotModifiedHandler == null) {
+			return retVal;
+		}
+		return retVal.handle((theResult, theError) -> {
+			if (theError == null) {
+				return theResult;
+			}
+			if (theError instanceof NotModifiedException) {
+				return theNotModifiedHandler.call();
+			}
+			throw new CompletionException(theError);
+		});
+	}
+
+	private IIdType toReadId(Class<? extends IBaseResource> theType, IIdType theId) {
+		if (!theId.hasBaseUrl()) {
+			return new IdDt(toResourceName(theType), theId.getIdPart(), theId.getVersionIdPart());
+		}
+		return theId;
+	}
+
+	private HttpGetClientInvocation createReadInvocation(
+			IIdType theId, boolean theVRead, String theIfVersionMatches, String theCustomAcceptHeaderValue) {
+		HttpGetClientInvocation invocation;
+		if (theId.hasBaseUrl()) {
+			if (theVRead) {
+				invocation = ReadMethodBinding.createAbsoluteVReadInvocation(getFhirContext(), theId);
+			} else {
+				invocation = ReadMethodBinding.createAbsoluteReadInvocation(getFhirContext(), theId);
+			}
+		} else {
+			if (theVRead) {
+				invocation = ReadMethodBinding.createVReadInvocation(getFhirContext(), theId, theId.getResourceType());
+			} else {
+				invocation = ReadMethodBinding.createReadInvocation(getFhirContext(), theId, theId.getResourceType());
+			}
+		}
+		if (isKeepResponses()) {
+			myLastRequest = invocation.asHttpRequest(
+					getServerBase(), createExtraParams(theCustomAcceptHeaderValue), getEncoding(), isPrettyPrint());
+		}
+
+		if (theIfVersionMatches != null) {
+			invocation.addHeader(Constants.HEADER_IF_NONE_MATCH, '"' + theIfVersionMatches + '"');
+		}
+		return invocation;
+	}
+
+	private <T extends IBaseResource> ResourceResponseHandler<T> createReadResponseHandler(
+			Class<T> theType, IIdType theId, SummaryEnum theSummary) {
+		boolean allowHtmlResponse = SummaryEnum.TEXT.equals(theSummary);
+		return new ResourceResponseHandler<>(theType, (Class<? extends IBaseResource>) null, theId, allowHtmlResponse);
+	}
+
 	@Override
 	public IFetchConformanceUntyped fetchConformance() {
 		return new FetchConformanceInternal();
@@ -483,6 +548,8 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private List<Class<? extends IBaseResource>> myPreferResponseTypes;
 		private boolean myQueryLogRequestAndResponse;
 		private Set<String> mySubsetElements;
+		private boolean myDeferInvocation;
+		private CompletableFuture<?> myDeferredResponse;
 
 		public String getCustomAcceptHeaderValue() {
 			return myCustomAcceptHeaderValue;
@@ -529,6 +596,47 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return (T) this;
 		}
 
+		@Override
+		public CompletableFuture<Y> executeAsync() {
+			if (isNonBlockingExecutionSupported()) {
+				return getAsyncRequestDispatcher().submitNonBlocking(getUrlBase(), this::executeNonBlocking);
+			}
+			return getAsyncRequestDispatcher().submit(getUrlBase(), this::execute);
+		}
+
+		/**
+		 * Subclasses whose {@link #execute()} returns the result of {@link #invoke(Map, IClientResponseHandler, BaseHttpClientInvocation)}
+		 * unchanged may return <code>true</code> here, in which case {@link #executeAsync()} sends the request
+		 * through {@link IHttpRequest#executeAsync()} instead of blocking a dispatcher thread.
+		 */
+		protected boolean isNonBlockingExecutionSupported() {
+			return false;
+		}
+
+		/**
+		 * Builds the request exactly as {@link #execute()} does, but hands it to
+		 * {@link #invokeClientAsync(FhirContext, IClientResponseHandler, BaseHttpClientInvocation, EncodingEnum, Boolean, boolean, SummaryEnum, Set, CacheControlDirective, String, Map)}
+		 * instead of waiting for the response.
+		 */
+		@SuppressWarnings("unchecked")
+		protected CompletableFuture<Y> executeNonBlocking() {
+			Y result;
+			myDeferInvocation = true;
+			try {
+				result = execute();
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			} finally {
+				myDeferInvocation = false;
+			}
+			CompletableFuture<Y> retVal = (CompletableFuture<Y>) myDeferredResponse;
+			myDeferredResponse = null;
+			if (retVal == null) {
+				return CompletableFuture.completedFuture(result);
+			}
+			return retVal;
+		}
+
 		@SuppressWarnings("unchecked")
 		@Override
 		public T encodedJson() {
@@ -582,6 +690,22 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				myLastRequest = theInvocation.asHttpRequest(getServerBase(), theParams, getEncoding(), myPrettyPrint);
 			}
 
+			if (myDeferInvocation) {
+				myDeferredResponse = invokeClientAsync(
+						myContext,
+						theHandler,
+						theInvocation,
+						myParamEncoding,
+						myPrettyPrint,
+						myQueryLogRequestAndResponse || myLogRequestAndResponse,
+						mySummaryMode,
+						mySubsetElements,
+						myCacheControlDirective,
+						myCustomAcceptHeaderValue,
+						myCustomHeaderValues);
+				return null;
+			}
+
 			Z resp = invokeClient(
 					myContext,
 					theHandler,
@@ -722,6 +846,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public MethodOutcome execute() {
 			if (myResource == null) {
@@ -780,6 +909,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private String mySearchUrl;
 		private DeleteCascadeModeEnum myCascadeMode;
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public MethodOutcome execute() {
 
@@ -922,6 +1056,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			myBundleType = theBundleType;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public Object execute() {
 			IClientResponseHandler binding = new ResourceResponseHandler(myBundleType, getPreferResponseTypes());
@@ -937,6 +1076,59 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 	}
 
+	private class GetAllPagesInternal implements IGetAllPages {
+
+		private final IBaseBundle myFirstPage;
+		private int myPrefetchPages = DEFAULT_PREFETCH_PAGES;
+		private PagingHttpMethodEnum myPagingHttpMethod = PagingHttpMethodEnum.GET;
+
+		GetAllPagesInternal(IBaseBundle theFirstPage) {
+			myFirstPage = theFirstPage;
+		}
+
+		@Override
+		public IGetAllPages prefetchPages(int thePageCount) {
+			Validate.isTrue(thePageCount > 0, "thePageCount must be greater than 0");
+			myPrefetchPages = thePageCount;
+			return this;
+		}
+
+		@Override
+		public IGetAllPages usingMethod(PagingHttpMethodEnum thePagingHttpMethod) {
+			Validate.notNull(thePagingHttpMethod, "thePagingHttpMethod must not be null");
+			myPagingHttpMethod = thePagingHttpMethod;
+			return this;
+		}
+
+		@Override
+		public Iterator<IBaseResource> iterator() {
+			return newIterator();
+		}
+
+		private PrefetchingPageIterator newIterator() {
+			PagingHttpMethodEnum pagingHttpMethod = myPagingHttpMethod;
+			return new PrefetchingPageIterator(myContext, myFirstPage, myPrefetchPages, page -> loadPage()
+					.next(page)
+					.usingMethod(pagingHttpMethod)
+					.executeAsync());
+		}
+
+		@Override
+		public Stream<IBaseResource> stream() {
+			PrefetchingPageIterator iterator = newIterator();
+			return StreamSupport.stream(
+							Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+							false)
+					.onClose(iterator::close);
+		}
+
+		@Override
+		public <R extends IBaseResource> Stream<R> stream(Class<R> theResourceType) {
+			Validate.notNull(theResourceType, "theResourceType must not be null");
+			return stream().filter(theResourceType::isInstance).map(theResourceType::cast);
+		}
+	}
+
 	@SuppressWarnings("rawtypes")
 	private class HistoryInternal extends BaseClientExecutable implements IHistory, IHistoryUntyped, IHistoryTyped {
 
@@ -972,6 +1164,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@SuppressWarnings("unchecked")
 		@Override
 		public Object execute() {
@@ -1062,6 +1259,12 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return new GetPageInternal(myPageUrl, theBundleType);
 		}
 
+		@Override
+		public IGetAllPages allPages(IBaseBundle theBundle) {
+			Validate.notNull(theBundle, "theBundle must not be null");
+			return new GetAllPagesInternal(theBundle);
+		}
+
 		@Override
 		public IGetPageUntyped byUrl(String thePageUrl) {
 			if (isBlank(thePageUrl)) {
@@ -1141,6 +1344,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@SuppressWarnings("unchecked")
 		@Override
 		public Object execute() {
@@ -1746,6 +1954,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public MethodOutcome execute() {
 
@@ -1845,6 +2058,27 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private ICallable myNotModifiedHandler;
 		private RuntimeResourceDefinition myType;
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
+		@Override
+		protected CompletableFuture executeNonBlocking() {
+			return doReadOrVReadAsync(
+					myType.getImplementingClass(),
+					myId,
+					myId.hasVersionIdPart(),
+					myNotModifiedHandler,
+					myIfVersionMatches,
+					myPrettyPrint,
+					mySummaryMode,
+					myParamEncoding,
+					getSubsetElements(),
+					getCustomAcceptHeaderValue(),
+					myCustomHeaderValues);
+		}
+
 		@Override
 		public Object execute() { // AAA
 			if (myId.hasVersionIdPart()) {
@@ -2095,6 +2329,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public OUTPUT execute() {
 
@@ -2365,6 +2604,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			}
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@SuppressWarnings({"unchecked", "rawtypes"})
 		@Override
 		public T execute() {
@@ -2465,6 +2709,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public MethodOutcome execute() {
 			if (myResource == null) {
@@ -2563,6 +2812,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			implements IValidate, IValidateUntyped {
 		private IBaseResource myResource;
 
+		@Override
+		protected boolean isNonBlockingExecutionSupported() {
+			return true;
+		}
+
 		@Override
 		public MethodOutcome execute() {
 			BaseHttpClientInvocation invocation =
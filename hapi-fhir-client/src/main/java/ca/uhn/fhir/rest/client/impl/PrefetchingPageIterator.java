@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.impl;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.BundleUtil;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Iterates over the resources in a chain of Bundle pages, keeping up to a fixed number of
+ * following pages requested (or already fetched and parsed) ahead of the page being consumed.
+ * <p>
+ * Since the URL of each page is only known once the page before it has been received, the
+ * prefetched pages form a chain of futures where each one is started when the previous one
+ * completes. No thread is blocked while waiting, except for the caller when it reaches a page
+ * which has not arrived yet.
+ * </p>
+ */
+class PrefetchingPageIterator implements Iterator<IBaseResource>, AutoCloseable {
+
+	private final FhirContext myContext;
+	private final Function<IBaseBundle, CompletableFuture<IBaseBundle>> myNextPageFetcher;
+	private final Deque<CompletableFuture<IBaseBundle>> myPendingPages = new ArrayDeque<>();
+	private Iterator<IBaseResource> myCurrentPage;
+	private volatile boolean myClosed;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext         The FHIR context
+	 * @param theFirstPage       The first page, which has already been fetched
+	 * @param thePrefetchPages   The maximum number of pages to request ahead of the one being consumed
+	 * @param theNextPageFetcher Starts fetching the page following the given one
+	 */
+	PrefetchingPageIterator(
+			FhirContext theContext,
+			IBaseBundle theFirstPage,
+			int thePrefetchPages,
+			Function<IBaseBundle, CompletableFuture<IBaseBundle>> theNextPageFetcher) {
+		Validate.notNull(theFirstPage, "theFirstPage must not be null");
+		Validate.isTrue(thePrefetchPages > 0, "thePrefetchPages must be greater than 0");
+		myContext = theContext;
+		myNextPageFetcher = theNextPageFetcher;
+		myCurrentPage = BundleUtil.toListOfResources(theContext, theFirstPage).iterator();
+
+		CompletableFuture<IBaseBundle> previous = CompletableFuture.completedFuture(theFirstPage);
+		for (int i = 0; i < thePrefetchPages; i++) {
+			previous = fetchFollowing(previous);
+			myPendingPages.add(previous);
+		}
+	}
+
+	private CompletableFuture<IBaseBundle> fetchFollowing(CompletableFuture<IBaseBundle> thePage) {
+		return thePage.thenCompose(page -> {
+			if (page == null || myClosed || isBlank(BundleUtil.getLinkUrlOfType(myContext, page, "next"))) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return myNextPageFetcher.apply(page);
+		});
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!myCurrentPage.hasNext()) {
+			CompletableFuture<IBaseBundle> nextPage = myPendingPages.poll();
+			if (nextPage == null) {
+				return false;
+			}
+
+			IBaseBundle page = awaitPage(nextPage);
+			if (page == null) {
+				myPendingPages.clear();
+				myCurrentPage = Collections.emptyIterator();
+				return false;
+			}
+
+			// Keep the same number of pages in flight now that this one has been taken
+			CompletableFuture<IBaseBundle> last = myPendingPages.peekLast();
+			myPendingPages.add(fetchFollowing(last != null ? last : nextPage));
+
+			myCurrentPage = BundleUtil.toListOfResources(myContext, page).iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public IBaseResource next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return myCurrentPage.next();
+	}
+
+	/**
+	 * Stops requesting further pages. Requests which have already started are allowed to
+	 * complete, but their results are discarded.
+	 */
+	@Override
+	public void close() {
+		myClosed = true;
+		for (CompletableFuture<IBaseBundle> next : myPendingPages) {
+			next.cancel(false);
+		}
+		myPendingPages.clear();
+		myCurrentPage = Collections.emptyIterator();
+	}
+
+	private static IBaseBundle awaitPage(CompletableFuture<IBaseBundle> thePage) {
+		try {
+			return thePage.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new InternalErrorException(Msg.code(2554) + "Failed to load page: " + cause, cause);
+		}
+	}
+}
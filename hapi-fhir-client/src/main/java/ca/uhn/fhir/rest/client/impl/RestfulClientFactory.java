@@ -47,6 +47,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Base class for a REST client factory implementation
@@ -67,6 +68,10 @@ public abstract class RestfulClientFactory implements IRestfulClientFactory {
 	private String myProxyPassword;
 	private int myPoolMaxTotal = DEFAULT_POOL_MAX;
 	private int myPoolMaxPerRoute = DEFAULT_POOL_MAX_PER_ROUTE;
+	private Integer myAsyncMaxRequestsPerHost;
+	private int myAsyncMaxQueuedRequestsPerHost = DEFAULT_ASYNC_MAX_QUEUED_REQUESTS_PER_HOST;
+	private Executor myAsyncExecutor;
+	private AsyncRequestDispatcher myAsyncRequestDispatcher;
 
 	/**
 	 * Constructor
@@ -258,15 +263,78 @@ public abstract class RestfulClientFactory implements IRestfulClientFactory {
 	@Override
 	public synchronized void setPoolMaxTotal(int thePoolMaxTotal) {
 		myPoolMaxTotal = thePoolMaxTotal;
+		resetAsyncRequestDispatcher();
 		resetHttpClient();
 	}
 
 	@Override
 	public synchronized void setPoolMaxPerRoute(int thePoolMaxPerRoute) {
 		myPoolMaxPerRoute = thePoolMaxPerRoute;
+		resetAsyncRequestDispatcher();
 		resetHttpClient();
 	}
 
+	@Override
+	public synchronized int getAsyncMaxRequestsPerHost() {
+		if (myAsyncMaxRequestsPerHost != null) {
+			return myAsyncMaxRequestsPerHost;
+		}
+		return getPoolMaxPerRoute();
+	}
+
+	@Override
+	public synchronized void setAsyncMaxRequestsPerHost(int theAsyncMaxRequestsPerHost) {
+		Validate.isTrue(theAsyncMaxRequestsPerHost > 0, "theAsyncMaxRequestsPerHost must be greater than 0");
+		myAsyncMaxRequestsPerHost = theAsyncMaxRequestsPerHost;
+		resetAsyncRequestDispatcher();
+	}
+
+	@Override
+	public synchronized void setAsyncExecutor(Executor theAsyncExecutor) {
+		myAsyncExecutor = theAsyncExecutor;
+		resetAsyncRequestDispatcher();
+	}
+
+	@Override
+	public synchronized int getAsyncMaxQueuedRequestsPerHost() {
+		return myAsyncMaxQueuedRequestsPerHost;
+	}
+
+	@Override
+	public synchronized void setAsyncMaxQueuedRequestsPerHost(int theAsyncMaxQueuedRequestsPerHost) {
+		Validate.isTrue(theAsyncMaxQueuedRequestsPerHost >= 0, "theAsyncMaxQueuedRequestsPerHost must not be negative");
+		myAsyncMaxQueuedRequestsPerHost = theAsyncMaxQueuedRequestsPerHost;
+		resetAsyncRequestDispatcher();
+	}
+
+	/**
+	 * Returns the dispatcher used to run asynchronous requests for all clients created by this
+	 * factory, so that the per-host limits apply across clients. Requests already in progress
+	 * continue on the previous dispatcher if the settings are changed.
+	 */
+	synchronized AsyncRequestDispatcher getAsyncRequestDispatcher() {
+		if (myAsyncRequestDispatcher == null) {
+			myAsyncRequestDispatcher = new AsyncRequestDispatcher(
+					myAsyncExecutor,
+					getPoolMaxTotal(),
+					getAsyncMaxRequestsPerHost(),
+					getAsyncMaxQueuedRequestsPerHost());
+		}
+		return myAsyncRequestDispatcher;
+	}
+
+	/**
+	 * Discards the current dispatcher so that a new one is created with the current settings.
+	 * The discarded dispatcher finishes the requests it has already accepted, and then releases
+	 * its threads.
+	 */
+	private synchronized void resetAsyncRequestDispatcher() {
+		if (myAsyncRequestDispatcher != null) {
+			myAsyncRequestDispatcher.shutdown();
+			myAsyncRequestDispatcher = null;
+		}
+	}
+
 	@Deprecated // override deprecated method
 	@Override
 	public synchronized ServerValidationModeEnum getServerValidationModeEnum() {
@@ -23,6 +23,7 @@ public interface InterceptorOrders {
 
 	int LOGGING_INTERCEPTOR_REQUEST = -2;
 	int URL_TENANT_SELECTION_INTERCEPTOR_REQUEST = 100;
+	int RESPONSE_CACHE_INTERCEPTOR_REQUEST = 900;
 	int CAPTURING_INTERCEPTOR_REQUEST = 1000;
 
 	int CAPTURING_INTERCEPTOR_RESPONSE = -1;
@@ -0,0 +1,357 @@
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.api.ClientRequestContext;
+import ca.uhn.fhir.rest.client.api.ClientResponseContext;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.api.IRestfulClient;
+import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Client interceptor which caches the resources returned by <code>GET</code> requests. When the
+ * same URL is requested again, a copy of the cached resource is returned without sending the
+ * request if the response is still fresh according to its <code>Cache-Control: max-age</code>.
+ * Otherwise the cached resource is revalidated with the server using <code>If-None-Match</code>
+ * and <code>If-Modified-Since</code>, and if the server responds with <code>304 Not Modified</code>
+ * a copy of the cached resource is returned without transferring or parsing the response body again.
+ * <p>
+ * Only responses with an <code>ETag</code> or <code>Last-Modified</code> header, or a positive
+ * <code>max-age</code>, are cached, and responses with <code>Cache-Control: no-store</code> are
+ * never cached. Responses with <code>Cache-Control: no-cache</code>, or without a
+ * <code>max-age</code>, are revalidated every time they are requested. Requests which already carry
+ * conditional headers (e.g. a read using <code>ifVersionMatches</code>), or which ask for
+ * <code>no-cache</code> or <code>no-store</code>, bypass the cache. Entries are keyed by the request URL, <code>Accept</code> header and
+ * <code>Authorization</code> header, and the least recently used entries are evicted once
+ * the maximum number of entries is reached.
+ * </p>
+ * <p>
+ * A single instance may be shared by multiple clients.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+@Interceptor
+public class ResponseCacheInterceptor {
+
+	/**
+	 * The default maximum number of cached responses
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	private static final Logger ourLog = LoggerFactory.getLogger(ResponseCacheInterceptor.class);
+	private final Cache<String, CachedResponse> myCache;
+	/*
+	 * Keyed by request rather than by thread, since an asynchronous request may be completed
+	 * on another thread than the one which sent it. Entries for requests which fail before
+	 * a response is received are dropped once the request is garbage collected.
+	 */
+	private final Map<IHttpRequest, PendingRequest> myPendingRequests =
+			Collections.synchronizedMap(new WeakHashMap<>());
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private Long myNowForUnitTest;
+
+	/**
+	 * Constructor which caches up to {@link #DEFAULT_MAX_ENTRIES} responses
+	 */
+	public ResponseCacheInterceptor() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaxEntries The maximum number of responses to cache
+	 */
+	public ResponseCacheInterceptor(int theMaxEntries) {
+		Validate.isTrue(theMaxEntries > 0, "theMaxEntries must be greater than 0");
+		myCache = CacheBuilder.newBuilder().maximumSize(theMaxEntries).build();
+	}
+
+	@Hook(value = Pointcut.CLIENT_REQUEST, order = InterceptorOrders.RESPONSE_CACHE_INTERCEPTOR_REQUEST)
+	public void interceptRequest(
+			IHttpRequest theRequest, IRestfulClient theClient, ClientRequestContext theRequestContext) {
+		if (!"GET".equals(theRequest.getHttpVerbName())) {
+			return;
+		}
+
+		Map<String, List<String>> headers = theRequest.getAllHeaders();
+		if (getHeader(headers, Constants.HEADER_IF_NONE_MATCH) != null
+				|| getHeader(headers, Constants.HEADER_IF_MODIFIED_SINCE) != null) {
+			return;
+		}
+		String cacheControl = defaultString(getHeader(headers, Constants.HEADER_CACHE_CONTROL));
+		if (cacheControl.contains(Constants.CACHE_CONTROL_NO_CACHE)
+				|| cacheControl.contains(Constants.CACHE_CONTROL_NO_STORE)) {
+			return;
+		}
+
+		String key = theRequest.getUri()
+				+ '\n'
+				+ defaultString(getHeader(headers, Constants.HEADER_ACCEPT))
+				+ '\n'
+				+ defaultString(getHeader(headers, Constants.HEADER_AUTHORIZATION));
+		CachedResponse cached = myCache.getIfPresent(key);
+		if (cached != null && cached.myFhirContext != theClient.getFhirContext()) {
+			// The cached resource can't be returned to a client using another FhirContext
+			cached = null;
+		}
+		if (cached != null) {
+			Class<? extends IBaseResource> returnType = theRequestContext.getReturnType();
+			if (cached.isFresh(now()) && returnType != null && returnType.isInstance(cached.myResource)) {
+				ourLog.trace("Returning fresh cached response for {}", theRequest.getUri());
+				myHitCount.incrementAndGet();
+				theRequestContext.setResponseResource(
+						cached.myFhirContext.newTerser().clone(cached.myResource));
+				return;
+			}
+			if (cached.myETag != null) {
+				theRequest.addHeader(Constants.HEADER_IF_NONE_MATCH, cached.myETag);
+			}
+			if (cached.myLastModified != null) {
+				theRequest.addHeader(Constants.HEADER_IF_MODIFIED_SINCE, cached.myLastModified);
+			}
+		}
+		myPendingRequests.put(theRequest, new PendingRequest(key, cached));
+	}
+
+	@Hook(Pointcut.CLIENT_RESPONSE)
+	public void interceptResponse(
+			IHttpRequest theRequest, IHttpResponse theResponse, ClientResponseContext theResponseContext) {
+		PendingRequest pending = myPendingRequests.remove(theRequest);
+		if (pending == null) {
+			return;
+		}
+
+		Class<? extends IBaseResource> returnType = theResponseContext.getReturnType();
+		FhirContext fhirContext = theResponseContext.getFhirContext();
+		CachedResponse cached = pending.myCached;
+		IHttpResponse response = theResponse;
+
+		if (response.getStatus() == Constants.STATUS_HTTP_304_NOT_MODIFIED && cached != null) {
+			if (cached.myFhirContext == fhirContext && returnType != null && returnType.isInstance(cached.myResource)) {
+				ourLog.trace("Returning cached response for {}", theRequest.getUri());
+				myHitCount.incrementAndGet();
+				theResponseContext.setResponseResource(fhirContext.newTerser().clone(cached.myResource));
+				return;
+			}
+
+			/*
+			 * The cached resource can't be returned for this request (e.g. it expects another
+			 * return type), so the 304 response is of no use to the caller. Fetch the full
+			 * response instead.
+			 */
+			response = reissueWithoutConditionalHeaders(theRequest, response);
+			theResponseContext.setHttpResponse(response);
+		}
+
+		if (response.getStatus() != Constants.STATUS_HTTP_200_OK || returnType == null) {
+			return;
+		}
+		myMissCount.incrementAndGet();
+
+		String eTag = getFirstHeader(response, Constants.HEADER_ETAG);
+		String lastModified = getFirstHeader(response, Constants.HEADER_LAST_MODIFIED);
+		String cacheControl = defaultString(getFirstHeader(response, Constants.HEADER_CACHE_CONTROL));
+		long freshnessMillis = getFreshnessMillis(response, cacheControl);
+		if ((eTag == null && lastModified == null && freshnessMillis <= 0)
+				|| cacheControl.contains(Constants.CACHE_CONTROL_NO_STORE)) {
+			if (cached != null) {
+				myCache.invalidate(pending.myKey);
+			}
+			return;
+		}
+		long expires = now() + freshnessMillis;
+
+		theResponseContext.addResponseResourceListener(resource -> {
+			// Store a copy, since the caller owns (and may modify) the returned instance
+			IBaseResource copy = fhirContext.newTerser().clone(resource);
+			if (returnType.isInstance(copy)) {
+				myCache.put(pending.myKey, new CachedResponse(fhirContext, copy, eTag, lastModified, expires));
+			}
+		});
+	}
+
+	/**
+	 * Returns how much longer the response may be used without revalidating it, based on the
+	 * <code>max-age</code> directive and the <code>Age</code> header, or 0 if it must always
+	 * be revalidated
+	 */
+	private static long getFreshnessMillis(IHttpResponse theResponse, String theCacheControl) {
+		String maxAgePrefix = Constants.CACHE_CONTROL_MAX_AGE + "=";
+		Long maxAge = null;
+		for (String next : theCacheControl.split(",")) {
+			String directive = next.trim();
+			if (directive.equalsIgnoreCase(Constants.CACHE_CONTROL_NO_CACHE)) {
+				return 0;
+			}
+			if (directive.regionMatches(true, 0, maxAgePrefix, 0, maxAgePrefix.length())) {
+				maxAge = parseSeconds(directive.substring(maxAgePrefix.length()));
+			}
+		}
+		if (maxAge == null || maxAge <= 0) {
+			return 0;
+		}
+		Long age = parseSeconds(getFirstHeader(theResponse, Constants.HEADER_AGE));
+		long remaining = maxAge - (age != null ? age : 0);
+		return Math.max(0, remaining) * 1000L;
+	}
+
+	private static Long parseSeconds(String theValue) {
+		if (theValue == null) {
+			return null;
+		}
+		try {
+			return Long.parseLong(theValue.trim().replace("\"", ""));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private long now() {
+		if (myNowForUnitTest != null) {
+			return myNowForUnitTest;
+		}
+		return System.currentTimeMillis();
+	}
+
+	void setNowForUnitTest(Long theNowForUnitTest) {
+		myNowForUnitTest = theNowForUnitTest;
+	}
+
+	private static IHttpResponse reissueWithoutConditionalHeaders(
+			IHttpRequest theRequest, IHttpResponse theNotModifiedResponse) {
+		ourLog.debug("Cached response can not be used for {}, repeating request", theRequest.getUri());
+		theNotModifiedResponse.close();
+		theRequest.removeHeaders(Constants.HEADER_IF_NONE_MATCH);
+		theRequest.removeHeaders(Constants.HEADER_IF_MODIFIED_SINCE);
+		try {
+			return theRequest.execute();
+		} catch (IOException e) {
+			throw new FhirClientConnectionException(
+					Msg.code(2563) + "Failed to repeat request " + theRequest.getUri() + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Removes all cached responses
+	 */
+	public void clearCache() {
+		myCache.invalidateAll();
+	}
+
+	/**
+	 * Returns the number of responses currently cached
+	 */
+	public long getCacheSize() {
+		return myCache.size();
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache, either without
+	 * contacting the server or after the server responded with <code>304 Not Modified</code>
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests for which the server returned a full response
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	private static String getHeader(Map<String, List<String>> theHeaders, String theName) {
+		for (Map.Entry<String, List<String>> next : theHeaders.entrySet()) {
+			if (theName.equalsIgnoreCase(next.getKey()) && !next.getValue().isEmpty()) {
+				return next.getValue().get(0);
+			}
+		}
+		return null;
+	}
+
+	private static String getFirstHeader(IHttpResponse theResponse, String theName) {
+		List<String> values = theResponse.getHeaders(theName);
+		if (values != null && !values.isEmpty() && isNotBlank(values.get(0))) {
+			return values.get(0);
+		}
+		return null;
+	}
+
+	private static class PendingRequest {
+		private final String myKey;
+		private final CachedResponse myCached;
+
+		private PendingRequest(String theKey, CachedResponse theCached) {
+			myKey = theKey;
+			myCached = theCached;
+		}
+	}
+
+	private static class CachedResponse {
+		private final FhirContext myFhirContext;
+		private final IBaseResource myResource;
+		private final String myETag;
+		private final String myLastModified;
+		private final long myExpires;
+
+		private CachedResponse(
+				FhirContext theFhirContext,
+				IBaseResource theResource,
+				String theETag,
+				String theLastModified,
+				long theExpires) {
+			myFhirContext = theFhirContext;
+			myResource = theResource;
+			myETag = theETag;
+			myLastModified = theLastModified;
+			myExpires = theExpires;
+		}
+
+		private boolean isFresh(long theNow) {
+			return theNow < myExpires;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package ca.uhn.fhir.rest.client.impl;
+
+import ca.uhn.fhir.rest.client.apache.ApacheRestfulClientFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AsyncRequestDispatcherTest {
+
+	private final ExecutorService myExecutor = Executors.newFixedThreadPool(10);
+
+	@AfterEach
+	public void after() {
+		myExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testLimitRequestsPerHost() throws Exception {
+		AsyncRequestDispatcher dispatcher = new AsyncRequestDispatcher(myExecutor, 10, 2, 100);
+
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger inProgress = new AtomicInteger();
+		AtomicInteger maxInProgress = new AtomicInteger();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			int value = i;
+			futures.add(dispatcher.submit("http://example.com/fhir", () -> {
+				maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				inProgress.decrementAndGet();
+				return value;
+			}));
+		}
+
+		// A request to another host is not held up by the queued ones
+		assertEquals("other", dispatcher.submit("http://other.com/fhir", () -> "other").get(10, TimeUnit.SECONDS));
+
+		release.countDown();
+		for (int i = 0; i < futures.size(); i++) {
+			assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS));
+		}
+		assertThat(maxInProgress.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	public void testSubmitNonBlocking() throws Exception {
+		ExecutorService singleThread = Executors.newSingleThreadExecutor();
+		try {
+			AsyncRequestDispatcher dispatcher = new AsyncRequestDispatcher(singleThread, 1, 2, 100);
+
+			List<CompletableFuture<String>> responses = new ArrayList<>();
+			AtomicInteger started = new AtomicInteger();
+			List<CompletableFuture<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				CompletableFuture<String> response = new CompletableFuture<>();
+				responses.add(response);
+				futures.add(dispatcher.submitNonBlocking("http://example.com/fhir", () -> {
+					started.incrementAndGet();
+					return response;
+				}));
+			}
+
+			// The only executor thread is not held by the requests in progress
+			assertEquals("other", dispatcher.submit("http://other.com/fhir", () -> "other").get(10, TimeUnit.SECONDS));
+			assertEquals(2, started.get());
+
+			// Completing a request releases its slot for the queued one
+			responses.get(0).complete("0");
+			assertEquals("0", futures.get(0).get(10, TimeUnit.SECONDS));
+			responses.get(1).completeExceptionally(new IllegalStateException("FAILED"));
+			assertThatThrownBy(() -> futures.get(1).get(10, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(IllegalStateException.class);
+			for (int i = 0; i < 100 && started.get() < 3; i++) {
+				Thread.sleep(100);
+			}
+			assertEquals(3, started.get());
+			responses.get(2).complete("2");
+			assertEquals("2", futures.get(2).get(10, TimeUnit.SECONDS));
+		} finally {
+			singleThread.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailedRequest() {
+		AsyncRequestDispatcher dispatcher = new AsyncRequestDispatcher(myExecutor, 10, 1, 100);
+
+		CompletableFuture<String> failed = dispatcher.submit("http://example.com/fhir", () -> {
+			throw new IllegalStateException("FAILED");
+		});
+		assertThatThrownBy(() -> failed.get(10, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+
+		// The slot for the host is released by the failed request
+		assertThat(dispatcher.submit("http://example.com/fhir", () -> "OK").join()).isEqualTo("OK");
+	}
+
+	@Test
+	public void testRejectWhenQueueFull() throws Exception {
+		AsyncRequestDispatcher dispatcher = new AsyncRequestDispatcher(myExecutor, 10, 1, 1);
+
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> inProgress = dispatcher.submit("http://example.com/fhir", () -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "first";
+		});
+		CompletableFuture<String> queued = dispatcher.submit("http://example.com/fhir", () -> "second");
+		CompletableFuture<String> rejected = dispatcher.submit("http://example.com/fhir", () -> "third");
+
+		assertThatThrownBy(() -> rejected.get(10, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(RejectedExecutionException.class);
+
+		release.countDown();
+		assertEquals("first", inProgress.get(10, TimeUnit.SECONDS));
+		assertEquals("second", queued.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		AsyncRequestDispatcher dispatcher = new AsyncRequestDispatcher(null, 2, 1, 10);
+
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> inProgress = dispatcher.submit("http://example.com/fhir", () -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "first";
+		});
+		CompletableFuture<String> queued = dispatcher.submit("http://example.com/fhir", () -> "second");
+
+		dispatcher.shutdown();
+		assertThat(dispatcher.submit("http://example.com/fhir", () -> "third"))
+				.isCompletedExceptionally();
+		assertThat(dispatcher.isTerminated()).isFalse();
+
+		// Requests accepted before the shutdown still complete, and the pool is then shut down
+		release.countDown();
+		assertEquals("first", inProgress.get(10, TimeUnit.SECONDS));
+		assertEquals("second", queued.get(10, TimeUnit.SECONDS));
+		assertTerminatedWithin10Seconds(dispatcher);
+	}
+
+	@Test
+	public void testFactoryShutsDownReplacedDispatcher() throws Exception {
+		RestfulClientFactory factory = new ApacheRestfulClientFactory();
+		AsyncRequestDispatcher dispatcher = factory.getAsyncRequestDispatcher();
+		assertThat(dispatcher.submit("http://example.com/fhir", () -> "OK").join()).isEqualTo("OK");
+
+		factory.setAsyncMaxQueuedRequestsPerHost(5);
+
+		AsyncRequestDispatcher newDispatcher = factory.getAsyncRequestDispatcher();
+		assertThat(newDispatcher).isNotSameAs(dispatcher);
+		assertEquals(5, newDispatcher.getMaxQueuedRequestsPerHost());
+		assertTerminatedWithin10Seconds(dispatcher);
+	}
+
+	private static void assertTerminatedWithin10Seconds(AsyncRequestDispatcher theDispatcher) throws InterruptedException {
+		for (int i = 0; i < 100 && !theDispatcher.isTerminated(); i++) {
+			Thread.sleep(100);
+		}
+		assertThat(theDispatcher.isTerminated()).isTrue();
+	}
+
+	@Test
+	public void testToHost() {
+		assertEquals("example.com:8080", AsyncRequestDispatcher.toHost("http://example.com:8080/fhir"));
+		assertEquals("not a url", AsyncRequestDispatcher.toHost("not a url"));
+	}
+}
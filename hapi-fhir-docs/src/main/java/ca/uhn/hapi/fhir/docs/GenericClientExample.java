@@ -50,6 +50,7 @@ import org.hl7.fhir.r4.model.StringType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class GenericClientExample {
 	public static void deferModelScanning() {
@@ -540,6 +541,25 @@ public class GenericClientExample {
 			}
 			// END SNIPPET: searchPaging
 		}
+		{
+			FhirContext ctx = FhirContext.forDstu2();
+			IGenericClient client = ctx.newRestfulGenericClient("http://fhirtest.uhn.ca/baseDstu2");
+			// START SNIPPET: searchPagingAll
+			Bundle resultBundle = client.search()
+					.forResource(Patient.class)
+					.where(Patient.NAME.matches().value("Smith"))
+					.returnBundle(Bundle.class)
+					.execute();
+
+			// Walk all pages, fetching up to 3 pages ahead of the one being processed
+			try (Stream<Patient> patients = client.loadPage()
+					.allPages(resultBundle)
+					.prefetchPages(3)
+					.stream(Patient.class)) {
+				patients.forEach(patient -> System.out.println(patient.getIdElement()));
+			}
+			// END SNIPPET: searchPagingAll
+		}
 	}
 
 	@SuppressWarnings("unused")
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.config;
 
 import com.google.common.base.Strings;
 import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
 import org.hibernate.query.criteria.ValueHandlingMode;
 import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -80,6 +81,13 @@ public class HapiFhirLocalContainerEntityManagerFactoryBean extends LocalContain
 		if (!retVal.containsKey(AvailableSettings.BATCH_VERSIONED_DATA)) {
 			retVal.put(AvailableSettings.BATCH_VERSIONED_DATA, "true");
 		}
+
+		// If a sequence increment has been changed in the database (e.g. by the migrator in order
+		// to allocate larger blocks of IDs), use the database value instead of failing on startup
+		if (!retVal.containsKey(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY)) {
+			retVal.put(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX);
+		}
+
 		// Why is this here, you ask? LocalContainerEntityManagerFactoryBean actually clobbers the setting hibernate
 		// needs
 		// in order to be able to resolve beans, so we add it back in manually here
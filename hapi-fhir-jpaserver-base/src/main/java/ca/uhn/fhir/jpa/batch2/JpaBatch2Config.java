@@ -19,11 +19,14 @@
  */
 package ca.uhn.fhir.jpa.batch2;
 
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
 import ca.uhn.fhir.batch2.api.IJobPersistence;
 import ca.uhn.fhir.batch2.config.BaseBatch2Config;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.jpa.bulk.export.job.BulkExportJobConfig;
 import ca.uhn.fhir.jpa.dao.data.IBatch2JobInstanceRepository;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceLeaseRepository;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceNodeRepository;
 import ca.uhn.fhir.jpa.dao.data.IBatch2WorkChunkMetadataViewRepository;
 import ca.uhn.fhir.jpa.dao.data.IBatch2WorkChunkRepository;
 import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
@@ -52,4 +55,12 @@ public class JpaBatch2Config extends BaseBatch2Config {
 				theEntityManager,
 				theInterceptorBroadcaster);
 	}
+
+	@Bean
+	public IJobMaintenanceLeaseService batch2JobMaintenanceLeaseService(
+			IBatch2MaintenanceLeaseRepository theLeaseRepository,
+			IBatch2MaintenanceNodeRepository theNodeRepository,
+			IHapiTransactionService theTransactionService) {
+		return new JpaJobMaintenanceLeaseService(theLeaseRepository, theNodeRepository, theTransactionService);
+	}
 }
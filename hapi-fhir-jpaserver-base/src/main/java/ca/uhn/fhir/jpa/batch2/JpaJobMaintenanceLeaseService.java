@@ -0,0 +1,184 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.batch2;
+
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceLeaseRepository;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceNodeRepository;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.entity.Batch2MaintenanceLeaseEntity;
+import ca.uhn.fhir.jpa.entity.Batch2MaintenanceNodeEntity;
+import ca.uhn.fhir.util.Logs;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * JPA implementation of {@link IJobMaintenanceLeaseService}. Leases are stored in the
+ * {@link Batch2MaintenanceLeaseEntity BT2_MAINT_LEASE} table (one row per partition), and
+ * are acquired using conditional updates so that the database guarantees that a partition
+ * is never leased to two nodes at the same time. The nodes taking part are tracked in the
+ * {@link Batch2MaintenanceNodeEntity BT2_MAINT_NODE} table, which is used to work out the
+ * fair share of the partitions for each node.
+ */
+public class JpaJobMaintenanceLeaseService implements IJobMaintenanceLeaseService {
+	private static final Logger ourLog = Logs.getBatchTroubleshootingLog();
+
+	private final IBatch2MaintenanceLeaseRepository myLeaseRepository;
+	private final IBatch2MaintenanceNodeRepository myNodeRepository;
+	private final IHapiTransactionService myTransactionService;
+
+	/**
+	 * Constructor
+	 */
+	public JpaJobMaintenanceLeaseService(
+			IBatch2MaintenanceLeaseRepository theLeaseRepository,
+			IBatch2MaintenanceNodeRepository theNodeRepository,
+			IHapiTransactionService theTransactionService) {
+		Validate.notNull(theLeaseRepository);
+		Validate.notNull(theNodeRepository);
+		Validate.notNull(theTransactionService);
+		myLeaseRepository = theLeaseRepository;
+		myNodeRepository = theNodeRepository;
+		myTransactionService = theTransactionService;
+	}
+
+	@Nonnull
+	@Override
+	public Set<Integer> acquireLeases(
+			@Nonnull String theNodeId, int thePartitionCount, @Nonnull Date theNow, @Nonnull Date theLeaseExpiry) {
+		Validate.isTrue(thePartitionCount > 0, "thePartitionCount must be positive");
+		Validate.isTrue(theLeaseExpiry.after(theNow), "theLeaseExpiry must be after theNow");
+
+		createMissingPartitions(thePartitionCount);
+
+		return myTransactionService.withSystemRequestOnDefaultPartition().execute(() -> {
+			int nodeCount = recordNodeAndCountLiveNodes(theNodeId, theNow, theLeaseExpiry);
+			int fairShare = (thePartitionCount + nodeCount - 1) / nodeCount;
+
+			List<Batch2MaintenanceLeaseEntity> leases =
+					myLeaseRepository.findAll(Sort.by("myPartitionNum").ascending());
+			Set<Integer> retVal = new TreeSet<>();
+
+			// Renew the leases we already hold, up to our fair share
+			for (Batch2MaintenanceLeaseEntity next : leases) {
+				if (!theNodeId.equals(next.getOwnerId())) {
+					continue;
+				}
+				Integer partition = next.getPartitionNum();
+				if (partition >= thePartitionCount || retVal.size() >= fairShare) {
+					myLeaseRepository.releaseLease(partition, theNodeId);
+				} else if (myLeaseRepository.acquireLease(partition, theNodeId, theNow, theLeaseExpiry) == 1) {
+					retVal.add(partition);
+				}
+			}
+
+			// Acquire unowned and expired leases until we hold our fair share
+			for (Batch2MaintenanceLeaseEntity next : leases) {
+				if (retVal.size() >= fairShare) {
+					break;
+				}
+				Integer partition = next.getPartitionNum();
+				if (partition >= thePartitionCount || theNodeId.equals(next.getOwnerId())) {
+					continue;
+				}
+				boolean available = next.getOwnerId() == null
+						|| next.getLeaseExpires() == null
+						|| !next.getLeaseExpires().after(theNow);
+				if (available && myLeaseRepository.acquireLease(partition, theNodeId, theNow, theLeaseExpiry) == 1) {
+					ourLog.info("Node {} acquired batch2 maintenance partition {}", theNodeId, partition);
+					retVal.add(partition);
+				}
+			}
+
+			return retVal;
+		});
+	}
+
+	@Override
+	public boolean isLeaseHeld(@Nonnull String theNodeId, int thePartition, @Nonnull Date theNow) {
+		return myTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.execute(() -> myLeaseRepository.countLeasesHeld(thePartition, theNodeId, theNow) > 0);
+	}
+
+	@Override
+	public boolean hasActiveLeases(@Nonnull Date theNow) {
+		return myTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.execute(() -> myLeaseRepository.countActiveLeases(theNow) > 0);
+	}
+
+	@Override
+	public void releaseLeases(@Nonnull String theNodeId) {
+		myTransactionService.withSystemRequestOnDefaultPartition().execute(() -> {
+			int released = myLeaseRepository.releaseAllLeases(theNodeId);
+			myNodeRepository.findById(theNodeId).ifPresent(myNodeRepository::delete);
+			ourLog.info("Node {} released {} batch2 maintenance partition(s)", theNodeId, released);
+		});
+	}
+
+	/**
+	 * Records that the given node is alive, removes nodes that have not been seen for longer
+	 * than a lease lasts, and returns the number of remaining nodes.
+	 */
+	private int recordNodeAndCountLiveNodes(String theNodeId, Date theNow, Date theLeaseExpiry) {
+		Batch2MaintenanceNodeEntity node = myNodeRepository
+				.findById(theNodeId)
+				.orElseGet(() -> new Batch2MaintenanceNodeEntity().setNodeId(theNodeId));
+		node.setLastSeen(theNow);
+		myNodeRepository.save(node);
+
+		Date cutoff = new Date(theNow.getTime() - (theLeaseExpiry.getTime() - theNow.getTime()));
+		myNodeRepository.deleteNodesNotSeenSince(cutoff);
+
+		return (int) Math.max(1, myNodeRepository.count());
+	}
+
+	/**
+	 * Creates a lease row for any partitions that don't have one yet. Several nodes may try to
+	 * do this at the same time when the partition count is first set or increased, so this
+	 * happens in a separate transaction and a failure is ignored since another node will have
+	 * created the rows.
+	 */
+	private void createMissingPartitions(int thePartitionCount) {
+		try {
+			myTransactionService.withSystemRequestOnDefaultPartition().execute(() -> {
+				Set<Integer> existing = new HashSet<>(myLeaseRepository.findAllPartitionNums());
+				for (int i = 0; i < thePartitionCount; i++) {
+					if (!existing.contains(i)) {
+						myLeaseRepository.save(new Batch2MaintenanceLeaseEntity().setPartitionNum(i));
+					}
+				}
+			});
+		} catch (Exception e) {
+			ourLog.info(
+					"Failed to create batch2 maintenance partitions, they were probably created by another node: {}",
+					e.toString());
+		}
+	}
+}
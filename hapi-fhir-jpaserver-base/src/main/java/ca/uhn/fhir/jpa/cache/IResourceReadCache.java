@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+/**
+ * Caches the resources returned by read and vread operations on the JPA server. Entries are
+ * keyed by the request partition, resource type, ID and (for vread) version. A read without a
+ * version is stored under both the versionless key and the key for the version that was read.
+ * <p>
+ * Implementations must never return an instance which has previously been returned or passed
+ * to {@link #put(long, RequestPartitionId, String, IIdType, IBaseResource)}, since the caller
+ * (and any interceptors) may modify the resource it receives.
+ * </p>
+ * <p>
+ * The JPA server calls {@link #invalidate(String, String)} whenever a resource is modified, and
+ * {@link #invalidateAll()} when resources are removed without their IDs being known (e.g. by
+ * delete expunge or expunge everything). Implementations must invalidate the entries both
+ * immediately and again once the modifying transaction completes.
+ * </p>
+ *
+ * @see ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setResourceReadCacheMillis(long)
+ * @since 7.6.0
+ */
+public interface IResourceReadCache {
+
+	/**
+	 * Returns <code>true</code> if reads should use this cache
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Returns a copy of the cached resource, or <code>null</code> if the resource is not cached
+	 *
+	 * @param theRequestPartitionId    The partition(s) the read is performed against
+	 * @param theResourceType          The resource type
+	 * @param theId                    The ID being read, with a version part for a vread
+	 * @param theStoredJsonPassThrough If <code>true</code>, the cache may return a pre-encoded resource
+	 *                                 (see {@link ca.uhn.fhir.util.PreEncodedResourceUtil}), as the resource
+	 *                                 would have been loaded for the request
+	 */
+	@Nullable
+	IBaseResource get(
+			@Nonnull RequestPartitionId theRequestPartitionId,
+			@Nonnull String theResourceType,
+			@Nonnull IIdType theId,
+			boolean theStoredJsonPassThrough);
+
+	/**
+	 * Must be called before loading a resource which will be passed to
+	 * {@link #put(long, RequestPartitionId, String, IIdType, IBaseResource)}. The returned value
+	 * allows the cache to discard resources which were loaded while an invalidation took place.
+	 */
+	long beginLoad();
+
+	/**
+	 * Stores a resource which was loaded from the database
+	 *
+	 * @param theLoadToken          The value returned by {@link #beginLoad()} before the resource was loaded
+	 * @param theRequestPartitionId The partition(s) the read was performed against
+	 * @param theResourceType       The resource type
+	 * @param theId                 The ID which was read, with a version part for a vread
+	 * @param theResource           The resource. The cache must not retain a reference to this instance.
+	 */
+	void put(
+			long theLoadToken,
+			@Nonnull RequestPartitionId theRequestPartitionId,
+			@Nonnull String theResourceType,
+			@Nonnull IIdType theId,
+			@Nonnull IBaseResource theResource);
+
+	/**
+	 * Removes all versions of the given resource from the cache
+	 */
+	void invalidate(@Nonnull String theResourceType, @Nonnull String theIdPart);
+
+	/**
+	 * Removes all entries from the cache
+	 */
+	void invalidateAll();
+}
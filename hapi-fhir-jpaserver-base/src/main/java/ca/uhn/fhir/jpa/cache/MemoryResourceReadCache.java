@@ -0,0 +1,269 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.cache;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
+import ca.uhn.fhir.util.PreEncodedResourceUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link IResourceReadCache} implementation, which keeps resources in memory in their
+ * encoded (JSON) form and parses a new copy for every cache hit. This avoids loading and
+ * decompressing the stored resource and resolving its ID, and ensures that callers can never
+ * modify a cached instance.
+ * <p>
+ * Resources which were loaded as pre-encoded resources (see {@link PreEncodedResourceUtil}) are
+ * cached as their ID and metadata plus the encoded elements, so that a hit for a request which
+ * allows stored JSON pass-through only parses the ID and metadata. Hits for other requests inflate
+ * the resource.
+ * </p>
+ * <p>
+ * Entries are held in a {@link CacheFactory} cache which expires them once the configured
+ * {@link JpaStorageSettings#getResourceReadCacheMillis() timeout} has elapsed since they were
+ * first written, and which holds at most {@link #MAX_CACHED_RESOURCES} resources.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class MemoryResourceReadCache implements IResourceReadCache {
+
+	/**
+	 * The maximum number of resources (regardless of the number of cached versions) to cache
+	 */
+	public static final int MAX_CACHED_RESOURCES = 10000;
+
+	private static final String VERSIONLESS = "";
+
+	private final FhirContext myFhirContext;
+	private final JpaStorageSettings myStorageSettings;
+	private final AtomicLong myInvalidationCount = new AtomicLong();
+	private volatile Cache<String, Map<String, CachedResource>> myCache;
+	private long myCacheMillis;
+
+	/**
+	 * Constructor
+	 */
+	public MemoryResourceReadCache(FhirContext theFhirContext, JpaStorageSettings theStorageSettings) {
+		myFhirContext = theFhirContext;
+		myStorageSettings = theStorageSettings;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return myStorageSettings.getResourceReadCacheMillis() > 0;
+	}
+
+	@Nullable
+	@Override
+	public IBaseResource get(
+			@Nonnull RequestPartitionId theRequestPartitionId,
+			@Nonnull String theResourceType,
+			@Nonnull IIdType theId,
+			boolean theStoredJsonPassThrough) {
+		Map<String, CachedResource> versions =
+				getCache().getIfPresent(toResourceKey(theResourceType, theId.getIdPart()));
+		if (versions == null) {
+			return null;
+		}
+
+		CachedResource cached = versions.get(toVersionKey(theRequestPartitionId, theId.getVersionIdPart()));
+		if (cached == null) {
+			return null;
+		}
+
+		IBaseResource retVal = newParser().parseResource(cached.myEncoded);
+		if (cached.myPreEncodedElements != null) {
+			PreEncodedResourceUtil.setPreEncodedElements(retVal, cached.myPreEncodedElements);
+			if (!theStoredJsonPassThrough) {
+				PreEncodedResourceUtil.inflate(myFhirContext, retVal);
+			}
+		}
+		if (cached.myResourcePartitionId != null) {
+			retVal.setUserData(Constants.RESOURCE_PARTITION_ID, cached.myResourcePartitionId);
+		}
+		return retVal;
+	}
+
+	@Override
+	public long beginLoad() {
+		return myInvalidationCount.get();
+	}
+
+	@Override
+	public void put(
+			long theLoadToken,
+			@Nonnull RequestPartitionId theRequestPartitionId,
+			@Nonnull String theResourceType,
+			@Nonnull IIdType theId,
+			@Nonnull IBaseResource theResource) {
+		String preEncodedElements = PreEncodedResourceUtil.getPreEncodedElements(theResource);
+		String encoded;
+		if (preEncodedElements != null) {
+			encoded = newParser().encodeResourceToString(copyIdAndMeta(theResource));
+		} else {
+			encoded = newParser().encodeResourceToString(theResource);
+		}
+		RequestPartitionId resourcePartitionId =
+				(RequestPartitionId) theResource.getUserData(Constants.RESOURCE_PARTITION_ID);
+		CachedResource cached = new CachedResource(encoded, preEncodedElements, resourcePartitionId);
+
+		String resourceKey = toResourceKey(theResourceType, theId.getIdPart());
+		Map<String, CachedResource> versions =
+				getCache().asMap().computeIfAbsent(resourceKey, t -> new ConcurrentHashMap<>());
+		versions.put(toVersionKey(theRequestPartitionId, theId.getVersionIdPart()), cached);
+		String version = theResource.getIdElement().getVersionIdPart();
+		if (!theId.hasVersionIdPart() && version != null) {
+			versions.put(toVersionKey(theRequestPartitionId, version), cached);
+		}
+
+		/*
+		 * If the resource was invalidated while we were loading it, what we loaded may
+		 * already be out of date, so don't keep it
+		 */
+		if (myInvalidationCount.get() != theLoadToken) {
+			getCache().invalidate(resourceKey);
+		}
+	}
+
+	@Override
+	public void invalidate(@Nonnull String theResourceType, @Nonnull String theIdPart) {
+		String resourceKey = toResourceKey(theResourceType, theIdPart);
+		doInvalidate(resourceKey);
+
+		// Invalidate again once the modifying transaction completes, since a read in another
+		// transaction may have cached the previous version in the meantime
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int theStatus) {
+					doInvalidate(resourceKey);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+		doInvalidateAll();
+
+		// As above, a read in another transaction may cache a removed resource in the meantime
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int theStatus) {
+					doInvalidateAll();
+				}
+			});
+		}
+	}
+
+	private void doInvalidateAll() {
+		myInvalidationCount.incrementAndGet();
+		getCache().invalidateAll();
+	}
+
+	private void doInvalidate(String theResourceKey) {
+		myInvalidationCount.incrementAndGet();
+		getCache().invalidate(theResourceKey);
+	}
+
+	/**
+	 * Returns the cache, creating a new (empty) one if the configured timeout has changed. All the
+	 * versions of a resource expire together, when the timeout has elapsed since the first of them
+	 * was cached.
+	 */
+	private Cache<String, Map<String, CachedResource>> getCache() {
+		long cacheMillis = myStorageSettings.getResourceReadCacheMillis();
+		Cache<String, Map<String, CachedResource>> retVal = myCache;
+		if (retVal == null || myCacheMillis != cacheMillis) {
+			synchronized (this) {
+				retVal = myCache;
+				if (retVal == null || myCacheMillis != cacheMillis) {
+					retVal = CacheFactory.build(Math.max(1, cacheMillis), MAX_CACHED_RESOURCES);
+					myCacheMillis = cacheMillis;
+					myCache = retVal;
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns a new resource with only the ID and metadata of the given resource
+	 */
+	private IBaseResource copyIdAndMeta(IBaseResource theResource) {
+		RuntimeResourceDefinition resourceDef = myFhirContext.getResourceDefinition(theResource);
+		IBaseResource retVal = resourceDef.newInstance();
+		retVal.setId(theResource.getIdElement());
+		BaseRuntimeChildDefinition metaChild = resourceDef.getChildByName("meta");
+		for (IBase nextValue : metaChild.getAccessor().getValues(theResource)) {
+			metaChild.getMutator().addValue(retVal, nextValue);
+		}
+		return retVal;
+	}
+
+	private IParser newParser() {
+		return myFhirContext.newJsonParser();
+	}
+
+	private static String toResourceKey(String theResourceType, String theIdPart) {
+		return theResourceType + "/" + theIdPart;
+	}
+
+	private static String toVersionKey(RequestPartitionId theRequestPartitionId, @Nullable String theVersion) {
+		return RequestPartitionId.stringifyForKey(theRequestPartitionId) + "/"
+				+ (theVersion != null ? theVersion : VERSIONLESS);
+	}
+
+	private static class CachedResource {
+		/**
+		 * The complete resource, or only its ID and metadata if {@link #myPreEncodedElements} is set
+		 */
+		private final String myEncoded;
+
+		private final String myPreEncodedElements;
+		private final RequestPartitionId myResourcePartitionId;
+
+		private CachedResource(
+				String theEncoded, String thePreEncodedElements, RequestPartitionId theResourcePartitionId) {
+			myEncoded = theEncoded;
+			myPreEncodedElements = thePreEncodedElements;
+			myResourcePartitionId = theResourcePartitionId;
+		}
+	}
+}
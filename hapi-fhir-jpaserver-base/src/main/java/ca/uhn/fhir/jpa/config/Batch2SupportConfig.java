@@ -26,6 +26,7 @@ import ca.uhn.fhir.jpa.api.svc.IBatch2DaoSvc;
 import ca.uhn.fhir.jpa.api.svc.IDeleteExpungeSvc;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.batch2.Batch2DaoSvcImpl;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.IFulltextSearchSvc;
 import ca.uhn.fhir.jpa.dao.data.IResourceLinkDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
@@ -55,8 +56,10 @@ public class Batch2SupportConfig {
 	public IDeleteExpungeSvc deleteExpungeSvc(
 			EntityManager theEntityManager,
 			DeleteExpungeSqlBuilder theDeleteExpungeSqlBuilder,
-			@Autowired(required = false) IFulltextSearchSvc theFullTextSearchSvc) {
-		return new DeleteExpungeSvcImpl(theEntityManager, theDeleteExpungeSqlBuilder, theFullTextSearchSvc);
+			@Autowired(required = false) IFulltextSearchSvc theFullTextSearchSvc,
+			@Autowired(required = false) IResourceReadCache theResourceReadCache) {
+		return new DeleteExpungeSvcImpl(
+				theEntityManager, theDeleteExpungeSqlBuilder, theFullTextSearchSvc, theResourceReadCache);
 	}
 
 	@Bean
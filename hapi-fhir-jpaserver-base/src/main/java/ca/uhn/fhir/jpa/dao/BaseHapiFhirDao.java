@@ -37,6 +37,7 @@ import ca.uhn.fhir.jpa.api.dao.IJpaDao;
 import ca.uhn.fhir.jpa.api.model.DaoMethodOutcome;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.api.svc.ISearchCoordinatorSvc;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.data.IResourceHistoryTableDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceLinkDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
@@ -251,6 +252,9 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 	@Autowired
 	private MemoryCacheService myMemoryCacheService;
 
+	@Autowired(required = false)
+	protected IResourceReadCache myResourceReadCache;
+
 	@Autowired(required = false)
 	private IFulltextSearchSvc myFulltextSearchSvc;
 
@@ -1029,6 +1033,17 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 				theCreateOrUpdate.name().toLowerCase());
 	}
 
+	/**
+	 * Removes all cached versions of the given resource from the resource read cache, if one is
+	 * configured. This must be called whenever a resource or any of its versions is modified.
+	 */
+	protected void invalidateResourceReadCache(BaseHasResource theEntity) {
+		if (myResourceReadCache != null && theEntity.getResourceId() != null) {
+			myResourceReadCache.invalidate(
+					theEntity.getResourceType(), theEntity.getIdDt().getIdPart());
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public ResourceTable updateEntity(
@@ -1052,6 +1067,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		ourLog.debug("Starting entity update");
 
 		ResourceTable entity = (ResourceTable) theEntity;
+		invalidateResourceReadCache(entity);
 
 		/*
 		 * This should be the very first thing..
@@ -1194,6 +1210,17 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			entity.markVersionUpdatedInCurrentTransaction();
 		}
 
+		/*
+		 * Calculate the index hashes before saving the entity so that they are written as a
+		 * part of the same insert/update. New entities which aren't being indexed yet (e.g. the
+		 * first pass of a FHIR transaction) are included so that they aren't updated again once
+		 * they are indexed. The hashes of the existing rows are tracked separately in
+		 * existingParams, so this doesn't affect which rows get synchronized.
+		 */
+		if (newParams != null && (thePerformIndexing || entity.getId() == null)) {
+			myDaoSearchParamSynchronizer.populateIndexHashes(newParams, entity);
+		}
+
 		/*
 		 * Save the resource itself
 		 */
@@ -1264,7 +1291,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 						myDaoSearchParamSynchronizer.synchronizeSearchParamsToDatabase(
 								newParams, entity, existingParams);
 
-				newParams.populateResourceTableParamCollections(entity);
+				newParams.populateResourceTableParamCollections(entity, existingParams);
 
 				// Interceptor broadcast: JPA_PERFTRACE_INFO
 				if (!searchParamAddRemoveCount.isEmpty()) {
@@ -1356,6 +1383,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 				theEntity.getPersistentId());
 
 		ourLog.debug("Starting history entity update");
+		invalidateResourceReadCache((ResourceTable) theEntity);
 		EncodedResource encodedResource = new EncodedResource();
 		ResourceHistoryTable historyEntity;
 
@@ -1023,6 +1023,7 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 			BaseHasResource theEntity,
 			RequestDetails theRequestDetails,
 			TransactionDetails theTransactionDetails) {
+		invalidateResourceReadCache(theEntity);
 		IBaseResource oldVersion = myJpaStorageResourceParser.toResource(theEntity, false);
 
 		List<TagDefinition> tags = toTagList(theMetaAdd);
@@ -1092,6 +1093,7 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 			BaseHasResource theEntity,
 			RequestDetails theRequestDetails,
 			TransactionDetails theTransactionDetails) {
+		invalidateResourceReadCache(theEntity);
 
 		// todo mb update hibernate search index if we are storing resources - it assumes inline tags.
 		IBaseResource oldVersion = myJpaStorageResourceParser.toResource(theEntity, false);
@@ -1537,26 +1539,54 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 		RequestPartitionId requestPartitionId = myRequestPartitionHelperService.determineReadPartitionForRequestForRead(
 				theRequest, myResourceName, theId);
 
+		/*
+		 * Reads performed within an existing transaction may see changes which have not
+		 * been committed yet, so only reads performed in their own transaction use the
+		 * resource read cache
+		 */
+		boolean useReadCache = myResourceReadCache != null
+				&& myResourceReadCache.isEnabled()
+				&& !TransactionSynchronizationManager.isActualTransactionActive();
+
 		return myTransactionService
 				.withRequest(theRequest)
 				.withTransactionDetails(transactionDetails)
 				.withRequestPartitionId(requestPartitionId)
-				.read(() -> doReadInTransaction(theId, theRequest, theDeletedOk, requestPartitionId));
+				.read(() -> doReadInTransaction(theId, theRequest, theDeletedOk, requestPartitionId, useReadCache));
 	}
 
+	@SuppressWarnings("unchecked")
 	private T doReadInTransaction(
-			IIdType theId, RequestDetails theRequest, boolean theDeletedOk, RequestPartitionId theRequestPartitionId) {
+			IIdType theId,
+			RequestDetails theRequest,
+			boolean theDeletedOk,
+			RequestPartitionId theRequestPartitionId,
+			boolean theUseReadCache) {
 		assert TransactionSynchronizationManager.isActualTransactionActive();
 
 		StopWatch w = new StopWatch();
-		BaseHasResource entity = readEntity(theId, true, theRequest, theRequestPartitionId);
-		validateResourceType(entity);
+		boolean storedJsonPassThrough = myJpaStorageResourceParser.isStoredJsonPassThroughAllowed(theRequest);
+		T retVal = null;
+		if (theUseReadCache) {
+			retVal = (T) myResourceReadCache.get(theRequestPartitionId, myResourceName, theId, storedJsonPassThrough);
+		}
+
+		if (retVal == null) {
+			long loadToken = theUseReadCache ? myResourceReadCache.beginLoad() : 0;
+			BaseHasResource entity = readEntity(theId, true, theRequest, theRequestPartitionId);
+			validateResourceType(entity);
 
-		T retVal = myJpaStorageResourceParser.toResource(myResourceType, entity, null, false);
+			retVal = myJpaStorageResourceParser.toResource(myResourceType, entity, null, false, storedJsonPassThrough);
 
-		if (!theDeletedOk) {
-			if (isDeleted(entity)) {
-				throw createResourceGoneException(entity);
+			if (!theDeletedOk) {
+				if (isDeleted(entity)) {
+					throw createResourceGoneException(entity);
+				}
+			}
+
+			// Deleted resources are never cached, so a cache hit is never for a deleted resource
+			if (theUseReadCache && retVal != null && !isDeleted(entity)) {
+				myResourceReadCache.put(loadToken, theRequestPartitionId, myResourceName, theId, retVal);
 			}
 		}
 		// If the resolved fhir model is null, we don't need to run pre-access over or pre-show over it.
@@ -1678,6 +1708,10 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 		SystemRequestDetails request = new SystemRequestDetails();
 		request.getUserData().put(JpaConstants.SKIP_REINDEX_ON_UPDATE, Boolean.TRUE);
 
+		// Reindexing is also used to repair index rows, so always compare the new indexes
+		// against the existing rows instead of trusting the stored index hashes
+		((ResourceTable) theEntity).setIndexHashes(null);
+
 		updateEntity(
 				request, theResource, theEntity, theEntity.getDeleted(), true, false, transactionDetails, true, false);
 		if (theResource != null) {
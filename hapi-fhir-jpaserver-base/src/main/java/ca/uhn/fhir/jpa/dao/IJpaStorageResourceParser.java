@@ -22,6 +22,7 @@ package ca.uhn.fhir.jpa.dao;
 import ca.uhn.fhir.jpa.model.entity.BaseTag;
 import ca.uhn.fhir.jpa.model.entity.IBaseResourceEntity;
 import ca.uhn.fhir.jpa.model.entity.ResourceTag;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
 import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
@@ -39,6 +40,35 @@ public interface IJpaStorageResourceParser extends IStorageResourceParser {
 			Collection<ResourceTag> theTagList,
 			boolean theForHistoryOperation);
 
+	/**
+	 * Convert a storage entity into a FHIR resource model instance. If <code>theStoredJsonPassThrough</code>
+	 * is <code>true</code>, a resource which is stored as JSON may be returned as a pre-encoded resource
+	 * (see {@link ca.uhn.fhir.util.PreEncodedResourceUtil}) instead of being parsed. This should only be
+	 * requested if {@link #isStoredJsonPassThroughAllowed(RequestDetails)} returned <code>true</code> for
+	 * the request which will return the resource.
+	 *
+	 * @since 7.6.0
+	 */
+	default <R extends IBaseResource> R toResource(
+			Class<R> theResourceType,
+			IBaseResourceEntity theEntity,
+			Collection<ResourceTag> theTagList,
+			boolean theForHistoryOperation,
+			boolean theStoredJsonPassThrough) {
+		return toResource(theResourceType, theEntity, theTagList, theForHistoryOperation);
+	}
+
+	/**
+	 * Returns <code>true</code> if resources returned to the client by the given request may be
+	 * written to the response using their stored JSON
+	 *
+	 * @see ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setStoredJsonPassThroughEnabled(boolean)
+	 * @since 7.6.0
+	 */
+	default boolean isStoredJsonPassThroughAllowed(@Nullable RequestDetails theRequestDetails) {
+		return false;
+	}
+
 	/**
 	 * Populate the metadata (Resource.meta.*) from a storage entity and other related
 	 * objects pulled from the database
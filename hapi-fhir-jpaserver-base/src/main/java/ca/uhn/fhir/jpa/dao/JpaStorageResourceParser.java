@@ -23,6 +23,8 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.IDao;
@@ -55,8 +57,16 @@ import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.parser.LenientErrorHandler;
 import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.rest.server.method.ElementsParameter;
+import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
 import ca.uhn.fhir.util.IMetaTagSorter;
 import ca.uhn.fhir.util.MetaUtil;
+import ca.uhn.fhir.util.PreEncodedResourceUtil;
 import jakarta.annotation.Nullable;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.Validate;
@@ -82,6 +92,10 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 	public static final LenientErrorHandler LENIENT_ERROR_HANDLER = new LenientErrorHandler(false).disableAllErrors();
 	private static final Logger ourLog = LoggerFactory.getLogger(JpaStorageResourceParser.class);
+	private static final List<Pointcut> PASS_THROUGH_BLOCKING_POINTCUTS = List.of(
+			Pointcut.STORAGE_PREACCESS_RESOURCES,
+			Pointcut.STORAGE_PRESHOW_RESOURCES,
+			Pointcut.SERVER_OUTGOING_RESPONSE);
 
 	@Autowired
 	private FhirContext myFhirContext;
@@ -104,6 +118,9 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 	@Autowired
 	IMetaTagSorter myMetaTagSorter;
 
+	@Autowired
+	private IInterceptorBroadcaster myInterceptorBroadcaster;
+
 	@Override
 	public IBaseResource toResource(IBasePersistedResource theEntity, boolean theForHistoryOperation) {
 		RuntimeResourceDefinition type = myFhirContext.getResourceDefinition(theEntity.getResourceType());
@@ -117,6 +134,16 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 			IBaseResourceEntity theEntity,
 			Collection<ResourceTag> theTagList,
 			boolean theForHistoryOperation) {
+		return toResource(theResourceType, theEntity, theTagList, theForHistoryOperation, false);
+	}
+
+	@Override
+	public <R extends IBaseResource> R toResource(
+			Class<R> theResourceType,
+			IBaseResourceEntity theEntity,
+			Collection<ResourceTag> theTagList,
+			boolean theForHistoryOperation,
+			boolean theStoredJsonPassThrough) {
 
 		// 1. get resource, it's encoding and the tags if any
 		byte[] resourceBytes;
@@ -223,8 +250,14 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		// 3. Use the appropriate custom type if one is specified in the context
 		Class<R> resourceType = determineTypeToParse(theResourceType, tagList);
 
-		// 4. parse the text to FHIR
-		R retVal = parseResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		// 4. parse the text to FHIR, unless the stored JSON can be written to the response as-is
+		R retVal = null;
+		if (theStoredJsonPassThrough) {
+			retVal = createPreEncodedResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		}
+		if (retVal == null) {
+			retVal = parseResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		}
 
 		// 5. fill MetaData
 		retVal = populateResourceMetadata(theEntity, theForHistoryOperation, tagList, version, retVal);
@@ -255,6 +288,91 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		}
 	}
 
+	/**
+	 * Creates a resource containing only the stored JSON (see {@link PreEncodedResourceUtil}), or
+	 * returns <code>null</code> if the stored resource can't be used as-is
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private <R extends IBaseResource> R createPreEncodedResource(
+			IBaseResourceEntity theEntity,
+			ResourceEncodingEnum theResourceEncoding,
+			String theDecodedResourceText,
+			Class<R> theResourceType) {
+		if (theResourceEncoding != ResourceEncodingEnum.JSON && theResourceEncoding != ResourceEncodingEnum.JSONC) {
+			return null;
+		}
+		if (theEntity.getDeleted() != null
+				|| theEntity.getFhirVersion() != myFhirContext.getVersion().getVersion()
+				|| myStorageSettings.getTagStorageMode() == JpaStorageSettings.TagStorageModeEnum.INLINE
+				|| !IAnyResource.class.isAssignableFrom(theResourceType)) {
+			return null;
+		}
+
+		RuntimeResourceDefinition resourceDef = myFhirContext.getResourceDefinition(theResourceType);
+		if (resourceDef.getImplementingClass() != theResourceType || "Binary".equals(resourceDef.getName())) {
+			return null;
+		}
+
+		String encodedElements = PreEncodedResourceUtil.extractElements(resourceDef.getName(), theDecodedResourceText);
+		if (encodedElements == null) {
+			return null;
+		}
+
+		R retVal = (R) resourceDef.newInstance();
+		PreEncodedResourceUtil.setPreEncodedElements(retVal, encodedElements);
+		return retVal;
+	}
+
+	@Override
+	public boolean isStoredJsonPassThroughAllowed(@Nullable RequestDetails theRequestDetails) {
+		if (!myStorageSettings.isStoredJsonPassThroughEnabled()
+				|| theRequestDetails == null
+				|| !(theRequestDetails.getServer() instanceof RestfulServer)
+				|| theRequestDetails.getRestOperationType() == null) {
+			return false;
+		}
+
+		switch (theRequestDetails.getRestOperationType()) {
+			case READ:
+			case VREAD:
+			case SEARCH_TYPE:
+			case SEARCH_SYSTEM:
+			case GET_PAGE:
+				break;
+			default:
+				return false;
+		}
+
+		if (myFhirContext.getNarrativeGenerator() != null || myFhirContext.hasDefaultTypeForProfile()) {
+			return false;
+		}
+
+		RestfulServer server = (RestfulServer) theRequestDetails.getServer();
+		if (RestfulServerUtils.determineResponseEncodingWithDefault(theRequestDetails)
+								.getEncoding()
+						!= EncodingEnum.JSON
+				|| RestfulServerUtils.prettyPrintResponse(server, theRequestDetails)
+				|| !RestfulServerUtils.determineSummaryMode(theRequestDetails)
+						.equals(Collections.singleton(SummaryEnum.FALSE))
+				|| ElementsParameter.getElementsValueOrNull(theRequestDetails, false) != null
+				|| ElementsParameter.getElementsValueOrNull(theRequestDetails, true) != null) {
+			return false;
+		}
+
+		// Interceptors on these pointcuts may need to examine or modify the resource model
+		for (Pointcut next : PASS_THROUGH_BLOCKING_POINTCUTS) {
+			if (CompositeInterceptorBroadcaster.hasHooks(next, myInterceptorBroadcaster, theRequestDetails)) {
+				return false;
+			}
+			if (server.getInterceptorService().hasHooks(next)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	@SuppressWarnings("unchecked")
 	private <R extends IBaseResource> R parseResource(
 			IBaseResourceEntity theEntity,
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.dao;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.context.RuntimeSearchParam;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
@@ -29,20 +30,28 @@ import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.config.HapiFhirHibernateJpaDialect;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
+import ca.uhn.fhir.jpa.model.entity.ResourceLink;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.jpa.model.entity.StorageSettings;
 import ca.uhn.fhir.jpa.partition.IRequestPartitionHelperSvc;
 import ca.uhn.fhir.jpa.searchparam.MatchUrlService;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
 import ca.uhn.fhir.jpa.util.QueryChunker;
 import ca.uhn.fhir.model.api.IQueryParameterType;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
+import ca.uhn.fhir.rest.param.ReferenceParam;
+import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import ca.uhn.fhir.util.ResourceReferenceInfo;
 import ca.uhn.fhir.util.StopWatch;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.SetMultimap;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -55,7 +64,9 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.apache.commons.lang3.Validate;
+import org.hibernate.Session;
 import org.hibernate.internal.SessionImpl;
+import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -66,7 +77,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -77,11 +90,13 @@ import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.util.UrlUtil.determineResourceTypeInResourceUrl;
 import static org.apache.commons.lang3.StringUtils.countMatches;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class TransactionProcessor extends BaseTransactionProcessor {
 
 	public static final Pattern SINGLE_PARAMETER_MATCH_URL_PATTERN = Pattern.compile("^[^?]+[?][a-z0-9-]+=[^&,]+$");
+	public static final Pattern SINGLE_ID_PARAMETER_MATCH_URL_PATTERN = Pattern.compile("^[^?]+[?]_id=[^&,]+$");
 	private static final Logger ourLog = LoggerFactory.getLogger(TransactionProcessor.class);
 
 	@Autowired
@@ -111,6 +126,12 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 	@Autowired
 	private IRequestPartitionHelperSvc myRequestPartitionSvc;
 
+	@Autowired
+	private ISearchParamRegistry mySearchParamRegistry;
+
+	@Autowired
+	private ISearchParamExtractor mySearchParamExtractor;
+
 	public void setEntityManagerForUnitTest(EntityManager theEntityManager) {
 		myEntityManager = theEntityManager;
 	}
@@ -297,6 +318,8 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 			List<Long> theOutputPidsToLoadFully) {
 		Set<Long> systemAndValueHashes = new HashSet<>();
 		Set<Long> valueHashes = new HashSet<>();
+		List<MatchUrlToResolve> idMatchUrls = new ArrayList<>();
+		ListMultimap<String, MatchUrlToResolve> referenceMatchUrls = ArrayListMultimap.create();
 		for (MatchUrlToResolve next : theInputParameters) {
 			Collection<List<List<IQueryParameterType>>> values = next.myMatchUrlSearchMap.values();
 			if (values.size() == 1) {
@@ -306,6 +329,17 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 				if (param instanceof TokenParam) {
 					buildHashPredicateFromTokenParam(
 							(TokenParam) param, theRequestPartitionId, next, systemAndValueHashes, valueHashes);
+				} else if (param instanceof StringParam && next.getParamName().equals(IAnyResource.SP_RES_ID)) {
+					if (isNotBlank(((StringParam) param).getValue())) {
+						next.myIdPart = ((StringParam) param).getValue();
+						idMatchUrls.add(next);
+					}
+				} else if (param instanceof ReferenceParam) {
+					IIdType targetId = toPreFetchableReferenceTarget((ReferenceParam) param);
+					if (targetId != null) {
+						next.myReferenceTargetId = targetId;
+						referenceMatchUrls.put(next.myResourceDefinition.getName() + "?" + next.getParamName(), next);
+					}
 				}
 			}
 		}
@@ -325,17 +359,268 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 				theInputParameters,
 				theOutputPidsToLoadFully);
 
-		// For each SP Map which did not return a result, tag it as not found.
-		if (!valueHashes.isEmpty() || !systemAndValueHashes.isEmpty()) {
-			theInputParameters.stream()
-					// No matches
-					.filter(match -> !match.myResolved)
-					.forEach(match -> {
-						ourLog.debug("Was unable to match url {} from database", match.myRequestUrl);
-						theTransactionDetails.addResolvedMatchUrl(
-								myFhirContext, match.myRequestUrl, TransactionDetails.NOT_FOUND);
-					});
+		preFetchSearchParameterMapsId(
+				idMatchUrls, theTransactionDetails, theRequestPartitionId, theOutputPidsToLoadFully);
+		preFetchSearchParameterMapsReference(
+				referenceMatchUrls, theTransactionDetails, theRequestPartitionId, theOutputPidsToLoadFully);
+
+		// For each SP Map which we tried to resolve but which did not return a result, tag it as not found.
+		theInputParameters.stream()
+				// No matches
+				.filter(match -> match.myResolutionAttempted && !match.myResolved)
+				.forEach(match -> {
+					ourLog.debug("Was unable to match url {} from database", match.myRequestUrl);
+					theTransactionDetails.addResolvedMatchUrl(
+							myFhirContext, match.myRequestUrl, TransactionDetails.NOT_FOUND);
+				});
+	}
+
+	/**
+	 * Resolves all of the <code>_id</code> match URLs (e.g. <code>Patient?_id=123</code>) with a single
+	 * query per resource type against the {@link ResourceTable} table.
+	 */
+	private void preFetchSearchParameterMapsId(
+			List<MatchUrlToResolve> theIdMatchUrls,
+			TransactionDetails theTransactionDetails,
+			RequestPartitionId theRequestPartitionId,
+			List<Long> theOutputPidsToLoadFully) {
+		if (theIdMatchUrls.isEmpty()) {
+			return;
+		}
+
+		ListMultimap<String, MatchUrlToResolve> typeToMatchUrls = ArrayListMultimap.create();
+		for (MatchUrlToResolve next : theIdMatchUrls) {
+			typeToMatchUrls.put(next.myResourceDefinition.getName(), next);
+		}
+
+		for (String nextResourceType : typeToMatchUrls.keySet()) {
+			List<MatchUrlToResolve> matchUrls = typeToMatchUrls.get(nextResourceType);
+			Set<String> ids = matchUrls.stream().map(t -> t.myIdPart).collect(Collectors.toSet());
+
+			CriteriaBuilder cb = myEntityManager.getCriteriaBuilder();
+			CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+			Root<ResourceTable> from = cq.from(ResourceTable.class);
+			cq.multiselect(from.get("myId"), from.get("myFhirId"));
+
+			Predicate masterPredicate = cb.and(
+					cb.equal(from.get("myResourceType"), nextResourceType),
+					from.get("myFhirId").in(ids),
+					cb.isNull(from.get("myDeleted")));
+			masterPredicate = addPartitionPredicate(cb, from, theRequestPartitionId, masterPredicate);
+			cq.where(masterPredicate);
+
+			ListMultimap<String, Long> idToPids = ArrayListMultimap.create();
+			for (Tuple nextResult : myEntityManager.createQuery(cq).getResultList()) {
+				idToPids.put(nextResult.get(1, String.class), nextResult.get(0, Long.class));
+			}
+
+			for (MatchUrlToResolve nextMatchUrl : matchUrls) {
+				List<Long> pids = idToPids.get(nextMatchUrl.myIdPart);
+				if (pids.size() == 1) {
+					setSearchToResolvedAndPrefetchFoundResourcePid(
+							theTransactionDetails, theOutputPidsToLoadFully, pids.get(0), nextMatchUrl);
+				} else if (pids.isEmpty()) {
+					nextMatchUrl.myResolutionAttempted = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves all of the reference match URLs (e.g. <code>Observation?subject=Patient/123</code>)
+	 * with a single query per resource type and search parameter against the {@link ResourceLink} table.
+	 * Match URLs whose target can not be found, or which match more than one resource, are left
+	 * for the regular match URL resolution to handle.
+	 * <p>
+	 * The links are queried using every path the search parameter extractor can store for the
+	 * parameter, so a match URL which finds no link here is known not to match anything and can
+	 * safely be cached as not found.
+	 */
+	private void preFetchSearchParameterMapsReference(
+			ListMultimap<String, MatchUrlToResolve> theShapeToMatchUrls,
+			TransactionDetails theTransactionDetails,
+			RequestPartitionId theRequestPartitionId,
+			List<Long> theOutputPidsToLoadFully) {
+		if (theShapeToMatchUrls.isEmpty()) {
+			return;
+		}
+
+		Map<String, Long> targetIdToPid =
+				resolveReferenceTargetPids(theShapeToMatchUrls.values(), theRequestPartitionId);
+
+		for (String nextShape : theShapeToMatchUrls.keySet()) {
+			List<MatchUrlToResolve> matchUrls = theShapeToMatchUrls.get(nextShape);
+			MatchUrlToResolve firstMatchUrl = matchUrls.get(0);
+			String resourceType = firstMatchUrl.myResourceDefinition.getName();
+			RuntimeSearchParam searchParam =
+					mySearchParamRegistry.getActiveSearchParam(resourceType, firstMatchUrl.getParamName());
+			if (searchParam == null || isBlank(searchParam.getPath())) {
+				continue;
+			}
+			/*
+			 * Use the same splitting as the extractor does when it stores the link source paths.
+			 * RuntimeSearchParam#getPathsSplit splits on every "|", including ones inside
+			 * parentheses, so its paths don't always correspond to a stored source path.
+			 */
+			List<String> paths = Arrays.stream(mySearchParamExtractor.split(searchParam.getPath()))
+					.map(String::trim)
+					.filter(t -> isNotBlank(t))
+					.collect(Collectors.toList());
+			if (paths.isEmpty()) {
+				continue;
+			}
+
+			ListMultimap<Long, MatchUrlToResolve> targetPidToMatchUrls = ArrayListMultimap.create();
+			for (MatchUrlToResolve nextMatchUrl : matchUrls) {
+				Long targetPid = targetIdToPid.get(nextMatchUrl.myReferenceTargetId.getValue());
+				if (targetPid != null) {
+					targetPidToMatchUrls.put(targetPid, nextMatchUrl);
+				}
+			}
+			if (targetPidToMatchUrls.isEmpty()) {
+				continue;
+			}
+
+			CriteriaBuilder cb = myEntityManager.getCriteriaBuilder();
+			CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+			Root<ResourceLink> from = cq.from(ResourceLink.class);
+			cq.multiselect(from.get("mySourceResourcePid"), from.get("myTargetResourcePid"));
+
+			Predicate masterPredicate = cb.and(
+					cb.equal(from.get("mySourceResourceType"), resourceType),
+					from.get("mySourcePath").in(paths),
+					from.get("myTargetResourcePid").in(targetPidToMatchUrls.keySet()));
+			masterPredicate = addPartitionPredicate(cb, from, theRequestPartitionId, masterPredicate);
+			cq.where(masterPredicate);
+
+			/*
+			 * As with the token pre-fetch, each conditional URL should resolve to 0..1 resources. If
+			 * we get more rows back than that allows for, some of the URLs are not valid as conditional
+			 * URLs, so we don't try to resolve any of them here and let the regular processing fail
+			 * them with the appropriate error.
+			 */
+			int maxResults = targetPidToMatchUrls.keySet().size() * 2;
+			TypedQuery<Tuple> query = myEntityManager.createQuery(cq);
+			query.setMaxResults(maxResults + 1);
+			List<Tuple> results = query.getResultList();
+			if (results.size() > maxResults) {
+				ourLog.debug("Too many results pre-fetching {} match URLs of shape {}", matchUrls.size(), nextShape);
+				continue;
+			}
+
+			SetMultimap<Long, Long> targetPidToSourcePids = HashMultimap.create();
+			for (Tuple nextResult : results) {
+				targetPidToSourcePids.put(nextResult.get(1, Long.class), nextResult.get(0, Long.class));
+			}
+
+			for (Map.Entry<Long, MatchUrlToResolve> nextEntry : targetPidToMatchUrls.entries()) {
+				Set<Long> sourcePids = targetPidToSourcePids.get(nextEntry.getKey());
+				if (sourcePids.size() == 1) {
+					setSearchToResolvedAndPrefetchFoundResourcePid(
+							theTransactionDetails,
+							theOutputPidsToLoadFully,
+							sourcePids.iterator().next(),
+							nextEntry.getValue());
+				} else if (sourcePids.isEmpty()) {
+					nextEntry.getValue().myResolutionAttempted = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves the PIDs of the targets of the given reference match URLs, using one query per target
+	 * resource type. Targets which can't be found in the request partition, which are deleted, or which
+	 * are ambiguous are not included in the returned map, so the match URLs referring to them are left
+	 * for the regular match URL processing.
+	 */
+	private Map<String, Long> resolveReferenceTargetPids(
+			Collection<MatchUrlToResolve> theMatchUrls, RequestPartitionId theRequestPartitionId) {
+		ListMultimap<String, String> typeToIds = ArrayListMultimap.create();
+		for (MatchUrlToResolve next : theMatchUrls) {
+			typeToIds.put(next.myReferenceTargetId.getResourceType(), next.myReferenceTargetId.getIdPart());
+		}
+
+		Map<String, Long> retVal = new HashMap<>();
+		Set<String> ambiguousIds = new HashSet<>();
+		for (String nextResourceType : typeToIds.keySet()) {
+			CriteriaBuilder cb = myEntityManager.getCriteriaBuilder();
+			CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+			Root<ResourceTable> from = cq.from(ResourceTable.class);
+			cq.multiselect(from.get("myId"), from.get("myFhirId"));
+			Predicate masterPredicate = cb.and(
+					cb.equal(from.get("myResourceType"), nextResourceType),
+					from.get("myFhirId").in(new HashSet<>(typeToIds.get(nextResourceType))),
+					cb.isNull(from.get("myDeleted")));
+			masterPredicate = addPartitionPredicate(cb, from, theRequestPartitionId, masterPredicate);
+			cq.where(masterPredicate);
+
+			for (Tuple nextResult : myEntityManager.createQuery(cq).getResultList()) {
+				String id = nextResourceType + "/" + nextResult.get(1, String.class);
+				if (retVal.put(id, nextResult.get(0, Long.class)) != null) {
+					ambiguousIds.add(id);
+				}
+			}
 		}
+		ambiguousIds.forEach(retVal::remove);
+		return retVal;
+	}
+
+	/**
+	 * Only plain <code>[type]/[id]</code> references (no chains, base URLs, versions or placeholder IDs)
+	 * are resolved during the pre-fetch.
+	 */
+	@Nullable
+	private IIdType toPreFetchableReferenceTarget(ReferenceParam theReferenceParam) {
+		if (isNotBlank(theReferenceParam.getChain()) || isBlank(theReferenceParam.getValue())) {
+			return null;
+		}
+		if (theReferenceParam.getValue().contains(":")) {
+			return null;
+		}
+		IIdType id = myFhirContext.getVersion().newIdType();
+		id.setValue(theReferenceParam.getValue());
+		if (!id.hasResourceType() || !id.hasIdPart() || id.hasVersionIdPart() || id.hasBaseUrl()) {
+			return null;
+		}
+		return id;
+	}
+
+	private Predicate addPartitionPredicate(
+			CriteriaBuilder theCriteriaBuilder,
+			Root<?> theFrom,
+			RequestPartitionId theRequestPartitionId,
+			Predicate thePredicate) {
+		if (myPartitionSettings.isPartitioningEnabled()) {
+			if (theRequestPartitionId.isDefaultPartition()) {
+				Predicate partitionIdCriteria = theCriteriaBuilder.isNull(theFrom.get("myPartitionIdValue"));
+				return theCriteriaBuilder.and(partitionIdCriteria, thePredicate);
+			} else if (!theRequestPartitionId.isAllPartitions()) {
+				Predicate partitionIdCriteria =
+						theFrom.get("myPartitionIdValue").in(theRequestPartitionId.getPartitionIds());
+				return theCriteriaBuilder.and(partitionIdCriteria, thePredicate);
+			}
+		}
+		return thePredicate;
+	}
+
+	private void setSearchToResolvedAndPrefetchFoundResourcePid(
+			TransactionDetails theTransactionDetails,
+			List<Long> theOutputPidsToLoadFully,
+			Long theResourcePid,
+			MatchUrlToResolve theMatchUrl) {
+		ourLog.debug("Matched url {} from database", theMatchUrl.myRequestUrl);
+		if (theMatchUrl.myShouldPreFetchResourceBody) {
+			theOutputPidsToLoadFully.add(theResourcePid);
+		}
+		myMatchResourceUrlService.matchUrlResolved(
+				theTransactionDetails,
+				theMatchUrl.myResourceDefinition.getName(),
+				theMatchUrl.myRequestUrl,
+				JpaPid.fromId(theResourcePid));
+		theTransactionDetails.addResolvedMatchUrl(
+				myFhirContext, theMatchUrl.myRequestUrl, JpaPid.fromId(theResourcePid));
+		theMatchUrl.setResolved(true);
 	}
 
 	/**
@@ -369,16 +654,8 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 				masterPredicate = from.get(theIndexColumnName).in(theHashesForIndexColumn);
 			}
 
-			if (myPartitionSettings.isPartitioningEnabled()
-					&& !myPartitionSettings.isIncludePartitionInSearchHashes()) {
-				if (theRequestPartitionId.isDefaultPartition()) {
-					Predicate partitionIdCriteria = cb.isNull(from.get("myPartitionIdValue"));
-					masterPredicate = cb.and(partitionIdCriteria, masterPredicate);
-				} else if (!theRequestPartitionId.isAllPartitions()) {
-					Predicate partitionIdCriteria =
-							from.get("myPartitionIdValue").in(theRequestPartitionId.getPartitionIds());
-					masterPredicate = cb.and(partitionIdCriteria, masterPredicate);
-				}
+			if (!myPartitionSettings.isIncludePartitionInSearchHashes()) {
+				masterPredicate = addPartitionPredicate(cb, from, theRequestPartitionId, masterPredicate);
 			}
 
 			cq.where(masterPredicate);
@@ -405,20 +682,8 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 				Long nextResourcePid = nextResult.get(0, Long.class);
 				Long nextHash = nextResult.get(1, Long.class);
 				List<MatchUrlToResolve> matchedSearch = hashToSearchMap.get(nextHash);
-				matchedSearch.forEach(matchUrl -> {
-					ourLog.debug("Matched url {} from database", matchUrl.myRequestUrl);
-					if (matchUrl.myShouldPreFetchResourceBody) {
-						theOutputPidsToLoadFully.add(nextResourcePid);
-					}
-					myMatchResourceUrlService.matchUrlResolved(
-							theTransactionDetails,
-							matchUrl.myResourceDefinition.getName(),
-							matchUrl.myRequestUrl,
-							JpaPid.fromId(nextResourcePid));
-					theTransactionDetails.addResolvedMatchUrl(
-							myFhirContext, matchUrl.myRequestUrl, JpaPid.fromId(nextResourcePid));
-					matchUrl.setResolved(true);
-				});
+				matchedSearch.forEach(matchUrl -> setSearchToResolvedAndPrefetchFoundResourcePid(
+						theTransactionDetails, theOutputPidsToLoadFully, nextResourcePid, matchUrl));
 			}
 		}
 	}
@@ -454,7 +719,8 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 			if (theShouldPreFetchResourceBody) {
 				theOutputIdsToPreFetch.add(cachedId.getId());
 			}
-		} else if (SINGLE_PARAMETER_MATCH_URL_PATTERN.matcher(theRequestUrl).matches()) {
+		} else if (SINGLE_PARAMETER_MATCH_URL_PATTERN.matcher(theRequestUrl).matches()
+				|| SINGLE_ID_PARAMETER_MATCH_URL_PATTERN.matcher(theRequestUrl).matches()) {
 			RuntimeResourceDefinition resourceDefinition = myFhirContext.getResourceDefinition(theResourceType);
 			SearchParameterMap matchUrlSearchMap =
 					myMatchUrlService.translateMatchUrl(theRequestUrl, resourceDefinition);
@@ -483,6 +749,7 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 					theTokenParam.getSystem(),
 					theTokenParam.getValue());
 			theSysAndValuePredicates.add(theMatchUrl.myHashSystemAndValue);
+			theMatchUrl.myResolutionAttempted = true;
 		} else if (isNotBlank(theTokenParam.getValue())) {
 			theMatchUrl.myHashValue = ResourceIndexedSearchParamToken.calculateHashValue(
 					myPartitionSettings,
@@ -491,6 +758,7 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 					theMatchUrl.myMatchUrlSearchMap.keySet().iterator().next(),
 					theTokenParam.getValue());
 			theValuePredicates.add(theMatchUrl.myHashValue);
+			theMatchUrl.myResolutionAttempted = true;
 		}
 	}
 
@@ -509,6 +777,27 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 		return hashToSearch;
 	}
 
+	/**
+	 * When a group of batch entries is being written in a single database transaction,
+	 * make sure the JDBC statement batch size on the session is at least as large as the
+	 * group so that the inserts generated by the group can be sent to the database in as
+	 * few round trips as possible.
+	 */
+	@Override
+	protected void prepareSessionForBatchGroup(int theGroupSize) {
+		Session session = myEntityManager.unwrap(Session.class);
+		if (session != null) {
+			Integer batchSize = session.getJdbcBatchSize();
+			if (batchSize == null) {
+				batchSize =
+						session.getSessionFactory().getSessionFactoryOptions().getJdbcBatchSize();
+			}
+			if (batchSize < theGroupSize) {
+				session.setJdbcBatchSize(theGroupSize);
+			}
+		}
+	}
+
 	@Override
 	protected void flushSession(Map<IIdType, DaoMethodOutcome> theIdToPersistedOutcome) {
 		try {
@@ -560,8 +849,11 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 		private final RuntimeResourceDefinition myResourceDefinition;
 		private final boolean myShouldPreFetchResourceBody;
 		public boolean myResolved;
+		private boolean myResolutionAttempted;
 		private Long myHashValue;
 		private Long myHashSystemAndValue;
+		private String myIdPart;
+		private IIdType myReferenceTargetId;
 
 		public MatchUrlToResolve(
 				String theRequestUrl,
@@ -577,5 +869,9 @@ public class TransactionProcessor extends BaseTransactionProcessor {
 		public void setResolved(boolean theResolved) {
 			myResolved = theResolved;
 		}
+
+		public String getParamName() {
+			return myMatchUrlSearchMap.keySet().iterator().next();
+		}
 	}
 }
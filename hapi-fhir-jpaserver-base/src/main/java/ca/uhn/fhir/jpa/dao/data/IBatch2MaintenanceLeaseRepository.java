@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.data;
+
+import ca.uhn.fhir.jpa.entity.Batch2MaintenanceLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface IBatch2MaintenanceLeaseRepository
+		extends JpaRepository<Batch2MaintenanceLeaseEntity, Integer>, IHapiFhirJpaRepository {
+
+	@Query("SELECT e.myPartitionNum FROM Batch2MaintenanceLeaseEntity e")
+	List<Integer> findAllPartitionNums();
+
+	/**
+	 * Acquires or renews the lease on a partition. This only succeeds if the partition is not
+	 * leased, if its lease has expired, or if it is already leased by the given owner.
+	 *
+	 * @return 1 if the lease was acquired, 0 otherwise
+	 */
+	@Modifying
+	@Query(
+			"UPDATE Batch2MaintenanceLeaseEntity e SET e.myOwnerId = :owner, e.myLeaseExpires = :expires WHERE e.myPartitionNum = :partition AND (e.myOwnerId = :owner OR e.myOwnerId IS NULL OR e.myLeaseExpires IS NULL OR e.myLeaseExpires <= :now)")
+	int acquireLease(
+			@Param("partition") Integer thePartitionNum,
+			@Param("owner") String theOwnerId,
+			@Param("now") Date theNow,
+			@Param("expires") Date theLeaseExpires);
+
+	@Query(
+			"SELECT COUNT(e) FROM Batch2MaintenanceLeaseEntity e WHERE e.myPartitionNum = :partition AND e.myOwnerId = :owner AND e.myLeaseExpires > :now")
+	long countLeasesHeld(
+			@Param("partition") Integer thePartitionNum, @Param("owner") String theOwnerId, @Param("now") Date theNow);
+
+	@Query(
+			"SELECT COUNT(e) FROM Batch2MaintenanceLeaseEntity e WHERE e.myOwnerId IS NOT NULL AND e.myLeaseExpires > :now")
+	long countActiveLeases(@Param("now") Date theNow);
+
+	@Modifying
+	@Query(
+			"UPDATE Batch2MaintenanceLeaseEntity e SET e.myOwnerId = NULL, e.myLeaseExpires = NULL WHERE e.myPartitionNum = :partition AND e.myOwnerId = :owner")
+	int releaseLease(@Param("partition") Integer thePartitionNum, @Param("owner") String theOwnerId);
+
+	@Modifying
+	@Query(
+			"UPDATE Batch2MaintenanceLeaseEntity e SET e.myOwnerId = NULL, e.myLeaseExpires = NULL WHERE e.myOwnerId = :owner")
+	int releaseAllLeases(@Param("owner") String theOwnerId);
+}
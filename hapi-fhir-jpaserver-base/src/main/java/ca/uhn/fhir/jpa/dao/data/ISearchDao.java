@@ -56,6 +56,9 @@ public interface ISearchDao extends JpaRepository<Search, Long>, IHapiFhirJpaRep
 	@Query("SELECT COUNT(s) FROM Search s WHERE s.myDeleted = TRUE")
 	int countDeleted();
 
+	@Query("SELECT COUNT(s) FROM Search s WHERE s.myId = :pid AND (s.myDeleted IS NULL OR s.myDeleted = FALSE)")
+	int countNotDeletedByPid(@Param("pid") Long thePid);
+
 	@Modifying
 	@Query("UPDATE Search s SET s.myDeleted = :deleted WHERE s.myId in (:pids)")
 	@CanIgnoreReturnValue
@@ -23,6 +23,7 @@ import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
 import ca.uhn.fhir.jpa.entity.Batch2JobInstanceEntity;
 import ca.uhn.fhir.jpa.entity.Batch2WorkChunkEntity;
@@ -113,6 +114,9 @@ public class ExpungeEverythingService implements IExpungeEverythingService {
 	@Autowired
 	private MemoryCacheService myMemoryCacheService;
 
+	@Autowired(required = false)
+	private IResourceReadCache myResourceReadCache;
+
 	@Autowired
 	private IRequestPartitionHelperSvc myRequestPartitionHelperSvc;
 
@@ -265,6 +269,9 @@ public class ExpungeEverythingService implements IExpungeEverythingService {
 
 	private void purgeAllCaches() {
 		myMemoryCacheService.invalidateAllCaches();
+		if (myResourceReadCache != null) {
+			myResourceReadCache.invalidateAll();
+		}
 	}
 
 	protected <T> int expungeEverythingByTypeWithoutPurging(
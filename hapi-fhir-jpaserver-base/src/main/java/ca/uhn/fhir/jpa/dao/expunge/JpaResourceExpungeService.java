@@ -26,6 +26,7 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.IJpaStorageResourceParser;
 import ca.uhn.fhir.jpa.dao.data.IResourceHistoryProvenanceDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceHistoryTableDao;
@@ -146,6 +147,9 @@ public class JpaResourceExpungeService implements IResourceExpungeService<JpaPid
 	@Autowired
 	private IJpaStorageResourceParser myJpaStorageResourceParser;
 
+	@Autowired(required = false)
+	private IResourceReadCache myResourceReadCache;
+
 	@Override
 	@Transactional
 	public List<JpaPid> findHistoricalVersionsOfNonDeletedResources(
@@ -239,6 +243,10 @@ public class JpaResourceExpungeService implements IResourceExpungeService<JpaPid
 
 		callHooks(theRequestDetails, theRemainingCount, version, id);
 
+		if (myResourceReadCache != null) {
+			myResourceReadCache.invalidate(version.getResourceType(), id.getIdPart());
+		}
+
 		if (version.getProvenance() != null) {
 			myResourceHistoryProvenanceTableDao.deleteByPid(
 					version.getProvenance().getId());
@@ -311,6 +319,11 @@ public class JpaResourceExpungeService implements IResourceExpungeService<JpaPid
 		ourLog.info(
 				"Expunging current version of resource {}", resource.getIdDt().getValue());
 
+		if (myResourceReadCache != null) {
+			myResourceReadCache.invalidate(
+					resource.getResourceType(), resource.getIdDt().getIdPart());
+		}
+
 		try {
 			if (resource.isHasTags()) {
 				myResourceTagDao.deleteByResourceId(resource.getId());
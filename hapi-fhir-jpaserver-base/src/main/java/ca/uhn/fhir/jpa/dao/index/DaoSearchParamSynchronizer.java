@@ -29,6 +29,8 @@ import ca.uhn.fhir.jpa.model.entity.BaseResourceIndexedSearchParam;
 import ca.uhn.fhir.jpa.model.entity.ResourceIndexedComboStringUnique;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.model.util.ResourceIndexHashes;
+import ca.uhn.fhir.jpa.model.util.ResourceIndexHashes.IndexType;
 import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
 import ca.uhn.fhir.jpa.util.AddRemoveCount;
 import ca.uhn.fhir.rest.server.exceptions.ResourceVersionConflictException;
@@ -37,12 +39,15 @@ import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceContextType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -51,6 +56,8 @@ import java.util.Set;
 @Service
 public class DaoSearchParamSynchronizer {
 
+	private static final Logger ourLog = LoggerFactory.getLogger(DaoSearchParamSynchronizer.class);
+
 	@PersistenceContext(type = PersistenceContextType.TRANSACTION)
 	protected EntityManager myEntityManager;
 
@@ -63,40 +70,144 @@ public class DaoSearchParamSynchronizer {
 	@Autowired
 	private FhirContext myFhirContext;
 
+	/**
+	 * Calculates a hash of the new indexes of each type and stores them on the entity (see
+	 * {@link ResourceIndexHashes}). This should be called before the entity is saved so that
+	 * the hashes are written as a part of the same insert/update.
+	 */
+	public void populateIndexHashes(ResourceIndexedSearchParams theParams, ResourceTable theEntity) {
+		ResourceIndexHashes hashes = new ResourceIndexHashes();
+		boolean indexStorageOptimized = myStorageSettings.isIndexStorageOptimized();
+		for (IndexType next : IndexType.values()) {
+			Collection<? extends BaseResourceIndex> params = getParams(theParams, next);
+			for (BaseResourceIndex nextParam : params) {
+				nextParam.setPartitionId(theEntity.getPartitionId());
+				nextParam.calculateHashes();
+			}
+			hashes.setHash(next, ResourceIndexHashes.calculateHash(params, indexStorageOptimized));
+		}
+		theEntity.setIndexHashes(hashes.encode());
+	}
+
+	/**
+	 * Synchronizes the index rows for a resource with the newly extracted indexes.
+	 * <p>
+	 * If {@link #populateIndexHashes(ResourceIndexedSearchParams, ResourceTable)} has been called
+	 * for the new indexes, index types whose hash matches the hash of the existing rows are known
+	 * to be unchanged and are skipped entirely, meaning that the existing rows of that type are
+	 * never loaded from the database. Otherwise, only the rows which actually differ are written.
+	 * </p>
+	 */
 	public AddRemoveCount synchronizeSearchParamsToDatabase(
 			ResourceIndexedSearchParams theParams,
 			ResourceTable theEntity,
 			ResourceIndexedSearchParams existingParams) {
 		AddRemoveCount retVal = new AddRemoveCount();
+		ResourceIndexHashes previousHashes = ResourceIndexHashes.parse(existingParams.getIndexHashes());
+		ResourceIndexHashes newHashes = ResourceIndexHashes.parse(theEntity.getIndexHashes());
+		Set<IndexType> unchanged = EnumSet.noneOf(IndexType.class);
+		for (IndexType next : IndexType.values()) {
+			Long previousHash = previousHashes.getHash(next);
+			if (previousHash != null && previousHash.equals(newHashes.getHash(next))) {
+				unchanged.add(next);
+			}
+		}
+		ourLog.trace("Unchanged index types for resource {}: {}", theEntity.getId(), unchanged);
 
-		synchronize(theEntity, retVal, theParams.myStringParams, existingParams.myStringParams, null);
-		synchronize(theEntity, retVal, theParams.myTokenParams, existingParams.myTokenParams, null);
-		synchronize(theEntity, retVal, theParams.myNumberParams, existingParams.myNumberParams, null);
-		synchronize(theEntity, retVal, theParams.myQuantityParams, existingParams.myQuantityParams, null);
 		synchronize(
 				theEntity,
 				retVal,
+				unchanged,
+				IndexType.STRING,
+				theParams.myStringParams,
+				existingParams.myStringParams);
+		synchronize(
+				theEntity, retVal, unchanged, IndexType.TOKEN, theParams.myTokenParams, existingParams.myTokenParams);
+		synchronize(
+				theEntity,
+				retVal,
+				unchanged,
+				IndexType.NUMBER,
+				theParams.myNumberParams,
+				existingParams.myNumberParams);
+		synchronize(
+				theEntity,
+				retVal,
+				unchanged,
+				IndexType.QUANTITY,
+				theParams.myQuantityParams,
+				existingParams.myQuantityParams);
+		synchronize(
+				theEntity,
+				retVal,
+				unchanged,
+				IndexType.QUANTITY_NORMALIZED,
 				theParams.myQuantityNormalizedParams,
-				existingParams.myQuantityNormalizedParams,
-				null);
-		synchronize(theEntity, retVal, theParams.myDateParams, existingParams.myDateParams, null);
-		synchronize(theEntity, retVal, theParams.myUriParams, existingParams.myUriParams, null);
-		synchronize(theEntity, retVal, theParams.myCoordsParams, existingParams.myCoordsParams, null);
-		synchronize(theEntity, retVal, theParams.myLinks, existingParams.myLinks, null);
-		synchronize(theEntity, retVal, theParams.myComboTokenNonUnique, existingParams.myComboTokenNonUnique, null);
+				existingParams.myQuantityNormalizedParams);
+		synchronize(theEntity, retVal, unchanged, IndexType.DATE, theParams.myDateParams, existingParams.myDateParams);
+		synchronize(theEntity, retVal, unchanged, IndexType.URI, theParams.myUriParams, existingParams.myUriParams);
 		synchronize(
 				theEntity,
 				retVal,
+				unchanged,
+				IndexType.COORDS,
+				theParams.myCoordsParams,
+				existingParams.myCoordsParams);
+		synchronize(theEntity, retVal, unchanged, IndexType.RESOURCE_LINK, theParams.myLinks, existingParams.myLinks);
+		synchronize(
+				theEntity,
+				retVal,
+				unchanged,
+				IndexType.COMBO_TOKEN_NON_UNIQUE,
+				theParams.myComboTokenNonUnique,
+				existingParams.myComboTokenNonUnique);
+		synchronize(
+				theEntity,
+				retVal,
+				unchanged,
+				IndexType.COMBO_STRING_UNIQUE,
 				theParams.myComboStringUniques,
 				existingParams.myComboStringUniques,
 				new UniqueIndexPreExistenceChecker());
 
+		// The database rows now match the new indexes
+		existingParams.setIndexHashes(theEntity.getIndexHashes());
+
 		// make sure links are indexed
 		theEntity.setResourceLinks(theParams.myLinks);
 
 		return retVal;
 	}
 
+	private static Collection<? extends BaseResourceIndex> getParams(
+			ResourceIndexedSearchParams theParams, IndexType theIndexType) {
+		switch (theIndexType) {
+			case STRING:
+				return theParams.myStringParams;
+			case TOKEN:
+				return theParams.myTokenParams;
+			case NUMBER:
+				return theParams.myNumberParams;
+			case QUANTITY:
+				return theParams.myQuantityParams;
+			case QUANTITY_NORMALIZED:
+				return theParams.myQuantityNormalizedParams;
+			case DATE:
+				return theParams.myDateParams;
+			case URI:
+				return theParams.myUriParams;
+			case COORDS:
+				return theParams.myCoordsParams;
+			case RESOURCE_LINK:
+				return theParams.myLinks;
+			case COMBO_TOKEN_NON_UNIQUE:
+				return theParams.myComboTokenNonUnique;
+			case COMBO_STRING_UNIQUE:
+			default:
+				return theParams.myComboStringUniques;
+		}
+	}
+
 	@VisibleForTesting
 	public void setEntityManager(EntityManager theEntityManager) {
 		myEntityManager = theEntityManager;
@@ -110,9 +221,38 @@ public class DaoSearchParamSynchronizer {
 	private <T extends BaseResourceIndex> void synchronize(
 			ResourceTable theEntity,
 			AddRemoveCount theAddRemoveCount,
+			Set<IndexType> theUnchangedIndexTypes,
+			IndexType theIndexType,
+			Collection<T> theNewParams,
+			Collection<T> theExistingParams) {
+		synchronize(
+				theEntity,
+				theAddRemoveCount,
+				theUnchangedIndexTypes,
+				theIndexType,
+				theNewParams,
+				theExistingParams,
+				null);
+	}
+
+	private <T extends BaseResourceIndex> void synchronize(
+			ResourceTable theEntity,
+			AddRemoveCount theAddRemoveCount,
+			Set<IndexType> theUnchangedIndexTypes,
+			IndexType theIndexType,
 			Collection<T> theNewParams,
 			Collection<T> theExistingParams,
 			@Nullable IPreSaveHook<T> theAddParamPreSaveHook) {
+		/*
+		 * If the new indexes of this type hash to the same value as the ones we
+		 * stored last time, the existing rows already match and we don't need to
+		 * load them at all. Note that the existing params collection must not be
+		 * touched in this case, since that is what triggers loading it.
+		 */
+		if (theUnchangedIndexTypes.contains(theIndexType)) {
+			return;
+		}
+
 		Collection<T> newParams = theNewParams;
 		for (T next : newParams) {
 			next.setPartitionId(theEntity.getPartitionId());
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.jpa.delete.batch2;
 
 import ca.uhn.fhir.jpa.api.svc.IDeleteExpungeSvc;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.IFulltextSearchSvc;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
@@ -37,14 +38,17 @@ public class DeleteExpungeSvcImpl implements IDeleteExpungeSvc<JpaPid> {
 	private final EntityManager myEntityManager;
 	private final DeleteExpungeSqlBuilder myDeleteExpungeSqlBuilder;
 	private final IFulltextSearchSvc myFullTextSearchSvc;
+	private final IResourceReadCache myResourceReadCache;
 
 	public DeleteExpungeSvcImpl(
 			EntityManager theEntityManager,
 			DeleteExpungeSqlBuilder theDeleteExpungeSqlBuilder,
-			@Autowired(required = false) IFulltextSearchSvc theFullTextSearchSvc) {
+			@Autowired(required = false) IFulltextSearchSvc theFullTextSearchSvc,
+			@Autowired(required = false) IResourceReadCache theResourceReadCache) {
 		myEntityManager = theEntityManager;
 		myDeleteExpungeSqlBuilder = theDeleteExpungeSqlBuilder;
 		myFullTextSearchSvc = theFullTextSearchSvc;
+		myResourceReadCache = theResourceReadCache;
 	}
 
 	@Override
@@ -62,6 +66,7 @@ public class DeleteExpungeSvcImpl implements IDeleteExpungeSvc<JpaPid> {
 
 		ourLog.info("{} records deleted", totalDeleted);
 		clearHibernateSearchIndex(theJpaPids);
+		clearResourceReadCache();
 
 		// TODO KHS instead of logging progress, produce result chunks that get aggregated into a delete expunge report
 		return sqlResult.getRecordCount();
@@ -76,6 +81,16 @@ public class DeleteExpungeSvcImpl implements IDeleteExpungeSvc<JpaPid> {
 	 * If we are running with HS enabled, the expunge operation will cause dangling documents because Hibernate Search is not aware of custom SQL queries that delete resources.
 	 * This method clears the Hibernate Search index for the given resources.
 	 */
+	/**
+	 * The resource read cache is not aware of custom SQL queries that delete resources either. Resources
+	 * deleted by cascading are not in the given PID list, so all cached resources are discarded.
+	 */
+	private void clearResourceReadCache() {
+		if (myResourceReadCache != null) {
+			myResourceReadCache.invalidateAll();
+		}
+	}
+
 	private void clearHibernateSearchIndex(List<JpaPid> thePersistentIds) {
 		if (myFullTextSearchSvc != null && !myFullTextSearchSvc.isDisabled()) {
 			List<Object> objectIds =
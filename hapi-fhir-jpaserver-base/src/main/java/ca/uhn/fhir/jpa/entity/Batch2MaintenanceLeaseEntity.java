@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Date;
+
+/**
+ * A lease on a batch2 maintenance partition, used when maintenance is partitioned
+ * across the nodes of a cluster. A partition is leased by the node identified by
+ * {@link #getOwnerId()} until {@link #getLeaseExpires()}.
+ */
+@Entity
+@Table(name = Batch2MaintenanceLeaseEntity.HFJ_TABLE_NAME)
+public class Batch2MaintenanceLeaseEntity {
+
+	public static final String HFJ_TABLE_NAME = "BT2_MAINT_LEASE";
+	public static final int OWNER_ID_MAX_LENGTH = 100;
+
+	/**
+	 * Note that unlike most PID columns in HAPI FHIR JPA, this one is an Integer, and isn't
+	 * auto assigned.
+	 */
+	@Id
+	@Column(name = "PARTITION_NUM", nullable = false)
+	private Integer myPartitionNum;
+
+	@Column(name = "OWNER_ID", length = OWNER_ID_MAX_LENGTH, nullable = true)
+	private String myOwnerId;
+
+	@Column(name = "LEASE_EXPIRES", nullable = true)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date myLeaseExpires;
+
+	public Integer getPartitionNum() {
+		return myPartitionNum;
+	}
+
+	public Batch2MaintenanceLeaseEntity setPartitionNum(Integer thePartitionNum) {
+		myPartitionNum = thePartitionNum;
+		return this;
+	}
+
+	public String getOwnerId() {
+		return myOwnerId;
+	}
+
+	public void setOwnerId(String theOwnerId) {
+		myOwnerId = theOwnerId;
+	}
+
+	public Date getLeaseExpires() {
+		return myLeaseExpires;
+	}
+
+	public void setLeaseExpires(Date theLeaseExpires) {
+		myLeaseExpires = theLeaseExpires;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("partition", myPartitionNum)
+				.append("owner", myOwnerId)
+				.append("expires", myLeaseExpires)
+				.toString();
+	}
+}
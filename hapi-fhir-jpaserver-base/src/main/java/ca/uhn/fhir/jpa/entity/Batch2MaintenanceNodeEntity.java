@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Date;
+
+/**
+ * A cluster node taking part in partitioned batch2 maintenance. Each node
+ * updates {@link #getLastSeen()} on every maintenance pass, which allows
+ * the nodes to share the maintenance partitions evenly.
+ */
+@Entity
+@Table(name = Batch2MaintenanceNodeEntity.HFJ_TABLE_NAME)
+public class Batch2MaintenanceNodeEntity {
+
+	public static final String HFJ_TABLE_NAME = "BT2_MAINT_NODE";
+
+	@Id
+	@Column(name = "NODE_ID", length = Batch2MaintenanceLeaseEntity.OWNER_ID_MAX_LENGTH, nullable = false)
+	private String myNodeId;
+
+	@Column(name = "LAST_SEEN", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date myLastSeen;
+
+	public String getNodeId() {
+		return myNodeId;
+	}
+
+	public Batch2MaintenanceNodeEntity setNodeId(String theNodeId) {
+		myNodeId = theNodeId;
+		return this;
+	}
+
+	public Date getLastSeen() {
+		return myLastSeen;
+	}
+
+	public void setLastSeen(Date theLastSeen) {
+		myLastSeen = theLastSeen;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("node", myNodeId)
+				.append("lastSeen", myLastSeen)
+				.toString();
+	}
+}
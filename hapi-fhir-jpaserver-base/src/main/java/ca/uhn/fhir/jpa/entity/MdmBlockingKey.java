@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.entity;
+
+import ca.uhn.fhir.jpa.model.entity.BasePartitionable;
+import ca.uhn.fhir.jpa.model.entity.PartitionablePartitionId;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A blocking key for a resource which is subject to MDM matching. Blocking keys are hashes
+ * of the normalized values of the MDM candidate search parameters of a resource, and are used
+ * to find MDM candidates with a single indexed lookup instead of one search per candidate
+ * search parameter.
+ *
+ * @since 7.6.0
+ */
+@Entity
+@Table(
+		name = "MPI_BLOCKING_KEY",
+		indexes = {
+			@Index(name = "IDX_MPI_BLKKEY_HASH_RES", columnList = "KEY_HASH, RES_TYPE, RES_ID"),
+			@Index(name = "IDX_MPI_BLKKEY_RES", columnList = "RES_ID")
+		})
+public class MdmBlockingKey extends BasePartitionable {
+
+	public static final int RES_TYPE_LENGTH = 40;
+
+	@SequenceGenerator(name = "SEQ_MPI_BLKKEY_ID", sequenceName = "SEQ_MPI_BLKKEY_ID")
+	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_MPI_BLKKEY_ID")
+	@Id
+	@Column(name = "PID")
+	private Long myId;
+
+	@ManyToOne(
+			optional = false,
+			fetch = FetchType.LAZY,
+			cascade = {})
+	@JoinColumn(
+			name = "RES_ID",
+			referencedColumnName = "RES_ID",
+			foreignKey = @ForeignKey(name = "FK_MPI_BLKKEY_RES"),
+			insertable = false,
+			updatable = false,
+			nullable = false)
+	private ResourceTable myResource;
+
+	@Column(name = "RES_ID", nullable = false, updatable = false)
+	private Long myResourcePid;
+
+	@Column(name = "RES_TYPE", nullable = false, updatable = false, length = RES_TYPE_LENGTH)
+	private String myResourceType;
+
+	@Column(name = "KEY_HASH", nullable = false, updatable = false)
+	private Long myKeyHash;
+
+	/**
+	 * Constructor
+	 */
+	public MdmBlockingKey() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 */
+	public MdmBlockingKey(ResourceTable theResource, long theKeyHash) {
+		myResourcePid = theResource.getId();
+		myResourceType = theResource.getResourceType();
+		myKeyHash = theKeyHash;
+		PartitionablePartitionId partitionId = theResource.getPartitionId();
+		if (partitionId != null) {
+			setPartitionId(new PartitionablePartitionId(partitionId.getPartitionId(), partitionId.getPartitionDate()));
+		}
+	}
+
+	public Long getId() {
+		return myId;
+	}
+
+	public Long getResourcePid() {
+		return myResourcePid;
+	}
+
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	public Long getKeyHash() {
+		return myKeyHash;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("resourcePid", myResourcePid)
+				.append("resourceType", myResourceType)
+				.append("keyHash", myKeyHash)
+				.toString();
+	}
+}
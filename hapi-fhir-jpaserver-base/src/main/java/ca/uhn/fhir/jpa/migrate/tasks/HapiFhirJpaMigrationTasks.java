@@ -89,6 +89,12 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 			+ "WHERE EXISTS (SELECT 1\n"
 			+ "	FROM collation_by_column\n"
 			+ "	WHERE my_collation != 'C')";
+	/**
+	 * The sequence increment applied to the high volume sequences when the
+	 * {@link FlagEnum#LARGE_ID_GENERATOR_BLOCKS} flag is used
+	 */
+	public static final int LARGE_ID_GENERATOR_BLOCK_SIZE = 1000;
+
 	private final Set<FlagEnum> myFlags;
 
 	/**
@@ -125,6 +131,86 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 		init700();
 		init720();
 		init740();
+		init760();
+	}
+
+	protected void init760() {
+		// Start of migrations from 7.4 to 7.6
+
+		final Builder version = forVersion(VersionEnum.V7_6_0);
+
+		/*
+		 * Allocate larger blocks of IDs per round trip from the sequences backing the tables
+		 * which receive the most inserts. This is opt-in because a HAPI FHIR instance which is
+		 * not configured to accept a database sequence increment that differs from its own
+		 * configuration (see HapiSequenceStyleGenerator) will fail to start after this runs.
+		 */
+		if (myFlags.contains(FlagEnum.LARGE_ID_GENERATOR_BLOCKS)) {
+			int blockSize = LARGE_ID_GENERATOR_BLOCK_SIZE;
+			version.modifyIdGeneratorIncrement("20240805.1", "SEQ_RESOURCE_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.2", "SEQ_RESOURCE_HISTORY_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.3", "SEQ_RESLINK_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.4", "SEQ_SPIDX_COORDS", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.5", "SEQ_SPIDX_DATE", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.6", "SEQ_SPIDX_NUMBER", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.7", "SEQ_SPIDX_QUANTITY", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.8", "SEQ_SPIDX_QUANTITY_NRML", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.9", "SEQ_SPIDX_STRING", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.10", "SEQ_SPIDX_TOKEN", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.11", "SEQ_SPIDX_URI", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.12", "SEQ_RESTAG_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.13", "SEQ_HISTORYTAG_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.14", "SEQ_RESPARMPRESENT_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.15", "SEQ_IDXCMPSTRUNIQ_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.16", "SEQ_IDXCMBTOKNU_ID", blockSize);
+			version.modifyIdGeneratorIncrement("20240805.17", "SEQ_SEARCH_RES", blockSize);
+		}
+
+		// Hashes of the index rows of each type, used to skip unchanged indexes on update
+		version.onTable("HFJ_RESOURCE")
+				.addColumn("20240812.1", "SP_INDEX_HASHES")
+				.nullable()
+				.type(ColumnTypeEnum.STRING, 200);
+
+		// Leases used to partition batch2 maintenance across the nodes of a cluster
+		{
+			Builder.BuilderAddTableByColumns leaseTable =
+					version.addTableByColumns("20240815.1", "BT2_MAINT_LEASE", "PARTITION_NUM");
+			leaseTable.addColumn("PARTITION_NUM").nonNullable().type(ColumnTypeEnum.INT);
+			leaseTable.addColumn("OWNER_ID").nullable().type(ColumnTypeEnum.STRING, 100);
+			leaseTable.addColumn("LEASE_EXPIRES").nullable().type(ColumnTypeEnum.DATE_TIMESTAMP);
+
+			Builder.BuilderAddTableByColumns nodeTable =
+					version.addTableByColumns("20240815.2", "BT2_MAINT_NODE", "NODE_ID");
+			nodeTable.addColumn("NODE_ID").nonNullable().type(ColumnTypeEnum.STRING, 100);
+			nodeTable.addColumn("LAST_SEEN").nonNullable().type(ColumnTypeEnum.DATE_TIMESTAMP);
+		}
+
+		// Blocking keys used to find MDM candidates
+		{
+			version.addIdGenerator("20240820.1", "SEQ_MPI_BLKKEY_ID");
+
+			Builder.BuilderAddTableByColumns blockingKeyTable =
+					version.addTableByColumns("20240820.2", "MPI_BLOCKING_KEY", "PID");
+			blockingKeyTable.addColumn("PID").nonNullable().type(ColumnTypeEnum.LONG);
+			blockingKeyTable.addColumn("RES_ID").nonNullable().type(ColumnTypeEnum.LONG);
+			blockingKeyTable.addColumn("RES_TYPE").nonNullable().type(ColumnTypeEnum.STRING, 40);
+			blockingKeyTable.addColumn("KEY_HASH").nonNullable().type(ColumnTypeEnum.LONG);
+			blockingKeyTable.addColumn("PARTITION_ID").nullable().type(ColumnTypeEnum.INT);
+			blockingKeyTable.addColumn("PARTITION_DATE").nullable().type(ColumnTypeEnum.DATE_ONLY);
+			blockingKeyTable
+					.addForeignKey("20240820.3", "FK_MPI_BLKKEY_RES")
+					.toColumn("RES_ID")
+					.references("HFJ_RESOURCE", "RES_ID");
+			blockingKeyTable
+					.addIndex("20240820.4", "IDX_MPI_BLKKEY_HASH_RES")
+					.unique(false)
+					.withColumns("KEY_HASH", "RES_TYPE", "RES_ID");
+			blockingKeyTable
+					.addIndex("20240820.5", "IDX_MPI_BLKKEY_RES")
+					.unique(false)
+					.withColumns("RES_ID");
+		}
 	}
 
 	protected void init740() {
@@ -4005,7 +4091,11 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 	}
 
 	public enum FlagEnum {
-		NO_MIGRATE_HASHES("no-migrate-350-hashes");
+		NO_MIGRATE_HASHES("no-migrate-350-hashes"),
+		/**
+		 * @since 7.6.0
+		 */
+		LARGE_ID_GENERATOR_BLOCKS("large-id-generator-blocks");
 
 		private final String myCommandLineValue;
 
@@ -4013,6 +4103,10 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 			myCommandLineValue = theCommandLineValue;
 		}
 
+		public String getCommandLineValue() {
+			return myCommandLineValue;
+		}
+
 		public static FlagEnum fromCommandLineValue(String theCommandLineValue) {
 			Optional<FlagEnum> retVal = Arrays.stream(values())
 					.filter(t -> t.myCommandLineValue.equals(theCommandLineValue))
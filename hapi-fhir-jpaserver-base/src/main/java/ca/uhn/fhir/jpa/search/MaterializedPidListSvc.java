@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.dao.data.ISearchDao;
+import ca.uhn.fhir.jpa.dao.data.ISearchResultDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchResult;
+import ca.uhn.fhir.jpa.entity.SearchTypeEnum;
+import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+/**
+ * Stores large lists of resource PIDs used as search criteria (e.g. the compartments
+ * added to a search by <code>SearchNarrowingInterceptor</code>) in the search result
+ * table, so that the SQL for a search can select against the stored list using a single
+ * bind variable instead of containing a large <code>IN (...)</code> list. Lists are
+ * identified by their contents, so a list is only stored once and is then reused by any
+ * search using the same PIDs until it is close to expiring.
+ * <p>
+ * Stored lists are saved as finished searches which are never returned to clients, and
+ * are removed by the stale search deletion job along with all other expired searches.
+ * Lists are also cached locally, but a cached list is only reused after checking that
+ * it is still stored.
+ * </p>
+ *
+ * @see JpaStorageSettings#setMaterializedPidListThreshold(int)
+ * @since 7.6.0
+ */
+public class MaterializedPidListSvc {
+	public static final int MAX_CACHED_PID_LISTS = 10000;
+	private static final Logger ourLog = LoggerFactory.getLogger(MaterializedPidListSvc.class);
+	private static final String QUERY_STRING_PREFIX = "#materialized-pid-list:";
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128(0);
+
+	private final ISearchDao mySearchDao;
+	private final ISearchResultDao mySearchResultDao;
+	private final IHapiTransactionService myTransactionService;
+	private final JpaStorageSettings myStorageSettings;
+	private final Map<String, CachedPidList> myPidListCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 */
+	public MaterializedPidListSvc(
+			ISearchDao theSearchDao,
+			ISearchResultDao theSearchResultDao,
+			IHapiTransactionService theTransactionService,
+			JpaStorageSettings theStorageSettings) {
+		mySearchDao = theSearchDao;
+		mySearchResultDao = theSearchResultDao;
+		myTransactionService = theTransactionService;
+		myStorageSettings = theStorageSettings;
+	}
+
+	/**
+	 * If the given PID list is larger than {@link JpaStorageSettings#getMaterializedPidListThreshold()},
+	 * stores the list (or finds a previously stored identical list) and returns the PID of the search
+	 * holding it. Otherwise returns <code>null</code>, meaning that the PIDs should be placed in the
+	 * SQL as usual.
+	 *
+	 * @param theResourceType       The resource type being searched for
+	 * @param thePids               The resource PIDs
+	 * @param theRequestPartitionId The partition of the search being performed
+	 */
+	@Nullable
+	public Long materializePidListIfLarge(
+			@Nonnull String theResourceType,
+			@Nonnull Collection<Long> thePids,
+			@Nullable RequestPartitionId theRequestPartitionId) {
+		int threshold = myStorageSettings.getMaterializedPidListThreshold();
+		if (threshold <= 0 || thePids.size() <= threshold) {
+			return null;
+		}
+
+		long[] sortedPids =
+				thePids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+		String queryString = createQueryString(sortedPids);
+		String cacheKey = theResourceType + " " + queryString;
+
+		// Only reuse lists created within the first half of their lifetime so that a list
+		// is never removed by the stale search deletion job while a query is using it
+		long now = System.currentTimeMillis();
+		Date reuseCutoff = new Date(now - (myStorageSettings.getExpireSearchResultsAfterMillis() / 2));
+
+		RequestPartitionId requestPartitionId =
+				defaultIfNull(theRequestPartitionId, RequestPartitionId.allPartitions());
+
+		// Stored lists can also be deleted before they expire (e.g. by expunging everything,
+		// possibly on another server), so a cached list is only used if it still exists
+		CachedPidList cached = myPidListCache.get(cacheKey);
+		if (cached != null && cached.myCreated.after(reuseCutoff)) {
+			if (isPidListStored(cached.mySearchPid, requestPartitionId)) {
+				return cached.mySearchPid;
+			}
+			myPidListCache.remove(cacheKey, cached);
+		}
+
+		CachedPidList pidList = myTransactionService
+				.withSystemRequestOnPartition(requestPartitionId)
+				.withPropagation(Propagation.REQUIRES_NEW)
+				.execute(() ->
+						findOrCreatePidList(theResourceType, queryString, sortedPids, reuseCutoff, requestPartitionId));
+
+		if (myPidListCache.size() >= MAX_CACHED_PID_LISTS) {
+			myPidListCache.values().removeIf(t -> !t.myCreated.after(reuseCutoff));
+			if (myPidListCache.size() >= MAX_CACHED_PID_LISTS) {
+				myPidListCache.clear();
+			}
+		}
+		myPidListCache.put(cacheKey, pidList);
+
+		return pidList.mySearchPid;
+	}
+
+	private boolean isPidListStored(Long theSearchPid, RequestPartitionId theRequestPartitionId) {
+		return myTransactionService
+				.withSystemRequestOnPartition(theRequestPartitionId)
+				.execute(() -> mySearchDao.countNotDeletedByPid(theSearchPid) > 0);
+	}
+
+	private CachedPidList findOrCreatePidList(
+			String theResourceType,
+			String theQueryString,
+			long[] theSortedPids,
+			Date theReuseCutoff,
+			RequestPartitionId theRequestPartitionId) {
+		String queryStringForStorage = Search.createSearchQueryStringForStorage(theQueryString, theRequestPartitionId);
+		Collection<Search> candidates =
+				mySearchDao.findWithCutoffOrExpiry(theResourceType, queryStringForStorage.hashCode(), theReuseCutoff);
+		for (Search next : candidates) {
+			if (queryStringForStorage.equals(next.getSearchQueryString())
+					&& next.getStatus() == SearchStatusEnum.FINISHED) {
+				return new CachedPidList(next.getId(), next.getCreated());
+			}
+		}
+
+		Search search = new Search();
+		search.setUuid(UUID.randomUUID().toString());
+		search.setCreated(new Date());
+		search.setSearchType(SearchTypeEnum.SEARCH);
+		search.setResourceType(theResourceType);
+		search.setSearchQueryString(theQueryString, theRequestPartitionId);
+		search.setStatus(SearchStatusEnum.FINISHED);
+		search.setNumFound(theSortedPids.length);
+		search.setTotalCount(theSortedPids.length);
+		search.setDeleted(false);
+		search = mySearchDao.save(search);
+
+		List<SearchResult> results = new ArrayList<>(theSortedPids.length);
+		for (int i = 0; i < theSortedPids.length; i++) {
+			SearchResult next = new SearchResult(search);
+			next.setResourcePid(theSortedPids[i]);
+			next.setOrder(i);
+			results.add(next);
+		}
+		mySearchResultDao.saveAll(results);
+
+		ourLog.debug("Stored list of {} resource PIDs as search {}", theSortedPids.length, search.getId());
+		return new CachedPidList(search.getId(), search.getCreated());
+	}
+
+	/**
+	 * Clears the local cache of stored lists. Lists stored in the database are not affected.
+	 */
+	@VisibleForTesting
+	public void clearCache() {
+		myPidListCache.clear();
+	}
+
+	@VisibleForTesting
+	static String createQueryString(long[] theSortedPids) {
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		for (long next : theSortedPids) {
+			hasher.putLong(next);
+		}
+		return QUERY_STRING_PREFIX + theSortedPids.length + ":" + hasher.hash();
+	}
+
+	private static class CachedPidList {
+		private final Long mySearchPid;
+		private final Date myCreated;
+
+		private CachedPidList(Long theSearchPid, Date theCreated) {
+			mySearchPid = theSearchPid;
+			myCreated = theCreated;
+		}
+	}
+}
@@ -59,6 +59,7 @@ import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
+import ca.uhn.fhir.rest.server.util.ICachedSearchDetails;
 import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import ca.uhn.fhir.util.AsyncUtil;
 import ca.uhn.fhir.util.StopWatch;
@@ -95,6 +96,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(SearchCoordinatorSvcImpl.class);
+	private static final String SEARCH_CACHE_SCOPE_SEPARATOR = "#scope=";
 
 	private final FhirContext myContext;
 	private final JpaStorageSettings myStorageSettings;
@@ -360,7 +362,7 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 			RequestPartitionId theRequestPartitionId) {
 		final String searchUuid = UUID.randomUUID().toString();
 
-		final String queryString = theParams.toNormalizedQueryString(myContext);
+		final String queryString = addSearchCacheScope(theParams.toNormalizedQueryString(myContext), theRequestDetails);
 		ourLog.debug("Registering new search {}", searchUuid);
 
 		Search search = new Search();
@@ -582,6 +584,19 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 		return retVal;
 	}
 
+	/**
+	 * If an interceptor has declared a search cache scope for this request (see
+	 * {@link ICachedSearchDetails#SEARCH_CACHE_SCOPE_USER_DATA_KEY}), it is appended to the
+	 * query string so that cached searches are only reused by requests with the same scope
+	 */
+	static String addSearchCacheScope(String theQueryString, RequestDetails theRequestDetails) {
+		String scope = ICachedSearchDetails.getSearchCacheScope(theRequestDetails);
+		if (isBlank(scope)) {
+			return theQueryString;
+		}
+		return theQueryString + SEARCH_CACHE_SCOPE_SEPARATOR + scope;
+	}
+
 	@Nullable
 	private PersistedJpaBundleProvider findCachedQuery(
 			SearchParameterMap theParams,
@@ -1113,6 +1113,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			Collection<JpaPid> theIncludedPids,
 			List<IBaseResource> theResourceListToPopulate,
 			boolean theForHistoryOperation,
+			boolean theStoredJsonPassThrough,
 			Map<JpaPid, Integer> thePosition) {
 
 		Map<Long, Long> resourcePidToVersion = null;
@@ -1167,7 +1168,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			IBaseResource resource = null;
 			if (next != null) {
 				resource = myJpaStorageResourceParser.toResource(
-						resourceType, next, tagMap.get(next.getId()), theForHistoryOperation);
+						resourceType, next, tagMap.get(next.getId()), theForHistoryOperation, theStoredJsonPassThrough);
 			}
 			if (resource == null) {
 				if (next != null) {
@@ -1274,12 +1275,19 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			}
 		}
 
+		boolean storedJsonPassThrough = myJpaStorageResourceParser.isStoredJsonPassThroughAllowed(theDetails);
+
 		// We only chunk because some jdbc drivers can't handle long param lists.
 		new QueryChunker<JpaPid>()
 				.chunk(
 						thePids,
 						t -> doLoadPids(
-								t, theIncludedPids, theResourceListToPopulate, theForHistoryOperation, position));
+								t,
+								theIncludedPids,
+								theResourceListToPopulate,
+								theForHistoryOperation,
+								storedJsonPassThrough,
+								position));
 	}
 
 	/**
@@ -26,6 +26,7 @@ import ca.uhn.fhir.jpa.model.entity.StorageSettings;
 import ca.uhn.fhir.jpa.search.builder.sql.SearchQueryBuilder;
 import ca.uhn.fhir.rest.param.ParamPrefixEnum;
 import com.healthmarketscience.sqlbuilder.BinaryCondition;
+import com.healthmarketscience.sqlbuilder.Condition;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbTable;
 import jakarta.annotation.Nonnull;
@@ -67,6 +68,11 @@ public abstract class BasePredicateBuilder {
 		return mySearchSqlBuilder.generatePlaceholders(theValues);
 	}
 
+	@Nonnull
+	Condition createPredicateInMaterializedPidList(DbColumn theColumn, Long theSearchPid, boolean theInverse) {
+		return mySearchSqlBuilder.createPredicateInMaterializedPidList(theColumn, theSearchPid, theInverse);
+	}
+
 	protected FhirContext getFhirContext() {
 		return mySearchSqlBuilder.getFhirContext();
 	}
@@ -23,6 +23,7 @@ import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.dao.predicate.SearchFilterParser;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.search.MaterializedPidListSvc;
 import ca.uhn.fhir.jpa.search.builder.sql.SearchQueryBuilder;
 import ca.uhn.fhir.jpa.util.QueryParameterUtils;
 import ca.uhn.fhir.model.api.IQueryParameterType;
@@ -50,6 +51,9 @@ public class ResourceIdPredicateBuilder extends BasePredicateBuilder {
 	@Autowired
 	private IIdHelperService<JpaPid> myIdHelperService;
 
+	@Autowired
+	private MaterializedPidListSvc myMaterializedPidListSvc;
+
 	/**
 	 * Constructor
 	 */
@@ -121,18 +125,22 @@ public class ResourceIdPredicateBuilder extends BasePredicateBuilder {
 					|| operation == SearchFilterParser.CompareOperation.ne;
 
 			List<Long> resourceIds = JpaPid.toLongList(allOrPids);
+			Long pidListSearchPid = myMaterializedPidListSvc.materializePidListIfLarge(
+					theResourceName, resourceIds, theRequestPartitionId);
 			if (theSourceJoinColumn == null) {
 				BaseJoiningPredicateBuilder queryRootTable = super.getOrCreateQueryRootTable(!allIdsAreForcedIds);
+				boolean inverse = operation == SearchFilterParser.CompareOperation.ne;
 				Condition predicate;
-				switch (operation) {
-					default:
-					case eq:
-						predicate = queryRootTable.createPredicateResourceIds(false, resourceIds);
-						return queryRootTable.combineWithRequestPartitionIdPredicate(theRequestPartitionId, predicate);
-					case ne:
-						predicate = queryRootTable.createPredicateResourceIds(true, resourceIds);
-						return queryRootTable.combineWithRequestPartitionIdPredicate(theRequestPartitionId, predicate);
+				if (pidListSearchPid != null) {
+					predicate = createPredicateInMaterializedPidList(
+							queryRootTable.getResourceIdColumn(), pidListSearchPid, inverse);
+				} else {
+					predicate = queryRootTable.createPredicateResourceIds(inverse, resourceIds);
 				}
+				return queryRootTable.combineWithRequestPartitionIdPredicate(theRequestPartitionId, predicate);
+			} else if (pidListSearchPid != null) {
+				return createPredicateInMaterializedPidList(
+						theSourceJoinColumn, pidListSearchPid, operation == SearchFilterParser.CompareOperation.ne);
 			} else {
 				return QueryParameterUtils.toEqualToOrInPredicate(
 						theSourceJoinColumn,
@@ -39,6 +39,7 @@ import ca.uhn.fhir.jpa.dao.BaseStorageDao;
 import ca.uhn.fhir.jpa.dao.predicate.SearchFilterParser;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.search.StorageProcessingMessage;
+import ca.uhn.fhir.jpa.search.MaterializedPidListSvc;
 import ca.uhn.fhir.jpa.search.SearchCoordinatorSvcImpl;
 import ca.uhn.fhir.jpa.search.builder.QueryStack;
 import ca.uhn.fhir.jpa.search.builder.models.MissingQueryParameterPredicateParams;
@@ -92,6 +93,7 @@ import java.util.stream.Collectors;
 import static ca.uhn.fhir.jpa.search.builder.QueryStack.SearchForIdsParams.with;
 import static ca.uhn.fhir.rest.api.Constants.PARAM_TYPE;
 import static ca.uhn.fhir.rest.api.Constants.VALID_MODIFIERS;
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.trim;
 
@@ -126,6 +128,9 @@ public class ResourceLinkPredicateBuilder extends BaseJoiningPredicateBuilder im
 	@Autowired
 	private MatchUrlService myMatchUrlService;
 
+	@Autowired
+	private MaterializedPidListSvc myMaterializedPidListSvc;
+
 	/**
 	 * Constructor
 	 */
@@ -259,7 +264,15 @@ public class ResourceLinkPredicateBuilder extends BaseJoiningPredicateBuilder im
 			setMatchNothing();
 			return null;
 		} else {
-			Condition retVal = createPredicateReference(inverse, pathsToMatch, targetPidList, targetQualifiedUrls);
+			// Stored PID lists are keyed by the type of the target resources where possible, so that
+			// the same list can be reused by _id searches on the target type
+			Set<String> targetResourceTypes =
+					targetIds.stream().map(IIdType::getResourceType).collect(Collectors.toSet());
+			String pidListResourceType = targetResourceTypes.size() == 1
+					? defaultIfBlank(targetResourceTypes.iterator().next(), getResourceType())
+					: getResourceType();
+			Condition retVal = createPredicateReference(
+					inverse, pathsToMatch, targetPidList, targetQualifiedUrls, pidListResourceType);
 			return combineWithRequestPartitionIdPredicate(getRequestPartitionId(), retVal);
 		}
 	}
@@ -315,13 +328,21 @@ public class ResourceLinkPredicateBuilder extends BaseJoiningPredicateBuilder im
 			boolean theInverse,
 			List<String> thePathsToMatch,
 			List<Long> theTargetPidList,
-			List<String> theTargetQualifiedUrls) {
+			List<String> theTargetQualifiedUrls,
+			String thePidListResourceType) {
 
 		Condition targetPidCondition = null;
 		if (!theTargetPidList.isEmpty()) {
-			List<String> placeholders = generatePlaceholders(theTargetPidList);
-			targetPidCondition =
-					QueryParameterUtils.toEqualToOrInPredicate(myColumnTargetResourceId, placeholders, theInverse);
+			Long pidListSearchPid = myMaterializedPidListSvc.materializePidListIfLarge(
+					thePidListResourceType, theTargetPidList, getRequestPartitionId());
+			if (pidListSearchPid != null) {
+				targetPidCondition =
+						createPredicateInMaterializedPidList(myColumnTargetResourceId, pidListSearchPid, theInverse);
+			} else {
+				List<String> placeholders = generatePlaceholders(theTargetPidList);
+				targetPidCondition =
+						QueryParameterUtils.toEqualToOrInPredicate(myColumnTargetResourceId, placeholders, theInverse);
+			}
 		}
 
 		Condition targetUrlsCondition = null;
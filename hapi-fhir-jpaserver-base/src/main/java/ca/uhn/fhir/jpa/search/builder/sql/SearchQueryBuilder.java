@@ -55,6 +55,7 @@ import com.healthmarketscience.sqlbuilder.FunctionCall;
 import com.healthmarketscience.sqlbuilder.InCondition;
 import com.healthmarketscience.sqlbuilder.OrderObject;
 import com.healthmarketscience.sqlbuilder.SelectQuery;
+import com.healthmarketscience.sqlbuilder.Subquery;
 import com.healthmarketscience.sqlbuilder.dbspec.Join;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbColumn;
 import com.healthmarketscience.sqlbuilder.dbspec.basic.DbJoin;
@@ -681,6 +682,27 @@ public class SearchQueryBuilder {
 		return mySchema.addTable(theTableName);
 	}
 
+	/**
+	 * Creates a predicate matching rows whose column value is one of the resource PIDs in
+	 * a list stored by {@link ca.uhn.fhir.jpa.search.MaterializedPidListSvc}. The generated
+	 * SQL uses a single bind variable regardless of the size of the list.
+	 *
+	 * @param theColumn    The column containing the resource PID to test
+	 * @param theSearchPid The PID of the search holding the stored list
+	 * @param theInverse   If <code>true</code>, match rows whose value is <b>not</b> in the list
+	 */
+	public Condition createPredicateInMaterializedPidList(DbColumn theColumn, Long theSearchPid, boolean theInverse) {
+		DbTable searchResultTable = addTable("HFJ_SEARCH_RESULT");
+		DbColumn resourcePidColumn = searchResultTable.addColumn("RESOURCE_PID");
+		DbColumn searchPidColumn = searchResultTable.addColumn("SEARCH_PID");
+
+		SelectQuery pidListSelect = new SelectQuery();
+		pidListSelect.addColumns(resourcePidColumn);
+		pidListSelect.addCondition(BinaryCondition.equalTo(searchPidColumn, generatePlaceholder(theSearchPid)));
+
+		return new InCondition(theColumn, new Subquery(pidListSelect)).setNegate(theInverse);
+	}
+
 	public PartitionSettings getPartitionSettings() {
 		return myPartitionSettings;
 	}
@@ -24,6 +24,7 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
+import ca.uhn.fhir.jpa.cache.IResourceReadCache;
 import ca.uhn.fhir.jpa.dao.BaseHapiFhirDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceReindexJobDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
@@ -122,6 +123,9 @@ public class ResourceReindexingSvcImpl implements IResourceReindexingSvc, IHasSc
 	@Autowired
 	private ResourceReindexer myResourceReindexer;
 
+	@Autowired(required = false)
+	private IResourceReadCache myResourceReadCache;
+
 	@VisibleForTesting
 	void setStorageSettingsForUnitTest(JpaStorageSettings theStorageSettings) {
 		myStorageSettings = theStorageSettings;
@@ -437,6 +441,14 @@ public class ResourceReindexingSvcImpl implements IResourceReindexingSvc, IHasSc
 
 			myResourceTableDao.updateIndexStatus(theId, BaseHapiFhirDao.INDEX_STATUS_INDEXING_FAILED);
 
+			// The tags of the resource are removed below, so it must not be read from the cache anymore
+			if (myResourceReadCache != null) {
+				myResourceTableDao
+						.findById(theId)
+						.ifPresent(t -> myResourceReadCache.invalidate(
+								t.getResourceType(), t.getIdDt().getIdPart()));
+			}
+
 			Query q = myEntityManager.createQuery("DELETE FROM ResourceTag t WHERE t.myResourceId = :id");
 			q.setParameter("id", theId);
 			q.executeUpdate();
@@ -175,6 +175,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -240,7 +241,13 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 	@PersistenceContext(type = PersistenceContextType.TRANSACTION)
 	protected EntityManager myEntityManager;
 
-	private boolean myPreExpandingValueSets = false;
+	/*
+	 * A lock rather than a synchronized method, since pre-expansion can run for a long time and
+	 * a thread blocked on a monitor pins its carrier thread when running on a virtual thread
+	 */
+	private final ReentrantLock myPreExpansionLock = new ReentrantLock();
+
+	private volatile boolean myPreExpandingValueSets = false;
 
 	@Autowired
 	private ITermCodeSystemVersionDao myCodeSystemVersionDao;
@@ -2414,10 +2421,20 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 	}
 
 	@Override
-	public synchronized void preExpandDeferredValueSetsToTerminologyTables() {
+	public void preExpandDeferredValueSetsToTerminologyTables() {
 		if (!myStorageSettings.isEnableTaskPreExpandValueSets()) {
 			return;
 		}
+
+		myPreExpansionLock.lock();
+		try {
+			doPreExpandDeferredValueSetsToTerminologyTables();
+		} finally {
+			myPreExpansionLock.unlock();
+		}
+	}
+
+	private void doPreExpandDeferredValueSetsToTerminologyTables() {
 		if (isNotSafeToPreExpandValueSets()) {
 			ourLog.info("Skipping scheduled pre-expansion of ValueSets while deferred entities are being loaded.");
 			return;
@@ -2500,11 +2517,11 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		myCachingValidationSupport.invalidateCaches();
 	}
 
-	private synchronized boolean isPreExpandingValueSets() {
+	private boolean isPreExpandingValueSets() {
 		return myPreExpandingValueSets;
 	}
 
-	private synchronized void setPreExpandingValueSets(boolean thePreExpandingValueSets) {
+	private void setPreExpandingValueSets(boolean thePreExpandingValueSets) {
 		myPreExpandingValueSets = thePreExpandingValueSets;
 	}
 
@@ -5,6 +5,7 @@ import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.entity.BaseResourceIndex;
 import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamNumber;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.jpa.model.util.ResourceIndexHashes;
 import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
 import ca.uhn.fhir.jpa.util.AddRemoveCount;
 import jakarta.persistence.EntityManager;
@@ -75,4 +76,22 @@ public class DaoSearchParamSynchronizerTest {
 		verify(entityManager, never()).remove(any(BaseResourceIndex.class));
 		verify(entityManager, times(1)).merge(THE_SEARCH_PARAM_NUMBER);
 	}
+
+	@Test
+	void synchronizeSearchParamsNumberUnchangedHashIsSkipped() {
+		ResourceIndexHashes hashes = new ResourceIndexHashes();
+		hashes.setHash(ResourceIndexHashes.IndexType.NUMBER, 123L);
+		String encoded = hashes.encode();
+		existingParams.setIndexHashes(encoded);
+		when(theEntity.getIndexHashes()).thenReturn(encoded);
+
+		final AddRemoveCount addRemoveCount = subject.synchronizeSearchParamsToDatabase(theParams, theEntity, existingParams);
+
+		assertEquals(0, addRemoveCount.getRemoveCount());
+		assertEquals(0, addRemoveCount.getAddCount());
+
+		verify(entityManager, never()).remove(any(BaseResourceIndex.class));
+		verify(entityManager, never()).merge(any(BaseResourceIndex.class));
+		assertEquals(encoded, existingParams.getIndexHashes());
+	}
 }
@@ -85,17 +85,27 @@ public class MdmMessageHandler implements MessageHandler {
 		ResourceModifiedMessage msg = ((ResourceModifiedJsonMessage) theMessage).getPayload();
 		try {
 			IBaseResource sourceResource = extractSourceResource(msg);
-
-			boolean toProcess = myMdmResourceFilteringSvc.shouldBeProcessed((IAnyResource) sourceResource);
-			if (toProcess) {
-				matchMdmAndUpdateLinks(sourceResource, msg);
-			}
+			handleResourceModified(sourceResource, msg);
 		} catch (Exception e) {
 			ourLog.error("Failed to handle MDM Matching Resource:", e);
 			throw e;
 		}
 	}
 
+	/**
+	 * Applies MDM processing to a modified resource, exactly as if the given message had been received
+	 * from the MDM channel. This is used to match resources without sending them through the channel.
+	 *
+	 * @param theSourceResource The resource, which must be the payload of the message
+	 * @param theMsg            The message describing the modification
+	 */
+	public void handleResourceModified(IBaseResource theSourceResource, ResourceModifiedMessage theMsg) {
+		boolean toProcess = myMdmResourceFilteringSvc.shouldBeProcessed((IAnyResource) theSourceResource);
+		if (toProcess) {
+			matchMdmAndUpdateLinks(theSourceResource, theMsg);
+		}
+	}
+
 	private IBaseResource extractSourceResource(ResourceModifiedMessage theResourceModifiedMessage) {
 		IBaseResource sourceResource = theResourceModifiedMessage.getNewPayload(myFhirContext);
 		if (myFhirContext.getVersion().getVersion() == FhirVersionEnum.R5 && sourceResource instanceof IBaseBundle) {
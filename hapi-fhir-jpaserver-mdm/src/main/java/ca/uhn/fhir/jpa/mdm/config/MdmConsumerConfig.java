@@ -30,6 +30,7 @@ import ca.uhn.fhir.jpa.mdm.svc.BlockRuleEvaluationSvcImpl;
 import ca.uhn.fhir.jpa.mdm.svc.GoldenResourceMergerSvcImpl;
 import ca.uhn.fhir.jpa.mdm.svc.GoldenResourceSearchSvcImpl;
 import ca.uhn.fhir.jpa.mdm.svc.IMdmModelConverterSvc;
+import ca.uhn.fhir.jpa.mdm.svc.MdmBatchMatchingSvcImpl;
 import ca.uhn.fhir.jpa.mdm.svc.MdmControllerSvcImpl;
 import ca.uhn.fhir.jpa.mdm.svc.MdmEidUpdateService;
 import ca.uhn.fhir.jpa.mdm.svc.MdmLinkCreateSvcImpl;
@@ -45,12 +46,14 @@ import ca.uhn.fhir.jpa.mdm.svc.candidate.CandidateSearcher;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.FindCandidateByEidSvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.FindCandidateByExampleSvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.FindCandidateByLinkSvc;
+import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmBlockingKeySvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmCandidateSearchCriteriaBuilderSvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmCandidateSearchSvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmGoldenResourceFindingSvc;
 import ca.uhn.fhir.jpa.partition.IRequestPartitionHelperSvc;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelFactory;
 import ca.uhn.fhir.mdm.api.IGoldenResourceMergerSvc;
+import ca.uhn.fhir.mdm.api.IMdmBatchMatchingSvc;
 import ca.uhn.fhir.mdm.api.IMdmControllerSvc;
 import ca.uhn.fhir.mdm.api.IMdmLinkCreateSvc;
 import ca.uhn.fhir.mdm.api.IMdmLinkQuerySvc;
@@ -102,6 +105,11 @@ public class MdmConsumerConfig {
 		return new MdmMessageHandler();
 	}
 
+	@Bean
+	IMdmBatchMatchingSvc mdmBatchMatchingSvc() {
+		return new MdmBatchMatchingSvcImpl();
+	}
+
 	@Bean
 	MdmMessageKeySvc mdmMessageKeySvc() {
 		return new MdmMessageKeySvc();
@@ -193,6 +201,11 @@ public class MdmConsumerConfig {
 		return new MdmCandidateSearchSvc();
 	}
 
+	@Bean
+	MdmBlockingKeySvc mdmBlockingKeySvc() {
+		return new MdmBlockingKeySvc();
+	}
+
 	@Bean
 	CandidateSearcher candidateSearcher(
 			DaoRegistry theDaoRegistry, IMdmSettings theMdmSettings, MdmSearchParamSvc theMdmSearchParamSvc) {
@@ -0,0 +1,297 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.mdm.svc;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.mdm.broker.MdmMessageHandler;
+import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmBlockingKeySvc;
+import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedJsonMessage;
+import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
+import ca.uhn.fhir.mdm.api.IMdmBatchMatchingSvc;
+import ca.uhn.fhir.mdm.api.IMdmSettings;
+import ca.uhn.fhir.mdm.log.Logs;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.ThreadPoolUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matches the resources submitted by an <code>$mdm-submit</code> job directly, instead of sending them
+ * through the MDM channel (see {@link IMdmSettings#isBatchMatchingEnabled()}).
+ * <p>
+ * Resources which have a blocking key in common could match the same golden resource, so matching them
+ * concurrently could create duplicate golden resources. Before a group of resources is matched, a lock is
+ * therefore taken for each of their blocking keys, and held until the group's transaction has been committed.
+ * The locks are shared by every chunk which is processed by this server, so resources with a blocking key
+ * in common are never matched at the same time, whichever chunk they are in. Resources without any blocking
+ * key could match any golden resource, so they are matched while holding a lock which excludes all other
+ * batch matching. This also applies to resources of types whose candidate search parameters have modifiers
+ * (e.g. <code>given:nickname</code>), since their candidates don't necessarily share a blocking key with them.
+ * </p>
+ * <p>
+ * Blocking keys are only used if the blocking key index is enabled (see
+ * {@link IMdmSettings#isBlockingKeyIndexEnabled()}). Otherwise, candidates are found with searches which
+ * the blocking keys don't necessarily reflect, so every resource is matched like a resource without any
+ * blocking key, one group at a time.
+ * </p>
+ * <p>
+ * Within a chunk, resources are routed to one of several lanes by their blocking keys, so that resources
+ * which share a key are usually matched by the same lane. Lanes are matched in parallel, and each lane
+ * matches its resources in groups of up to {@link #RESOURCES_PER_TRANSACTION}, one database transaction
+ * per group, so that the links and golden resources of a group are written together.
+ * </p>
+ * <p>
+ * The locks are held in memory, so if several servers process the chunks of an <code>$mdm-submit</code> job,
+ * resources on different servers can still be matched concurrently, as with MDM channel consumers on
+ * several servers.
+ * </p>
+ * <p>
+ * If a group can not be committed, its resources are matched again one at a time, each in its own
+ * transaction. Interceptors may therefore see MDM processing hooks more than once for these resources.
+ * </p>
+ */
+public class MdmBatchMatchingSvcImpl implements IMdmBatchMatchingSvc {
+
+	static final int RESOURCES_PER_TRANSACTION = 50;
+	private static final int KEY_LOCK_STRIPES = 1024;
+	private static final Logger ourLog = Logs.getMdmTroubleshootingLog();
+
+	/**
+	 * Held for reading while matching resources with blocking keys, and for writing while
+	 * matching resources without any
+	 */
+	private final ReadWriteLock myKeylessLock = new ReentrantReadWriteLock();
+
+	private final Lock[] myKeyLocks = new Lock[KEY_LOCK_STRIPES];
+
+	@Autowired
+	private IMdmSettings myMdmSettings;
+
+	@Autowired
+	private FhirContext myFhirContext;
+
+	@Autowired
+	private MdmBlockingKeySvc myMdmBlockingKeySvc;
+
+	@Autowired
+	private MdmMessageHandler myMdmMessageHandler;
+
+	@Autowired
+	private IHapiTransactionService myTransactionService;
+
+	@Autowired
+	private IInterceptorBroadcaster myInterceptorBroadcaster;
+
+	private ThreadPoolTaskExecutor myExecutor;
+
+	public MdmBatchMatchingSvcImpl() {
+		for (int i = 0; i < myKeyLocks.length; i++) {
+			myKeyLocks[i] = new ReentrantLock();
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		int threadCount = Math.max(1, myMdmSettings.getConcurrentConsumers());
+		myExecutor = ThreadPoolUtil.newThreadPool(threadCount, threadCount, "mdm-batch-matching-", 0);
+	}
+
+	@PreDestroy
+	public void stop() {
+		myExecutor.shutdown();
+	}
+
+	@Override
+	public void matchResources(List<IBaseResource> theResources) {
+		int laneCount = Math.max(1, myMdmSettings.getConcurrentConsumers());
+		List<List<IBaseResource>> lanes = new ArrayList<>(laneCount);
+		for (int i = 0; i < laneCount; i++) {
+			lanes.add(new ArrayList<>());
+		}
+		List<IBaseResource> keylessResources = new ArrayList<>();
+		for (IBaseResource nextResource : theResources) {
+			Set<Long> keys = calculateBlockingKeys(nextResource);
+			if (keys.isEmpty()) {
+				keylessResources.add(nextResource);
+			} else {
+				// Route by the lowest key, so that resources sharing a key usually land in the same lane
+				int lane = Math.floorMod(Long.hashCode(Collections.min(keys)), laneCount);
+				lanes.get(lane).add(nextResource);
+			}
+		}
+		ourLog.info(
+				"Matching {} resources in {} lanes and {} resources without blocking keys",
+				theResources.size() - keylessResources.size(),
+				lanes.stream().filter(t -> !t.isEmpty()).count(),
+				keylessResources.size());
+
+		List<Future<?>> futures = new ArrayList<>(laneCount);
+		for (List<IBaseResource> nextLane : lanes) {
+			if (!nextLane.isEmpty()) {
+				futures.add(myExecutor.submit(() -> matchInGroups(nextLane, false)));
+			}
+		}
+
+		for (Future<?> nextFuture : futures) {
+			try {
+				nextFuture.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InternalErrorException(Msg.code(2558) + "Interrupted while matching resources", e);
+			} catch (ExecutionException e) {
+				throw new InternalErrorException(
+						Msg.code(2559) + "Failed to match resources: "
+								+ e.getCause().getMessage(),
+						e.getCause());
+			}
+		}
+
+		if (!keylessResources.isEmpty()) {
+			matchInGroups(keylessResources, true);
+		}
+	}
+
+	private void matchInGroups(List<IBaseResource> theResources, boolean theKeyless) {
+		for (int i = 0; i < theResources.size(); i += RESOURCES_PER_TRANSACTION) {
+			List<IBaseResource> group =
+					theResources.subList(i, Math.min(i + RESOURCES_PER_TRANSACTION, theResources.size()));
+			if (theKeyless) {
+				matchGroupExclusively(group);
+			} else {
+				matchGroupWithKeyLocks(group);
+			}
+		}
+	}
+
+	private void matchGroupExclusively(List<IBaseResource> theGroup) {
+		myKeylessLock.writeLock().lock();
+		try {
+			matchGroup(theGroup);
+		} finally {
+			myKeylessLock.writeLock().unlock();
+		}
+	}
+
+	private void matchGroupWithKeyLocks(List<IBaseResource> theGroup) {
+		// Locks are always taken in ascending stripe order, so two groups can't deadlock each other
+		SortedSet<Integer> stripes = new TreeSet<>();
+		for (IBaseResource nextResource : theGroup) {
+			for (Long nextKey : calculateBlockingKeys(nextResource)) {
+				stripes.add(Math.floorMod(Long.hashCode(nextKey), KEY_LOCK_STRIPES));
+			}
+		}
+
+		myKeylessLock.readLock().lock();
+		List<Lock> heldLocks = new ArrayList<>(stripes.size());
+		try {
+			for (Integer nextStripe : stripes) {
+				Lock lock = myKeyLocks[nextStripe];
+				lock.lock();
+				heldLocks.add(lock);
+			}
+			matchGroup(theGroup);
+		} finally {
+			for (int i = heldLocks.size() - 1; i >= 0; i--) {
+				heldLocks.get(i).unlock();
+			}
+			myKeylessLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns an empty set if the blocking key index is disabled, or if the resource could have candidates
+	 * which don't share a blocking key with it, so that it is matched like a resource without blocking keys
+	 */
+	private Set<Long> calculateBlockingKeys(IBaseResource theResource) {
+		String resourceType = myFhirContext.getResourceType(theResource);
+		if (!myMdmBlockingKeySvc.isEnabledForResourceType(resourceType)) {
+			return Collections.emptySet();
+		}
+		return myMdmBlockingKeySvc.calculateBlockingKeys(resourceType, theResource);
+	}
+
+	/**
+	 * Matches the group in a new transaction, which has always been committed by the time this
+	 * method returns, so that the next holder of the locks sees its links and golden resources.
+	 */
+	private void matchGroup(List<IBaseResource> theGroup) {
+		try {
+			myTransactionService
+					.withSystemRequest()
+					.withPropagation(Propagation.REQUIRES_NEW)
+					.execute(() -> theGroup.forEach(this::matchResource));
+		} catch (Exception e) {
+			if (theGroup.size() == 1) {
+				throw e;
+			}
+			ourLog.warn(
+					"Failed to match a group of {} resources, matching them individually: {}",
+					theGroup.size(),
+					e.toString());
+			for (IBaseResource nextResource : theGroup) {
+				myTransactionService
+						.withSystemRequest()
+						.withPropagation(Propagation.REQUIRES_NEW)
+						.execute(() -> matchResource(nextResource));
+			}
+		}
+	}
+
+	private void matchResource(IBaseResource theResource) {
+		ResourceModifiedMessage resourceModifiedMessage = new ResourceModifiedMessage(
+				myFhirContext,
+				theResource,
+				ResourceModifiedMessage.OperationTypeEnum.MANUALLY_TRIGGERED,
+				null,
+				(RequestPartitionId) theResource.getUserData(Constants.RESOURCE_PARTITION_ID));
+		if (myInterceptorBroadcaster.hasHooks(Pointcut.MDM_SUBMIT_PRE_MESSAGE_DELIVERY)) {
+			ResourceModifiedJsonMessage resourceModifiedJsonMessage = new ResourceModifiedJsonMessage();
+			resourceModifiedJsonMessage.setPayload(resourceModifiedMessage);
+			HookParams params = new HookParams().add(ResourceModifiedJsonMessage.class, resourceModifiedJsonMessage);
+			myInterceptorBroadcaster.callHooks(Pointcut.MDM_SUBMIT_PRE_MESSAGE_DELIVERY, params);
+		}
+		myMdmMessageHandler.handleResourceModified(theResource, resourceModifiedMessage);
+	}
+}
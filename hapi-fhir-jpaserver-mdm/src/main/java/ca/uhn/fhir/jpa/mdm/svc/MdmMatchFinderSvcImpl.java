@@ -23,6 +23,7 @@ import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmCandidateSearchSvc;
 import ca.uhn.fhir.mdm.api.IMdmMatchFinderSvc;
 import ca.uhn.fhir.mdm.api.MatchedTarget;
+import ca.uhn.fhir.mdm.api.MdmMatchOutcome;
 import ca.uhn.fhir.mdm.log.Logs;
 import ca.uhn.fhir.mdm.rules.svc.MdmResourceMatcherSvc;
 import jakarta.annotation.Nonnull;
@@ -32,9 +33,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.jpa.mdm.svc.candidate.CandidateSearcher.idOrType;
 
@@ -57,10 +58,12 @@ public class MdmMatchFinderSvcImpl implements IMdmMatchFinderSvc {
 		Collection<IAnyResource> targetCandidates =
 				myMdmCandidateSearchSvc.findCandidates(theResourceType, theResource, theRequestPartitionId);
 
-		List<MatchedTarget> matches = targetCandidates.stream()
-				.map(candidate ->
-						new MatchedTarget(candidate, myMdmResourceMatcherSvc.getMatchResult(theResource, candidate)))
-				.collect(Collectors.toList());
+		List<IAnyResource> candidates = new ArrayList<>(targetCandidates);
+		List<MdmMatchOutcome> outcomes = myMdmResourceMatcherSvc.getMatchResults(theResource, candidates);
+		List<MatchedTarget> matches = new ArrayList<>(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) {
+			matches.add(new MatchedTarget(candidates.get(i), outcomes.get(i)));
+		}
 
 		ourLog.trace("Found {} matched targets for {}.", matches.size(), idOrType(theResource, theResourceType));
 		return matches;
@@ -24,6 +24,7 @@ import ca.uhn.fhir.jpa.mdm.models.FindGoldenResourceCandidatesParams;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.CandidateList;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.CandidateStrategyEnum;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MatchedGoldenResourceCandidate;
+import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmBlockingKeySvc;
 import ca.uhn.fhir.jpa.mdm.svc.candidate.MdmGoldenResourceFindingSvc;
 import ca.uhn.fhir.mdm.api.IMdmLinkSvc;
 import ca.uhn.fhir.mdm.api.IMdmSurvivorshipService;
@@ -77,6 +78,9 @@ public class MdmMatchLinkSvc {
 	@Autowired
 	private IMdmSurvivorshipService myMdmSurvivorshipService;
 
+	@Autowired
+	private MdmBlockingKeySvc myMdmBlockingKeySvc;
+
 	/**
 	 * Given an MDM source (consisting of any supported MDM type), find a suitable Golden Resource candidate for them,
 	 * or create one if one does not exist. Performs matching based on rules defined in mdm-rules.json.
@@ -90,6 +94,9 @@ public class MdmMatchLinkSvc {
 	public MdmTransactionContext updateMdmLinksForMdmSource(
 			IAnyResource theResource, MdmTransactionContext theMdmTransactionContext) {
 		if (MdmResourceUtil.isMdmAllowed(theResource)) {
+			if (myMdmBlockingKeySvc.isEnabledForResourceType(theResource.fhirType())) {
+				myMdmBlockingKeySvc.updateBlockingKeys(theResource);
+			}
 			return doMdmUpdate(theResource, theMdmTransactionContext);
 		} else {
 			return null;
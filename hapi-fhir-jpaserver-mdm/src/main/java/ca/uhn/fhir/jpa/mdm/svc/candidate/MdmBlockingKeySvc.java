@@ -0,0 +1,370 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.mdm.svc.candidate;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.dao.ISearchBuilder;
+import ca.uhn.fhir.jpa.dao.data.IMdmBlockingKeyJpaRepository;
+import ca.uhn.fhir.jpa.entity.MdmBlockingKey;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.SearchParamMatcher;
+import ca.uhn.fhir.mdm.api.IMdmSettings;
+import ca.uhn.fhir.mdm.log.Logs;
+import ca.uhn.fhir.mdm.rules.json.MdmResourceSearchParamJson;
+import ca.uhn.fhir.mdm.svc.MdmSearchParamSvc;
+import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
+import ca.uhn.fhir.util.SearchParameterUtil;
+import ca.uhn.fhir.util.StringUtil;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.Nonnull;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hl7.fhir.instance.model.api.IAnyResource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static ca.uhn.fhir.jpa.mdm.svc.candidate.CandidateSearcher.idOrType;
+import static ca.uhn.fhir.mdm.api.MdmConstants.ALL_RESOURCE_SEARCH_PARAM_TYPE;
+
+/**
+ * Maintains and queries the MDM blocking key index (see {@link IMdmSettings#isBlockingKeyIndexEnabled()}).
+ * <p>
+ * A blocking key is a hash of the candidate search parameter names of one of the
+ * <code>candidateSearchParams</code> entries in the MDM rules, together with one value for each of
+ * these parameters. A resource which has several values for a parameter gets one key per combination
+ * of values. Two resources share a key exactly when the candidate search for one of the resources would
+ * find the other with an exact (normalized) value match, so candidates can be found with a single indexed
+ * lookup instead of one search per <code>candidateSearchParams</code> entry.
+ * </p>
+ * <p>
+ * Keys are written when a resource is processed by MDM, so the index only contains MDM source resources
+ * which have been matched at least once. Running <code>$mdm-submit</code> populates the index for
+ * existing data.
+ * </p>
+ */
+public class MdmBlockingKeySvc {
+
+	private static final Logger ourLog = Logs.getMdmTroubleshootingLog();
+
+	/**
+	 * The maximum number of keys created for a single <code>candidateSearchParams</code> entry. This
+	 * bounds the number of keys for resources with many values for several candidate search parameters.
+	 */
+	static final int MAX_KEYS_PER_SEARCH_PARAM_SET = 100;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128(0);
+
+	@Autowired
+	private IMdmSettings myMdmSettings;
+
+	@Autowired
+	private FhirContext myFhirContext;
+
+	@Autowired
+	private MdmSearchParamSvc myMdmSearchParamSvc;
+
+	@Autowired
+	private ISearchParamRegistry mySearchParamRegistry;
+
+	@Autowired
+	private SearchParamMatcher mySearchParamMatcher;
+
+	@Autowired
+	private IIdHelperService<JpaPid> myIdHelperService;
+
+	@Autowired
+	private IMdmBlockingKeyJpaRepository myMdmBlockingKeyRepository;
+
+	@Autowired
+	private EntityManager myEntityManager;
+
+	/**
+	 * Returns <code>true</code> if the blocking key index is enabled and can be used for the given resource
+	 * type. This requires at least one candidate search parameter for the type, and no candidate search
+	 * parameters with modifiers (e.g. <code>given:nickname</code>), since these match values which are not
+	 * present in the resource and can not be represented by a blocking key.
+	 */
+	public boolean isEnabledForResourceType(String theResourceType) {
+		return myMdmSettings.isBlockingKeyIndexEnabled() && isBlockingKeyCompatible(theResourceType);
+	}
+
+	/**
+	 * Returns <code>true</code> if every candidate of a resource of the given type shares at least one blocking
+	 * key with it, i.e. there is at least one candidate search parameter for the type and none of them has a
+	 * modifier. This does not depend on whether the blocking key index is enabled.
+	 */
+	public boolean isBlockingKeyCompatible(String theResourceType) {
+		List<MdmResourceSearchParamJson> candidateSearchParams = getCandidateSearchParams(theResourceType);
+		return !candidateSearchParams.isEmpty()
+				&& candidateSearchParams.stream()
+						.flatMap(t -> t.getSearchParams().stream())
+						.noneMatch(t -> t.contains(":"));
+	}
+
+	/**
+	 * Calculates the blocking keys for a resource
+	 */
+	@Nonnull
+	public Set<Long> calculateBlockingKeys(String theResourceType, IBaseResource theResource) {
+		Set<Long> retVal = new HashSet<>();
+		for (MdmResourceSearchParamJson next : getCandidateSearchParams(theResourceType)) {
+			addBlockingKeys(theResourceType, theResource, next, retVal);
+		}
+		return retVal;
+	}
+
+	private void addBlockingKeys(
+			String theResourceType,
+			IBaseResource theResource,
+			MdmResourceSearchParamJson theSearchParams,
+			Set<Long> theBlockingKeys) {
+		// Sort the parameter names so that the keys do not depend on the order in the MDM rules
+		Set<String> searchParamNames = new TreeSet<>(theSearchParams.getSearchParams());
+		if (searchParamNames.isEmpty()) {
+			return;
+		}
+
+		List<List<String>> combinations = new ArrayList<>();
+		combinations.add(new ArrayList<>());
+		for (String nextSearchParamName : searchParamNames) {
+			Set<String> values = getNormalizedValues(theResourceType, theResource, nextSearchParamName);
+			if (values.isEmpty()) {
+				// The candidate search is skipped if a parameter has no value, so no key is created either
+				return;
+			}
+
+			List<List<String>> newCombinations = new ArrayList<>();
+			for (List<String> nextCombination : combinations) {
+				for (String nextValue : values) {
+					if (newCombinations.size() >= MAX_KEYS_PER_SEARCH_PARAM_SET) {
+						break;
+					}
+					List<String> newCombination = new ArrayList<>(nextCombination);
+					newCombination.add(nextValue);
+					newCombinations.add(newCombination);
+				}
+			}
+			combinations = newCombinations;
+		}
+
+		for (List<String> nextCombination : combinations) {
+			Hasher hasher = HASH_FUNCTION.newHasher();
+			int i = 0;
+			for (String nextSearchParamName : searchParamNames) {
+				hasher.putString(nextSearchParamName, StandardCharsets.UTF_8);
+				hasher.putByte((byte) 0);
+				hasher.putString(nextCombination.get(i++), StandardCharsets.UTF_8);
+				hasher.putByte((byte) 0);
+			}
+			theBlockingKeys.add(hasher.hash().asLong());
+		}
+	}
+
+	private Set<String> getNormalizedValues(String theResourceType, IBaseResource theResource, String theSearchParam) {
+		List<String> values = myMdmSearchParamSvc.getValueFromResourceForSearchParam(theResource, theSearchParam);
+		RuntimeSearchParam searchParam = mySearchParamRegistry.getActiveSearchParam(
+				theResourceType, SearchParameterUtil.stripModifier(theSearchParam));
+		boolean isString = searchParam != null && searchParam.getParamType() == RestSearchParameterTypeEnum.STRING;
+
+		Set<String> retVal = new TreeSet<>();
+		for (String next : values) {
+			if (isString) {
+				next = StringUtil.normalizeStringForSearchIndexing(next);
+			}
+			if (next != null && !next.isEmpty()) {
+				retVal.add(next);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Replaces the stored blocking keys of a resource with the keys calculated from its current content.
+	 * Must be called within a transaction.
+	 */
+	public void updateBlockingKeys(IAnyResource theResource) {
+		String resourceType = myFhirContext.getResourceType(theResource);
+		JpaPid pid = myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), theResource);
+		if (pid == null) {
+			return;
+		}
+		ResourceTable resourceTable = myEntityManager.find(ResourceTable.class, pid.getId());
+		if (resourceTable == null) {
+			return;
+		}
+
+		Set<Long> wantedKeys = calculateBlockingKeys(resourceType, theResource);
+		List<MdmBlockingKey> existingKeys = myMdmBlockingKeyRepository.findByResourcePid(pid.getId());
+
+		Set<Long> keysToAdd = new HashSet<>(wantedKeys);
+		List<MdmBlockingKey> keysToRemove = new ArrayList<>();
+		for (MdmBlockingKey next : existingKeys) {
+			if (!keysToAdd.remove(next.getKeyHash())) {
+				keysToRemove.add(next);
+			}
+		}
+
+		if (!keysToRemove.isEmpty()) {
+			myMdmBlockingKeyRepository.deleteAll(keysToRemove);
+		}
+		if (!keysToAdd.isEmpty()) {
+			myMdmBlockingKeyRepository.saveAll(keysToAdd.stream()
+					.map(t -> new MdmBlockingKey(resourceTable, t))
+					.collect(Collectors.toList()));
+		}
+
+		ourLog.debug(
+				"Blocking keys for {}: {} added, {} removed",
+				idOrType(theResource, resourceType),
+				keysToAdd.size(),
+				keysToRemove.size());
+	}
+
+	/**
+	 * Finds MDM candidates for a resource using the blocking key index. Candidates sharing the most keys with
+	 * the resource are returned first, and at most {@link IMdmSettings#getCandidateSearchLimit()} candidates are
+	 * returned. The resource itself is never returned.
+	 *
+	 * @param theFilterCriteria The candidate filter criteria (e.g. <code>active=true</code>) which candidates must
+	 *                          match
+	 * @return The candidates, or an empty Optional if the filter criteria can not be applied in memory, in which
+	 * case the caller should fall back to searching for candidates.
+	 */
+	public Optional<List<IAnyResource>> findCandidates(
+			String theResourceType,
+			IAnyResource theResource,
+			List<String> theFilterCriteria,
+			RequestPartitionId theRequestPartitionId) {
+		Set<Long> keys = calculateBlockingKeys(theResourceType, theResource);
+		if (keys.isEmpty()) {
+			return Optional.of(List.of());
+		}
+
+		StringBuilder jpql = new StringBuilder();
+		jpql.append("SELECT k.myResourcePid FROM MdmBlockingKey k JOIN k.myResource r ");
+		jpql.append("WHERE k.myResourceType = :resourceType AND k.myKeyHash IN (:keyHashes) AND r.myDeleted IS NULL");
+		List<Integer> partitionIds = null;
+		boolean includeNullPartition = false;
+		if (theRequestPartitionId != null && !theRequestPartitionId.isAllPartitions()) {
+			partitionIds = theRequestPartitionId.getPartitionIds().stream()
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			includeNullPartition = theRequestPartitionId.getPartitionIds().contains(null);
+			List<String> partitionPredicates = new ArrayList<>();
+			if (!partitionIds.isEmpty()) {
+				partitionPredicates.add("k.myPartitionIdValue IN (:partitionIds)");
+			}
+			if (includeNullPartition) {
+				partitionPredicates.add("k.myPartitionIdValue IS NULL");
+			}
+			jpql.append(" AND (")
+					.append(String.join(" OR ", partitionPredicates))
+					.append(")");
+		}
+		jpql.append(" GROUP BY k.myResourcePid ORDER BY COUNT(k) DESC, k.myResourcePid");
+
+		TypedQuery<Long> query = myEntityManager.createQuery(jpql.toString(), Long.class);
+		query.setParameter("resourceType", theResourceType);
+		query.setParameter("keyHashes", keys);
+		if (partitionIds != null && !partitionIds.isEmpty()) {
+			query.setParameter("partitionIds", partitionIds);
+		}
+		int limit = myMdmSettings.getCandidateSearchLimit();
+		query.setMaxResults(limit + 1);
+		List<Long> candidatePids = new ArrayList<>(query.getResultList());
+
+		// Obviously we don't want to consider the incoming resource as a potential candidate
+		if (theResource.getIdElement().getIdPart() != null) {
+			IResourcePersistentId<?> ownPid =
+					myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), theResource);
+			if (ownPid != null) {
+				candidatePids.remove(ownPid.getId());
+			}
+		}
+		if (candidatePids.size() > limit) {
+			ourLog.warn(
+					"More than {} blocking key candidates found for {}, only the {} sharing the most keys will be used",
+					limit,
+					idOrType(theResource, theResourceType),
+					limit);
+			candidatePids = candidatePids.subList(0, limit);
+		}
+		if (candidatePids.isEmpty()) {
+			return Optional.of(List.of());
+		}
+
+		ISearchBuilder<JpaPid> searchBuilder = myMdmSearchParamSvc.generateSearchBuilderForType(theResourceType);
+		List<JpaPid> pids = candidatePids.stream().map(JpaPid::fromId).collect(Collectors.toList());
+		List<IBaseResource> resources = searchBuilder.loadResourcesByPid(pids, new SystemRequestDetails());
+
+		List<IAnyResource> retVal = new ArrayList<>(resources.size());
+		String criteriaPrefix = theResourceType + "?";
+		for (IBaseResource nextResource : resources) {
+			boolean matched = true;
+			for (String nextCriteria : theFilterCriteria) {
+				InMemoryMatchResult result =
+						mySearchParamMatcher.match(criteriaPrefix + nextCriteria, nextResource, null);
+				if (!result.supported()) {
+					ourLog.debug(
+							"Filter criteria {} can not be applied in memory ({}), searching for candidates instead",
+							nextCriteria,
+							result.getUnsupportedReason());
+					return Optional.empty();
+				}
+				if (!result.matched()) {
+					matched = false;
+					break;
+				}
+			}
+			if (matched) {
+				retVal.add((IAnyResource) nextResource);
+			}
+		}
+		return Optional.of(retVal);
+	}
+
+	private List<MdmResourceSearchParamJson> getCandidateSearchParams(String theResourceType) {
+		return myMdmSettings.getMdmRules().getCandidateSearchParams().stream()
+				.filter(t -> t.getResourceType().equals(theResourceType)
+						|| t.getResourceType().equalsIgnoreCase(ALL_RESOURCE_SEARCH_PARAM_TYPE))
+				.collect(Collectors.toList());
+	}
+}
@@ -63,6 +63,9 @@ public class MdmCandidateSearchSvc {
 	@Autowired
 	private CandidateSearcher myCandidateSearcher;
 
+	@Autowired
+	private MdmBlockingKeySvc myMdmBlockingKeySvc;
+
 	public MdmCandidateSearchSvc() {}
 
 	/**
@@ -84,9 +87,22 @@ public class MdmCandidateSearchSvc {
 		List<MdmResourceSearchParamJson> candidateSearchParams =
 				myMdmSettings.getMdmRules().getCandidateSearchParams();
 
+		// If the blocking key index is enabled, all candidates are found with a single lookup. The index returns
+		// an empty Optional if it can't be used for this resource, in which case we fall back to searching.
+		Optional<List<IAnyResource>> blockingKeyCandidates = Optional.empty();
+		if (myMdmBlockingKeySvc.isEnabledForResourceType(theResourceType)) {
+			blockingKeyCandidates = myMdmBlockingKeySvc.findCandidates(
+					theResourceType, theResource, filterCriteria, theRequestPartitionId);
+		}
+
 		// If there are zero MdmResourceSearchParamJson, we end up only making a single search, otherwise we
 		// must perform one search per MdmResourceSearchParamJson.
-		if (candidateSearchParams.isEmpty()) {
+		if (blockingKeyCandidates.isPresent()) {
+			for (IAnyResource next : blockingKeyCandidates.get()) {
+				matchedPidsToResources.put(
+						myIdHelperService.getPidOrNull(RequestPartitionId.allPartitions(), next), next);
+			}
+		} else if (candidateSearchParams.isEmpty()) {
 			searchForIdsAndAddToMap(
 					theResourceType, theResource, matchedPidsToResources, filterCriteria, null, theRequestPartitionId);
 		} else {
@@ -0,0 +1,130 @@
+package ca.uhn.fhir.jpa.mdm.provider;
+
+import ca.uhn.fhir.interceptor.api.IInterceptorService;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.mdm.api.MdmMatchResultEnum;
+import ca.uhn.fhir.jpa.entity.MdmLink;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.test.concurrency.PointcutLatch;
+import org.hl7.fhir.instance.model.api.IAnyResource;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+public class MdmProviderBatchMatchingR4Test extends BaseProviderR4Test {
+
+	@Autowired
+	IInterceptorService myInterceptorService;
+
+	PointcutLatch myAfterMdmLatch = new PointcutLatch(Pointcut.MDM_AFTER_PERSISTED_RESOURCE_CHECKED);
+
+	@Override
+	@BeforeEach
+	public void before() throws Exception {
+		super.before();
+		myInterceptorService.registerAnonymousInterceptor(Pointcut.MDM_AFTER_PERSISTED_RESOURCE_CHECKED, myAfterMdmLatch);
+		myMdmSettings.setEnabled(true);
+		myMdmSettings.setBatchMatchingEnabled(true);
+		myMdmSettings.setBlockingKeyIndexEnabled(true);
+	}
+
+	@Override
+	@AfterEach
+	public void after() throws IOException {
+		myInterceptorService.unregisterInterceptor(myAfterMdmLatch);
+		myMdmSettings.setBlockingKeyIndexEnabled(false);
+		myMdmSettings.setBatchMatchingEnabled(false);
+		myMdmSettings.setEnabled(false);
+		super.after();
+	}
+
+	@Test
+	public void testBatchMatching_MatchesAllResourcesWithoutDuplicateGoldenResources() throws InterruptedException {
+		// Resources with the same identifier share a blocking key and must all match a single golden resource
+		List<Patient> janes = new ArrayList<>();
+		List<Patient> pauls = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			janes.add(createPatient(buildJanePatient()));
+		}
+		for (int i = 0; i < 5; i++) {
+			pauls.add(createPatient(buildPaulPatient()));
+		}
+		assertLinkCount(0);
+
+		ServletRequestDetails syncRequest = mock(ServletRequestDetails.class);
+		myAfterMdmLatch.runWithExpectedCount(15, () -> myMdmProvider.mdmBatchPatientType(null, null, syncRequest));
+
+		assertLinkCount(15);
+		for (MdmLink next : myMdmLinkDao.findAll()) {
+			assertEquals(MdmMatchResultEnum.MATCH, next.getMatchResult());
+		}
+		assertThat(getAllGoldenPatients()).hasSize(2);
+		assertThat(getGoldenResourceIds(janes)).hasSize(1);
+		assertThat(getGoldenResourceIds(pauls)).hasSize(1);
+		assertThat(getGoldenResourceIds(janes)).doesNotContainAnyElementsOf(getGoldenResourceIds(pauls));
+	}
+
+	@Test
+	public void testBatchMatching_OverlappingBlockingKeys_MatchesAllResourcesWithoutDuplicateGoldenResources() throws InterruptedException {
+		// Each resource also has a blocking key of its own, so resources which share a key are not
+		// necessarily routed to the same lane, and only the key locks keep them from being matched
+		// at the same time
+		List<Patient> janes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Patient jane = buildJanePatient();
+			jane.addIdentifier().setSystem(TEST_ID_SYSTEM).setValue("jane-" + i);
+			janes.add(createPatient(jane));
+		}
+		assertLinkCount(0);
+
+		ServletRequestDetails syncRequest = mock(ServletRequestDetails.class);
+		myAfterMdmLatch.runWithExpectedCount(20, () -> myMdmProvider.mdmBatchPatientType(null, null, syncRequest));
+
+		assertLinkCount(20);
+		for (MdmLink next : myMdmLinkDao.findAll()) {
+			assertEquals(MdmMatchResultEnum.MATCH, next.getMatchResult());
+		}
+		assertThat(getAllGoldenPatients()).hasSize(1);
+		assertThat(getGoldenResourceIds(janes)).hasSize(1);
+	}
+
+	@Test
+	public void testBatchMatching_BlockingKeyIndexDisabled_MatchesAllResourcesWithoutDuplicateGoldenResources() throws InterruptedException {
+		myMdmSettings.setBlockingKeyIndexEnabled(false);
+		List<Patient> janes = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			janes.add(createPatient(buildJanePatient()));
+		}
+		assertLinkCount(0);
+
+		ServletRequestDetails syncRequest = mock(ServletRequestDetails.class);
+		myAfterMdmLatch.runWithExpectedCount(10, () -> myMdmProvider.mdmBatchPatientType(null, null, syncRequest));
+
+		assertLinkCount(10);
+		assertThat(getAllGoldenPatients()).hasSize(1);
+		assertThat(getGoldenResourceIds(janes)).hasSize(1);
+	}
+
+	private Set<String> getGoldenResourceIds(List<Patient> theSourcePatients) {
+		Set<String> retVal = new HashSet<>();
+		for (Patient next : theSourcePatients) {
+			IAnyResource goldenResource = getGoldenResourceFromTargetResource(next);
+			assertNotNull(goldenResource);
+			retVal.add(goldenResource.getIdElement().toUnqualifiedVersionless().getValue());
+		}
+		return retVal;
+	}
+}
@@ -51,6 +51,7 @@ public class MdmCandidateSearchSvcIT extends BaseMdmR4Test {
 	@AfterEach
 	public void resetMdmSettings() {
 		myMdmSettings.setCandidateSearchLimit(MdmSettings.DEFAULT_CANDIDATE_SEARCH_LIMIT);
+		myMdmSettings.setBlockingKeyIndexEnabled(false);
 		myInterceptorRegistry.unregisterInterceptor(myNicknameInterceptor);
 	}
 
@@ -152,6 +153,51 @@ public class MdmCandidateSearchSvcIT extends BaseMdmR4Test {
 		}
 	}
 
+	@Test
+	public void testFindCandidatesWithBlockingKeyIndex() {
+		myMdmSettings.setBlockingKeyIndexEnabled(true);
+
+		Patient indexed = createPatientAndUpdateLinks(buildJanePatient());
+		// Not processed by MDM yet, so not in the index
+		createActivePatient();
+		// Doesn't match the candidate filter criteria
+		Patient inactive = buildJanePatient();
+		inactive.setActive(false);
+		inactive.setId(myPatientDao.create(inactive).getId().toUnqualifiedVersionless());
+		myMdmMatchLinkSvc.updateMdmLinksForMdmSource(inactive, createContextForCreate("Patient"));
+
+		Patient newJane = buildJanePatient();
+		Collection<IAnyResource> result = myMdmCandidateSearchSvc.findCandidates("Patient", newJane, RequestPartitionId.allPartitions());
+		assertThat(result).hasSize(1);
+		assertEquals(indexed.getIdElement().toUnqualifiedVersionless().getValue(), result.iterator().next().getIdElement().toUnqualifiedVersionless().getValue());
+
+		// The incoming resource is never a candidate for itself
+		result = myMdmCandidateSearchSvc.findCandidates("Patient", indexed, RequestPartitionId.allPartitions());
+		assertThat(result).isEmpty();
+
+		// Keys are replaced when the resource changes
+		indexed.getIdentifierFirstRep().setValue("ID.OTHER");
+		indexed.setBirthDate(null);
+		myPatientDao.update(indexed);
+		myMdmMatchLinkSvc.updateMdmLinksForMdmSource(indexed, createContextForUpdate("Patient"));
+		result = myMdmCandidateSearchSvc.findCandidates("Patient", newJane, RequestPartitionId.allPartitions());
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	public void testTooManyMatchesWithBlockingKeyIndex() {
+		myMdmSettings.setBlockingKeyIndexEnabled(true);
+		myMdmSettings.setCandidateSearchLimit(3);
+
+		for (int i = 0; i < 4; i++) {
+			createPatientAndUpdateLinks(buildJanePatient());
+		}
+
+		// Candidates are truncated instead of aborting
+		Patient newJane = buildJanePatient();
+		assertEquals(3, runInTransaction(() -> myMdmCandidateSearchSvc.findCandidates("Patient", newJane, RequestPartitionId.allPartitions()).size()));
+	}
+
 	private Patient createActivePatient() {
 		Patient jane = buildJanePatient();
 		jane.setActive(true);
@@ -27,6 +27,7 @@ import org.hibernate.MappingException;
 import org.hibernate.boot.model.relational.Database;
 import org.hibernate.boot.model.relational.ExportableProducer;
 import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.BulkInsertionCapableIdentifierGenerator;
 import org.hibernate.id.IdentifierGenerator;
@@ -35,21 +36,53 @@ import org.hibernate.id.PersistentIdentifierGenerator;
 import org.hibernate.id.enhanced.Optimizer;
 import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.Type;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * This is a sequence generator that wraps the Hibernate default sequence generator {@link SequenceStyleGenerator}
  * and by default will therefore work exactly as the default would, but allows for customization.
+ * <p>
+ * The optimizer and the size of the blocks of IDs allocated per sequence round trip can be configured
+ * using the following Hibernate properties:
+ * </p>
+ * <ul>
+ *    <li>{@link #OPTIMIZER_KEY} - Either <code>pooled</code> (the default) or <code>pooled-lo</code></li>
+ *    <li>{@link #INCREMENT_SIZE_KEY} - The block size for all sequences (default {@link #DEFAULT_INCREMENT_SIZE})</li>
+ *    <li>{@link #INCREMENT_SIZE_KEY}<code>.[sequence name]</code> - The block size for an individual sequence,
+ *    e.g. <code>hapi_fhir.sequence_generator.increment_size.SEQ_SPIDX_TOKEN</code></li>
+ * </ul>
+ * <p>
+ * The increment of the database sequence must match the configured block size. By default,
+ * {@link ca.uhn.fhir.jpa.config.HapiFhirLocalContainerEntityManagerFactoryBean} configures Hibernate to
+ * use the increment of an existing database sequence when the two do not match.
+ * Note that switching an existing database from <code>pooled-lo</code> to <code>pooled</code> is not
+ * safe and may cause duplicate IDs to be generated.
+ * </p>
  */
 @SuppressWarnings("unused")
 public class HapiSequenceStyleGenerator
 		implements PersistentIdentifierGenerator, BulkInsertionCapableIdentifierGenerator, ExportableProducer {
 	public static final String ID_MASSAGER_TYPE_KEY = "hapi_fhir.sequence_generator_massager";
+	/**
+	 * @since 7.6.0
+	 */
+	public static final String INCREMENT_SIZE_KEY = "hapi_fhir.sequence_generator.increment_size";
+	/**
+	 * @since 7.6.0
+	 */
+	public static final String OPTIMIZER_KEY = "hapi_fhir.sequence_generator.optimizer";
+	/**
+	 * @since 7.6.0
+	 */
+	public static final int DEFAULT_INCREMENT_SIZE = 50;
+
 	private final SequenceStyleGenerator myGen = new SequenceStyleGenerator();
 
 	@Autowired
@@ -93,10 +126,16 @@ public class HapiSequenceStyleGenerator
 		myGeneratorName = theParams.getProperty(IdentifierGenerator.GENERATOR_NAME);
 		Validate.notBlank(myGeneratorName, "No generator name found");
 
+		Map<String, Object> settings = Map.of();
+		ConfigurationService configurationService = theServiceRegistry.getService(ConfigurationService.class);
+		if (configurationService != null) {
+			settings = configurationService.getSettings();
+		}
+
 		Properties props = new Properties(theParams);
-		props.put(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+		props.put(OptimizableGenerator.OPT_PARAM, determineOptimizer(settings));
 		props.put(OptimizableGenerator.INITIAL_PARAM, "1");
-		props.put(OptimizableGenerator.INCREMENT_PARAM, "50");
+		props.put(OptimizableGenerator.INCREMENT_PARAM, Integer.toString(determineIncrementSize(settings)));
 		props.put(GENERATOR_NAME, myGeneratorName);
 
 		myGen.configure(theType, props, theServiceRegistry);
@@ -104,6 +143,28 @@ public class HapiSequenceStyleGenerator
 		myConfigured = true;
 	}
 
+	private String determineOptimizer(Map<String, Object> theSettings) {
+		String optimizer = ConfigurationHelper.getString(
+				OPTIMIZER_KEY, theSettings, StandardOptimizerDescriptor.POOLED.getExternalName());
+		Validate.isTrue(
+				StandardOptimizerDescriptor.POOLED.getExternalName().equals(optimizer)
+						|| StandardOptimizerDescriptor.POOLED_LO
+								.getExternalName()
+								.equals(optimizer),
+				"Invalid value for %s: %s",
+				OPTIMIZER_KEY,
+				optimizer);
+		return optimizer;
+	}
+
+	private int determineIncrementSize(Map<String, Object> theSettings) {
+		int defaultIncrementSize = ConfigurationHelper.getInt(INCREMENT_SIZE_KEY, theSettings, DEFAULT_INCREMENT_SIZE);
+		int retVal = ConfigurationHelper.getInt(
+				INCREMENT_SIZE_KEY + "." + myGeneratorName, theSettings, defaultIncrementSize);
+		Validate.isTrue(retVal > 0, "Invalid increment size for %s: %s", myGeneratorName, retVal);
+		return retVal;
+	}
+
 	@Override
 	public void registerExportables(Database database) {
 		myGen.registerExportables(database);
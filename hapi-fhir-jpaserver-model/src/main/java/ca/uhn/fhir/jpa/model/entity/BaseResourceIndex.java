@@ -19,10 +19,12 @@
  */
 package ca.uhn.fhir.jpa.model.entity;
 
+import com.google.common.hash.Hasher;
 import jakarta.persistence.MappedSuperclass;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 
 @MappedSuperclass
 public abstract class BaseResourceIndex extends BasePartitionable implements Serializable {
@@ -57,6 +59,45 @@ public abstract class BaseResourceIndex extends BasePartitionable implements Ser
 
 	public abstract <T extends BaseResourceIndex> void copyMutableValuesFrom(T theSource);
 
+	/**
+	 * Adds the values of this index row which are compared by {@link #equals(Object)} to the
+	 * given hasher. Subclasses must include every value used by {@link #equals(Object)}, since
+	 * this is used to detect whether the index rows for a resource have changed.
+	 *
+	 * @see ca.uhn.fhir.jpa.model.util.ResourceIndexHashes
+	 */
+	public abstract void hashIndexValues(Hasher theHasher);
+
+	protected static void putNullable(Hasher theHasher, Long theValue) {
+		theHasher.putBoolean(theValue != null);
+		if (theValue != null) {
+			theHasher.putLong(theValue);
+		}
+	}
+
+	protected static void putNullable(Hasher theHasher, Double theValue) {
+		theHasher.putBoolean(theValue != null);
+		if (theValue != null) {
+			theHasher.putDouble(theValue);
+		}
+	}
+
+	protected static void putNullable(Hasher theHasher, Integer theValue) {
+		theHasher.putBoolean(theValue != null);
+		if (theValue != null) {
+			theHasher.putInt(theValue);
+		}
+	}
+
+	protected static void putNullable(Hasher theHasher, String theValue) {
+		theHasher.putBoolean(theValue != null);
+		if (theValue != null) {
+			// The length prevents adjacent values from being ambiguous
+			theHasher.putInt(theValue.length());
+			theHasher.putString(theValue, StandardCharsets.UTF_8);
+		}
+	}
+
 	/**
 	 * This is called when reindexing a resource on the previously existing index rows. This method
 	 * should set zero/0 values for the hashes, in order to avoid any calculating hashes on existing
@@ -20,8 +20,10 @@
 package ca.uhn.fhir.jpa.model.entity;
 
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.dialect.HapiSequenceStyleGenerator;
 import ca.uhn.fhir.jpa.model.listener.IndexStorageOptimizationListener;
 import ca.uhn.fhir.model.api.IQueryParameterType;
+import com.google.common.hash.Hasher;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
@@ -35,12 +37,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.GenericGenerator;
 
 @Embeddable
 @EntityListeners(IndexStorageOptimizationListener.class)
@@ -67,7 +69,7 @@ public class ResourceIndexedSearchParamCoords extends BaseResourceIndexedSearchP
 	public Double myLongitude;
 
 	@Id
-	@SequenceGenerator(name = "SEQ_SPIDX_COORDS", sequenceName = "SEQ_SPIDX_COORDS")
+	@GenericGenerator(name = "SEQ_SPIDX_COORDS", type = HapiSequenceStyleGenerator.class)
 	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_SPIDX_COORDS")
 	@Column(name = "SP_ID")
 	private Long myId;
@@ -184,6 +186,14 @@ public class ResourceIndexedSearchParamCoords extends BaseResourceIndexedSearchP
 		return b.toHashCode();
 	}
 
+	@Override
+	public void hashIndexValues(Hasher theHasher) {
+		putNullable(theHasher, getHashIdentity());
+		putNullable(theHasher, getLatitude());
+		putNullable(theHasher, getLongitude());
+		theHasher.putBoolean(isMissing());
+	}
+
 	@Override
 	public IQueryParameterType toQueryParameterType() {
 		return null;
@@ -20,9 +20,11 @@
 package ca.uhn.fhir.jpa.model.entity;
 
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.dialect.HapiSequenceStyleGenerator;
 import ca.uhn.fhir.jpa.model.listener.IndexStorageOptimizationListener;
 import ca.uhn.fhir.model.api.IQueryParameterType;
 import ca.uhn.fhir.rest.param.QuantityParam;
+import com.google.common.hash.Hasher;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Entity;
@@ -35,12 +37,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.ScaledNumberField;
 
 import java.math.BigDecimal;
@@ -74,7 +76,7 @@ public class ResourceIndexedSearchParamQuantity extends BaseResourceIndexedSearc
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@SequenceGenerator(name = "SEQ_SPIDX_QUANTITY", sequenceName = "SEQ_SPIDX_QUANTITY")
+	@GenericGenerator(name = "SEQ_SPIDX_QUANTITY", type = HapiSequenceStyleGenerator.class)
 	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_SPIDX_QUANTITY")
 	@Column(name = "SP_ID")
 	private Long myId;
@@ -196,6 +198,15 @@ public class ResourceIndexedSearchParamQuantity extends BaseResourceIndexedSearc
 		return b.toHashCode();
 	}
 
+	@Override
+	public void hashIndexValues(Hasher theHasher) {
+		putNullable(theHasher, getHashIdentity());
+		putNullable(theHasher, getHashIdentityAndUnits());
+		putNullable(theHasher, getHashIdentitySystemAndUnits());
+		putNullable(theHasher, getValue() != null ? getValue().toString() : null);
+		theHasher.putBoolean(isMissing());
+	}
+
 	@Override
 	public boolean matches(IQueryParameterType theParam) {
 
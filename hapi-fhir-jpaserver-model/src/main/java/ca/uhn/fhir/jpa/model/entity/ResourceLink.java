@@ -19,6 +19,8 @@
  */
 package ca.uhn.fhir.jpa.model.entity;
 
+import ca.uhn.fhir.jpa.model.dialect.HapiSequenceStyleGenerator;
+import com.google.common.hash.Hasher;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
@@ -31,7 +33,6 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
@@ -39,6 +40,7 @@ import jakarta.persistence.Transient;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
 import org.hl7.fhir.instance.model.api.IIdType;
 
@@ -63,7 +65,7 @@ public class ResourceLink extends BaseResourceIndex {
 	public static final int SRC_PATH_LENGTH = 500;
 	private static final long serialVersionUID = 1L;
 
-	@SequenceGenerator(name = "SEQ_RESLINK_ID", sequenceName = "SEQ_RESLINK_ID")
+	@GenericGenerator(name = "SEQ_RESLINK_ID", type = HapiSequenceStyleGenerator.class)
 	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_RESLINK_ID")
 	@Id
 	@Column(name = "PID")
@@ -315,6 +317,22 @@ public class ResourceLink extends BaseResourceIndex {
 		return b.toHashCode();
 	}
 
+	@Override
+	public void hashIndexValues(Hasher theHasher) {
+		// The source resource is not included since all links being compared belong to the same resource.
+		// The target is identified by its resource ID rather than its PID, since the PID is not yet
+		// resolved when a resource is first stored as a part of a FHIR transaction.
+		putNullable(theHasher, mySourcePath);
+		putNullable(theHasher, myTargetResourceUrl);
+		putNullable(theHasher, myTargetResourceType);
+		putNullable(theHasher, myTargetResourceVersion);
+		if (myTargetResourceId != null) {
+			putNullable(theHasher, myTargetResourceId);
+		} else {
+			putNullable(theHasher, myTargetResourcePid);
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder b = new StringBuilder();
@@ -25,6 +25,7 @@ import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.search.ExtendedHSearchIndexData;
 import ca.uhn.fhir.jpa.model.search.ResourceTableRoutingBinder;
 import ca.uhn.fhir.jpa.model.search.SearchParamTextPropertyBinder;
+import ca.uhn.fhir.jpa.model.util.ResourceIndexHashes;
 import ca.uhn.fhir.model.primitive.IdDt;
 import ca.uhn.fhir.rest.api.Constants;
 import com.google.common.annotations.VisibleForTesting;
@@ -142,6 +143,15 @@ public class ResourceTable extends BaseHasResource implements Serializable, IBas
 	@OptimisticLock(excluded = true)
 	private Long myIndexStatus;
 
+	/**
+	 * Hashes of the index rows of each index type, used to detect unchanged indexes
+	 * without loading them. See {@link ResourceIndexHashes}.
+	 * Added in 7.6.0
+	 */
+	@Column(name = "SP_INDEX_HASHES", length = ResourceIndexHashes.MAX_LENGTH, nullable = true)
+	@OptimisticLock(excluded = true)
+	private String myIndexHashes;
+
 	// TODO: Removed in 5.5.0. Drop in a future release.
 	@Column(name = "RES_LANGUAGE", length = MAX_LANGUAGE_LENGTH, nullable = true)
 	@OptimisticLock(excluded = true)
@@ -472,6 +482,20 @@ public class ResourceTable extends BaseHasResource implements Serializable, IBas
 		myIndexStatus = theIndexStatus;
 	}
 
+	/**
+	 * @see ResourceIndexHashes
+	 */
+	public String getIndexHashes() {
+		return myIndexHashes;
+	}
+
+	/**
+	 * @see ResourceIndexHashes
+	 */
+	public void setIndexHashes(String theIndexHashes) {
+		myIndexHashes = theIndexHashes;
+	}
+
 	public Collection<ResourceIndexedComboStringUnique> getParamsComboStringUnique() {
 		if (myParamsComboStringUnique == null) {
 			myParamsComboStringUnique = new ArrayList<>();
@@ -702,6 +726,7 @@ public class ResourceTable extends BaseHasResource implements Serializable, IBas
 		myParamsQuantityNormalizedPopulated = false;
 		myParamsUriPopulated = false;
 		myHasLinks = false;
+		myIndexHashes = null;
 	}
 
 	public boolean isParamsComboStringUniquePresent() {
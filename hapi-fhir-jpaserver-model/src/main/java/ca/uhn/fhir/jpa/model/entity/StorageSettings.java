@@ -52,6 +52,14 @@ public class StorageSettings {
 	public static final int DEFAULT_BUNDLE_BATCH_POOL_SIZE = 20; // 1 for single thread
 
 	public static final int DEFAULT_BUNDLE_BATCH_MAX_POOL_SIZE = 100; // 1 for single thread
+
+	/**
+	 * Default value for {@link #getBundleBatchGroupSize()}. A value of 1 means that
+	 * every batch entry is processed in its own database transaction.
+	 *
+	 * @since 7.6.0
+	 */
+	public static final int DEFAULT_BUNDLE_BATCH_GROUP_SIZE = 1;
 	/**
 	 * Default {@link #getTreatReferencesAsLogical() logical URL bases}. Includes the following
 	 * values:
@@ -95,6 +103,8 @@ public class StorageSettings {
 	private boolean myAutoCreatePlaceholderReferenceTargets;
 	private Integer myBundleBatchPoolSize = DEFAULT_BUNDLE_BATCH_POOL_SIZE;
 	private Integer myBundleBatchMaxPoolSize = DEFAULT_BUNDLE_BATCH_MAX_POOL_SIZE;
+	private int myBundleBatchGroupSize = DEFAULT_BUNDLE_BATCH_GROUP_SIZE;
+	private boolean myVirtualThreadsEnabled = false;
 	private boolean myMassIngestionMode;
 	private Integer myMaximumTransactionBundleSize = DEFAULT_MAXIMUM_TRANSACTION_BUNDLE_SIZE;
 	private boolean myNormalizeTerminologyForBulkExportJobs = false;
@@ -239,6 +249,81 @@ public class StorageSettings {
 		this.myBundleBatchMaxPoolSize = theBundleBatchMaxPoolSize;
 	}
 
+	/**
+	 * When processing a FHIR <code>batch</code> Bundle, the non-GET entries are normally each
+	 * processed in their own database transaction. If this setting is set to a value greater than
+	 * 1 (default is {@link #DEFAULT_BUNDLE_BATCH_GROUP_SIZE}), consecutive non-GET entries are
+	 * grouped into a single database transaction containing up to this many entries, and
+	 * the JDBC statement batch size for that transaction is raised to at least the group size.
+	 * This can dramatically reduce the number of commits and round trips required to process
+	 * large batches of independent writes.
+	 * <p>
+	 * If any entry in a group fails, the entire group is rolled back and its entries are
+	 * re-processed individually, so the per-entry success and failure semantics of the
+	 * <code>batch</code> Bundle are preserved.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public int getBundleBatchGroupSize() {
+		return myBundleBatchGroupSize;
+	}
+
+	/**
+	 * When processing a FHIR <code>batch</code> Bundle, the non-GET entries are normally each
+	 * processed in their own database transaction. If this setting is set to a value greater than
+	 * 1 (default is {@link #DEFAULT_BUNDLE_BATCH_GROUP_SIZE}), consecutive non-GET entries are
+	 * grouped into a single database transaction containing up to this many entries, and
+	 * the JDBC statement batch size for that transaction is raised to at least the group size.
+	 * This can dramatically reduce the number of commits and round trips required to process
+	 * large batches of independent writes.
+	 * <p>
+	 * If any entry in a group fails, the entire group is rolled back and its entries are
+	 * re-processed individually, so the per-entry success and failure semantics of the
+	 * <code>batch</code> Bundle are preserved.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setBundleBatchGroupSize(int theBundleBatchGroupSize) {
+		Validate.isTrue(theBundleBatchGroupSize >= 1, "theBundleBatchGroupSize must be >= 1");
+		myBundleBatchGroupSize = theBundleBatchGroupSize;
+	}
+
+	/**
+	 * If enabled (default is {@literal false}), background work which mostly waits on the database
+	 * (currently the processing of FHIR <code>batch</code> Bundle entries and tasks submitted to
+	 * the JPA server task executor) is executed on virtual threads instead of on a pool of
+	 * platform threads. The number of batch entries processed concurrently is still limited by
+	 * {@link #getBundleBatchMaxPoolSize()}, since each entry needs a database connection.
+	 * <p>
+	 * Virtual threads require Java 21 or newer. If the server runs on an older JVM, a warning is
+	 * logged and platform threads are used. This setting must be set before the server is started.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isVirtualThreadsEnabled() {
+		return myVirtualThreadsEnabled;
+	}
+
+	/**
+	 * If enabled (default is {@literal false}), background work which mostly waits on the database
+	 * (currently the processing of FHIR <code>batch</code> Bundle entries and tasks submitted to
+	 * the JPA server task executor) is executed on virtual threads instead of on a pool of
+	 * platform threads. The number of batch entries processed concurrently is still limited by
+	 * {@link #getBundleBatchMaxPoolSize()}, since each entry needs a database connection.
+	 * <p>
+	 * Virtual threads require Java 21 or newer. If the server runs on an older JVM, a warning is
+	 * logged and platform threads are used. This setting must be set before the server is started.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setVirtualThreadsEnabled(boolean theVirtualThreadsEnabled) {
+		myVirtualThreadsEnabled = theVirtualThreadsEnabled;
+	}
+
 	/**
 	 * If set to {@link IndexEnabledEnum#DISABLED} (default is {@link IndexEnabledEnum#DISABLED})
 	 * the server will not create search indexes for search parameters with no values in resources.
@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Model
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.model.util;
+
+import ca.uhn.fhir.jpa.model.entity.BaseResourceIndex;
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Holds a hash of the index rows of each index type (string, token, links, etc.) for a single
+ * resource. These hashes are stored in {@link ResourceTable#getIndexHashes()} so that when a
+ * resource is updated, index types whose rows have not changed can be skipped entirely instead
+ * of being loaded from the database and compared row by row.
+ * <p>
+ * The encoded form is a version prefix followed by one hash per {@link IndexType}, in
+ * declaration order. If the encoded form has a different version (or can not be parsed) all
+ * hashes are treated as unknown, which means that the existing index rows will be loaded and
+ * compared as usual.
+ * </p>
+ */
+public class ResourceIndexHashes {
+
+	/**
+	 * Maximum length of the encoded form
+	 */
+	public static final int MAX_LENGTH = 200;
+
+	/**
+	 * Increment this if the hashes calculated by {@link #calculateHash(Collection, boolean)}
+	 * change in a way that makes previously stored values invalid, or if index types are
+	 * added or removed
+	 */
+	private static final String VERSION_PREFIX = "1:";
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128(0);
+	private static final char DELIMITER = ',';
+	private final Long[] myHashes = new Long[IndexType.values().length];
+
+	/**
+	 * Constructor - Creates an instance with no known hashes
+	 */
+	public ResourceIndexHashes() {
+		super();
+	}
+
+	@Nullable
+	public Long getHash(@Nonnull IndexType theIndexType) {
+		return myHashes[theIndexType.ordinal()];
+	}
+
+	public void setHash(@Nonnull IndexType theIndexType, @Nullable Long theHash) {
+		myHashes[theIndexType.ordinal()] = theHash;
+	}
+
+	/**
+	 * Returns the encoded form of these hashes, suitable for storing in
+	 * {@link ResourceTable#setIndexHashes(String)}
+	 */
+	@Nonnull
+	public String encode() {
+		StringBuilder b = new StringBuilder(VERSION_PREFIX);
+		for (int i = 0; i < myHashes.length; i++) {
+			if (i > 0) {
+				b.append(DELIMITER);
+			}
+			if (myHashes[i] != null) {
+				b.append(Long.toString(myHashes[i], Character.MAX_RADIX));
+			}
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Parses the encoded form created by {@link #encode()}. Any value which can not
+	 * be parsed results in an instance with no known hashes.
+	 */
+	@Nonnull
+	public static ResourceIndexHashes parse(@Nullable String theEncoded) {
+		ResourceIndexHashes retVal = new ResourceIndexHashes();
+		if (isBlank(theEncoded) || !theEncoded.startsWith(VERSION_PREFIX)) {
+			return retVal;
+		}
+
+		String[] parts = theEncoded.substring(VERSION_PREFIX.length()).split(String.valueOf(DELIMITER), -1);
+		if (parts.length != retVal.myHashes.length) {
+			return retVal;
+		}
+
+		try {
+			for (int i = 0; i < parts.length; i++) {
+				if (!parts[i].isEmpty()) {
+					retVal.myHashes[i] = Long.parseLong(parts[i], Character.MAX_RADIX);
+				}
+			}
+		} catch (NumberFormatException e) {
+			return new ResourceIndexHashes();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Calculates a hash of a collection of index rows. The hash does not depend on the
+	 * order of the rows, and duplicate rows are counted once since they are considered
+	 * equal when index rows are compared.
+	 *
+	 * @param theIndexes               The index rows. Hashes must already have been calculated on these rows.
+	 * @param theIndexStorageOptimized The current value of {@link ca.uhn.fhir.jpa.model.entity.StorageSettings#isIndexStorageOptimized()},
+	 *                                 which is included because changing it requires existing rows to be updated
+	 */
+	public static long calculateHash(
+			@Nonnull Collection<? extends BaseResourceIndex> theIndexes, boolean theIndexStorageOptimized) {
+		long[] rowHashes = new long[theIndexes.size()];
+		int count = 0;
+		for (BaseResourceIndex next : theIndexes) {
+			Hasher rowHasher = HASH_FUNCTION.newHasher();
+			next.hashIndexValues(rowHasher);
+			rowHashes[count++] = rowHasher.hash().asLong();
+		}
+		Arrays.sort(rowHashes);
+
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		hasher.putBoolean(theIndexStorageOptimized);
+		for (int i = 0; i < rowHashes.length; i++) {
+			if (i > 0 && rowHashes[i] == rowHashes[i - 1]) {
+				continue;
+			}
+			hasher.putLong(rowHashes[i]);
+		}
+		return hasher.hash().asLong();
+	}
+
+	/**
+	 * The index types which are tracked. Do not change the order of these values without
+	 * incrementing {@link #VERSION_PREFIX}.
+	 */
+	public enum IndexType {
+		STRING,
+		TOKEN,
+		NUMBER,
+		QUANTITY,
+		QUANTITY_NORMALIZED,
+		DATE,
+		URI,
+		COORDS,
+		RESOURCE_LINK,
+		COMBO_TOKEN_NON_UNIQUE,
+		COMBO_STRING_UNIQUE
+	}
+}
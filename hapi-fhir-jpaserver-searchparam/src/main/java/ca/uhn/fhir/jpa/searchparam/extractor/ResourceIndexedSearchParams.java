@@ -48,16 +48,21 @@ import ca.uhn.fhir.rest.param.QuantityParam;
 import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.server.util.ResourceSearchParams;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.compare;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -78,6 +83,7 @@ public final class ResourceIndexedSearchParams {
 	public final Collection<SearchParamPresentEntity> mySearchParamPresentEntities;
 	public final Collection<ResourceIndexedSearchParamComposite> myCompositeParams;
 	public final Set<String> myPopulatedResourceLinkParameters = new HashSet<>();
+	private String myIndexHashes;
 
 	/**
 	 * TODO: Remove this - Currently used by CDR though
@@ -105,48 +111,45 @@ public final class ResourceIndexedSearchParams {
 		myCompositeParams = theMode.newCollection();
 	}
 
-	private ResourceIndexedSearchParams(ResourceTable theEntity, Mode theMode) {
-		this(theMode);
-		if (theEntity.isParamsStringPopulated()) {
-			myStringParams.addAll(theEntity.getParamsString());
-		}
-		if (theEntity.isParamsTokenPopulated()) {
-			myTokenParams.addAll(theEntity.getParamsToken());
-		}
-		if (theEntity.isParamsNumberPopulated()) {
-			myNumberParams.addAll(theEntity.getParamsNumber());
-		}
-		if (theEntity.isParamsQuantityPopulated()) {
-			myQuantityParams.addAll(theEntity.getParamsQuantity());
-		}
-		if (theEntity.isParamsQuantityNormalizedPopulated()) {
-			myQuantityNormalizedParams.addAll(theEntity.getParamsQuantityNormalized());
-		}
-		if (theEntity.isParamsDatePopulated()) {
-			myDateParams.addAll(theEntity.getParamsDate());
-		}
-		if (theEntity.isParamsUriPopulated()) {
-			myUriParams.addAll(theEntity.getParamsUri());
-		}
-		if (theEntity.isParamsCoordsPopulated()) {
-			myCoordsParams.addAll(theEntity.getParamsCoords());
-		}
-		if (theEntity.isHasLinks()) {
-			myLinks.addAll(theEntity.getResourceLinks());
-		}
-
-		if (theEntity.isParamsComboStringUniquePresent()) {
-			myComboStringUniques.addAll(theEntity.getParamsComboStringUnique());
-		}
-		if (theEntity.isParamsComboTokensNonUniquePresent()) {
-			myComboTokenNonUnique.addAll(theEntity.getmyParamsComboTokensNonUnique());
-		}
+	private ResourceIndexedSearchParams(ResourceTable theEntity) {
+		myStringParams = loadOnDemand(theEntity.isParamsStringPopulated(), theEntity::getParamsString);
+		myTokenParams = loadOnDemand(theEntity.isParamsTokenPopulated(), theEntity::getParamsToken);
+		myNumberParams = loadOnDemand(theEntity.isParamsNumberPopulated(), theEntity::getParamsNumber);
+		myQuantityParams = loadOnDemand(theEntity.isParamsQuantityPopulated(), theEntity::getParamsQuantity);
+		myQuantityNormalizedParams =
+				loadOnDemand(theEntity.isParamsQuantityNormalizedPopulated(), theEntity::getParamsQuantityNormalized);
+		myDateParams = loadOnDemand(theEntity.isParamsDatePopulated(), theEntity::getParamsDate);
+		myUriParams = loadOnDemand(theEntity.isParamsUriPopulated(), theEntity::getParamsUri);
+		myCoordsParams = loadOnDemand(theEntity.isParamsCoordsPopulated(), theEntity::getParamsCoords);
+		myLinks = loadOnDemand(theEntity.isHasLinks(), theEntity::getResourceLinks);
+		myComboStringUniques =
+				loadOnDemand(theEntity.isParamsComboStringUniquePresent(), theEntity::getParamsComboStringUnique);
+		myComboTokenNonUnique = loadOnDemand(
+				theEntity.isParamsComboTokensNonUniquePresent(), theEntity::getmyParamsComboTokensNonUnique);
+		mySearchParamPresentEntities = Mode.LIST.newCollection();
+		myCompositeParams = Mode.LIST.newCollection();
+		myIndexHashes = theEntity.getIndexHashes();
 	}
 
 	public Collection<ResourceLink> getResourceLinks() {
 		return myLinks;
 	}
 
+	/**
+	 * Returns the encoded hashes of the index rows held by this object, as stored in
+	 * {@link ResourceTable#getIndexHashes()}. This is only populated for instances
+	 * created using {@link #withLists(ResourceTable)}.
+	 *
+	 * @see ca.uhn.fhir.jpa.model.util.ResourceIndexHashes
+	 */
+	public String getIndexHashes() {
+		return myIndexHashes;
+	}
+
+	public void setIndexHashes(String theIndexHashes) {
+		myIndexHashes = theIndexHashes;
+	}
+
 	public void populateResourceTableSearchParamsPresentFlags(ResourceTable theEntity) {
 		theEntity.setParamsStringPopulated(myStringParams.isEmpty() == false);
 		theEntity.setParamsTokenPopulated(myTokenParams.isEmpty() == false);
@@ -162,15 +165,54 @@ public final class ResourceIndexedSearchParams {
 	}
 
 	public void populateResourceTableParamCollections(ResourceTable theEntity) {
-		theEntity.setParamsString(myStringParams);
-		theEntity.setParamsToken(myTokenParams);
-		theEntity.setParamsNumber(myNumberParams);
-		theEntity.setParamsQuantity(myQuantityParams);
-		theEntity.setParamsQuantityNormalized(myQuantityNormalizedParams);
-		theEntity.setParamsDate(myDateParams);
-		theEntity.setParamsUri(myUriParams);
-		theEntity.setParamsCoords(myCoordsParams);
-		theEntity.setResourceLinks(myLinks);
+		populateResourceTableParamCollections(theEntity, null);
+	}
+
+	/**
+	 * Copies the indexes into the collections on the given entity. If existing params
+	 * are supplied (created using {@link #withLists(ResourceTable)} for the same entity),
+	 * any index types which were never loaded from the entity are left untouched, since
+	 * the rows in the database were not changed for these types.
+	 */
+	public void populateResourceTableParamCollections(
+			ResourceTable theEntity, @Nullable ResourceIndexedSearchParams theExistingParams) {
+		if (isLoaded(theExistingParams, p -> p.myStringParams)) {
+			theEntity.setParamsString(myStringParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myTokenParams)) {
+			theEntity.setParamsToken(myTokenParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myNumberParams)) {
+			theEntity.setParamsNumber(myNumberParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myQuantityParams)) {
+			theEntity.setParamsQuantity(myQuantityParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myQuantityNormalizedParams)) {
+			theEntity.setParamsQuantityNormalized(myQuantityNormalizedParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myDateParams)) {
+			theEntity.setParamsDate(myDateParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myUriParams)) {
+			theEntity.setParamsUri(myUriParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myCoordsParams)) {
+			theEntity.setParamsCoords(myCoordsParams);
+		}
+		if (isLoaded(theExistingParams, p -> p.myLinks)) {
+			theEntity.setResourceLinks(myLinks);
+		}
+	}
+
+	private static boolean isLoaded(
+			@Nullable ResourceIndexedSearchParams theParams,
+			Function<ResourceIndexedSearchParams, Collection<?>> theCollectionGetter) {
+		if (theParams == null) {
+			return true;
+		}
+		Collection<?> collection = theCollectionGetter.apply(theParams);
+		return !(collection instanceof LoadOnDemandCollection) || ((LoadOnDemandCollection<?>) collection).isLoaded();
 	}
 
 	public void updateSpnamePrefixForIndexOnUpliftedChain(String theContainingType, String theSpnamePrefix) {
@@ -648,10 +690,61 @@ public final class ResourceIndexedSearchParams {
 
 	/**
 	 * Create a new instance that holds all the existing indexes
-	 * in lists so that any duplicates are preserved.
+	 * in lists so that any duplicates are preserved. The indexes of
+	 * each type are only loaded from the entity the first time that
+	 * the corresponding collection is accessed.
 	 */
 	public static ResourceIndexedSearchParams withLists(ResourceTable theResourceTable) {
-		return new ResourceIndexedSearchParams(theResourceTable, Mode.LIST);
+		return new ResourceIndexedSearchParams(theResourceTable);
+	}
+
+	private static <T> Collection<T> loadOnDemand(boolean thePopulated, Supplier<Collection<T>> theSource) {
+		if (!thePopulated) {
+			return Mode.LIST.newCollection();
+		}
+		return new LoadOnDemandCollection<>(theSource.get());
+	}
+
+	/**
+	 * A list which copies the contents of a (lazy loaded) entity collection
+	 * the first time it is accessed
+	 */
+	private static class LoadOnDemandCollection<T> extends AbstractCollection<T> {
+
+		private final List<T> myValues = new ArrayList<>();
+		private Collection<T> mySource;
+
+		private LoadOnDemandCollection(Collection<T> theSource) {
+			mySource = theSource;
+		}
+
+		private boolean isLoaded() {
+			return mySource == null;
+		}
+
+		private List<T> getValues() {
+			if (mySource != null) {
+				myValues.addAll(mySource);
+				mySource = null;
+			}
+			return myValues;
+		}
+
+		@Nonnull
+		@Override
+		public Iterator<T> iterator() {
+			return getValues().iterator();
+		}
+
+		@Override
+		public int size() {
+			return getValues().size();
+		}
+
+		@Override
+		public boolean add(T theValue) {
+			return getValues().add(theValue);
+		}
 	}
 
 	private enum Mode {
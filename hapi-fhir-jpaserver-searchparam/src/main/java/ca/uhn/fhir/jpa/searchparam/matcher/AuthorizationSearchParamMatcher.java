@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.searchparam.matcher;
 
 import ca.uhn.fhir.jpa.searchparam.MatchUrlService;
 import ca.uhn.fhir.rest.server.interceptor.auth.IAuthorizationSearchParamMatcher;
+import jakarta.annotation.Nonnull;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,4 +58,14 @@ public class AuthorizationSearchParamMatcher implements IAuthorizationSearchPara
 			return MatchResult.buildUnsupported(e.getMessage());
 		}
 	}
+
+	@Override
+	public boolean beginMatching(@Nonnull IBaseResource theResource) {
+		return ResourceIndexedSearchParamsMemo.attach(theResource);
+	}
+
+	@Override
+	public void endMatching(@Nonnull IBaseResource theResource) {
+		ResourceIndexedSearchParamsMemo.detach(theResource);
+	}
 }
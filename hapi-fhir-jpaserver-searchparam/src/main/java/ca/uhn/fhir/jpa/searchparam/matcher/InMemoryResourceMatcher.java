@@ -155,6 +155,8 @@ public class InMemoryResourceMatcher {
 	 *                               pass in {@literal null} unless you already actually had to calculate the
 	 *                               indexes for another reason, since we can be efficient here and only calculate
 	 *                               the params that are actually relevant for the given search expression.
+	 *                               If a {@link ResourceIndexedSearchParamsMemo} is attached to the resource,
+	 *                               the params are taken from the memo instead.
 	 */
 	public InMemoryMatchResult match(
 			String theCriteria,
@@ -180,8 +182,12 @@ public class InMemoryResourceMatcher {
 		searchParameterMap.clean();
 
 		ResourceIndexedSearchParams relevantSearchParams = null;
+		ResourceIndexedSearchParamsMemo memo = ResourceIndexedSearchParamsMemo.get(theResource);
 		if (theIndexedSearchParams != null) {
 			relevantSearchParams = theIndexedSearchParams;
+		} else if (memo != null) {
+			relevantSearchParams = memo.getIndexedSearchParams(
+					myIndexedSearchParamExtractor, theResource, theRequestDetails, searchParameterMap.keySet());
 		} else if (theResource != null) {
 			// Don't index search params we don't actully need for the given criteria
 			ISearchParamExtractor.ISearchParamFilter filter = theSearchParams -> theSearchParams.stream()
@@ -226,11 +232,17 @@ public class InMemoryResourceMatcher {
 			return InMemoryMatchResult.unsupportedFromReason(InMemoryMatchResult.LOCATION_NEAR);
 		}
 
+		// The memo can only be used if the search params were the ones it extracted
+		ResourceIndexedSearchParamsMemo memo = ResourceIndexedSearchParamsMemo.get(theResource);
+		if (memo != null && !memo.isFor(theSearchParams)) {
+			memo = null;
+		}
+
 		for (Map.Entry<String, List<List<IQueryParameterType>>> entry : theSearchParameterMap.entrySet()) {
 			String theParamName = entry.getKey();
 			List<List<IQueryParameterType>> theAndOrParams = entry.getValue();
 			InMemoryMatchResult result = matchIdsWithAndOr(
-					theParamName, theAndOrParams, theResourceDefinition, theResource, theSearchParams);
+					theParamName, theAndOrParams, theResourceDefinition, theResource, theSearchParams, memo);
 			if (!result.matched()) {
 				return result;
 			}
@@ -244,7 +256,8 @@ public class InMemoryResourceMatcher {
 			List<List<IQueryParameterType>> theAndOrParams,
 			RuntimeResourceDefinition theResourceDefinition,
 			IBaseResource theResource,
-			ResourceIndexedSearchParams theSearchParams) {
+			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo) {
 		if (theAndOrParams.isEmpty()) {
 			return InMemoryMatchResult.successfulMatch();
 		}
@@ -270,7 +283,13 @@ public class InMemoryResourceMatcher {
 				return InMemoryMatchResult.fromBoolean(matchProfilesAndOr(theAndOrParams, theResource));
 			default:
 				return matchResourceParam(
-						myStorageSettings, theParamName, theAndOrParams, theSearchParams, resourceName, paramDef);
+						myStorageSettings,
+						theParamName,
+						theAndOrParams,
+						theSearchParams,
+						theMemo,
+						resourceName,
+						paramDef);
 		}
 	}
 
@@ -465,6 +484,7 @@ public class InMemoryResourceMatcher {
 			String theParamName,
 			List<List<IQueryParameterType>> theAndOrParams,
 			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo,
 			String theResourceName,
 			RuntimeSearchParam theParamDef) {
 		if (theParamDef != null) {
@@ -486,7 +506,8 @@ public class InMemoryResourceMatcher {
 										theParamName,
 										theParamDef,
 										nextAnd,
-										theSearchParams)));
+										theSearchParams,
+										theMemo)));
 					}
 				case COMPOSITE:
 				case HAS:
@@ -511,18 +532,31 @@ public class InMemoryResourceMatcher {
 			String theParamName,
 			RuntimeSearchParam theParamDef,
 			List<? extends IQueryParameterType> theOrList,
-			ResourceIndexedSearchParams theSearchParams) {
+			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo) {
 
 		boolean isNegativeTest = isNegative(theParamDef, theOrList);
 		// negative tests like :not and :not-in must not match any or-clause, so we invert the quantifier.
 		if (isNegativeTest) {
 			return theOrList.stream()
 					.allMatch(token -> matchParam(
-							theStorageSettings, theResourceName, theParamName, theParamDef, theSearchParams, token));
+							theStorageSettings,
+							theResourceName,
+							theParamName,
+							theParamDef,
+							theSearchParams,
+							theMemo,
+							token));
 		} else {
 			return theOrList.stream()
 					.anyMatch(token -> matchParam(
-							theStorageSettings, theResourceName, theParamName, theParamDef, theSearchParams, token));
+							theStorageSettings,
+							theResourceName,
+							theParamName,
+							theParamDef,
+							theSearchParams,
+							theMemo,
+							token));
 		}
 	}
 
@@ -545,14 +579,35 @@ public class InMemoryResourceMatcher {
 			String theParamName,
 			RuntimeSearchParam theParamDef,
 			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo,
 			IQueryParameterType theToken) {
 		if (theParamDef.getParamType().equals(RestSearchParameterTypeEnum.TOKEN)) {
 			return matchTokenParam(
-					theStorageSettings, theResourceName, theParamName, theParamDef, theSearchParams, (TokenParam)
-							theToken);
+					theStorageSettings,
+					theResourceName,
+					theParamName,
+					theParamDef,
+					theSearchParams,
+					theMemo,
+					(TokenParam) theToken);
 		} else {
-			return theSearchParams.matchParam(theStorageSettings, theResourceName, theParamName, theParamDef, theToken);
+			return matchIndexedParam(
+					theStorageSettings, theResourceName, theParamName, theParamDef, theSearchParams, theMemo, theToken);
+		}
+	}
+
+	private boolean matchIndexedParam(
+			StorageSettings theStorageSettings,
+			String theResourceName,
+			String theParamName,
+			RuntimeSearchParam theParamDef,
+			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo,
+			IQueryParameterType theValue) {
+		if (theMemo != null) {
+			return theMemo.matchParam(theStorageSettings, theResourceName, theParamName, theParamDef, theValue);
 		}
+		return theSearchParams.matchParam(theStorageSettings, theResourceName, theParamName, theParamDef, theValue);
 	}
 
 	/**
@@ -566,6 +621,7 @@ public class InMemoryResourceMatcher {
 	 * @param theParamName       the name of the parameter
 	 * @param theParamDef        the definition of the search parameter
 	 * @param theSearchParams    the search parameters derived from the target resource
+	 * @param theMemo            the memo which extracted theSearchParams, if any
 	 * @param theQueryParam      the query parameter to compare with theSearchParams
 	 * @return true if theQueryParam matches the collection of theSearchParams, otherwise false
 	 */
@@ -575,6 +631,7 @@ public class InMemoryResourceMatcher {
 			String theParamName,
 			RuntimeSearchParam theParamDef,
 			ResourceIndexedSearchParams theSearchParams,
+			@Nullable ResourceIndexedSearchParamsMemo theMemo,
 			TokenParam theQueryParam) {
 		if (theQueryParam.getModifier() != null) {
 			switch (theQueryParam.getModifier()) {
@@ -587,15 +644,33 @@ public class InMemoryResourceMatcher {
 							.filter(t -> isMatchSearchParam(theStorageSettings, theResourceName, theParamName, t))
 							.noneMatch(t -> systemContainsCode(theQueryParam, t));
 				case NOT:
-					return !theSearchParams.matchParam(
-							theStorageSettings, theResourceName, theParamName, theParamDef, theQueryParam);
+					return !matchIndexedParam(
+							theStorageSettings,
+							theResourceName,
+							theParamName,
+							theParamDef,
+							theSearchParams,
+							theMemo,
+							theQueryParam);
 				default:
-					return theSearchParams.matchParam(
-							theStorageSettings, theResourceName, theParamName, theParamDef, theQueryParam);
+					return matchIndexedParam(
+							theStorageSettings,
+							theResourceName,
+							theParamName,
+							theParamDef,
+							theSearchParams,
+							theMemo,
+							theQueryParam);
 			}
 		} else {
-			return theSearchParams.matchParam(
-					theStorageSettings, theResourceName, theParamName, theParamDef, theQueryParam);
+			return matchIndexedParam(
+					theStorageSettings,
+					theResourceName,
+					theParamName,
+					theParamDef,
+					theSearchParams,
+					theMemo,
+					theQueryParam);
 		}
 	}
 
@@ -0,0 +1,266 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA - Search Parameters
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.searchparam.matcher;
+
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.entity.BaseResourceIndexedSearchParam;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
+import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.model.util.SearchParamHash;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
+import ca.uhn.fhir.model.api.IQueryParameterType;
+import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenParam;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Holds the search parameter indexes which have been extracted from a single resource, so that the
+ * resource can be matched in-memory against many criteria (e.g. every active subscription, the filters
+ * of every subscription topic, or every authorization rule) while each search parameter is only
+ * extracted once. Search parameters are extracted on demand, the first time a criteria uses them.
+ * <p>
+ * Code which dispatches a resource to a set of matchers {@link #attach(IBaseResource) attaches} a memo
+ * to the resource before matching, and {@link #detach(IBaseResource) detaches} it afterward. The resource
+ * must not be modified while a memo is attached. Memos are attached for the current thread only and are
+ * never stored in the resource itself, so other threads matching the same resource instance (e.g. other
+ * handlers of the same subscription message) neither see nor share them.
+ * </p>
+ * <p>
+ * The memo also indexes the extracted values by the hashes that the JPA index stores for them
+ * (<code>HASH_IDENTITY</code>, and <code>HASH_SYS_AND_VALUE</code>, <code>HASH_SYS</code> and
+ * <code>HASH_VALUE</code> for tokens), so a criteria on a parameter the resource has no values for is
+ * rejected without scanning the extracted values, and most token criteria are matched with a single
+ * hash lookup.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public class ResourceIndexedSearchParamsMemo {
+
+	/**
+	 * The memos attached by the current thread, keyed by resource instance
+	 */
+	private static final ThreadLocal<Map<IBaseResource, ResourceIndexedSearchParamsMemo>> ourMemos =
+			new ThreadLocal<>();
+
+	private static final PartitionSettings ourPartitionSettings = new PartitionSettings();
+
+	private final ResourceIndexedSearchParams myIndexedSearchParams = ResourceIndexedSearchParams.withSets();
+	private final Set<String> myExtractedParamNames = new HashSet<>();
+	private final Set<Long> myHashIdentities = new HashSet<>();
+	private final Set<Long> myTokenHashSystemAndValues = new HashSet<>();
+	private final Set<Long> myTokenHashSystems = new HashSet<>();
+	private final Set<Long> myTokenHashValues = new HashSet<>();
+
+	/**
+	 * Attaches a new memo to the given resource for the current thread, unless one is already attached
+	 *
+	 * @return <code>true</code> if a memo was attached, in which case the caller must call
+	 * {@link #detach(IBaseResource)} once it has finished matching the resource
+	 */
+	public static boolean attach(@Nonnull IBaseResource theResource) {
+		Map<IBaseResource, ResourceIndexedSearchParamsMemo> memos = ourMemos.get();
+		if (memos == null) {
+			memos = new IdentityHashMap<>();
+			ourMemos.set(memos);
+		} else if (memos.containsKey(theResource)) {
+			return false;
+		}
+		memos.put(theResource, new ResourceIndexedSearchParamsMemo());
+		return true;
+	}
+
+	/**
+	 * Removes the memo which the current thread attached to the given resource, if any
+	 */
+	public static void detach(@Nonnull IBaseResource theResource) {
+		Map<IBaseResource, ResourceIndexedSearchParamsMemo> memos = ourMemos.get();
+		if (memos != null) {
+			memos.remove(theResource);
+			if (memos.isEmpty()) {
+				ourMemos.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the memo which the current thread attached to the given resource, or <code>null</code>
+	 * if none is attached
+	 */
+	@Nullable
+	public static ResourceIndexedSearchParamsMemo get(@Nullable IBaseResource theResource) {
+		Map<IBaseResource, ResourceIndexedSearchParamsMemo> memos = ourMemos.get();
+		if (theResource == null || memos == null) {
+			return null;
+		}
+		return memos.get(theResource);
+	}
+
+	/**
+	 * Returns the indexes for the given resource, extracting any of the given search parameters
+	 * which have not already been extracted. The returned indexes may also contain other search
+	 * parameters which were extracted for previous criteria.
+	 */
+	@Nonnull
+	ResourceIndexedSearchParams getIndexedSearchParams(
+			IndexedSearchParamExtractor theIndexedSearchParamExtractor,
+			IBaseResource theResource,
+			RequestDetails theRequestDetails,
+			Collection<String> theParamNames) {
+		Set<String> paramNamesToExtract = theParamNames.stream()
+				.filter(t -> !myExtractedParamNames.contains(t))
+				.collect(Collectors.toSet());
+		if (!paramNamesToExtract.isEmpty()) {
+			ISearchParamExtractor.ISearchParamFilter filter = theSearchParams -> theSearchParams.stream()
+					.filter(t -> paramNamesToExtract.contains(t.getName()))
+					.collect(Collectors.toList());
+			ResourceIndexedSearchParams extracted =
+					theIndexedSearchParamExtractor.extractIndexedSearchParams(theResource, theRequestDetails, filter);
+			addAll(extracted);
+			myExtractedParamNames.addAll(paramNamesToExtract);
+		}
+		return myIndexedSearchParams;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given indexes are the ones held by this memo
+	 */
+	boolean isFor(@Nullable ResourceIndexedSearchParams theIndexedSearchParams) {
+		return myIndexedSearchParams == theIndexedSearchParams;
+	}
+
+	/**
+	 * Equivalent to {@link ResourceIndexedSearchParams#matchParam(StorageSettings, String, String, RuntimeSearchParam, IQueryParameterType)},
+	 * but avoids scanning the extracted values where the hashes are enough to determine the outcome
+	 */
+	boolean matchParam(
+			StorageSettings theStorageSettings,
+			String theResourceName,
+			String theParamName,
+			RuntimeSearchParam theParamDef,
+			IQueryParameterType theValue) {
+		if (theParamDef == null) {
+			return false;
+		}
+
+		if (theParamDef.getParamType() != RestSearchParameterTypeEnum.REFERENCE) {
+			long hashIdentity = SearchParamHash.hashSearchParam(
+					ourPartitionSettings, RequestPartitionId.defaultPartition(), theResourceName, theParamName);
+			if (!myHashIdentities.contains(hashIdentity)) {
+				return false;
+			}
+		}
+
+		if (theValue instanceof TokenParam && isTokenHashMatch(theResourceName, theParamName, (TokenParam) theValue)) {
+			return true;
+		}
+
+		return myIndexedSearchParams.matchParam(
+				theStorageSettings, theResourceName, theParamName, theParamDef, theValue);
+	}
+
+	/**
+	 * A hash match is always a match, but since token values are compared case-insensitively,
+	 * no hash match does not mean that the token doesn't match.
+	 */
+	private boolean isTokenHashMatch(String theResourceName, String theParamName, TokenParam theValue) {
+		if (theValue.getModifier() != null) {
+			return false;
+		}
+
+		String system = theValue.getSystem();
+		String value = theValue.getValue();
+		RequestPartitionId partitionId = RequestPartitionId.defaultPartition();
+		if (isBlank(system) && isNotBlank(value)) {
+			return myTokenHashValues.contains(ResourceIndexedSearchParamToken.calculateHashValue(
+					ourPartitionSettings, partitionId, theResourceName, theParamName, value));
+		} else if (isNotBlank(system) && isBlank(value)) {
+			return myTokenHashSystems.contains(ResourceIndexedSearchParamToken.calculateHashSystem(
+					ourPartitionSettings, partitionId, theResourceName, theParamName, system));
+		} else if (isNotBlank(system)) {
+			return myTokenHashSystemAndValues.contains(ResourceIndexedSearchParamToken.calculateHashSystemAndValue(
+					ourPartitionSettings, partitionId, theResourceName, theParamName, system, value));
+		}
+		return false;
+	}
+
+	private void addAll(ResourceIndexedSearchParams theExtracted) {
+		myIndexedSearchParams.myStringParams.addAll(theExtracted.myStringParams);
+		myIndexedSearchParams.myTokenParams.addAll(theExtracted.myTokenParams);
+		myIndexedSearchParams.myNumberParams.addAll(theExtracted.myNumberParams);
+		myIndexedSearchParams.myQuantityParams.addAll(theExtracted.myQuantityParams);
+		myIndexedSearchParams.myQuantityNormalizedParams.addAll(theExtracted.myQuantityNormalizedParams);
+		myIndexedSearchParams.myDateParams.addAll(theExtracted.myDateParams);
+		myIndexedSearchParams.myUriParams.addAll(theExtracted.myUriParams);
+		myIndexedSearchParams.myCoordsParams.addAll(theExtracted.myCoordsParams);
+		myIndexedSearchParams.myComboStringUniques.addAll(theExtracted.myComboStringUniques);
+		myIndexedSearchParams.myComboTokenNonUnique.addAll(theExtracted.myComboTokenNonUnique);
+		myIndexedSearchParams.myLinks.addAll(theExtracted.myLinks);
+		myIndexedSearchParams.mySearchParamPresentEntities.addAll(theExtracted.mySearchParamPresentEntities);
+		myIndexedSearchParams.myCompositeParams.addAll(theExtracted.myCompositeParams);
+		myIndexedSearchParams.myPopulatedResourceLinkParameters.addAll(theExtracted.myPopulatedResourceLinkParameters);
+
+		addHashIdentities(theExtracted.myStringParams);
+		addHashIdentities(theExtracted.myTokenParams);
+		addHashIdentities(theExtracted.myNumberParams);
+		addHashIdentities(theExtracted.myQuantityParams);
+		addHashIdentities(theExtracted.myQuantityNormalizedParams);
+		addHashIdentities(theExtracted.myDateParams);
+		addHashIdentities(theExtracted.myUriParams);
+		addHashIdentities(theExtracted.myCoordsParams);
+
+		for (ResourceIndexedSearchParamToken next : theExtracted.myTokenParams) {
+			if (next.isMissing()) {
+				continue;
+			}
+			addIfNotNull(myTokenHashSystemAndValues, next.getHashSystemAndValue());
+			addIfNotNull(myTokenHashSystems, next.getHashSystem());
+			addIfNotNull(myTokenHashValues, next.getHashValue());
+		}
+	}
+
+	private void addHashIdentities(Collection<? extends BaseResourceIndexedSearchParam> theParams) {
+		for (BaseResourceIndexedSearchParam next : theParams) {
+			addIfNotNull(myHashIdentities, next.getHashIdentity());
+		}
+	}
+
+	private static void addIfNotNull(Set<Long> theSet, @Nullable Long theHash) {
+		if (theHash != null) {
+			theSet.add(theHash);
+		}
+	}
+}
@@ -50,9 +50,15 @@ public class SearchParamMatcher {
 		if (theSearchParameterMap.isEmpty()) {
 			return InMemoryMatchResult.successfulMatch();
 		}
-		ResourceIndexedSearchParams resourceIndexedSearchParams =
-				myIndexedSearchParamExtractor.extractIndexedSearchParams(
-						theResource, null, getFilter(theSearchParameterMap));
+		ResourceIndexedSearchParamsMemo memo = ResourceIndexedSearchParamsMemo.get(theResource);
+		ResourceIndexedSearchParams resourceIndexedSearchParams;
+		if (memo != null) {
+			resourceIndexedSearchParams = memo.getIndexedSearchParams(
+					myIndexedSearchParamExtractor, theResource, null, theSearchParameterMap.keySet());
+		} else {
+			resourceIndexedSearchParams = myIndexedSearchParamExtractor.extractIndexedSearchParams(
+					theResource, null, getFilter(theSearchParameterMap));
+		}
 		RuntimeResourceDefinition resourceDefinition = myFhirContext.getResourceDefinition(theResource);
 		return myInMemoryResourceMatcher.match(
 				theSearchParameterMap, theResource, resourceDefinition, resourceIndexedSearchParams);
@@ -24,6 +24,7 @@ import org.hl7.fhir.r5.model.BaseDateTimeType;
 import org.hl7.fhir.r5.model.CodeableConcept;
 import org.hl7.fhir.r5.model.Coding;
 import org.hl7.fhir.r5.model.DateTimeType;
+import org.hl7.fhir.r5.model.Enumerations;
 import org.hl7.fhir.r5.model.Observation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,14 +41,19 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -251,7 +257,77 @@ public class InMemoryResourceMatcherR5Test {
 		verify(myValidationSupport).validateCode(any(), any(), eq(OBSERVATION_CODE_SYSTEM), eq(OBSERVATION_CODE), isNull(), eq(OBSERVATION_CODE_VALUE_SET_URI));
   }
   
-   @Test
+	@Test
+	public void testMatchWithMemo() {
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenAnswer(t -> extractSearchParams(myObservation));
+
+		assertTrue(ResourceIndexedSearchParamsMemo.attach(myObservation));
+		assertFalse(ResourceIndexedSearchParamsMemo.attach(myObservation));
+		try {
+			assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE, myObservation, null, newRequest()).matched());
+			assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE_SYSTEM + "|" + OBSERVATION_CODE, myObservation, null, newRequest()).matched());
+			assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE_SYSTEM + "|", myObservation, null, newRequest()).matched());
+			// No hash match, but tokens match case-insensitively
+			assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE_SYSTEM + "|" + OBSERVATION_CODE.toLowerCase(), myObservation, null, newRequest()).matched());
+			assertFalse(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE_SYSTEM + "|a_different_code", myObservation, null, newRequest()).matched());
+			assertTrue(myInMemoryResourceMatcher.match("code:not=a_different_code", myObservation, null, newRequest()).matched());
+			assertFalse(myInMemoryResourceMatcher.match("code:not=" + OBSERVATION_CODE, myObservation, null, newRequest()).matched());
+			verify(myIndexedSearchParamExtractor, times(1)).extractIndexedSearchParams(any(), any(), any());
+
+			// Only the new parameter is extracted
+			assertTrue(myInMemoryResourceMatcher.match("date=" + ParamPrefixEnum.GREATERTHAN.getValue() + EARLY_DATE, myObservation, null, newRequest()).matched());
+			assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE + "&date=" + ParamPrefixEnum.LESSTHAN.getValue() + LATE_DATE, myObservation, null, newRequest()).matched());
+			verify(myIndexedSearchParamExtractor, times(2)).extractIndexedSearchParams(any(), any(), any());
+		} finally {
+			ResourceIndexedSearchParamsMemo.detach(myObservation);
+		}
+
+		assertTrue(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE, myObservation, null, newRequest()).matched());
+		verify(myIndexedSearchParamExtractor, times(3)).extractIndexedSearchParams(any(), any(), any());
+	}
+
+	@Test
+	public void testMatchWithMemo_NotSharedWithOtherThreads() throws Exception {
+		assertTrue(ResourceIndexedSearchParamsMemo.attach(myObservation));
+		try {
+			assertNotNull(ResourceIndexedSearchParamsMemo.get(myObservation));
+
+			// Another thread matching the same instance (e.g. another handler of the same message) gets its own memo
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				assertNull(executor.submit(() -> ResourceIndexedSearchParamsMemo.get(myObservation)).get());
+				assertTrue(executor.submit(() -> {
+					boolean attached = ResourceIndexedSearchParamsMemo.attach(myObservation);
+					ResourceIndexedSearchParamsMemo.detach(myObservation);
+					return attached;
+				}).get());
+			} finally {
+				executor.shutdown();
+			}
+			assertNotNull(ResourceIndexedSearchParamsMemo.get(myObservation));
+		} finally {
+			ResourceIndexedSearchParamsMemo.detach(myObservation);
+		}
+		assertNull(ResourceIndexedSearchParamsMemo.get(myObservation));
+	}
+
+	@Test
+	public void testMatchWithMemo_ResourceHasNoValues() {
+		Observation observation = new Observation();
+		observation.setStatus(Enumerations.ObservationStatus.FINAL);
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenReturn(ResourceIndexedSearchParams.withSets());
+
+		ResourceIndexedSearchParamsMemo.attach(observation);
+		try {
+			assertFalse(myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE, observation, null, newRequest()).matched());
+			assertTrue(myInMemoryResourceMatcher.match("code:not=" + OBSERVATION_CODE, observation, null, newRequest()).matched());
+			assertFalse(myInMemoryResourceMatcher.match("date=" + ParamPrefixEnum.GREATERTHAN.getValue() + EARLY_DATE, observation, null, newRequest()).matched());
+		} finally {
+			ResourceIndexedSearchParamsMemo.detach(observation);
+		}
+	}
+
+	@Test
 	public void testUnrecognizedParam() {
 		try {
 			InMemoryMatchResult result = myInMemoryResourceMatcher.match("foo=bar", myObservation, mySearchParams, newRequest());
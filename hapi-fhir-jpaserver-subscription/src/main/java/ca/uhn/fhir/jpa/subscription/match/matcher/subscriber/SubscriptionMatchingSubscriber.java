@@ -24,6 +24,7 @@ import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.ResourceIndexedSearchParamsMemo;
 import ca.uhn.fhir.jpa.subscription.match.matcher.matching.ISubscriptionMatcher;
 import ca.uhn.fhir.jpa.subscription.match.registry.ActiveSubscription;
 import ca.uhn.fhir.jpa.subscription.match.registry.SubscriptionRegistry;
@@ -134,8 +135,18 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 		ourLog.trace("Testing {} subscriptions for applicability", subscriptions.size());
 		boolean anySubscriptionsMatchedResource = false;
 
-		for (ActiveSubscription nextActiveSubscription : subscriptions) {
-			anySubscriptionsMatchedResource |= processSubscription(theMsg, resourceId, nextActiveSubscription);
+		// Extract each search parameter from the resource once, no matter how many subscriptions use it
+		// (the memo is only visible to this thread, so other handlers of the same message are unaffected)
+		IBaseResource payload = theMsg.getNewPayload(myFhirContext);
+		boolean detachMemo = payload != null && ResourceIndexedSearchParamsMemo.attach(payload);
+		try {
+			for (ActiveSubscription nextActiveSubscription : subscriptions) {
+				anySubscriptionsMatchedResource |= processSubscription(theMsg, resourceId, nextActiveSubscription);
+			}
+		} finally {
+			if (detachMemo) {
+				ResourceIndexedSearchParamsMemo.detach(payload);
+			}
 		}
 
 		if (!anySubscriptionsMatchedResource) {
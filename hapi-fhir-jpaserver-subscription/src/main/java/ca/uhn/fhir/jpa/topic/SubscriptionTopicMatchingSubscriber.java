@@ -24,6 +24,7 @@ import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.ResourceIndexedSearchParamsMemo;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedJsonMessage;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
 import ca.uhn.fhir.jpa.topic.filter.InMemoryTopicFilterMatcher;
@@ -112,18 +113,28 @@ public class SubscriptionTopicMatchingSubscriber implements MessageHandler {
 
 	private void matchActiveSubscriptionTopicsAndDeliver(ResourceModifiedMessage theMsg) {
 
-		Collection<SubscriptionTopic> topics = mySubscriptionTopicRegistry.getAll();
-		for (SubscriptionTopic topic : topics) {
-			SubscriptionTopicMatcher matcher =
-					new SubscriptionTopicMatcher(mySubscriptionTopicSupport, topic, myMemoryCacheService);
-			InMemoryMatchResult result = matcher.match(theMsg);
-			if (result.matched()) {
-				int deliveries = deliverToTopicSubscriptions(theMsg, topic, result);
-				ourLog.info(
-						"Matched topic {} to message {}.  Notifications sent to {} subscriptions for delivery.",
-						topic.getUrl(),
-						theMsg,
-						deliveries);
+		// Extract each search parameter from the resource once, no matter how many topics and filters use it
+		// (the memo is only visible to this thread, so other handlers of the same message are unaffected)
+		IBaseResource payload = theMsg.getNewPayload(myFhirContext);
+		boolean detachMemo = payload != null && ResourceIndexedSearchParamsMemo.attach(payload);
+		try {
+			Collection<SubscriptionTopic> topics = mySubscriptionTopicRegistry.getAll();
+			for (SubscriptionTopic topic : topics) {
+				SubscriptionTopicMatcher matcher =
+						new SubscriptionTopicMatcher(mySubscriptionTopicSupport, topic, myMemoryCacheService);
+				InMemoryMatchResult result = matcher.match(theMsg);
+				if (result.matched()) {
+					int deliveries = deliverToTopicSubscriptions(theMsg, topic, result);
+					ourLog.info(
+							"Matched topic {} to message {}.  Notifications sent to {} subscriptions for delivery.",
+							topic.getUrl(),
+							theMsg,
+							deliveries);
+				}
+			}
+		} finally {
+			if (detachMemo) {
+				ResourceIndexedSearchParamsMemo.detach(payload);
 			}
 		}
 	}
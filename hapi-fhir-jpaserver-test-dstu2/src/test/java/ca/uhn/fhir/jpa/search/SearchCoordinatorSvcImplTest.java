@@ -24,11 +24,13 @@ import ca.uhn.fhir.jpa.util.BaseIterator;
 import ca.uhn.fhir.rest.api.CacheControlDirective;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.server.IPagingProvider;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
+import ca.uhn.fhir.rest.server.util.ICachedSearchDetails;
 import ca.uhn.fhir.system.HapiSystemProperties;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.jupiter.api.AfterEach;
@@ -435,6 +437,22 @@ public class SearchCoordinatorSvcImplTest extends BaseSearchSvc {
 		assertEquals(23, page.getPageSize());
 	}
 
+	@Test
+	public void testAddSearchCacheScope() {
+		String queryString = "Patient?name=ANAME";
+		assertEquals(queryString, SearchCoordinatorSvcImpl.addSearchCacheScope(queryString, null));
+
+		RequestDetails requestDetails = new SystemRequestDetails();
+		assertEquals(queryString, SearchCoordinatorSvcImpl.addSearchCacheScope(queryString, requestDetails));
+
+		requestDetails.getUserData().put(ICachedSearchDetails.SEARCH_CACHE_SCOPE_USER_DATA_KEY, "0:user1|");
+		String scopedQueryString = SearchCoordinatorSvcImpl.addSearchCacheScope(queryString, requestDetails);
+		assertThat(scopedQueryString).startsWith(queryString).contains("0:user1|");
+
+		requestDetails.getUserData().put(ICachedSearchDetails.SEARCH_CACHE_SCOPE_USER_DATA_KEY, "0:user2|");
+		assertThat(SearchCoordinatorSvcImpl.addSearchCacheScope(queryString, requestDetails)).isNotEqualTo(scopedQueryString);
+	}
+
 	@Test
 	public void testLoadSearchResultsFromDifferentCoordinator() {
 		when(mySearchBuilderFactory.newSearchBuilder(any(), any(), any())).thenReturn(mySearchBuilder);
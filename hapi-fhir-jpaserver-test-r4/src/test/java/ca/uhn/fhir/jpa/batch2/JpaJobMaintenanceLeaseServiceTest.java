@@ -0,0 +1,125 @@
+package ca.uhn.fhir.jpa.batch2;
+
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceLeaseRepository;
+import ca.uhn.fhir.jpa.dao.data.IBatch2MaintenanceNodeRepository;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JpaJobMaintenanceLeaseServiceTest extends BaseJpaR4Test {
+
+	private static final String NODE_A = "node-a";
+	private static final String NODE_B = "node-b";
+	private static final int PARTITION_COUNT = 8;
+
+	@Autowired
+	private IJobMaintenanceLeaseService mySvc;
+	@Autowired
+	private IBatch2MaintenanceLeaseRepository myLeaseRepository;
+	@Autowired
+	private IBatch2MaintenanceNodeRepository myNodeRepository;
+
+	@AfterEach
+	public void after() {
+		runInTransaction(() -> {
+			myLeaseRepository.deleteAll();
+			myNodeRepository.deleteAll();
+		});
+	}
+
+	@Test
+	public void testSingleNodeAcquiresAllPartitions() {
+		Date now = new Date();
+
+		Set<Integer> leases = mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now));
+		assertThat(leases).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+
+		// Renewing keeps the same partitions
+		Date later = DateUtils.addMinutes(now, 1);
+		leases = mySvc.acquireLeases(NODE_A, PARTITION_COUNT, later, expiry(later));
+		assertThat(leases).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+	}
+
+	@Test
+	public void testSecondNodeGetsFairShare() {
+		Date now = new Date();
+		assertThat(mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now))).hasSize(8);
+
+		// Node B joins, but all partitions are leased to node A
+		Set<Integer> leasesB = mySvc.acquireLeases(NODE_B, PARTITION_COUNT, now, expiry(now));
+		assertThat(leasesB).isEmpty();
+
+		// Node A now sees node B and releases the partitions above its fair share
+		Set<Integer> leasesA = mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now));
+		assertThat(leasesA).hasSize(4);
+
+		leasesB = mySvc.acquireLeases(NODE_B, PARTITION_COUNT, now, expiry(now));
+		assertThat(leasesB).hasSize(4);
+		assertThat(leasesB).doesNotContainAnyElementsOf(leasesA);
+	}
+
+	@Test
+	public void testExpiredLeasesAreTakenOver() {
+		Date now = new Date();
+		assertThat(mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now))).hasSize(8);
+
+		// Node A stops renewing its leases, so node B takes over once they have expired
+		Date beforeExpiry = DateUtils.addMinutes(now, 4);
+		assertThat(mySvc.acquireLeases(NODE_B, PARTITION_COUNT, beforeExpiry, expiry(beforeExpiry)))
+			.isEmpty();
+
+		Date afterExpiry = DateUtils.addMinutes(now, 11);
+		assertThat(mySvc.acquireLeases(NODE_B, PARTITION_COUNT, afterExpiry, expiry(afterExpiry)))
+			.containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+	}
+
+	@Test
+	public void testIsLeaseHeld() {
+		Date now = new Date();
+		assertThat(mySvc.hasActiveLeases(now)).isFalse();
+		assertThat(mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now))).hasSize(8);
+
+		assertThat(mySvc.isLeaseHeld(NODE_A, 0, now)).isTrue();
+		assertThat(mySvc.isLeaseHeld(NODE_B, 0, now)).isFalse();
+		assertThat(mySvc.hasActiveLeases(now)).isTrue();
+
+		// Node A's leases expire and node B takes over
+		Date afterExpiry = DateUtils.addMinutes(now, 11);
+		assertThat(mySvc.isLeaseHeld(NODE_A, 0, afterExpiry)).isFalse();
+		assertThat(mySvc.hasActiveLeases(afterExpiry)).isFalse();
+		assertThat(mySvc.acquireLeases(NODE_B, PARTITION_COUNT, afterExpiry, expiry(afterExpiry))).hasSize(8);
+		assertThat(mySvc.isLeaseHeld(NODE_A, 0, afterExpiry)).isFalse();
+		assertThat(mySvc.isLeaseHeld(NODE_B, 0, afterExpiry)).isTrue();
+	}
+
+	@Test
+	public void testReleaseLeases() {
+		Date now = new Date();
+		assertThat(mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now))).hasSize(8);
+
+		mySvc.releaseLeases(NODE_A);
+
+		assertThat(mySvc.acquireLeases(NODE_B, PARTITION_COUNT, now, expiry(now)))
+			.containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+	}
+
+	@Test
+	public void testPartitionCountReduced() {
+		Date now = new Date();
+		assertThat(mySvc.acquireLeases(NODE_A, PARTITION_COUNT, now, expiry(now))).hasSize(8);
+
+		assertThat(mySvc.acquireLeases(NODE_A, 4, now, expiry(now))).containsExactly(0, 1, 2, 3);
+	}
+
+	private static Date expiry(Date theNow) {
+		return DateUtils.addMinutes(theNow, 5);
+	}
+}
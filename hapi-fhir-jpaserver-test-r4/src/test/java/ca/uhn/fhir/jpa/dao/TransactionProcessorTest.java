@@ -16,9 +16,11 @@ import ca.uhn.fhir.jpa.dao.tx.NonTransactionalHapiTransactionService;
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.partition.IRequestPartitionHelperSvc;
 import ca.uhn.fhir.jpa.searchparam.MatchUrlService;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryResourceMatcher;
 import ca.uhn.fhir.jpa.searchparam.matcher.SearchParamMatcher;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import org.hibernate.Session;
 import org.hibernate.internal.SessionImpl;
 import org.hl7.fhir.r4.model.Bundle;
@@ -82,6 +84,10 @@ public class TransactionProcessorTest {
 	private SessionImpl mySession;
 	@MockBean
 	private IFhirSystemDao<Bundle, Meta> mySystemDao;
+	@MockBean
+	private ISearchParamRegistry mySearchParamRegistry;
+	@MockBean
+	private ISearchParamExtractor mySearchParamExtractor;
 
 	@BeforeEach
 	public void before() {
@@ -11,6 +11,7 @@ import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.util.BundleBuilder;
+import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.OperationOutcome;
@@ -46,6 +47,7 @@ class DeleteExpungeDaoTest extends BaseJpaR4Test {
 		myStorageSettings.setExpungeEnabled(defaultStorageSettings.isExpungeEnabled());
 		myStorageSettings.setDeleteExpungeEnabled(defaultStorageSettings.isDeleteExpungeEnabled());
 		myStorageSettings.setExpungeBatchSize(defaultStorageSettings.getExpungeBatchSize());
+		myStorageSettings.setResourceReadCacheMillis(defaultStorageSettings.getResourceReadCacheMillis());
 	}
 
 	@Test
@@ -82,6 +84,29 @@ class DeleteExpungeDaoTest extends BaseJpaR4Test {
 		assertDoesntExist(o1c);
 	}
 
+	@Test
+	public void testDeleteExpunge_ResourceReadCacheInvalidated() {
+		myStorageSettings.setResourceReadCacheMillis(DateUtils.MILLIS_PER_MINUTE);
+		IIdType p1 = createPatient(withActiveTrue()).toUnqualifiedVersionless();
+		IIdType o1 = createObservation(withSubject(p1)).toUnqualifiedVersionless();
+
+		// Both resources are now in the read cache
+		assertEquals(p1, myPatientDao.read(p1, mySrd).getIdElement().toUnqualifiedVersionless());
+		assertEquals(o1, myObservationDao.read(o1, mySrd).getIdElement().toUnqualifiedVersionless());
+
+		// The observation is only deleted by cascading
+		when(mySrd.getParameters()).thenReturn(Map.of(
+			Constants.PARAMETER_CASCADE_DELETE, new String[]{Constants.CASCADE_DELETE},
+			JpaConstants.PARAM_DELETE_EXPUNGE, new String[]{"true"},
+			Constants.PARAMETER_CASCADE_DELETE_MAX_ROUNDS, new String[]{"10"}
+		));
+		DeleteMethodOutcome outcome = myPatientDao.deleteByUrl("Patient?" + JpaConstants.PARAM_DELETE_EXPUNGE + "=true", mySrd);
+		myBatch2JobHelper.awaitJobCompletion(jobExecutionIdFromOutcome(outcome));
+
+		assertDoesntExist(p1);
+		assertDoesntExist(o1);
+	}
+
 	@Test
 	public void testCascade_MultiLevel_NotEnoughRounds() {
 		// Setup
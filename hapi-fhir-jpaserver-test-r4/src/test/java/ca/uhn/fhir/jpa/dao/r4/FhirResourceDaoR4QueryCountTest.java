@@ -36,10 +36,12 @@ import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.SortSpec;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
 import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.auth.PolicyEnum;
 import ca.uhn.fhir.rest.server.provider.ProviderConstants;
@@ -48,6 +50,7 @@ import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
 import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
 import ca.uhn.fhir.util.BundleBuilder;
 import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.BooleanType;
@@ -64,6 +67,7 @@ import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.Group;
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Location;
+import org.hl7.fhir.r4.model.Meta;
 import org.hl7.fhir.r4.model.Narrative;
 import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Parameters;
@@ -105,6 +109,7 @@ import java.util.stream.IntStream;
 import static ca.uhn.fhir.jpa.subscription.FhirR4Util.createSubscription;
 import static org.apache.commons.lang3.StringUtils.countMatches;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -172,6 +177,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		myStorageSettings.setExpungeEnabled(false);
 		myStorageSettings.setUniqueIndexesEnabled(new JpaStorageSettings().isUniqueIndexesEnabled());
 		myStorageSettings.setUniqueIndexesCheckedBeforeSave(new JpaStorageSettings().isUniqueIndexesCheckedBeforeSave());
+		myStorageSettings.setResourceReadCacheMillis(new JpaStorageSettings().getResourceReadCacheMillis());
 
 		myFhirContext.getParserOptions().setStripVersionsFromReferences(true);
 		TermReadSvcImpl.setForceDisableHibernateSearchForUnitTest(false);
@@ -268,7 +274,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 			myPatientDao.update(p);
 		});
 		myCaptureQueriesListener.logSelectQueriesForCurrentThread();
-		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(5);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(4);
 		myCaptureQueriesListener.logUpdateQueriesForCurrentThread();
 		assertThat(myCaptureQueriesListener.getUpdateQueriesForCurrentThread()).isEmpty();
 		assertThat(myCaptureQueriesListener.getInsertQueriesForCurrentThread()).isEmpty();
@@ -309,6 +315,60 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		assertThat(myCaptureQueriesListener.getDeleteQueriesForCurrentThread()).isEmpty();
 	}
 
+	/**
+	 * Index types whose rows haven't changed should not be loaded or written
+	 * when a resource is updated.
+	 * See the class javadoc before changing the counts in this test!
+	 */
+	@Test
+	public void testUpdateWithChanges_UnchangedIndexTypesAreSkipped() {
+		IIdType patientId = createPatient(withActiveTrue());
+
+		Observation obs = new Observation();
+		obs.setStatus(Observation.ObservationStatus.PRELIMINARY);
+		obs.setSubject(new Reference(patientId));
+		for (int i = 0; i < 10; i++) {
+			obs.getCode().addCoding().setSystem("http://loinc.org").setCode("code" + i);
+			obs.addComponent()
+				.setValue(new Quantity().setValue(i).setSystem("http://unitsofmeasure.org").setCode("mg"))
+				.getCode()
+				.addCoding()
+				.setSystem("http://loinc.org")
+				.setCode("component" + i);
+		}
+		obs.setEffective(new DateTimeType("2024-01-01"));
+		IIdType obsId = myObservationDao.create(obs, mySrd).getId().toUnqualifiedVersionless();
+
+		// Only change the effective date
+		obs.setId(obsId);
+		obs.setEffective(new DateTimeType("2024-01-02"));
+		myCaptureQueriesListener.clear();
+		myObservationDao.update(obs, mySrd);
+
+		// Verify
+		myCaptureQueriesListener.logSelectQueries();
+		List<String> selects = myCaptureQueriesListener.getSelectQueries().stream()
+			.map(t -> t.getSql(true, false))
+			.toList();
+		assertThat(selects).noneMatch(t -> t.contains("HFJ_SPIDX_TOKEN"));
+		assertThat(selects).noneMatch(t -> t.contains("HFJ_SPIDX_QUANTITY"));
+		assertThat(selects).anyMatch(t -> t.contains("HFJ_SPIDX_DATE"));
+		myCaptureQueriesListener.logUpdateQueries();
+		List<String> updates = myCaptureQueriesListener.getUpdateQueries().stream()
+			.map(t -> t.getSql(true, false))
+			.toList();
+		assertThat(updates).noneMatch(t -> t.contains("HFJ_SPIDX_TOKEN"));
+		assertThat(updates).anyMatch(t -> t.contains("HFJ_SPIDX_DATE"));
+		assertEquals(0, myCaptureQueriesListener.countDeleteQueries());
+
+		// Searching still works
+		SearchParameterMap map = SearchParameterMap.newSynchronous();
+		map.add(Observation.SP_DATE, new DateParam("2024-01-02"));
+		map.add(Observation.SP_CODE, new TokenParam("http://loinc.org", "code5"));
+		map.add(Observation.SP_SUBJECT, new ReferenceParam(patientId.getValue()));
+		assertThat(toUnqualifiedVersionlessIdValues(myObservationDao.search(map, mySrd))).containsExactly(obsId.getValue());
+	}
+
 	/**
 	 * See the class javadoc before changing the counts in this test!
 	 */
@@ -433,7 +493,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 			myCaptureQueriesListener.clear();
 			myPatientDao.update(p, mySrd);
 		});
-		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(6);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(4);
 		assertThat(myCaptureQueriesListener.getUpdateQueriesForCurrentThread()).hasSize(2);
 		assertThat(myCaptureQueriesListener.getInsertQueriesForCurrentThread()).hasSize(2);
 		assertThat(myCaptureQueriesListener.getDeleteQueriesForCurrentThread()).isEmpty();
@@ -456,7 +516,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 			myCaptureQueriesListener.clear();
 			myPatientDao.update(p, mySrd);
 		});
-		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(5);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(2);
 		assertThat(myCaptureQueriesListener.getUpdateQueriesForCurrentThread()).isEmpty();
 		assertThat(myCaptureQueriesListener.getInsertQueriesForCurrentThread()).isEmpty();
 		assertThat(myCaptureQueriesListener.getDeleteQueriesForCurrentThread()).isEmpty();
@@ -561,6 +621,54 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		assertThat(myCaptureQueriesListener.getDeleteQueriesForCurrentThread()).isEmpty();
 	}
 
+	/**
+	 * See the class javadoc before changing the counts in this test!
+	 */
+	@Test
+	public void testRead_ResourceReadCache() {
+		myStorageSettings.setResourceReadCacheMillis(DateUtils.MILLIS_PER_MINUTE);
+		IIdType id = createPatient(withActiveTrue(), withFamily("Simpson")).toUnqualifiedVersionless();
+
+		// First read loads from the DB
+		myCaptureQueriesListener.clear();
+		Patient patient = myPatientDao.read(id, mySrd);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).isNotEmpty();
+		assertEquals("1", patient.getIdElement().getVersionIdPart());
+
+		// Changes to a returned resource don't affect the cache
+		patient.getNameFirstRep().setFamily("Flanders");
+
+		// Second read and a vread of the same version are served from the cache
+		myCaptureQueriesListener.clear();
+		patient = myPatientDao.read(id, mySrd);
+		Patient version1 = myPatientDao.read(id.withVersion("1"), mySrd);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).isEmpty();
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(id.withVersion("1").getValue(), patient.getIdElement().toUnqualified().getValue());
+		assertEquals("Simpson", version1.getNameFirstRep().getFamily());
+		assertNotNull(patient.getMeta().getLastUpdated());
+
+		// An update invalidates the cached resource
+		patient.getNameFirstRep().setFamily("Flanders");
+		myPatientDao.update(patient, mySrd);
+		myCaptureQueriesListener.clear();
+		patient = myPatientDao.read(id, mySrd);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).isNotEmpty();
+		assertEquals("2", patient.getIdElement().getVersionIdPart());
+		assertEquals("Flanders", patient.getNameFirstRep().getFamily());
+
+		// So does adding a tag
+		Meta meta = new Meta();
+		meta.addTag().setSystem("http://tags").setCode("tag0");
+		myPatientDao.metaAddOperation(id, meta, mySrd);
+		patient = myPatientDao.read(id, mySrd);
+		assertEquals("tag0", patient.getMeta().getTagFirstRep().getCode());
+
+		// And a delete
+		myPatientDao.delete(id, mySrd);
+		assertThatThrownBy(() -> myPatientDao.read(id, mySrd)).isInstanceOf(ResourceGoneException.class);
+	}
+
 	/**
 	 * See the class javadoc before changing the counts in this test!
 	 */
@@ -861,7 +969,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		assertEquals(1, myCaptureQueriesListener.countSelectQueriesForCurrentThread());
 		assertEquals(0, myCaptureQueriesListener.countUpdateQueriesForCurrentThread());
 		assertEquals(0, myCaptureQueriesListener.countInsertQueriesForCurrentThread());
-		assertEquals(29, myCaptureQueriesListener.countDeleteQueriesForCurrentThread());
+		assertEquals(30, myCaptureQueriesListener.countDeleteQueriesForCurrentThread());
 		assertEquals(10, outcome.getRecordsProcessed());
 		runInTransaction(()-> assertEquals(0, myResourceTableDao.count()));
 	}
@@ -894,7 +1002,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		});
 
 		myCaptureQueriesListener.logSelectQueriesForCurrentThread();
-		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(3);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(2);
 		myCaptureQueriesListener.logUpdateQueriesForCurrentThread();
 		assertThat(myCaptureQueriesListener.getUpdateQueriesForCurrentThread()).hasSize(1);
 		myCaptureQueriesListener.logInsertQueriesForCurrentThread();
@@ -913,7 +1021,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		});
 
 		myCaptureQueriesListener.logSelectQueriesForCurrentThread();
-		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(3);
+		assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).hasSize(2);
 		myCaptureQueriesListener.logUpdateQueriesForCurrentThread();
 		assertThat(myCaptureQueriesListener.getUpdateQueriesForCurrentThread()).hasSize(1);
 		myCaptureQueriesListener.logInsertQueriesForCurrentThread();
@@ -2487,6 +2595,54 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 
 	}
 
+	/**
+	 * Conditional creates using <code>_id</code> and reference match URLs should be
+	 * resolved in batches during the transaction pre-fetch instead of running a full
+	 * search for each URL.
+	 * <p>
+	 * See the class javadoc before changing the counts in this test!
+	 */
+	@Test
+	public void testTransactionWithConditionalCreate_IdAndReferenceMatchUrls() {
+		createPatient(withId("A"), withActiveTrue());
+		createPatient(withId("B"), withActiveTrue());
+		createPatient(withId("C"), withActiveTrue());
+		createObservation(withId("OA"), withSubject("Patient/A"));
+		createObservation(withId("OB"), withSubject("Patient/B"));
+
+		BundleBuilder bb = new BundleBuilder(myFhirContext);
+		for (String id : List.of("A", "B")) {
+			Patient pt = new Patient();
+			pt.setId(IdType.newRandomUuid());
+			pt.setActive(true);
+			bb.addTransactionCreateEntry(pt).conditional("Patient?_id=" + id);
+		}
+		for (String id : List.of("A", "B", "C")) {
+			Observation obs = new Observation();
+			obs.setId(IdType.newRandomUuid());
+			obs.setSubject(new Reference("Patient/" + id));
+			bb.addTransactionCreateEntry(obs).conditional("Observation?subject=Patient/" + id);
+		}
+
+		myCaptureQueriesListener.clear();
+		Bundle outcome = mySystemDao.transaction(mySrd, (Bundle) bb.getBundle());
+		myCaptureQueriesListener.logSelectQueries();
+
+		assertThat(outcome.getEntry().stream().map(t -> t.getResponse().getStatus()).toList())
+				.containsExactly("200 OK", "200 OK", "200 OK", "200 OK", "201 Created");
+		assertEquals("Patient/A/_history/1", outcome.getEntry().get(0).getResponse().getLocation());
+		assertEquals("Patient/B/_history/1", outcome.getEntry().get(1).getResponse().getLocation());
+		assertEquals("Observation/OA/_history/1", outcome.getEntry().get(2).getResponse().getLocation());
+		assertEquals("Observation/OB/_history/1", outcome.getEntry().get(3).getResponse().getLocation());
+
+		// Pre-fetch: one query for the _id URLs, one for the reference targets, one for the links
+		// Then: one version lookup per matched resource, and one to resolve the new Observation's subject
+		assertEquals(8, myCaptureQueriesListener.countSelectQueries());
+		assertThat(myCaptureQueriesListener.getSelectQueries().get(0).getSql(true, false)).contains("RES_TYPE='Patient'", "FHIR_ID in (");
+		assertThat(myCaptureQueriesListener.getSelectQueries().get(1).getSql(true, false)).contains("RES_TYPE='Patient'", "FHIR_ID in (", "RES_DELETED_AT is null");
+		assertThat(myCaptureQueriesListener.getSelectQueries().get(2).getSql(true, false)).contains("HFJ_RES_LINK");
+	}
+
 	/**
 	 * See the class javadoc before changing the counts in this test!
 	 */
@@ -2537,7 +2693,7 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		ourLog.debug(myFhirContext.newJsonParser().setPrettyPrint(true).encodeResourceToString(output));
 
 		myCaptureQueriesListener.logSelectQueriesForCurrentThread();
-		assertEquals(3, myCaptureQueriesListener.countSelectQueriesForCurrentThread());
+		assertEquals(2, myCaptureQueriesListener.countSelectQueriesForCurrentThread());
 		myCaptureQueriesListener.logInsertQueriesForCurrentThread();
 		assertEquals(2, myCaptureQueriesListener.countInsertQueriesForCurrentThread());
 		myCaptureQueriesListener.logUpdateQueriesForCurrentThread();
@@ -6,10 +6,15 @@ import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.ReferenceOrListParam;
+import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.param.UriParam;
+import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.SearchParameter;
 import org.junit.jupiter.api.AfterEach;
@@ -17,6 +22,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +42,7 @@ public class FhirResourceDaoR4SearchSqlTest extends BaseJpaR4Test {
 	@AfterEach
 	public void after() {
 		myStorageSettings.setTagStorageMode(JpaStorageSettings.DEFAULT_TAG_STORAGE_MODE);
+		myStorageSettings.setMaterializedPidListThreshold(new JpaStorageSettings().getMaterializedPidListThreshold());
 	}
 
 	/**
@@ -70,6 +78,90 @@ public class FhirResourceDaoR4SearchSqlTest extends BaseJpaR4Test {
 
 	}
 
+	@Test
+	public void testSearchWithLargeIdLists_MaterializedPidList() {
+		myStorageSettings.setMaterializedPidListThreshold(3);
+
+		List<IIdType> patientIds = new ArrayList<>();
+		List<IIdType> observationIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			IIdType patientId = createPatient(withActiveTrue());
+			patientIds.add(patientId);
+			observationIds.add(createObservation(withSubject(patientId)));
+		}
+		createObservation(withSubject(createPatient(withActiveTrue())));
+
+		ReferenceOrListParam subjects = new ReferenceOrListParam();
+		TokenOrListParam ids = new TokenOrListParam();
+		for (IIdType next : patientIds) {
+			subjects.addOr(new ReferenceParam(next.getValue()));
+			ids.addOr(new TokenParam(next.getIdPart()));
+		}
+
+		// Reference parameter
+		myCaptureQueriesListener.clear();
+		SearchParameterMap map = SearchParameterMap.newSynchronous().add(Observation.SP_SUBJECT, subjects);
+		IBundleProvider outcome = myObservationDao.search(map, mySrd);
+		assertThat(toUnqualifiedVersionlessIds(outcome)).containsExactlyInAnyOrderElementsOf(observationIds);
+		String sql = getSearchSql();
+		assertThat(sql).contains("IN (SELECT t1.RESOURCE_PID FROM HFJ_SEARCH_RESULT t1 WHERE (t1.SEARCH_PID = ?))");
+
+		// _id parameter - The same list is stored once and reused
+		myCaptureQueriesListener.clear();
+		map = SearchParameterMap.newSynchronous().add(IAnyResource.SP_RES_ID, ids);
+		outcome = myPatientDao.search(map, mySrd);
+		assertThat(toUnqualifiedVersionlessIds(outcome)).containsExactlyInAnyOrderElementsOf(patientIds);
+		assertThat(getSearchSql()).contains("HFJ_SEARCH_RESULT");
+		assertEquals(0, myCaptureQueriesListener.countInsertQueries());
+
+		// Lists at or below the threshold are placed in the SQL
+		myCaptureQueriesListener.clear();
+		map = SearchParameterMap.newSynchronous().add(IAnyResource.SP_RES_ID, new TokenOrListParam()
+			.addOr(new TokenParam(patientIds.get(0).getIdPart()))
+			.addOr(new TokenParam(patientIds.get(1).getIdPart())));
+		outcome = myPatientDao.search(map, mySrd);
+		assertThat(toUnqualifiedVersionlessIds(outcome)).containsExactlyInAnyOrder(patientIds.get(0), patientIds.get(1));
+		assertThat(getSearchSql()).doesNotContain("HFJ_SEARCH_RESULT");
+	}
+
+	@Test
+	public void testSearchWithLargeIdLists_MaterializedPidListDeleted() {
+		myStorageSettings.setMaterializedPidListThreshold(3);
+
+		List<IIdType> patientIds = new ArrayList<>();
+		TokenOrListParam ids = new TokenOrListParam();
+		for (int i = 0; i < 5; i++) {
+			IIdType patientId = createPatient(withActiveTrue());
+			patientIds.add(patientId);
+			ids.addOr(new TokenParam(patientId.getIdPart()));
+		}
+		SearchParameterMap map = SearchParameterMap.newSynchronous().add(IAnyResource.SP_RES_ID, ids);
+		IBundleProvider outcome = myPatientDao.search(map, mySrd);
+		assertThat(toUnqualifiedVersionlessIds(outcome)).containsExactlyInAnyOrderElementsOf(patientIds);
+
+		// Stored searches are deleted before they expire (e.g. when expunging everything)
+		runInTransaction(() -> {
+			mySearchResultDao.deleteAll();
+			mySearchEntityDao.deleteAll();
+		});
+
+		// The locally cached list no longer exists, so it is stored again
+		myCaptureQueriesListener.clear();
+		map = SearchParameterMap.newSynchronous().add(IAnyResource.SP_RES_ID, ids);
+		outcome = myPatientDao.search(map, mySrd);
+		assertThat(toUnqualifiedVersionlessIds(outcome)).containsExactlyInAnyOrderElementsOf(patientIds);
+		assertThat(getSearchSql()).contains("HFJ_SEARCH_RESULT");
+		assertThat(myCaptureQueriesListener.countInsertQueries()).isGreaterThan(0);
+	}
+
+	private String getSearchSql() {
+		return myCaptureQueriesListener.getSelectQueriesForCurrentThread().stream()
+			.map(t -> t.getSql(false, false))
+			.filter(t -> t.startsWith("SELECT t0.") || t.startsWith("SELECT t1."))
+			.findFirst()
+			.orElseThrow();
+	}
+
 	@Test
 	public void testSearchByProfile_VersionedMode() {
 
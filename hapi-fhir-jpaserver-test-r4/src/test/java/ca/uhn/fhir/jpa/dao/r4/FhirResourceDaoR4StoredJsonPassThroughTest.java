@@ -0,0 +1,181 @@
+package ca.uhn.fhir.jpa.dao.r4;
+
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import ca.uhn.fhir.narrative.INarrativeGenerator;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.util.PreEncodedResourceUtil;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FhirResourceDaoR4StoredJsonPassThroughTest extends BaseJpaR4Test {
+
+	private INarrativeGenerator myNarrativeGenerator;
+
+	@BeforeEach
+	public void beforeEnablePassThrough() {
+		myStorageSettings.setStoredJsonPassThroughEnabled(true);
+		myNarrativeGenerator = myFhirContext.getNarrativeGenerator();
+		myFhirContext.setNarrativeGenerator(null);
+	}
+
+	@AfterEach
+	public void afterDisablePassThrough() {
+		myStorageSettings.setStoredJsonPassThroughEnabled(new JpaStorageSettings().isStoredJsonPassThroughEnabled());
+		myFhirContext.setNarrativeGenerator(myNarrativeGenerator);
+	}
+
+	@Test
+	public void testRead() {
+		IIdType id = createPatient(withActiveTrue(), withFamily("Simpson"), withTag("http://tags", "foo"));
+		String expected = encodeParsedResource(myPatientDao.read(id, mySrd));
+
+		Patient patient = myPatientDao.read(id, newRequest(RestOperationTypeEnum.READ));
+
+		assertNotNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+		assertThat(patient.getName()).isEmpty();
+		assertEquals("1", patient.getIdElement().getVersionIdPart());
+		assertEquals("foo", patient.getMeta().getTagFirstRep().getCode());
+		assertEquals(expected, myFhirContext.newJsonParser().encodeResourceToString(patient));
+
+		// Anything other than a compact JSON encoding inflates the resource
+		assertEquals(
+			myFhirContext.newXmlParser().encodeResourceToString(myPatientDao.read(id, mySrd)),
+			myFhirContext.newXmlParser().encodeResourceToString(patient));
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+	}
+
+	@Test
+	public void testRead_ResourceReadCache() {
+		IIdType id = createPatient(withActiveTrue(), withFamily("Simpson"), withTag("http://tags", "foo"));
+		String expected = encodeParsedResource(myPatientDao.read(id, mySrd));
+
+		myStorageSettings.setResourceReadCacheMillis(DateUtils.MILLIS_PER_MINUTE);
+		try {
+
+			// The first read caches the pre-encoded resource, the second one is served from the cache
+			myPatientDao.read(id, newRequest(RestOperationTypeEnum.READ));
+			myCaptureQueriesListener.clear();
+			Patient patient = myPatientDao.read(id, newRequest(RestOperationTypeEnum.READ));
+			assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).isEmpty();
+
+			assertNotNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+			assertThat(patient.getName()).isEmpty();
+			assertEquals("1", patient.getIdElement().getVersionIdPart());
+			assertEquals("foo", patient.getMeta().getTagFirstRep().getCode());
+			assertEquals(expected, myFhirContext.newJsonParser().encodeResourceToString(patient));
+
+			// Requests which don't allow pass-through get an inflated resource from the same entry
+			myCaptureQueriesListener.clear();
+			patient = myPatientDao.read(id, newRequest(RestOperationTypeEnum.UPDATE));
+			assertThat(myCaptureQueriesListener.getSelectQueriesForCurrentThread()).isEmpty();
+			assertNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+			assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+			assertEquals(expected, myFhirContext.newJsonParser().encodeResourceToString(patient));
+		} finally {
+			myStorageSettings.setResourceReadCacheMillis(new JpaStorageSettings().getResourceReadCacheMillis());
+		}
+	}
+
+	@Test
+	public void testSearch() {
+		createPatient(withId("A"), withActiveTrue(), withFamily("Simpson"));
+		createPatient(withId("B"), withActiveFalse(), withFamily("Flanders"));
+
+		SearchParameterMap map = SearchParameterMap.newSynchronous();
+		map.setSort(new SortSpec(Patient.SP_FAMILY));
+		IBundleProvider outcome = myPatientDao.search(map, newRequest(RestOperationTypeEnum.SEARCH_TYPE));
+		List<IBaseResource> resources = outcome.getResources(0, 2);
+
+		assertThat(resources).hasSize(2);
+		for (IBaseResource next : resources) {
+			assertNotNull(PreEncodedResourceUtil.getPreEncodedElements(next));
+			assertEquals(
+				encodeParsedResource(myPatientDao.read(next.getIdElement(), mySrd)),
+				myFhirContext.newJsonParser().encodeResourceToString(next));
+		}
+	}
+
+	@Test
+	public void testNotUsedWhenNotRequested() {
+		IIdType id = createPatient(withActiveTrue(), withFamily("Simpson"));
+
+		// Summary mode
+		SystemRequestDetails request = newRequest(RestOperationTypeEnum.READ);
+		request.setParameters(Map.of(Constants.PARAM_SUMMARY, new String[]{"true"}));
+		assertReadIsParsed(id, request);
+
+		// XML response
+		request = newRequest(RestOperationTypeEnum.READ);
+		request.setParameters(Map.of(Constants.PARAM_FORMAT, new String[]{"xml"}));
+		assertReadIsParsed(id, request);
+
+		// Not a read or search
+		assertReadIsParsed(id, newRequest(RestOperationTypeEnum.UPDATE));
+
+		// No server
+		request = newRequest(RestOperationTypeEnum.READ);
+		request.setServer(null);
+		assertReadIsParsed(id, request);
+
+		// Disabled
+		myStorageSettings.setStoredJsonPassThroughEnabled(false);
+		assertReadIsParsed(id, newRequest(RestOperationTypeEnum.READ));
+	}
+
+	@Test
+	public void testNotUsedWhenInterceptorNeedsModel() {
+		IIdType id = createPatient(withActiveTrue(), withFamily("Simpson"));
+
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {};
+		myInterceptorRegistry.registerAnonymousInterceptor(Pointcut.STORAGE_PRESHOW_RESOURCES, interceptor);
+		try {
+			assertReadIsParsed(id, newRequest(RestOperationTypeEnum.READ));
+		} finally {
+			myInterceptorRegistry.unregisterInterceptor(interceptor);
+		}
+
+		assertNotNull(PreEncodedResourceUtil.getPreEncodedElements(
+			myPatientDao.read(id, newRequest(RestOperationTypeEnum.READ))));
+	}
+
+	private void assertReadIsParsed(IIdType theId, SystemRequestDetails theRequest) {
+		Patient patient = myPatientDao.read(theId, theRequest);
+		assertNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+	}
+
+	private String encodeParsedResource(IBaseResource theResource) {
+		assertNull(PreEncodedResourceUtil.getPreEncodedElements(theResource));
+		return myFhirContext.newJsonParser().encodeResourceToString(theResource);
+	}
+
+	private SystemRequestDetails newRequest(RestOperationTypeEnum theOperationType) {
+		SystemRequestDetails retVal = new SystemRequestDetails();
+		retVal.setServer(new RestfulServer(myFhirContext));
+		retVal.setRestOperationType(theOperationType);
+		return retVal;
+	}
+}
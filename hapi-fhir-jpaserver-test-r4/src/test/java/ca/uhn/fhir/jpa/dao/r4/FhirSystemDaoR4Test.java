@@ -58,6 +58,7 @@ import org.hl7.fhir.r4.model.Communication;
 import org.hl7.fhir.r4.model.Condition;
 import org.hl7.fhir.r4.model.DateTimeType;
 import org.hl7.fhir.r4.model.DiagnosticReport;
+import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.Encounter;
 import org.hl7.fhir.r4.model.EpisodeOfCare;
 import org.hl7.fhir.r4.model.HumanName;
@@ -77,6 +78,7 @@ import org.hl7.fhir.r4.model.Quantity;
 import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.Resource;
 import org.hl7.fhir.r4.model.ResourceType;
+import org.hl7.fhir.r4.model.SearchParameter;
 import org.hl7.fhir.r4.model.Task;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.AfterEach;
@@ -128,6 +130,7 @@ public class FhirSystemDaoR4Test extends BaseJpaR4SystemTest {
 		myStorageSettings.setNormalizedQuantitySearchLevel(defaults.getNormalizedQuantitySearchLevel());
 		myStorageSettings.setBundleBatchPoolSize(defaults.getBundleBatchPoolSize());
 		myStorageSettings.setBundleBatchMaxPoolSize(defaults.getBundleBatchMaxPoolSize());
+		myStorageSettings.setBundleBatchGroupSize(defaults.getBundleBatchGroupSize());
 		myStorageSettings.setAutoCreatePlaceholderReferenceTargets(defaults.isAutoCreatePlaceholderReferenceTargets());
 		myStorageSettings.setPopulateIdentifierInAutoCreatedPlaceholderReferenceTargets(defaults.isPopulateIdentifierInAutoCreatedPlaceholderReferenceTargets());
 		myStorageSettings.setAutoVersionReferenceAtPaths(defaults.getAutoVersionReferenceAtPaths());
@@ -366,6 +369,116 @@ public class FhirSystemDaoR4Test extends BaseJpaR4SystemTest {
 		assertEquals(Msg.code(2001) + "Resource Patient/BABABABA is not known", oo.getIssue().get(0).getDiagnostics());
 	}
 
+	@Test
+	public void testBatchWithGroupedEntries_OneEntryFails() {
+		myStorageSettings.setBundleBatchGroupSize(3);
+
+		Bundle request = new Bundle();
+		request.setType(BundleType.BATCH);
+		for (int i = 0; i < 5; i++) {
+			Patient p = new Patient();
+			p.addIdentifier().setSystem("urn:system").setValue("FOO" + i);
+			request
+				.addEntry()
+				.setResource(p)
+				.getRequest()
+				.setMethod(HTTPVerb.POST)
+				.setUrl("Patient");
+		}
+
+		// This one will fail since the reference target doesn't exist
+		Observation obs = new Observation();
+		obs.setStatus(ObservationStatus.FINAL);
+		obs.getSubject().setReference("Patient/DOES-NOT-EXIST");
+		request.getEntry().add(1, new BundleEntryComponent());
+		request
+			.getEntry()
+			.get(1)
+			.setResource(obs)
+			.getRequest()
+			.setMethod(HTTPVerb.POST)
+			.setUrl("Observation");
+
+		AtomicInteger precommitCreatedCount = new AtomicInteger();
+		AtomicInteger transactionProcessedCount = new AtomicInteger();
+		mySrdInterceptorService.registerAnonymousInterceptor(Pointcut.STORAGE_PRECOMMIT_RESOURCE_CREATED, (thePointcut, theArgs) -> precommitCreatedCount.incrementAndGet());
+		mySrdInterceptorService.registerAnonymousInterceptor(Pointcut.STORAGE_TRANSACTION_PROCESSED, (thePointcut, theArgs) -> transactionProcessedCount.incrementAndGet());
+
+		myCaptureQueriesListener.clear();
+		Bundle response = mySystemDao.transaction(mySrd, request);
+		ourLog.debug(myFhirContext.newJsonParser().setPrettyPrint(true).encodeResourceToString(response));
+
+		// The first group is rolled back and then retried one entry at a time (2 commits for the
+		// valid entries and 1 rollback for the failing one), and the second group is written in
+		// a single commit
+		assertEquals(3, myCaptureQueriesListener.countCommits());
+		assertEquals(2, myCaptureQueriesListener.countRollbacks());
+
+		assertThat(response.getEntry()).hasSize(6);
+		assertEquals("201 Created", response.getEntry().get(0).getResponse().getStatus());
+		assertThat(response.getEntry().get(1).getResponse().getStatus()).startsWith("400");
+
+		// Hooks are only invoked for the writes which were actually committed
+		assertEquals(5, precommitCreatedCount.get());
+		assertEquals(5, transactionProcessedCount.get());
+		for (int i = 2; i < 6; i++) {
+			assertEquals("201 Created", response.getEntry().get(i).getResponse().getStatus());
+			assertThat(response.getEntry().get(i).getResponse().getLocation()).matches(".*Patient/[0-9]+.*");
+		}
+
+		assertEquals(5, myPatientDao.search(SearchParameterMap.newSynchronous(), mySrd).size());
+		assertEquals(0, myObservationDao.search(SearchParameterMap.newSynchronous(), mySrd).size());
+	}
+
+	@Test
+	public void testBatchWithGroupedEntries_ConditionalEntriesRetriedIndividually() {
+		myStorageSettings.setBundleBatchGroupSize(3);
+
+		BundleBuilder bb = new BundleBuilder(myFhirContext);
+		Patient createdPatient = new Patient();
+		createdPatient.addIdentifier().setSystem("urn:system").setValue("CREATE");
+		bb.addTransactionCreateEntry(createdPatient).conditional("Patient?identifier=urn:system|CREATE");
+
+		// This one will fail since the reference target doesn't exist, so the group is retried
+		Observation obs = new Observation();
+		obs.setStatus(ObservationStatus.FINAL);
+		obs.getSubject().setReference("Patient/DOES-NOT-EXIST");
+		bb.addTransactionCreateEntry(obs);
+
+		Patient updatedPatient = new Patient();
+		updatedPatient.addIdentifier().setSystem("urn:system").setValue("UPDATE");
+		bb.addTransactionUpdateEntry(updatedPatient).conditional("Patient?identifier=urn:system|UPDATE");
+		bb.setType("batch");
+
+		Bundle response = mySystemDao.transaction(mySrd, (Bundle) bb.getBundle());
+		ourLog.debug(myFhirContext.newJsonParser().setPrettyPrint(true).encodeResourceToString(response));
+
+		assertThat(response.getEntry()).hasSize(3);
+		assertEquals("201 Created", response.getEntry().get(0).getResponse().getStatus());
+		assertThat(response.getEntry().get(1).getResponse().getStatus()).startsWith("400");
+		assertEquals("201 Created", response.getEntry().get(2).getResponse().getStatus());
+
+		// The rolled back group didn't leave anything behind, so each entry was written once
+		assertEquals(1, myPatientDao.search(SearchParameterMap.newSynchronous(Patient.SP_IDENTIFIER, new TokenParam("urn:system", "CREATE")), mySrd).size());
+		assertEquals(1, myPatientDao.search(SearchParameterMap.newSynchronous(Patient.SP_IDENTIFIER, new TokenParam("urn:system", "UPDATE")), mySrd).size());
+		assertEquals(2, myPatientDao.search(SearchParameterMap.newSynchronous(), mySrd).size());
+		assertEquals("1", new IdType(response.getEntry().get(0).getResponse().getLocation()).getVersionIdPart());
+		assertEquals("1", new IdType(response.getEntry().get(2).getResponse().getLocation()).getVersionIdPart());
+
+		// Repeating the batch matches the existing resources instead of writing them again
+		bb = new BundleBuilder(myFhirContext);
+		bb.addTransactionCreateEntry(createdPatient).conditional("Patient?identifier=urn:system|CREATE");
+		bb.addTransactionCreateEntry(obs);
+		bb.addTransactionUpdateEntry(updatedPatient).conditional("Patient?identifier=urn:system|UPDATE");
+		bb.setType("batch");
+		response = mySystemDao.transaction(mySrd, (Bundle) bb.getBundle());
+
+		assertEquals("200 OK", response.getEntry().get(0).getResponse().getStatus());
+		assertThat(response.getEntry().get(1).getResponse().getStatus()).startsWith("400");
+		assertEquals("200 OK", response.getEntry().get(2).getResponse().getStatus());
+		assertEquals(2, myPatientDao.search(SearchParameterMap.newSynchronous(), mySrd).size());
+	}
+
 	@Test
 	public void testBatchCreateWithBadSearch() {
 		Bundle request = new Bundle();
@@ -1959,6 +2072,43 @@ public class FhirSystemDaoR4Test extends BaseJpaR4SystemTest {
 
 	}
 
+	/**
+	 * The reference match URL pre-fetch must query the same link source paths that the
+	 * extractor stores, otherwise an existing match is cached as not found and the
+	 * conditional create writes a duplicate.
+	 */
+	@Test
+	public void testTransactionCreateMatchUrlWithReferenceParameterWithParenthesizedPath() {
+		SearchParameter sp = new SearchParameter();
+		sp.setCode("subject-or-focus");
+		sp.addBase("Observation");
+		sp.setType(Enumerations.SearchParamType.REFERENCE);
+		sp.setExpression("(Observation.subject | Observation.focus)");
+		sp.setStatus(Enumerations.PublicationStatus.ACTIVE);
+		mySearchParameterDao.create(sp, mySrd);
+		mySearchParamRegistry.forceRefresh();
+
+		createPatient(withId("A"), withActiveTrue());
+		IIdType obsId = createObservation(withId("OA"), withSubject("Patient/A"));
+
+		Bundle request = new Bundle();
+		request.setType(BundleType.TRANSACTION);
+		Observation o = new Observation();
+		o.getSubject().setReference("Patient/A");
+		request.addEntry()
+				.setResource(o)
+				.getRequest()
+				.setMethod(HTTPVerb.POST)
+				.setIfNoneExist("Observation?subject-or-focus=Patient/A");
+
+		Bundle resp = mySystemDao.transaction(mySrd, request);
+
+		BundleEntryComponent respEntry = resp.getEntry().get(0);
+		assertEquals(Constants.STATUS_HTTP_200_OK + " OK", respEntry.getResponse().getStatus());
+		assertThat(respEntry.getResponse().getLocation()).endsWith(obsId.toUnqualifiedVersionless().getValue() + "/_history/1");
+		assertEquals(1, myObservationDao.search(SearchParameterMap.newSynchronous(), mySrd).size());
+	}
+
 	@Test
 	public void testTransactionCreateMatchUrlWithTwoMatch() {
 		String methodName = "testTransactionCreateMatchUrlWithTwoMatch";
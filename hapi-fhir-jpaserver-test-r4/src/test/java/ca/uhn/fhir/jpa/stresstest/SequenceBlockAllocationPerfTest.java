@@ -0,0 +1,136 @@
+package ca.uhn.fhir.jpa.stresstest;
+
+import ca.uhn.fhir.jpa.model.dialect.HapiSequenceStyleGenerator;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import ca.uhn.fhir.util.BundleBuilder;
+import ca.uhn.fhir.util.StopWatch;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the insert throughput for resources which create a large number of index rows, as
+ * well as the number of sequence round trips needed to allocate their IDs. Run this once with the
+ * default settings and once with larger sequence blocks in order to compare, e.g.:
+ * <pre>
+ * mvn test -Dtest=SequenceBlockAllocationPerfTest
+ * mvn test -Dtest=SequenceBlockAllocationPerfTest -Dhapi_fhir.sequence_generator.increment_size=1000
+ * </pre>
+ */
+@Disabled("Stress test")
+public class SequenceBlockAllocationPerfTest extends BaseJpaR4Test {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(SequenceBlockAllocationPerfTest.class);
+	private static final int BUNDLE_SIZE = 100;
+	private static final int WARMUP_BUNDLES = 5;
+	private static final int BUNDLES = 50;
+
+	@Test
+	public void testInsertThroughput() {
+		for (int i = 0; i < WARMUP_BUNDLES; i++) {
+			mySystemDao.transaction(mySrd, createBundle());
+		}
+
+		List<Bundle> bundles = new ArrayList<>();
+		for (int i = 0; i < BUNDLES; i++) {
+			bundles.add(createBundle());
+		}
+
+		Map<String, Long> sequenceValuesBefore = getSequenceValues();
+		StopWatch sw = new StopWatch();
+		for (Bundle next : bundles) {
+			mySystemDao.transaction(mySrd, next);
+		}
+		long sequenceRoundTrips = countSequenceRoundTrips(sequenceValuesBefore, getSequenceValues());
+
+		int resourceCount = BUNDLES * BUNDLE_SIZE;
+		long indexRowCount = runInTransaction(() -> myResourceIndexedSearchParamTokenDao.count()
+				+ myResourceIndexedSearchParamDateDao.count()
+				+ myResourceIndexedSearchParamQuantityDao.count()
+				+ myResourceLinkDao.count());
+		ourLog.info(
+				"Increment size {}: inserted {} resources in {} - {}/sec - {} sequence round trips ({} index rows in database)",
+				System.getProperty(
+						HapiSequenceStyleGenerator.INCREMENT_SIZE_KEY,
+						Integer.toString(HapiSequenceStyleGenerator.DEFAULT_INCREMENT_SIZE)),
+				resourceCount,
+				sw,
+				sw.formatThroughput(resourceCount, TimeUnit.SECONDS),
+				sequenceRoundTrips,
+				indexRowCount);
+		assertThat(sequenceRoundTrips).isGreaterThan(0);
+	}
+
+	private Bundle createBundle() {
+		BundleBuilder bb = new BundleBuilder(myFhirContext);
+		for (int i = 0; i < BUNDLE_SIZE; i++) {
+			Patient patient = new Patient();
+			patient.setId(IdType.newRandomUuid());
+			patient.addIdentifier().setSystem("http://mrn").setValue(IdType.newRandomUuid().getIdPart());
+			patient.setActive(true);
+			bb.addTransactionCreateEntry(patient);
+
+			Observation obs = new Observation();
+			obs.setStatus(Observation.ObservationStatus.FINAL);
+			obs.setSubject(new Reference(patient.getIdElement()));
+			obs.setEffective(DateTimeType.now());
+			for (int j = 0; j < 5; j++) {
+				obs.getCode().addCoding().setSystem("http://loinc.org").setCode("code" + j);
+				obs.addComponent()
+						.setValue(new Quantity().setValue(j).setSystem("http://unitsofmeasure.org").setCode("mg"))
+						.getCode()
+						.addCoding()
+						.setSystem("http://loinc.org")
+						.setCode("component" + j);
+			}
+			bb.addTransactionCreateEntry(obs);
+		}
+		return (Bundle) bb.getBundle();
+	}
+
+	/**
+	 * Each round trip advances a sequence by its increment, so the number of round
+	 * trips can be derived from the sequence values before and after the test.
+	 */
+	private long countSequenceRoundTrips(Map<String, Long> theBefore, Map<String, Long> theAfter) {
+		Map<String, Long> increments = runInTransaction(() -> querySequences("INCREMENT"));
+		long retVal = 0;
+		for (Map.Entry<String, Long> next : theAfter.entrySet()) {
+			long delta = next.getValue() - theBefore.getOrDefault(next.getKey(), next.getValue());
+			retVal += delta / increments.get(next.getKey());
+		}
+		return retVal;
+	}
+
+	private Map<String, Long> getSequenceValues() {
+		return runInTransaction(() -> querySequences("BASE_VALUE"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Long> querySequences(String theColumn) {
+		List<Object[]> rows = myEntityManager
+				.createNativeQuery("SELECT SEQUENCE_NAME, " + theColumn + " FROM INFORMATION_SCHEMA.SEQUENCES")
+				.getResultList();
+		Map<String, Long> retVal = new HashMap<>();
+		for (Object[] next : rows) {
+			retVal.put((String) next[0], ((Number) next[1]).longValue());
+		}
+		return retVal;
+	}
+}
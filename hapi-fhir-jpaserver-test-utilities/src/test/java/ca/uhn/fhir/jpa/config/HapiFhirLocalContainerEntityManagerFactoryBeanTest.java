@@ -1,5 +1,7 @@
 package ca.uhn.fhir.jpa.config;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 
@@ -27,4 +29,16 @@ class HapiFhirLocalContainerEntityManagerFactoryBeanTest {
 		assertThat(myBean.getJpaPropertyMap()).containsEntry("theKey", "hook1,hook2,theHookClass");
 	}
 
+	@Test
+	void testSequenceIncrementMismatchStrategyDefaultsToFix() {
+		assertThat(myBean.getJpaPropertyMap()).containsEntry(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX);
+	}
+
+	@Test
+	void testSequenceIncrementMismatchStrategyNotOverridden() {
+		myBean.getJpaPropertyMap().put(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "exception");
+
+		assertThat(myBean.getJpaPropertyMap()).containsEntry(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "exception");
+	}
+
 }
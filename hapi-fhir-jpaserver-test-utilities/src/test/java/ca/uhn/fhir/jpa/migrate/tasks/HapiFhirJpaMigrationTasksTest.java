@@ -98,6 +98,35 @@ public class HapiFhirJpaMigrationTasksTest {
 		assertThat(row.get("HASH_COMPLETE_2")).as(row::toString).isEqualTo(-1513800680307323438L);
 	}
 
+	@Test
+	public void testLargeIdGeneratorBlocks() {
+		HapiMigrator migrator = new HapiMigrator(MIGRATION_TABLE_NAME, myDataSource, DriverTypeEnum.H2_EMBEDDED);
+		migrator.addTask(new InitializeSchemaTask("7.2.0", "20180115.0",
+			new SchemaInitializationProvider(
+				"HAPI FHIR", "/jpa_h2_schema_720", "HFJ_RESOURCE", true)));
+		migrator.createMigrationTableIfRequired();
+		migrator.migrate();
+
+		// Without the flag, the sequence increments are left alone
+		HapiFhirJpaMigrationTasks tasks = new HapiFhirJpaMigrationTasks(Set.of());
+		migrator.addTasks(tasks.getAllTasks(VersionEnum.V7_3_0, VersionEnum.V7_6_0));
+		migrator.migrate();
+		assertEquals(50L, getSequenceIncrement("SEQ_SPIDX_TOKEN"));
+
+		// With the flag, the high volume sequences are modified
+		tasks = new HapiFhirJpaMigrationTasks(Set.of(HapiFhirJpaMigrationTasks.FlagEnum.LARGE_ID_GENERATOR_BLOCKS.getCommandLineValue()));
+		migrator.addTasks(tasks.getAllTasks(VersionEnum.V7_3_0, VersionEnum.V7_6_0));
+		migrator.migrate();
+		assertEquals(1000L, getSequenceIncrement("SEQ_SPIDX_TOKEN"));
+		assertEquals(1000L, getSequenceIncrement("SEQ_RESLINK_ID"));
+		assertEquals(50L, getSequenceIncrement("SEQ_TAGDEF_ID"));
+	}
+
+	private long getSequenceIncrement(String theSequenceName) {
+		Number increment = myJdbcTemplate.queryForObject("SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Number.class, theSequenceName);
+		return increment.longValue();
+	}
+
 	private void insertRow_ResourceIndexedComboStringUnique() {
 		myJdbcTemplate.execute(
 			"""
@@ -0,0 +1,41 @@
+/*-
+ * #%L
+ * HAPI FHIR - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.mdm.api;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.List;
+
+/**
+ * Matches a batch of resources directly, as an alternative to submitting them to the MDM channel
+ * one at a time using {@link IMdmChannelSubmitterSvc}.
+ *
+ * @see IMdmSettings#isBatchMatchingEnabled()
+ * @since 7.6.0
+ */
+public interface IMdmBatchMatchingSvc {
+
+	/**
+	 * Apply MDM processing to the given resources, returning once all of them have been processed.
+	 *
+	 * @param theResources the resources that should have MDM processing applied to them.
+	 */
+	void matchResources(List<IBaseResource> theResources);
+}
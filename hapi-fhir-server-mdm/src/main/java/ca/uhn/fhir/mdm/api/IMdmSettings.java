@@ -72,4 +72,29 @@ public interface IMdmSettings {
 	default void setAutoExpungeGoldenResources(boolean theShouldAutoExpunge) {
 		throw new UnsupportedOperationException(Msg.code(2427));
 	}
+
+	/**
+	 * If enabled, a blocking key index is maintained for MDM resources, and MDM candidates are found
+	 * with a single lookup in this index instead of one search per candidate search parameter.
+	 * Blocking keys match normalized candidate search parameter values exactly, so this should only be
+	 * enabled when the candidate search parameters do not rely on prefix or range matching.
+	 *
+	 * @since 7.6.0
+	 */
+	default boolean isBlockingKeyIndexEnabled() {
+		return false;
+	}
+
+	/**
+	 * If enabled, resources submitted using the <code>$mdm-submit</code> batch job are matched directly by the
+	 * job instead of being sent to the MDM channel one at a time. Resources are matched in parallel, in
+	 * groups per database transaction, but resources with blocking keys in common
+	 * (see {@link #isBlockingKeyIndexEnabled()}) are never matched at the same time by a server. If the
+	 * blocking key index is disabled, resources are not matched in parallel.
+	 *
+	 * @since 7.6.0
+	 */
+	default boolean isBatchMatchingEnabled() {
+		return false;
+	}
 }
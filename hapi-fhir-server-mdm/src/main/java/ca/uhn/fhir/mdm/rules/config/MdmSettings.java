@@ -57,6 +57,9 @@ public class MdmSettings implements IMdmSettings {
 	 */
 	private int myCandidateSearchLimit = DEFAULT_CANDIDATE_SEARCH_LIMIT;
 
+	private boolean myBlockingKeyIndexEnabled;
+	private boolean myBatchMatchingEnabled;
+
 	@Autowired
 	public MdmSettings(IMdmRuleValidator theMdmRuleValidator) {
 		myMdmRuleValidator = theMdmRuleValidator;
@@ -169,4 +172,30 @@ public class MdmSettings implements IMdmSettings {
 	public void setAutoExpungeGoldenResources(boolean theShouldAutoExpunge) {
 		myShouldAutoDeleteGoldenResources = theShouldAutoExpunge;
 	}
+
+	@Override
+	public boolean isBlockingKeyIndexEnabled() {
+		return myBlockingKeyIndexEnabled;
+	}
+
+	/**
+	 * @see #isBlockingKeyIndexEnabled()
+	 * @since 7.6.0
+	 */
+	public void setBlockingKeyIndexEnabled(boolean theBlockingKeyIndexEnabled) {
+		myBlockingKeyIndexEnabled = theBlockingKeyIndexEnabled;
+	}
+
+	@Override
+	public boolean isBatchMatchingEnabled() {
+		return myBatchMatchingEnabled;
+	}
+
+	/**
+	 * @see #isBatchMatchingEnabled()
+	 * @since 7.6.0
+	 */
+	public void setBatchMatchingEnabled(boolean theBatchMatchingEnabled) {
+		myBatchMatchingEnabled = theBatchMatchingEnabled;
+	}
 }
@@ -20,15 +20,16 @@
 package ca.uhn.fhir.mdm.rules.matcher.fieldmatchers;
 
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
-import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
+import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFeatureFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.util.StringMatcherUtils;
+import jakarta.annotation.Nonnull;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 /**
  * Similarity measure for two IBase fields whose similarity can be measured by their String representations.
  */
-public class HapiStringMatcher implements IMdmFieldMatcher {
+public class HapiStringMatcher implements IMdmFeatureFieldMatcher {
 
 	@Override
 	public boolean matches(IBase theLeftBase, IBase theRightBase, MdmMatcherJson theExtraMatchParams) {
@@ -42,4 +43,18 @@ public class HapiStringMatcher implements IMdmFieldMatcher {
 		}
 		return false;
 	}
+
+	@Override
+	public Object extractFeature(IBase theValue, MdmMatcherJson theParams) {
+		if (theValue instanceof IPrimitiveType) {
+			return StringMatcherUtils.extractString((IPrimitiveType<?>) theValue, theParams.getExact());
+		}
+		return null;
+	}
+
+	@Override
+	public boolean matchesFeatures(
+			@Nonnull Object theLeftFeature, @Nonnull Object theRightFeature, MdmMatcherJson theParams) {
+		return theLeftFeature.equals(theRightFeature);
+	}
 }
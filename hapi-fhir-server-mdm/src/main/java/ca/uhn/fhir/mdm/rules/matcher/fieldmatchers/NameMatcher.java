@@ -21,9 +21,10 @@ package ca.uhn.fhir.mdm.rules.matcher.fieldmatchers;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
-import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
+import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFeatureFieldMatcher;
 import ca.uhn.fhir.mdm.util.NameUtil;
 import ca.uhn.fhir.util.StringUtil;
+import jakarta.annotation.Nonnull;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IBase;
 
@@ -33,7 +34,7 @@ import java.util.stream.Collectors;
 /**
  * Similarity measure for two IBase name fields
  */
-public class NameMatcher implements IMdmFieldMatcher {
+public class NameMatcher implements IMdmFeatureFieldMatcher {
 
 	private final MdmNameMatchModeEnum myMatchMode;
 
@@ -46,37 +47,60 @@ public class NameMatcher implements IMdmFieldMatcher {
 
 	@Override
 	public boolean matches(IBase theLeftBase, IBase theRightBase, MdmMatcherJson theParams) {
-		String leftFamilyName = NameUtil.extractFamilyName(myFhirContext, theLeftBase);
-		String rightFamilyName = NameUtil.extractFamilyName(myFhirContext, theRightBase);
-		if (StringUtils.isEmpty(leftFamilyName) || StringUtils.isEmpty(rightFamilyName)) {
-			return false;
-		}
+		NameFeature left = extractFeature(theLeftBase, theParams);
+		NameFeature right = extractFeature(theRightBase, theParams);
+		return left != null && right != null && matchesFeatures(left, right, theParams);
+	}
 
-		boolean match = false;
+	@Override
+	public NameFeature extractFeature(IBase theValue, MdmMatcherJson theParams) {
+		String familyName = NameUtil.extractFamilyName(myFhirContext, theValue);
+		if (StringUtils.isEmpty(familyName)) {
+			return null;
+		}
 
-		List<String> leftGivenNames = NameUtil.extractGivenNames(myFhirContext, theLeftBase);
-		List<String> rightGivenNames = NameUtil.extractGivenNames(myFhirContext, theRightBase);
+		List<String> givenNames = NameUtil.extractGivenNames(myFhirContext, theValue);
 
 		if (!theParams.getExact()) {
-			leftFamilyName = StringUtil.normalizeStringForSearchIndexing(leftFamilyName);
-			rightFamilyName = StringUtil.normalizeStringForSearchIndexing(rightFamilyName);
-			leftGivenNames = leftGivenNames.stream()
-					.map(StringUtil::normalizeStringForSearchIndexing)
-					.collect(Collectors.toList());
-			rightGivenNames = rightGivenNames.stream()
+			familyName = StringUtil.normalizeStringForSearchIndexing(familyName);
+			givenNames = givenNames.stream()
 					.map(StringUtil::normalizeStringForSearchIndexing)
 					.collect(Collectors.toList());
 		}
 
-		for (String leftGivenName : leftGivenNames) {
-			for (String rightGivenName : rightGivenNames) {
-				match |= leftGivenName.equals(rightGivenName) && leftFamilyName.equals(rightFamilyName);
+		return new NameFeature(familyName, givenNames);
+	}
+
+	@Override
+	public boolean matchesFeatures(
+			@Nonnull Object theLeftFeature, @Nonnull Object theRightFeature, MdmMatcherJson theParams) {
+		NameFeature left = (NameFeature) theLeftFeature;
+		NameFeature right = (NameFeature) theRightFeature;
+
+		boolean match = false;
+
+		for (String leftGivenName : left.myGivenNames) {
+			for (String rightGivenName : right.myGivenNames) {
+				match |= leftGivenName.equals(rightGivenName) && left.myFamilyName.equals(right.myFamilyName);
 				if (myMatchMode == MdmNameMatchModeEnum.ANY_ORDER) {
-					match |= leftGivenName.equals(rightFamilyName) && leftFamilyName.equals(rightGivenName);
+					match |= leftGivenName.equals(right.myFamilyName) && left.myFamilyName.equals(rightGivenName);
 				}
 			}
 		}
 
 		return match;
 	}
+
+	/**
+	 * The extracted (and normalized, unless exact matching was requested) family and given names
+	 */
+	private static class NameFeature {
+		private final String myFamilyName;
+		private final List<String> myGivenNames;
+
+		private NameFeature(String theFamilyName, List<String> theGivenNames) {
+			myFamilyName = theFamilyName;
+			myGivenNames = theGivenNames;
+		}
+	}
 }
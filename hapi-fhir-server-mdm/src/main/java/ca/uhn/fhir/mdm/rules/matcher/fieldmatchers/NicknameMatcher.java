@@ -21,15 +21,16 @@ package ca.uhn.fhir.mdm.rules.matcher.fieldmatchers;
 
 import ca.uhn.fhir.jpa.nickname.INicknameSvc;
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
-import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
+import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFeatureFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.util.StringMatcherUtils;
+import jakarta.annotation.Nonnull;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 import java.util.Collection;
 import java.util.Locale;
 
-public class NicknameMatcher implements IMdmFieldMatcher {
+public class NicknameMatcher implements IMdmFeatureFieldMatcher {
 	private final INicknameSvc myNicknameSvc;
 
 	public NicknameMatcher(INicknameSvc theNicknameSvc) {
@@ -60,4 +61,38 @@ public class NicknameMatcher implements IMdmFieldMatcher {
 		}
 		return false;
 	}
+
+	/**
+	 * The feature for a nickname matcher is the lowercased name along with all of its equivalent
+	 * names, so the nickname lookup only happens once per value.
+	 */
+	@Override
+	public Object extractFeature(IBase theValue, MdmMatcherJson theParams) {
+		if (theValue instanceof IPrimitiveType) {
+			String string = StringMatcherUtils.extractString((IPrimitiveType<?>) theValue, theParams.getExact());
+			if (string != null) {
+				String name = string.toLowerCase(Locale.ROOT);
+				return new NicknameFeature(name, myNicknameSvc.getEquivalentNames(name));
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean matchesFeatures(
+			@Nonnull Object theLeftFeature, @Nonnull Object theRightFeature, MdmMatcherJson theParams) {
+		NicknameFeature left = (NicknameFeature) theLeftFeature;
+		NicknameFeature right = (NicknameFeature) theRightFeature;
+		return left.myEquivalentNames.contains(right.myName) || right.myEquivalentNames.contains(left.myName);
+	}
+
+	private static class NicknameFeature {
+		private final String myName;
+		private final Collection<String> myEquivalentNames;
+
+		private NicknameFeature(String theName, Collection<String> theEquivalentNames) {
+			myName = theName;
+			myEquivalentNames = theEquivalentNames;
+		}
+	}
 }
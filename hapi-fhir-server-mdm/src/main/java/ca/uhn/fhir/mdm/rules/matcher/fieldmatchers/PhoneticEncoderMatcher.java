@@ -22,15 +22,16 @@ package ca.uhn.fhir.mdm.rules.matcher.fieldmatchers;
 import ca.uhn.fhir.context.phonetic.IPhoneticEncoder;
 import ca.uhn.fhir.context.phonetic.PhoneticEncoderEnum;
 import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
-import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
+import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFeatureFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.util.StringMatcherUtils;
 import ca.uhn.fhir.util.PhoneticEncoderUtil;
+import jakarta.annotation.Nonnull;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PhoneticEncoderMatcher implements IMdmFieldMatcher {
+public class PhoneticEncoderMatcher implements IMdmFeatureFieldMatcher {
 	private static final Logger ourLog = LoggerFactory.getLogger(PhoneticEncoderMatcher.class);
 
 	private final IPhoneticEncoder myStringEncoder;
@@ -58,4 +59,46 @@ public class PhoneticEncoderMatcher implements IMdmFieldMatcher {
 				theRightBase.getClass().getSimpleName());
 		return false;
 	}
+
+	/**
+	 * The feature for a phonetic matcher is the encoded value, so each value only needs to be
+	 * encoded once no matter how many other values it is compared against.
+	 */
+	@Override
+	public Object extractFeature(IBase theValue, MdmMatcherJson theParams) {
+		String typeName = theValue.getClass().getSimpleName();
+		if (theValue instanceof IPrimitiveType) {
+			String string = StringMatcherUtils.extractString((IPrimitiveType<?>) theValue, theParams.getExact());
+			return string != null ? new EncodedValue(typeName, myStringEncoder.encode(string)) : null;
+		}
+		return new EncodedValue(typeName, null);
+	}
+
+	@Override
+	public boolean matchesFeatures(
+			@Nonnull Object theLeftFeature, @Nonnull Object theRightFeature, MdmMatcherJson theParams) {
+		EncodedValue left = (EncodedValue) theLeftFeature;
+		EncodedValue right = (EncodedValue) theRightFeature;
+		if (left.myEncoded != null && right.myEncoded != null) {
+			return left.myEncoded.equals(right.myEncoded);
+		}
+		ourLog.warn(
+				"Unable to evaluate match between {} and {} because they are not an instance of PrimitiveType.",
+				left.myTypeName,
+				right.myTypeName);
+		return false;
+	}
+
+	/**
+	 * The encoded value, which is <code>null</code> if the value is not a primitive
+	 */
+	private static class EncodedValue {
+		private final String myTypeName;
+		private final String myEncoded;
+
+		private EncodedValue(String theTypeName, String theEncoded) {
+			myTypeName = theTypeName;
+			myEncoded = theEncoded;
+		}
+	}
 }
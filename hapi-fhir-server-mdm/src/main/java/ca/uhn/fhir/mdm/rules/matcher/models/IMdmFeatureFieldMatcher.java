@@ -0,0 +1,54 @@
+/*-
+ * #%L
+ * HAPI FHIR - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.mdm.rules.matcher.models;
+
+import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBase;
+
+/**
+ * An {@link IMdmFieldMatcher} which is able to reduce a single field value to a precomputed match
+ * feature (e.g. a normalized string or a phonetic encoding). Features are extracted once per resource
+ * and compared pairwise, so the work of normalizing or encoding a value is not repeated for every
+ * resource it is compared against.
+ * <p>
+ * Implementations must ensure that {@link #matches(IBase, IBase, MdmMatcherJson)} returns the same
+ * result as extracting the features of both values and passing them to
+ * {@link #matchesFeatures(Object, Object, MdmMatcherJson)}.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public interface IMdmFeatureFieldMatcher extends IMdmFieldMatcher {
+
+	/**
+	 * Extracts the match feature for a single field value
+	 *
+	 * @return The feature, or <code>null</code> if the value can never match anything
+	 */
+	@Nullable
+	Object extractFeature(IBase theValue, MdmMatcherJson theParams);
+
+	/**
+	 * Compares two features previously returned by {@link #extractFeature(IBase, MdmMatcherJson)}
+	 */
+	boolean matchesFeatures(@Nonnull Object theLeftFeature, @Nonnull Object theRightFeature, MdmMatcherJson theParams);
+}
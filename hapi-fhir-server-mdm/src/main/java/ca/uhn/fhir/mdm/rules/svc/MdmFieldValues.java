@@ -0,0 +1,53 @@
+/*-
+ * #%L
+ * HAPI FHIR - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.mdm.rules.svc;
+
+import org.hl7.fhir.instance.model.api.IBase;
+
+import java.util.List;
+
+/**
+ * The values of a single match field extracted from a single resource by
+ * {@link MdmResourceFieldMatcher#extractFieldValues(org.hl7.fhir.instance.model.api.IBaseResource)}
+ */
+class MdmFieldValues {
+	private final List<IBase> myValues;
+	private final List<Object> myFeatures;
+
+	MdmFieldValues(List<IBase> theValues, List<Object> theFeatures) {
+		myValues = theValues;
+		myFeatures = theFeatures;
+	}
+
+	List<IBase> getValues() {
+		return myValues;
+	}
+
+	/**
+	 * One feature per value, or <code>null</code> if the field matcher does not support features
+	 */
+	List<Object> getFeatures() {
+		return myFeatures;
+	}
+
+	boolean hasFeatures() {
+		return myFeatures != null;
+	}
+}
@@ -28,6 +28,7 @@ import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
 import ca.uhn.fhir.mdm.rules.json.MdmRulesJson;
 import ca.uhn.fhir.mdm.rules.json.MdmSimilarityJson;
 import ca.uhn.fhir.mdm.rules.matcher.IMatcherFactory;
+import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFeatureFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.models.IMdmFieldMatcher;
 import ca.uhn.fhir.mdm.rules.matcher.models.MatchTypeEnum;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
@@ -36,6 +37,7 @@ import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -56,6 +58,8 @@ public class MdmResourceFieldMatcher {
 	private final boolean myIsFhirPathExpression;
 
 	private final IMatcherFactory myIMatcherFactory;
+	private volatile IMdmFieldMatcher myFieldMatcher;
+	private volatile boolean myFieldMatcherResolved;
 
 	public MdmResourceFieldMatcher(
 			FhirContext theFhirContext,
@@ -86,35 +90,59 @@ public class MdmResourceFieldMatcher {
 	 * @return A boolean indicating whether they match.
 	 */
 	public MdmMatchEvaluation match(IBaseResource theLeftResource, IBaseResource theRightResource) {
-		validate(theLeftResource);
-		validate(theRightResource);
+		MdmFieldValues leftValues = extractFieldValues(theLeftResource);
+		MdmFieldValues rightValues = extractFieldValues(theRightResource);
+		return match(leftValues, rightValues);
+	}
 
-		List<IBase> leftValues;
-		List<IBase> rightValues;
+	/**
+	 * Extracts the values of this field from the given resource, along with the match feature of each
+	 * value if the field matcher is an {@link IMdmFeatureFieldMatcher}. The result can be passed to
+	 * {@link #match(MdmFieldValues, MdmFieldValues)} any number of times.
+	 */
+	MdmFieldValues extractFieldValues(IBaseResource theResource) {
+		validate(myFhirContext.getResourceType(theResource));
 
+		List<IBase> values;
 		if (myIsFhirPathExpression) {
 			IFhirPath fhirPath = myFhirContext.newFhirPath();
-			leftValues = fhirPath.evaluate(theLeftResource, myFhirPath, IBase.class);
-			rightValues = fhirPath.evaluate(theRightResource, myFhirPath, IBase.class);
+			values = fhirPath.evaluate(theResource, myFhirPath, IBase.class);
 		} else {
 			FhirTerser fhirTerser = myFhirContext.newTerser();
-			leftValues = fhirTerser.getValues(theLeftResource, myResourcePath, IBase.class);
-			rightValues = fhirTerser.getValues(theRightResource, myResourcePath, IBase.class);
+			values = fhirTerser.getValues(theResource, myResourcePath, IBase.class);
 		}
-		return match(leftValues, rightValues);
+
+		List<Object> features = null;
+		IMdmFieldMatcher matcher = getFieldMatcher();
+		if (matcher instanceof IMdmFeatureFieldMatcher) {
+			IMdmFeatureFieldMatcher featureMatcher = (IMdmFeatureFieldMatcher) matcher;
+			features = new ArrayList<>(values.size());
+			for (IBase next : values) {
+				features.add(featureMatcher.extractFeature(next, myMdmFieldMatchJson.getMatcher()));
+			}
+		}
+
+		return new MdmFieldValues(values, features);
 	}
 
-	private MdmMatchEvaluation match(List<IBase> theLeftValues, List<IBase> theRightValues) {
+	MdmMatchEvaluation match(MdmFieldValues theLeftValues, MdmFieldValues theRightValues) {
 		MdmMatchEvaluation retval = new MdmMatchEvaluation(false, 0.0);
 
-		boolean isMatchingEmptyFieldValues = (theLeftValues.isEmpty() && theRightValues.isEmpty());
+		List<IBase> leftValues = theLeftValues.getValues();
+		List<IBase> rightValues = theRightValues.getValues();
+		boolean isMatchingEmptyFieldValues = (leftValues.isEmpty() && rightValues.isEmpty());
 		IMdmFieldMatcher matcher = getFieldMatcher();
 		if (isMatchingEmptyFieldValues && (matcher != null && matcher.isMatchingEmptyFields())) {
 			return match((IBase) null, (IBase) null);
 		}
 
-		for (IBase leftValue : theLeftValues) {
-			for (IBase rightValue : theRightValues) {
+		if (matcher instanceof IMdmFeatureFieldMatcher && theLeftValues.hasFeatures() && theRightValues.hasFeatures()) {
+			return matchFeatures(
+					(IMdmFeatureFieldMatcher) matcher, theLeftValues.getFeatures(), theRightValues.getFeatures());
+		}
+
+		for (IBase leftValue : leftValues) {
+			for (IBase rightValue : rightValues) {
 				MdmMatchEvaluation nextMatch = match(leftValue, rightValue);
 				retval = MdmMatchEvaluation.max(retval, nextMatch);
 			}
@@ -123,6 +151,23 @@ public class MdmResourceFieldMatcher {
 		return retval;
 	}
 
+	private MdmMatchEvaluation matchFeatures(
+			IMdmFeatureFieldMatcher theMatcher, List<Object> theLeftFeatures, List<Object> theRightFeatures) {
+		MdmMatcherJson params = myMdmFieldMatchJson.getMatcher();
+		for (Object leftFeature : theLeftFeatures) {
+			if (leftFeature == null) {
+				continue;
+			}
+			for (Object rightFeature : theRightFeatures) {
+				if (rightFeature != null && theMatcher.matchesFeatures(leftFeature, rightFeature, params)) {
+					// Matchers only ever score 1.0 or 0.0, so there is no need to look any further
+					return new MdmMatchEvaluation(true, 1.0);
+				}
+			}
+		}
+		return new MdmMatchEvaluation(false, 0.0);
+	}
+
 	private MdmMatchEvaluation match(IBase theLeftValue, IBase theRightValue) {
 		IMdmFieldMatcher matcher = getFieldMatcher();
 		if (matcher != null) {
@@ -139,24 +184,26 @@ public class MdmResourceFieldMatcher {
 				Msg.code(1522) + "Field Match " + myName + " has neither a matcher nor a similarity.");
 	}
 
-	private void validate(IBaseResource theResource) {
-		String resourceType = myFhirContext.getResourceType(theResource);
-		Validate.notNull(resourceType, "Resource type may not be null");
+	/**
+	 * Throws an {@link IllegalArgumentException} if resources of the given type can not be compared by this field matcher
+	 */
+	void validate(String theResourceType) {
+		Validate.notNull(theResourceType, "Resource type may not be null");
 
 		if (ALL_RESOURCE_SEARCH_PARAM_TYPE.equals(myResourceType)) {
-			boolean isMdmType =
-					myMdmRulesJson.getMdmTypes().stream().anyMatch(mdmType -> mdmType.equalsIgnoreCase(resourceType));
+			boolean isMdmType = myMdmRulesJson.getMdmTypes().stream()
+					.anyMatch(mdmType -> mdmType.equalsIgnoreCase(theResourceType));
 			Validate.isTrue(
 					isMdmType,
 					"Expecting resource type %s, got resource type %s",
 					myMdmRulesJson.getMdmTypes().stream().collect(Collectors.joining(",")),
-					resourceType);
+					theResourceType);
 		} else {
 			Validate.isTrue(
-					myResourceType.equals(resourceType),
+					myResourceType.equals(theResourceType),
 					"Expecting resource type %s got resource type %s",
 					myResourceType,
-					resourceType);
+					theResourceType);
 		}
 	}
 
@@ -173,6 +220,14 @@ public class MdmResourceFieldMatcher {
 	}
 
 	private IMdmFieldMatcher getFieldMatcher() {
+		if (!myFieldMatcherResolved) {
+			myFieldMatcher = resolveFieldMatcher();
+			myFieldMatcherResolved = true;
+		}
+		return myFieldMatcher;
+	}
+
+	private IMdmFieldMatcher resolveFieldMatcher() {
 		MdmMatcherJson matcherJson = myMdmFieldMatchJson.getMatcher();
 		MatchTypeEnum matchTypeEnum = null;
 		if (matcherJson != null) {
@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * HAPI FHIR - Master Data Management
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.mdm.rules.svc;
+
+/**
+ * The values of every applicable match field, extracted from a single resource by
+ * {@link MdmResourceMatcherSvc#extractMatchFeatures(org.hl7.fhir.instance.model.api.IBaseResource)}.
+ * Instances can be compared against any number of other resources using
+ * {@link MdmResourceMatcherSvc#getMatchResult(MdmResourceMatchFeatures, MdmResourceMatchFeatures)}
+ * without extracting or normalizing the field values again.
+ *
+ * @since 7.6.0
+ */
+public class MdmResourceMatchFeatures {
+	private final String myResourceType;
+	private final String myResourceId;
+	private final MdmFieldValues[] myFieldValues;
+
+	MdmResourceMatchFeatures(String theResourceType, String theResourceId, MdmFieldValues[] theFieldValues) {
+		myResourceType = theResourceType;
+		myResourceId = theResourceId;
+		myFieldValues = theFieldValues;
+	}
+
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	/**
+	 * The unqualified versionless ID of the resource, used for logging
+	 */
+	public String getResourceId() {
+		return myResourceId;
+	}
+
+	/**
+	 * Returns the values for the field matcher at the given index, or <code>null</code> if the
+	 * field matcher does not apply to this resource type
+	 */
+	MdmFieldValues getFieldValues(int theFieldMatcherIndex) {
+		return myFieldValues[theFieldMatcherIndex];
+	}
+}
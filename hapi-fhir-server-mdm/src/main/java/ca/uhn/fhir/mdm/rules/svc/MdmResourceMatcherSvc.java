@@ -31,13 +31,20 @@ import ca.uhn.fhir.mdm.log.Logs;
 import ca.uhn.fhir.mdm.rules.json.MdmFieldMatchJson;
 import ca.uhn.fhir.mdm.rules.json.MdmRulesJson;
 import ca.uhn.fhir.mdm.rules.matcher.IMatcherFactory;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
 import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The MdmResourceComparator is in charge of performing actual comparisons between left and right records.
@@ -47,10 +54,13 @@ import java.util.List;
 @Service
 public class MdmResourceMatcherSvc {
 	private static final Logger ourLog = Logs.getMdmTroubleshootingLog();
+	private static final int CANDIDATE_FEATURE_CACHE_SIZE = 10000;
 
 	private final FhirContext myFhirContext;
 	private final IMatcherFactory myMatcherFactory;
 	private final List<MdmResourceFieldMatcher> myFieldMatchers = new ArrayList<>();
+	private final Cache<String, MdmResourceMatchFeatures> myCandidateFeatureCache =
+			CacheFactory.build(TimeUnit.MINUTES.toMillis(10), CANDIDATE_FEATURE_CACHE_SIZE);
 
 	private MdmRulesJson myMdmRulesJson;
 
@@ -87,16 +97,38 @@ public class MdmResourceMatcherSvc {
 		return match(theLeftResource, theRightResource);
 	}
 
-	MdmMatchOutcome match(IBaseResource theLeftResource, IBaseResource theRightResource) {
-		MdmMatchOutcome matchResult = getMatchOutcome(theLeftResource, theRightResource);
+	/**
+	 * Compares a single resource against a collection of candidate resources. This produces the same results
+	 * as calling {@link #getMatchResult(IBaseResource, IBaseResource)} for each candidate, but the match fields
+	 * of the left resource are only extracted and normalized once, and the match fields of each candidate are
+	 * cached by resource version so that they are not extracted again when the same candidate version is
+	 * compared in a later match round.
+	 *
+	 * @param theLeftResource       The resource being matched
+	 * @param theCandidateResources The candidate resources. These should be stored resources (i.e. they should have
+	 *                              a resource ID, version and last updated date) in order for their features to be cached.
+	 * @return One outcome per candidate, in the same order as the candidates
+	 */
+	public List<MdmMatchOutcome> getMatchResults(
+			IBaseResource theLeftResource, Collection<? extends IBaseResource> theCandidateResources) {
+		MdmResourceMatchFeatures leftFeatures = extractMatchFeatures(theLeftResource);
+		List<MdmMatchOutcome> retVal = new ArrayList<>(theCandidateResources.size());
+		for (IBaseResource next : theCandidateResources) {
+			retVal.add(getMatchResult(leftFeatures, getCandidateMatchFeatures(next)));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Compares the match features of two resources, previously extracted using {@link #extractMatchFeatures(IBaseResource)}
+	 */
+	public MdmMatchOutcome getMatchResult(
+			MdmResourceMatchFeatures theLeftFeatures, MdmResourceMatchFeatures theRightFeatures) {
+		MdmMatchOutcome matchResult = getMatchOutcome(theLeftFeatures, theRightFeatures);
 		MdmMatchResultEnum matchResultEnum = myMdmRulesJson.getMatchResult(matchResult.getVector());
 		matchResult.setMatchResultEnum(matchResultEnum);
 		if (ourLog.isDebugEnabled()) {
-			ourLog.debug(
-					"{} {}: {}",
-					matchResult.getMatchResultEnum(),
-					theRightResource.getIdElement().toUnqualifiedVersionless(),
-					matchResult);
+			ourLog.debug("{} {}: {}", matchResult.getMatchResultEnum(), theRightFeatures.getResourceId(), matchResult);
 			if (ourLog.isTraceEnabled()) {
 				ourLog.trace(
 						"Field matcher results:\n{}",
@@ -106,6 +138,50 @@ public class MdmResourceMatcherSvc {
 		return matchResult;
 	}
 
+	/**
+	 * Extracts the values of every match field which applies to the given resource, along with any precomputed
+	 * match features (normalized strings, phonetic encodings, etc.) supported by the field matchers.
+	 */
+	public MdmResourceMatchFeatures extractMatchFeatures(IBaseResource theResource) {
+		String resourceType = myFhirContext.getResourceType(theResource);
+		MdmFieldValues[] fieldValues = new MdmFieldValues[myFieldMatchers.size()];
+		for (int i = 0; i < myFieldMatchers.size(); ++i) {
+			MdmResourceFieldMatcher fieldComparator = myFieldMatchers.get(i);
+			if (isValidResourceType(resourceType, fieldComparator.getResourceType())) {
+				fieldValues[i] = fieldComparator.extractFieldValues(theResource);
+			}
+		}
+		String resourceId =
+				theResource.getIdElement().toUnqualifiedVersionless().getValue();
+		return new MdmResourceMatchFeatures(resourceType, resourceId, fieldValues);
+	}
+
+	private MdmResourceMatchFeatures getCandidateMatchFeatures(IBaseResource theResource) {
+		String cacheKey = toCandidateCacheKey(theResource);
+		if (cacheKey == null) {
+			return extractMatchFeatures(theResource);
+		}
+		return myCandidateFeatureCache.get(cacheKey, t -> extractMatchFeatures(theResource));
+	}
+
+	/**
+	 * Stored resource versions never change, but a resource ID and version can be reused if a resource is
+	 * expunged and then created again, so the last updated date is included in the key too.
+	 */
+	@Nullable
+	static String toCandidateCacheKey(IBaseResource theResource) {
+		IIdType id = theResource.getIdElement();
+		Date lastUpdated = theResource.getMeta().getLastUpdated();
+		if (id == null || !id.hasResourceType() || !id.hasIdPart() || !id.hasVersionIdPart() || lastUpdated == null) {
+			return null;
+		}
+		return id.getResourceType() + "/" + id.getIdPart() + "/" + id.getVersionIdPart() + "/" + lastUpdated.getTime();
+	}
+
+	MdmMatchOutcome match(IBaseResource theLeftResource, IBaseResource theRightResource) {
+		return getMatchResult(extractMatchFeatures(theLeftResource), extractMatchFeatures(theRightResource));
+	}
+
 	/**
 	 * This function generates a `match vector`, which is a long representation of a binary string
 	 * generated by the results of each of the given comparator matches. For example.
@@ -121,13 +197,14 @@ public class MdmResourceMatcherSvc {
 	 * 0001|0010 = 0011
 	 * The binary string is now `0011`, which when you return it as a long becomes `3`.
 	 */
-	private MdmMatchOutcome getMatchOutcome(IBaseResource theLeftResource, IBaseResource theRightResource) {
+	private MdmMatchOutcome getMatchOutcome(
+			MdmResourceMatchFeatures theLeftFeatures, MdmResourceMatchFeatures theRightFeatures) {
 		long vector = 0;
 		double score = 0.0;
 		int appliedRuleCount = 0;
 
 		// TODO GGG MDM: This grabs ALL comparators, not just the ones we care about (e.g. the ones for Medication)
-		String resourceType = myFhirContext.getResourceType(theLeftResource);
+		String resourceType = theLeftFeatures.getResourceType();
 
 		for (int i = 0; i < myFieldMatchers.size(); ++i) {
 			// any that are not for the resourceType in question.
@@ -143,7 +220,13 @@ public class MdmResourceMatcherSvc {
 					"Matcher {} is valid for resource type: {}. Evaluating match.",
 					fieldComparator.getName(),
 					resourceType);
-			MdmMatchEvaluation matchEvaluation = fieldComparator.match(theLeftResource, theRightResource);
+			MdmFieldValues rightValues = theRightFeatures.getFieldValues(i);
+			if (rightValues == null) {
+				// The field does not apply to the right resource type, so this throws
+				fieldComparator.validate(theRightFeatures.getResourceType());
+				continue;
+			}
+			MdmMatchEvaluation matchEvaluation = fieldComparator.match(theLeftFeatures.getFieldValues(i), rightValues);
 			if (matchEvaluation.match) {
 				vector |= (1L << i);
 				ourLog.trace(
@@ -175,5 +258,6 @@ public class MdmResourceMatcherSvc {
 	public void setMdmRulesJson(MdmRulesJson theMdmRulesJson) {
 		myMdmRulesJson = theMdmRulesJson;
 		addFieldMatchers();
+		myCandidateFeatureCache.invalidateAll();
 	}
 }
@@ -3,14 +3,31 @@ package ca.uhn.fhir.mdm.rules.svc;
 import ca.uhn.fhir.context.RuntimeSearchParam;
 import ca.uhn.fhir.mdm.api.MdmMatchOutcome;
 import ca.uhn.fhir.mdm.api.MdmMatchResultEnum;
+import ca.uhn.fhir.mdm.rules.json.MdmFieldMatchJson;
+import ca.uhn.fhir.mdm.rules.json.MdmMatcherJson;
+import ca.uhn.fhir.mdm.rules.json.MdmRulesJson;
+import ca.uhn.fhir.mdm.rules.matcher.models.MatchTypeEnum;
+import org.hl7.fhir.r4.model.HumanName;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class MdmResourceMatcherSvcR4Test extends BaseMdmRulesR4Test {
+	private static final Logger ourLog = LoggerFactory.getLogger(MdmResourceMatcherSvcR4Test.class);
 	private MdmResourceMatcherSvc myMdmResourceMatcherSvc;
 	private Patient myJohn;
 	private Patient myJohny;
@@ -72,4 +89,157 @@ public class MdmResourceMatcherSvcR4Test extends BaseMdmRulesR4Test {
 		outcome = myMdmResourceMatcherSvc.getMatchResult(myJohn, myJohny);
 		assertMatchResult(MdmMatchResultEnum.MATCH, 3L, 1.816, false, false, outcome);
 	}
+
+	@Test
+	public void testGetMatchResultsSameAsPairwise() {
+		MdmResourceMatcherSvc matcherSvc = buildMatcher(buildPrecomputedFeatureRules());
+		Patient incoming = buildPatient("Patient/incoming", "Smith", "Bill", "Robert");
+		List<Patient> candidates = buildCandidates(64);
+
+		List<MdmMatchOutcome> pairwise = new ArrayList<>();
+		for (Patient next : candidates) {
+			pairwise.add(matcherSvc.getMatchResult(incoming, next));
+		}
+		List<MdmMatchOutcome> batch = matcherSvc.getMatchResults(incoming, candidates);
+		List<MdmMatchOutcome> cached = matcherSvc.getMatchResults(incoming, candidates);
+
+		assertThat(batch).hasSize(candidates.size());
+		assertThat(cached).hasSize(candidates.size());
+		int matchCount = 0;
+		for (int i = 0; i < candidates.size(); i++) {
+			assertOutcomeEquals(pairwise.get(i), batch.get(i));
+			assertOutcomeEquals(pairwise.get(i), cached.get(i));
+			if (pairwise.get(i).getVector() != 0) {
+				matchCount++;
+			}
+		}
+		assertThat(matchCount).isGreaterThan(0).isLessThan(candidates.size());
+	}
+
+	/**
+	 * Compares the time taken to match a large number of candidates pairwise and with precomputed
+	 * features. This is a benchmark rather than a test, so it is disabled by default.
+	 */
+	@Disabled("Benchmark")
+	@Test
+	public void testGetMatchResultsPerformance() {
+		MdmResourceMatcherSvc matcherSvc = buildMatcher(buildPrecomputedFeatureRules());
+		Patient incoming = buildPatient("Patient/incoming", "Smith", "Bill", "Robert");
+		List<Patient> candidates = buildCandidates(1000);
+
+		long start = System.nanoTime();
+		for (Patient next : candidates) {
+			matcherSvc.getMatchResult(incoming, next);
+		}
+		long pairwiseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		start = System.nanoTime();
+		matcherSvc.getMatchResults(incoming, candidates);
+		long firstRoundMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		start = System.nanoTime();
+		matcherSvc.getMatchResults(incoming, candidates);
+		long secondRoundMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		ourLog.info(
+				"Matched {} candidates - Pairwise: {}ms, precomputed: {}ms, precomputed and cached: {}ms",
+				candidates.size(),
+				pairwiseMillis,
+				firstRoundMillis,
+				secondRoundMillis);
+	}
+
+	@Test
+	public void testGetMatchResultsCandidateFeaturesCachedByVersion() {
+		MdmResourceMatcherSvc matcherSvc = buildMatcher(buildPrecomputedFeatureRules());
+		Patient incoming = buildPatient("Patient/incoming", "Smith", "Bill");
+		Patient candidate = buildPatient("Patient/1/_history/1", "Smith", "William");
+		candidate.getMeta().setLastUpdated(new Date(1000L));
+
+		assertEquals(MdmMatchResultEnum.MATCH, matcherSvc.getMatchResults(incoming, List.of(candidate)).get(0).getMatchResultEnum());
+
+		// A new version of the candidate is not served from the cache
+		Patient updatedCandidate = buildPatient("Patient/1/_history/2", "Jones", "Fred");
+		updatedCandidate.getMeta().setLastUpdated(new Date(2000L));
+		assertEquals(MdmMatchResultEnum.NO_MATCH, matcherSvc.getMatchResults(incoming, List.of(updatedCandidate)).get(0).getMatchResultEnum());
+
+		// Neither is a candidate with no version
+		Patient unversionedCandidate = buildPatient("Patient/1", "Jones", "Fred");
+		assertEquals(MdmMatchResultEnum.NO_MATCH, matcherSvc.getMatchResults(incoming, List.of(unversionedCandidate)).get(0).getMatchResultEnum());
+	}
+
+	@Test
+	public void testToCandidateCacheKey() {
+		Patient patient = new Patient();
+		assertNull(MdmResourceMatcherSvc.toCandidateCacheKey(patient));
+		patient.setId("Patient/1/_history/3");
+		assertNull(MdmResourceMatcherSvc.toCandidateCacheKey(patient));
+		patient.getMeta().setLastUpdated(new Date(1234L));
+		assertEquals("Patient/1/3/1234", MdmResourceMatcherSvc.toCandidateCacheKey(patient));
+	}
+
+	private MdmRulesJson buildPrecomputedFeatureRules() {
+		MdmRulesJson retVal = new MdmRulesJson();
+		retVal.setVersion("test version");
+		retVal.setMdmTypes(List.of("Patient"));
+		retVal.addMatchField(new MdmFieldMatchJson()
+				.setName("given-soundex")
+				.setResourceType("Patient")
+				.setResourcePath("name.given")
+				.setMatcher(new MdmMatcherJson().setAlgorithm(MatchTypeEnum.SOUNDEX)));
+		retVal.addMatchField(new MdmFieldMatchJson()
+				.setName("given-nickname")
+				.setResourceType("Patient")
+				.setResourcePath("name.given")
+				.setMatcher(new MdmMatcherJson().setAlgorithm(MatchTypeEnum.NICKNAME)));
+		retVal.addMatchField(new MdmFieldMatchJson()
+				.setName("family-string")
+				.setResourceType("Patient")
+				.setResourcePath("name.family")
+				.setMatcher(new MdmMatcherJson().setAlgorithm(MatchTypeEnum.STRING)));
+		retVal.addMatchField(new MdmFieldMatchJson()
+				.setName("name-any-order")
+				.setResourceType("Patient")
+				.setResourcePath("name")
+				.setMatcher(new MdmMatcherJson().setAlgorithm(MatchTypeEnum.NAME_ANY_ORDER)));
+		retVal.addMatchField(myGivenNameMatchField);
+		retVal.putMatchResult("given-nickname,family-string", MdmMatchResultEnum.MATCH);
+		retVal.putMatchResult("name-any-order", MdmMatchResultEnum.MATCH);
+		retVal.putMatchResult("given-soundex,family-string", MdmMatchResultEnum.POSSIBLE_MATCH);
+		retVal.putMatchResult(PATIENT_GIVEN, MdmMatchResultEnum.POSSIBLE_MATCH);
+		return retVal;
+	}
+
+	private List<Patient> buildCandidates(int theCount) {
+		String[] families = {"Smith", "Smyth", "Jones", "Brown", "Williams", "Taylor"};
+		String[] givens = {"Bill", "William", "Will", "Robert", "Bob", "Fred", "Mary", "Wilma"};
+		List<Patient> retVal = new ArrayList<>();
+		for (int i = 0; i < theCount; i++) {
+			Patient next = buildPatient(
+					"Patient/" + i + "/_history/1",
+					families[i % families.length],
+					givens[i % givens.length],
+					givens[(i / givens.length) % givens.length]);
+			next.getMeta().setLastUpdated(new Date());
+			retVal.add(next);
+		}
+		return retVal;
+	}
+
+	private Patient buildPatient(String theId, String theFamily, String... theGivens) {
+		Patient retVal = new Patient();
+		retVal.setId(theId);
+		HumanName name = retVal.addName().setFamily(theFamily);
+		for (String next : theGivens) {
+			name.addGiven(next);
+		}
+		return retVal;
+	}
+
+	private void assertOutcomeEquals(MdmMatchOutcome theExpected, MdmMatchOutcome theActual) {
+		assertEquals(theExpected.getVector(), theActual.getVector());
+		assertEquals(theExpected.getScore(), theActual.getScore());
+		assertEquals(theExpected.getMdmRuleCount(), theActual.getMdmRuleCount());
+		assertEquals(theExpected.getMatchResultEnum(), theActual.getMatchResultEnum());
+	}
 }
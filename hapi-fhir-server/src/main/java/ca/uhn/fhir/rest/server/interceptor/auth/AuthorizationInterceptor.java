@@ -39,6 +39,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
 import org.hl7.fhir.instance.model.api.IBaseParameters;
@@ -53,7 +54,9 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.isNull;
@@ -79,6 +82,14 @@ public class AuthorizationInterceptor implements IRuleApplier {
 
 	public static final String REQUEST_ATTRIBUTE_BULK_DATA_EXPORT_OPTIONS =
 			AuthorizationInterceptor.class.getName() + "_BulkDataExportOptions";
+	/**
+	 * Default value for {@link #setRuleListCacheMillis(long)}
+	 *
+	 * @since 7.6.0
+	 */
+	public static final long DEFAULT_RULE_LIST_CACHE_MILLIS = DateUtils.MILLIS_PER_MINUTE;
+
+	private static final int MAX_CACHED_RULE_LISTS = 10000;
 	private static final AtomicInteger ourInstanceCount = new AtomicInteger(0);
 	private static final Logger ourLog = LoggerFactory.getLogger(AuthorizationInterceptor.class);
 	private static final Set<BundleTypeEnum> STANDALONE_BUNDLE_RESOURCE_TYPES =
@@ -92,6 +103,8 @@ public class AuthorizationInterceptor implements IRuleApplier {
 	private PolicyEnum myDefaultPolicy = PolicyEnum.DENY;
 	private Set<AuthorizationFlagsEnum> myFlags = Collections.emptySet();
 	private IValidationSupport myValidationSupport;
+	private final Map<String, AuthorizationRuleList> myRuleListCache = new ConcurrentHashMap<>();
+	private long myRuleListCacheMillis = DEFAULT_RULE_LIST_CACHE_MILLIS;
 
 	private IAuthorizationSearchParamMatcher myAuthorizationSearchParamMatcher;
 	private Logger myTroubleshootingLog;
@@ -150,12 +163,19 @@ public class AuthorizationInterceptor implements IRuleApplier {
 			IIdType theInputResourceId,
 			IBaseResource theOutputResource,
 			Pointcut thePointcut) {
-		@SuppressWarnings("unchecked")
-		List<IAuthRule> rules =
-				(List<IAuthRule>) theRequestDetails.getUserData().get(myRequestRuleListKey);
-		if (rules == null) {
-			rules = buildRuleList(theRequestDetails);
-			theRequestDetails.getUserData().put(myRequestRuleListKey, rules);
+		AuthorizationRuleList ruleList =
+				(AuthorizationRuleList) theRequestDetails.getUserData().get(myRequestRuleListKey);
+		if (ruleList == null) {
+			ruleList = getOrBuildRuleList(theRequestDetails);
+			theRequestDetails.getUserData().put(myRequestRuleListKey, ruleList);
+		}
+
+		List<IAuthRule> rules = ruleList.getRules();
+		if (theOutputResource != null && theInputResource == null && theInputResourceId == null) {
+			String outputResourceType = getResourceTypeOrEmpty(theOutputResource);
+			if (isNotBlank(outputResourceType)) {
+				rules = ruleList.getRulesForOutputResource(theOperation, outputResourceType);
+			}
 		}
 		Set<AuthorizationFlagsEnum> flags = getFlags();
 
@@ -166,21 +186,35 @@ public class AuthorizationInterceptor implements IRuleApplier {
 				getResourceTypeOrEmpty(theInputResource),
 				getResourceTypeOrEmpty(theOutputResource));
 
+		// Rules with filters test whichever resource is being checked against the matcher
+		IBaseResource matchedResource = theOutputResource != null ? theOutputResource : theInputResource;
+		IAuthorizationSearchParamMatcher matcher = getSearchParamMatcher();
+		boolean endMatching = false;
+		if (matcher != null && matchedResource != null && rules.size() > 1) {
+			endMatching = matcher.beginMatching(matchedResource);
+		}
+
 		Verdict verdict = null;
-		for (IAuthRule nextRule : rules) {
-			ourLog.trace("Rule being applied - {}", nextRule);
-			verdict = nextRule.applyRule(
-					theOperation,
-					theRequestDetails,
-					theInputResource,
-					theInputResourceId,
-					theOutputResource,
-					this,
-					flags,
-					thePointcut);
-			if (verdict != null) {
-				ourLog.trace("Rule {} returned decision {}", nextRule, verdict.getDecision());
-				break;
+		try {
+			for (IAuthRule nextRule : rules) {
+				ourLog.trace("Rule being applied - {}", nextRule);
+				verdict = nextRule.applyRule(
+						theOperation,
+						theRequestDetails,
+						theInputResource,
+						theInputResourceId,
+						theOutputResource,
+						this,
+						flags,
+						thePointcut);
+				if (verdict != null) {
+					ourLog.trace("Rule {} returned decision {}", nextRule, verdict.getDecision());
+					break;
+				}
+			}
+		} finally {
+			if (endMatching) {
+				matcher.endMatching(matchedResource);
 			}
 		}
 
@@ -192,6 +226,27 @@ public class AuthorizationInterceptor implements IRuleApplier {
 		return verdict;
 	}
 
+	private AuthorizationRuleList getOrBuildRuleList(RequestDetails theRequestDetails) {
+		String cacheKey = getRuleListCacheKey(theRequestDetails);
+		if (cacheKey == null || myRuleListCacheMillis <= 0) {
+			return new AuthorizationRuleList(buildRuleList(theRequestDetails), Long.MAX_VALUE);
+		}
+
+		long now = System.currentTimeMillis();
+		AuthorizationRuleList retVal = myRuleListCache.get(cacheKey);
+		if (retVal == null || retVal.isExpired(now)) {
+			retVal = new AuthorizationRuleList(buildRuleList(theRequestDetails), now + myRuleListCacheMillis);
+			if (myRuleListCache.size() >= MAX_CACHED_RULE_LISTS) {
+				myRuleListCache.values().removeIf(t -> t.isExpired(now));
+				if (myRuleListCache.size() >= MAX_CACHED_RULE_LISTS) {
+					myRuleListCache.clear();
+				}
+			}
+			myRuleListCache.put(cacheKey, retVal);
+		}
+		return retVal;
+	}
+
 	/**
 	 * @since 6.0.0
 	 */
@@ -245,6 +300,58 @@ public class AuthorizationInterceptor implements IRuleApplier {
 		return new ArrayList<>();
 	}
 
+	/**
+	 * Subclasses may override this method to allow the rules returned by {@link #buildRuleList(RequestDetails)}
+	 * to be reused by later requests for the same principal, instead of being built again for every request.
+	 * The returned key must identify everything that {@link #buildRuleList(RequestDetails)} depends on (typically
+	 * the user and their granted scopes), since any request with the same key will be authorized using the same
+	 * rules until they expire (see {@link #setRuleListCacheMillis(long)}).
+	 * <p>
+	 * The default implementation returns <code>null</code>, meaning that rules are never cached.
+	 * </p>
+	 *
+	 * @param theRequestDetails The individual request currently being applied
+	 * @return A cache key for the principal making the request, or <code>null</code> if the rules for this request should not be cached
+	 * @since 7.6.0
+	 */
+	@Nullable
+	protected String getRuleListCacheKey(RequestDetails theRequestDetails) {
+		return null;
+	}
+
+	/**
+	 * The number of milliseconds that a rule list cached using {@link #getRuleListCacheKey(RequestDetails)}
+	 * will be reused for. Defaults to {@link #DEFAULT_RULE_LIST_CACHE_MILLIS} (one minute).
+	 *
+	 * @since 7.6.0
+	 */
+	public long getRuleListCacheMillis() {
+		return myRuleListCacheMillis;
+	}
+
+	/**
+	 * The number of milliseconds that a rule list cached using {@link #getRuleListCacheKey(RequestDetails)}
+	 * will be reused for. Defaults to {@link #DEFAULT_RULE_LIST_CACHE_MILLIS} (one minute). A value of
+	 * <code>0</code> disables caching.
+	 *
+	 * @since 7.6.0
+	 */
+	public AuthorizationInterceptor setRuleListCacheMillis(long theRuleListCacheMillis) {
+		Validate.isTrue(theRuleListCacheMillis >= 0, "theRuleListCacheMillis must not be negative");
+		myRuleListCacheMillis = theRuleListCacheMillis;
+		return this;
+	}
+
+	/**
+	 * Discards all rule lists cached using {@link #getRuleListCacheKey(RequestDetails)}. This should be called
+	 * if the permissions of a principal change before their cached rules expire.
+	 *
+	 * @since 7.6.0
+	 */
+	public void clearRuleListCache() {
+		myRuleListCache.clear();
+	}
+
 	private OperationExamineDirection determineOperationDirection(RestOperationTypeEnum theOperation) {
 
 		switch (theOperation) {
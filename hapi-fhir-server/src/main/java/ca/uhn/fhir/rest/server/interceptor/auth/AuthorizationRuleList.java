@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.auth;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The rules returned by {@link AuthorizationInterceptor#buildRuleList(ca.uhn.fhir.rest.api.server.RequestDetails)},
+ * along with an index of the rules which can apply to outgoing resources of a given type. The index is built
+ * lazily for each operation and resource type, and is safe to share between threads.
+ */
+class AuthorizationRuleList {
+	private final List<IAuthRule> myRules;
+	private final long myExpiryMillis;
+	private final Map<RestOperationTypeEnum, Map<String, List<IAuthRule>>> myOutputResourceRules =
+			new ConcurrentHashMap<>();
+
+	AuthorizationRuleList(@Nonnull List<IAuthRule> theRules, long theExpiryMillis) {
+		myRules = theRules;
+		myExpiryMillis = theExpiryMillis;
+	}
+
+	@Nonnull
+	List<IAuthRule> getRules() {
+		return myRules;
+	}
+
+	/**
+	 * Returns the rules, in their original order, which can return a verdict for an outgoing resource
+	 * whose ID has the given resource type
+	 *
+	 * @see IAuthRule#isApplicableToOutputResource(RestOperationTypeEnum, String)
+	 */
+	@Nonnull
+	List<IAuthRule> getRulesForOutputResource(
+			@Nonnull RestOperationTypeEnum theOperation, @Nonnull String theResourceType) {
+		return myOutputResourceRules
+				.computeIfAbsent(theOperation, t -> new ConcurrentHashMap<>())
+				.computeIfAbsent(theResourceType, t -> myRules.stream()
+						.filter(rule -> rule.isApplicableToOutputResource(theOperation, theResourceType))
+						.collect(Collectors.toList()));
+	}
+
+	boolean isExpired(long theNowMillis) {
+		return theNowMillis >= myExpiryMillis;
+	}
+}
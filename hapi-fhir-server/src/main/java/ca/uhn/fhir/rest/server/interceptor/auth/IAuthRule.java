@@ -65,4 +65,22 @@ public interface IAuthRule {
 	 * Returns a name for this rule, to be used in logs and error messages
 	 */
 	String getName();
+
+	/**
+	 * Returns <code>false</code> if this rule can never return a verdict for an outgoing resource (i.e. when
+	 * {@link #applyRule(RestOperationTypeEnum, RequestDetails, IBaseResource, IIdType, IBaseResource, IRuleApplier, Set, Pointcut) applyRule}
+	 * is called with an output resource and with no input resource or input resource ID) whose ID has the
+	 * given resource type. {@link AuthorizationInterceptor} uses this to index its rules so that each resource
+	 * in a response is only checked against the rules which can apply to it.
+	 * <p>
+	 * The default implementation returns <code>true</code>, which is always safe.
+	 * </p>
+	 *
+	 * @param theOperation    The operation type
+	 * @param theResourceType The resource type of the outgoing resource
+	 * @since 7.6.0
+	 */
+	default boolean isApplicableToOutputResource(RestOperationTypeEnum theOperation, String theResourceType) {
+		return true;
+	}
 }
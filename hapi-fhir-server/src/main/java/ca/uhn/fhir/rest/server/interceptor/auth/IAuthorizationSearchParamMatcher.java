@@ -36,6 +36,31 @@ public interface IAuthorizationSearchParamMatcher {
 	 */
 	MatchResult match(String theQueryParameters, IBaseResource theResource);
 
+	/**
+	 * Called before a resource is tested against a list of rules, allowing the matcher to
+	 * reuse work (such as extracting search parameter values) across the rules. The resource
+	 * is not modified until {@link #endMatching(IBaseResource)} is called.
+	 *
+	 * @param theResource the resource which will be tested
+	 * @return <code>true</code> if the caller must call {@link #endMatching(IBaseResource)} for this resource once
+	 * it has finished testing it
+	 * @since 7.6.0
+	 */
+	default boolean beginMatching(@Nonnull IBaseResource theResource) {
+		return false;
+	}
+
+	/**
+	 * Called once a resource for which {@link #beginMatching(IBaseResource)} returned <code>true</code>
+	 * has been tested against the rules.
+	 *
+	 * @param theResource the resource which was tested
+	 * @since 7.6.0
+	 */
+	default void endMatching(@Nonnull IBaseResource theResource) {
+		// nothing
+	}
+
 	/**
 	 * Match outcomes.
 	 */
@@ -435,6 +435,42 @@ class RuleImplOp extends BaseRule /* implements IAuthRule */ {
 				theRuleApplier);
 	}
 
+	@Override
+	public boolean isApplicableToOutputResource(RestOperationTypeEnum theOperation, String theResourceType) {
+		if (myOp == null) {
+			return true;
+		}
+		switch (myOp) {
+			case READ:
+				break;
+			case WRITE:
+			case CREATE:
+				// These only ever apply to an input resource or ID
+				return false;
+			case DELETE:
+				return theOperation == RestOperationTypeEnum.DELETE;
+			case GRAPHQL:
+				return theOperation == RestOperationTypeEnum.GRAPHQL_REQUEST;
+			case TRANSACTION:
+				return theOperation == RestOperationTypeEnum.TRANSACTION;
+			case METADATA:
+				return theOperation == RestOperationTypeEnum.METADATA;
+			case ALL:
+			default:
+				return true;
+		}
+
+		if (myAppliesTo == AppliesTypeEnum.TYPES && myAppliesToTypes != null) {
+			return myAppliesToTypes.contains(theResourceType);
+		}
+		if (myAppliesTo == AppliesTypeEnum.INSTANCES && myAppliesToInstances != null) {
+			return myAppliesToInstances.stream()
+					.anyMatch(t ->
+							isBlank(t.getResourceType()) || t.getResourceType().equals(theResourceType));
+		}
+		return true;
+	}
+
 	private List<IIdType> extractResourceIdsFromRequestParameters(
 			RequestDetails theRequestDetails, String[] theResourceIds) {
 		return Arrays.stream(theResourceIds)
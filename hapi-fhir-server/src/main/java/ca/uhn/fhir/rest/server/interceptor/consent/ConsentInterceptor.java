@@ -38,16 +38,20 @@ import ca.uhn.fhir.rest.server.exceptions.ForbiddenOperationException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationConstants;
 import ca.uhn.fhir.rest.server.util.ICachedSearchDetails;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.IModelVisitor2;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.DateUtils;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseExtension;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -55,6 +59,7 @@ import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -71,6 +76,14 @@ import static ca.uhn.fhir.rest.server.provider.ProviderConstants.OPERATION_META;
  */
 @Interceptor(order = AuthorizationConstants.ORDER_CONSENT_INTERCEPTOR)
 public class ConsentInterceptor {
+	/**
+	 * A suggested value for {@link #setVerdictCacheMillis(long)}
+	 *
+	 * @since 7.6.0
+	 */
+	public static final long SUGGESTED_VERDICT_CACHE_MILLIS = DateUtils.MILLIS_PER_MINUTE;
+
+	private static final int MAX_CACHED_VERDICTS = 100000;
 	private static final AtomicInteger ourInstanceCount = new AtomicInteger(0);
 	private final int myInstanceIndex = ourInstanceCount.incrementAndGet();
 	private final String myRequestAuthorizedKey =
@@ -79,6 +92,10 @@ public class ConsentInterceptor {
 			ConsentInterceptor.class.getName() + "_" + myInstanceIndex + "_COMPLETED";
 	private final String myRequestSeenResourcesKey =
 			ConsentInterceptor.class.getName() + "_" + myInstanceIndex + "_SEENRESOURCES";
+	private final String myRequestContextKeysKey =
+			ConsentInterceptor.class.getName() + "_" + myInstanceIndex + "_CONTEXTKEYS";
+	private volatile Cache<VerdictKey, ConsentOutcome> myVerdictCache;
+	private long myVerdictCacheMillis;
 
 	private volatile List<IConsentService> myConsentService = Collections.emptyList();
 	private IConsentContextServices myContextConsentServices = IConsentContextServices.NULL_IMPL;
@@ -110,6 +127,59 @@ public class ConsentInterceptor {
 		setContextConsentServices(theContextConsentServices);
 	}
 
+	/**
+	 * If set to a value greater than <code>0</code>, the interceptor will ask each consent service for a
+	 * context key at the start of each request (see
+	 * {@link IConsentService#getConsentContextKey(RequestDetails, IConsentContextServices)}). The decisions
+	 * returned by {@link IConsentService#canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}
+	 * for services which return a key are then cached for this number of milliseconds, and reused for any
+	 * request with the same key which accesses the same version of the same resource. In addition, search
+	 * results may be cached and reused by requests whose consent services all return the same keys.
+	 * At most 100,000 verdicts are cached, and older verdicts are discarded when this limit is reached.
+	 * <p>
+	 * The default value is <code>0</code>, which disables verdict caching. See
+	 * {@link #SUGGESTED_VERDICT_CACHE_MILLIS} for a suggested value.
+	 * </p>
+	 * <p>
+	 * Verdicts are cached using a {@link CacheFactory} provider, so a value greater than <code>0</code>
+	 * requires either <code>hapi-fhir-caching-caffeine</code> or <code>hapi-fhir-caching-guava</code>
+	 * to be on the classpath. If neither is present, this method throws an exception.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public ConsentInterceptor setVerdictCacheMillis(long theVerdictCacheMillis) {
+		Validate.isTrue(theVerdictCacheMillis >= 0, "theVerdictCacheMillis must not be negative");
+		myVerdictCacheMillis = theVerdictCacheMillis;
+		if (theVerdictCacheMillis > 0) {
+			myVerdictCache = CacheFactory.build(theVerdictCacheMillis, MAX_CACHED_VERDICTS);
+		} else {
+			myVerdictCache = null;
+		}
+		return this;
+	}
+
+	/**
+	 * @see #setVerdictCacheMillis(long)
+	 * @since 7.6.0
+	 */
+	public long getVerdictCacheMillis() {
+		return myVerdictCacheMillis;
+	}
+
+	/**
+	 * Discards all cached verdicts (see {@link #setVerdictCacheMillis(long)}). This should be called if
+	 * consent directives change before cached verdicts expire.
+	 *
+	 * @since 7.6.0
+	 */
+	public void clearVerdictCache() {
+		Cache<VerdictKey, ConsentOutcome> verdictCache = myVerdictCache;
+		if (verdictCache != null) {
+			verdictCache.invalidateAll();
+		}
+	}
+
 	public void setContextConsentServices(IConsentContextServices theContextConsentServices) {
 		Validate.notNull(theContextConsentServices, "theContextConsentServices must not be null");
 		myContextConsentServices = theContextConsentServices;
@@ -180,23 +250,90 @@ public class ConsentInterceptor {
 					return;
 			}
 		}
+
+		if (myVerdictCacheMillis > 0) {
+			populateContextKeys(theRequestDetails);
+		}
+	}
+
+	private void populateContextKeys(RequestDetails theRequestDetails) {
+		IdentityHashMap<IConsentService, String> contextKeys = new IdentityHashMap<>();
+
+		// Cached searches may be shared between servers, so the scope only uses values that
+		// are the same on every server (the position of each service and the key it returns)
+		StringBuilder searchCacheScope = new StringBuilder();
+		for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size(); consentSvcIdx++) {
+			IConsentService nextService = myConsentService.get(consentSvcIdx);
+			String contextKey = nextService.getConsentContextKey(theRequestDetails, myContextConsentServices);
+			contextKeys.put(nextService, contextKey);
+			if (contextKey != null) {
+				searchCacheScope
+						.append(consentSvcIdx)
+						.append(':')
+						.append(contextKey)
+						.append('|');
+			}
+		}
+		theRequestDetails.getUserData().put(myRequestContextKeysKey, contextKeys);
+
+		// Other consent interceptors may also have contributed to the scope
+		String existingScope = ICachedSearchDetails.getSearchCacheScope(theRequestDetails);
+		if (existingScope != null) {
+			searchCacheScope.insert(0, existingScope);
+		}
+		theRequestDetails
+				.getUserData()
+				.put(ICachedSearchDetails.SEARCH_CACHE_SCOPE_USER_DATA_KEY, searchCacheScope.toString());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private IdentityHashMap<IConsentService, String> getContextKeys(RequestDetails theRequestDetails) {
+		return (IdentityHashMap<IConsentService, String>)
+				theRequestDetails.getUserData().get(myRequestContextKeysKey);
+	}
+
+	/**
+	 * Returns <code>true</code> if the results of a search may be reused by another request. This is
+	 * only the case if every service that filters results using canSeeResource() has declared a context
+	 * key, since the search cache is scoped by these keys.
+	 */
+	private boolean isSearchCacheable(RequestDetails theRequestDetails) {
+		boolean[] processConsentSvcs = new boolean[myConsentService.size()];
+		if (!isProcessCanSeeResource(theRequestDetails, processConsentSvcs)) {
+			return true;
+		}
+
+		IdentityHashMap<IConsentService, String> contextKeys = getContextKeys(theRequestDetails);
+		if (contextKeys == null) {
+			return false;
+		}
+		for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size(); consentSvcIdx++) {
+			if (processConsentSvcs[consentSvcIdx] && contextKeys.get(myConsentService.get(consentSvcIdx)) == null) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
 	 * Check if this request is eligible for cached search results.
-	 * We can't use a cached result if consent may use canSeeResource.
+	 * We can't use a cached result if consent may use canSeeResource, unless every
+	 * service that uses canSeeResource has declared a context key (in which case the
+	 * search cache is scoped by these keys).
 	 * This checks for AUTHORIZED requests, and the responses from shouldProcessCanSeeResource()
 	 * to see if this holds.
 	 * @return may the request be satisfied from cache.
 	 */
 	@Hook(value = Pointcut.STORAGE_PRECHECK_FOR_CACHED_SEARCH)
 	public boolean interceptPreCheckForCachedSearch(@Nonnull RequestDetails theRequestDetails) {
-		return !isProcessCanSeeResource(theRequestDetails, null);
+		return isSearchCacheable(theRequestDetails);
 	}
 
 	/**
 	 * Check if the search results from this request might be reused by later searches.
-	 * We can't use a cached result if consent may use canSeeResource.
+	 * We can't use a cached result if consent may use canSeeResource, unless every
+	 * service that uses canSeeResource has declared a context key.
 	 * This checks for AUTHORIZED requests, and the responses from shouldProcessCanSeeResource()
 	 * to see if this holds.
 	 * If not, marks the result as single-use.
@@ -204,7 +341,7 @@ public class ConsentInterceptor {
 	@Hook(value = Pointcut.STORAGE_PRESEARCH_REGISTERED)
 	public void interceptPreSearchRegistered(
 			RequestDetails theRequestDetails, ICachedSearchDetails theCachedSearchDetails) {
-		if (isProcessCanSeeResource(theRequestDetails, null)) {
+		if (!isSearchCacheable(theRequestDetails)) {
 			theCachedSearchDetails.setCannotBeReused();
 		}
 	}
@@ -223,42 +360,149 @@ public class ConsentInterceptor {
 
 		IdentityHashMap<IBaseResource, ConsentOperationStatusEnum> alreadySeenResources =
 				getAlreadySeenResourcesMap(theRequestDetails);
-		for (int resourceIdx = 0; resourceIdx < thePreResourceAccessDetails.size(); resourceIdx++) {
-			IBaseResource nextResource = thePreResourceAccessDetails.getResource(resourceIdx);
-			for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size(); consentSvcIdx++) {
-				IConsentService nextService = myConsentService.get(consentSvcIdx);
+		IdentityHashMap<IConsentService, String> contextKeys = getContextKeys(theRequestDetails);
 
-				if (!processConsentSvcs[consentSvcIdx]) {
-					continue;
-				}
+		// Indexes of the resources that no service has AUTHORIZED or REJECTED yet
+		int[] pendingIndexes = new int[thePreResourceAccessDetails.size()];
+		for (int resourceIdx = 0; resourceIdx < pendingIndexes.length; resourceIdx++) {
+			pendingIndexes[resourceIdx] = resourceIdx;
+		}
+		int pendingCount = pendingIndexes.length;
 
-				ConsentOutcome outcome =
-						nextService.canSeeResource(theRequestDetails, nextResource, myContextConsentServices);
-				Validate.notNull(outcome, "Consent service returned null outcome");
-				Validate.isTrue(
-						outcome.getResource() == null,
-						"Consent service returned a resource in its outcome. This is not permitted in canSeeResource(..)");
+		for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size() && pendingCount > 0; consentSvcIdx++) {
+			if (!processConsentSvcs[consentSvcIdx]) {
+				continue;
+			}
 
-				boolean skipSubsequentServices = false;
-				switch (outcome.getStatus()) {
+			IConsentService nextService = myConsentService.get(consentSvcIdx);
+			String contextKey = contextKeys != null ? contextKeys.get(nextService) : null;
+			ConsentOutcome[] outcomes = canSeeResources(
+					theRequestDetails,
+					thePreResourceAccessDetails,
+					nextService,
+					contextKey,
+					pendingIndexes,
+					pendingCount);
+
+			int stillPendingCount = 0;
+			for (int i = 0; i < pendingCount; i++) {
+				int resourceIdx = pendingIndexes[i];
+				IBaseResource nextResource = thePreResourceAccessDetails.getResource(resourceIdx);
+				switch (outcomes[i].getStatus()) {
 					case PROCEED:
+						pendingIndexes[stillPendingCount++] = resourceIdx;
 						break;
 					case AUTHORIZED:
 						alreadySeenResources.put(nextResource, ConsentOperationStatusEnum.AUTHORIZED);
-						skipSubsequentServices = true;
 						break;
 					case REJECT:
 						alreadySeenResources.put(nextResource, ConsentOperationStatusEnum.REJECT);
 						thePreResourceAccessDetails.setDontReturnResourceAtIndex(resourceIdx);
-						skipSubsequentServices = true;
 						break;
 				}
+			}
+			pendingCount = stillPendingCount;
+		}
+	}
 
-				if (skipSubsequentServices) {
-					break;
+	/**
+	 * Asks a single service for a decision on each of the pending resources, using cached
+	 * decisions where they are available
+	 */
+	private ConsentOutcome[] canSeeResources(
+			RequestDetails theRequestDetails,
+			IPreResourceAccessDetails thePreResourceAccessDetails,
+			IConsentService theService,
+			@Nullable String theContextKey,
+			int[] thePendingIndexes,
+			int thePendingCount) {
+		ConsentOutcome[] retVal = new ConsentOutcome[thePendingCount];
+		VerdictKey[] verdictKeys = new VerdictKey[thePendingCount];
+		List<IBaseResource> resourcesToCheck = new ArrayList<>(thePendingCount);
+		Cache<VerdictKey, ConsentOutcome> verdictCache = myVerdictCache;
+
+		for (int i = 0; i < thePendingCount; i++) {
+			IBaseResource nextResource = thePreResourceAccessDetails.getResource(thePendingIndexes[i]);
+			if (theContextKey != null && verdictCache != null) {
+				verdictKeys[i] = toVerdictKey(theRequestDetails, theService, theContextKey, nextResource);
+				if (verdictKeys[i] != null) {
+					ConsentOutcome cachedOutcome = verdictCache.getIfPresent(verdictKeys[i]);
+					if (cachedOutcome != null) {
+						retVal[i] = cachedOutcome;
+						continue;
+					}
 				}
 			}
+			resourcesToCheck.add(nextResource);
+		}
+
+		if (resourcesToCheck.isEmpty()) {
+			return retVal;
+		}
+
+		List<ConsentOutcome> outcomes;
+		if (theService instanceof IBatchConsentService) {
+			outcomes = ((IBatchConsentService) theService)
+					.canSeeResources(theRequestDetails, resourcesToCheck, myContextConsentServices);
+			Validate.notNull(outcomes, "Consent service returned null outcomes");
+			Validate.isTrue(
+					outcomes.size() == resourcesToCheck.size(),
+					"Consent service returned %d outcomes for %d resources",
+					outcomes.size(),
+					resourcesToCheck.size());
+		} else {
+			outcomes = new ArrayList<>(resourcesToCheck.size());
+			for (IBaseResource next : resourcesToCheck) {
+				outcomes.add(theService.canSeeResource(theRequestDetails, next, myContextConsentServices));
+			}
 		}
+
+		int outcomeIdx = 0;
+		for (int i = 0; i < thePendingCount; i++) {
+			if (retVal[i] != null) {
+				continue;
+			}
+			ConsentOutcome outcome = outcomes.get(outcomeIdx++);
+			Validate.notNull(outcome, "Consent service returned null outcome");
+			Validate.isTrue(
+					outcome.getResource() == null,
+					"Consent service returned a resource in its outcome. This is not permitted in canSeeResource(..)");
+			retVal[i] = outcome;
+
+			if (verdictKeys[i] != null) {
+				verdictCache.put(verdictKeys[i], outcome);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns a cache key for the verdict of the given service on the given resource, or
+	 * <code>null</code> if the resource does not have a versioned ID (in which case its
+	 * verdict is never cached)
+	 */
+	@Nullable
+	private static VerdictKey toVerdictKey(
+			RequestDetails theRequestDetails,
+			IConsentService theService,
+			String theContextKey,
+			@Nullable IBaseResource theResource) {
+		if (theResource == null) {
+			return null;
+		}
+		IIdType id = theResource.getIdElement();
+		if (id == null || !id.hasIdPart() || !id.hasVersionIdPart()) {
+			return null;
+		}
+		String resourceType = id.getResourceType();
+		if (resourceType == null) {
+			FhirContext ctx = theRequestDetails.getFhirContext();
+			if (ctx == null) {
+				return null;
+			}
+			resourceType = ctx.getResourceType(theResource);
+		}
+		return new VerdictKey(theService, theContextKey, resourceType, id.getIdPart(), id.getVersionIdPart());
 	}
 
 	/**
@@ -619,6 +863,51 @@ public class ConsentInterceptor {
 		return alreadySeenResources;
 	}
 
+	private static class VerdictKey {
+		private final IConsentService myService;
+		private final String myContextKey;
+		private final String myResourceType;
+		private final String myResourceId;
+		private final String myVersionId;
+		private final int myHashCode;
+
+		private VerdictKey(
+				IConsentService theService,
+				String theContextKey,
+				String theResourceType,
+				String theResourceId,
+				String theVersionId) {
+			myService = theService;
+			myContextKey = theContextKey;
+			myResourceType = theResourceType;
+			myResourceId = theResourceId;
+			myVersionId = theVersionId;
+			myHashCode = Objects.hash(
+					System.identityHashCode(theService), theContextKey, theResourceType, theResourceId, theVersionId);
+		}
+
+		@Override
+		public boolean equals(Object theO) {
+			if (this == theO) {
+				return true;
+			}
+			if (!(theO instanceof VerdictKey)) {
+				return false;
+			}
+			VerdictKey that = (VerdictKey) theO;
+			return myService == that.myService
+					&& myContextKey.equals(that.myContextKey)
+					&& myResourceType.equals(that.myResourceType)
+					&& myResourceId.equals(that.myResourceId)
+					&& myVersionId.equals(that.myVersionId);
+		}
+
+		@Override
+		public int hashCode() {
+			return myHashCode;
+		}
+	}
+
 	private static ForbiddenOperationException toForbiddenOperationException(ConsentOutcome theOutcome) {
 		IBaseOperationOutcome operationOutcome = null;
 		if (theOutcome.getOperationOutcome() != null) {
@@ -49,6 +49,11 @@ public class DelegatingConsentService implements IConsentService {
 		return myTarget.canSeeResource(theRequestDetails, theResource, theContextServices);
 	}
 
+	@Override
+	public String getConsentContextKey(RequestDetails theRequestDetails, IConsentContextServices theContextServices) {
+		return myTarget.getConsentContextKey(theRequestDetails, theContextServices);
+	}
+
 	@Override
 	public ConsentOutcome willSeeResource(
 			RequestDetails theRequestDetails, IBaseResource theResource, IConsentContextServices theContextServices) {
@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.consent;
+
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import jakarta.annotation.Nonnull;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.List;
+
+/**
+ * A consent service which makes {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices) canSeeResource}
+ * decisions for several resources at once (e.g. for a whole page of search results). This can be implemented by
+ * services which can make these decisions more efficiently for a group of resources, for example by looking up
+ * the consent directives for all of the resources using a single query.
+ * <p>
+ * The {@link ConsentInterceptor} calls {@link #canSeeResources(RequestDetails, List, IConsentContextServices)}
+ * instead of {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)} for services
+ * implementing this interface.
+ * </p>
+ *
+ * @since 7.6.0
+ */
+public interface IBatchConsentService extends IConsentService {
+
+	/**
+	 * This method is called if a user may potentially see a group of resources via READ
+	 * operations, SEARCH operations, etc. The same rules apply to each returned outcome as
+	 * to the outcome of {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}.
+	 *
+	 * @param theRequestDetails  Contains details about the operation that is
+	 *                           beginning, including details about the request type,
+	 *                           URL, etc.
+	 * @param theResources       The resources that will be exposed. Will not be empty.
+	 * @param theContextServices An object passed in by the consent framework that
+	 *                           provides utility functions relevant to acting on
+	 *                           consent directives.
+	 * @return A list containing one outcome for each resource in <code>theResources</code>, in the same order
+	 */
+	@Nonnull
+	List<ConsentOutcome> canSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices);
+}
@@ -21,6 +21,7 @@ package ca.uhn.fhir.rest.server.interceptor.consent;
 
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 /**
@@ -137,6 +138,35 @@ public interface IConsentService {
 		return ConsentOutcome.PROCEED;
 	}
 
+	/**
+	 * Services may implement this method to declare that the decisions made by
+	 * {@link #shouldProcessCanSeeResource(RequestDetails, IConsentContextServices)} and
+	 * {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)} for the current
+	 * request depend only on the returned key (e.g. the user and the consent directives that apply
+	 * to them) and on the contents of the resource being checked. Two requests with the same key must
+	 * always receive the same decision for the same version of a resource.
+	 * <p>
+	 * This method is only called if verdict caching has been enabled on the {@link ConsentInterceptor}
+	 * (see {@link ConsentInterceptor#setVerdictCacheMillis(long)}). In that case, returning a non-null key
+	 * allows the interceptor to reuse decisions for other requests with the same key, and allows
+	 * search results to be cached and reused by other requests with the same key.
+	 * </p>
+	 *
+	 * @param theRequestDetails  Contains details about the operation that is
+	 *                           beginning, including details about the request type,
+	 *                           URL, etc.
+	 * @param theContextServices An object passed in by the consent framework that
+	 *                           provides utility functions relevant to acting on
+	 *                           consent directives.
+	 * @return A key identifying everything the decisions of this service depend on, or <code>null</code> (which
+	 * is the default) if decisions for this request should not be cached
+	 * @since 7.6.0
+	 */
+	@Nullable
+	default String getConsentContextKey(RequestDetails theRequestDetails, IConsentContextServices theContextServices) {
+		return null;
+	}
+
 	/**
 	 * This method is called if a user is about to see a resource, either completely
 	 * or partially. In other words, if the user is going to see any part of this resource
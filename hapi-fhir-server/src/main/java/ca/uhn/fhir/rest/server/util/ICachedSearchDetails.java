@@ -19,8 +19,21 @@
  */
 package ca.uhn.fhir.rest.server.util;
 
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import jakarta.annotation.Nullable;
+
 public interface ICachedSearchDetails {
 
+	/**
+	 * Interceptors which filter search results differently for different requesters may
+	 * store a String under this key in the {@link RequestDetails#getUserData() request user data}
+	 * before the search is performed. A cached search will then only be reused by a later
+	 * request which has the same value (or no value if the original request had none).
+	 *
+	 * @since 7.6.0
+	 */
+	String SEARCH_CACHE_SCOPE_USER_DATA_KEY = ICachedSearchDetails.class.getName() + "_SEARCH_CACHE_SCOPE";
+
 	String getUuid();
 
 	void setUuid(String theUuid);
@@ -31,4 +44,18 @@ public interface ICachedSearchDetails {
 	 * won't be reused in the future)
 	 */
 	void setCannotBeReused();
+
+	/**
+	 * Returns the value stored under {@link #SEARCH_CACHE_SCOPE_USER_DATA_KEY} for the given
+	 * request, or <code>null</code> if there is none
+	 *
+	 * @since 7.6.0
+	 */
+	@Nullable
+	static String getSearchCacheScope(@Nullable RequestDetails theRequestDetails) {
+		if (theRequestDetails == null) {
+			return null;
+		}
+		return (String) theRequestDetails.getUserData().get(SEARCH_CACHE_SCOPE_USER_DATA_KEY);
+	}
 }
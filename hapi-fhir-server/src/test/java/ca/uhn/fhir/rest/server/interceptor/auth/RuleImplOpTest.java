@@ -1,6 +1,7 @@
 package ca.uhn.fhir.rest.server.interceptor.auth;
 
 import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.junit.jupiter.api.Test;
 
@@ -52,6 +53,42 @@ public class RuleImplOpTest {
 		assertFalse(aRuleOp.matches(RuleOpEnum.READ, AppliesTypeEnum.TYPES, Collections.emptyList(), matchTypes, CLASSIFIER_TYPE, "Observation"));
 	}
 
+	@Test
+	public void testIsApplicableToOutputResource() {
+		RuleImplOp readTypes = new RuleImplOp("a");
+		readTypes.setOp(RuleOpEnum.READ);
+		readTypes.setAppliesTo(AppliesTypeEnum.TYPES);
+		readTypes.setAppliesToTypes(Set.of("Observation", "Encounter"));
+		assertTrue(readTypes.isApplicableToOutputResource(RestOperationTypeEnum.SEARCH_TYPE, "Observation"));
+		assertFalse(readTypes.isApplicableToOutputResource(RestOperationTypeEnum.SEARCH_TYPE, "Patient"));
+
+		RuleImplOp readInstances = new RuleImplOp("b");
+		readInstances.setOp(RuleOpEnum.READ);
+		readInstances.setAppliesTo(AppliesTypeEnum.INSTANCES);
+		readInstances.setAppliesToInstances(List.of(new IdDt("Patient/123")));
+		assertTrue(readInstances.isApplicableToOutputResource(RestOperationTypeEnum.READ, "Patient"));
+		assertFalse(readInstances.isApplicableToOutputResource(RestOperationTypeEnum.READ, "Observation"));
+
+		RuleImplOp readAll = new RuleImplOp("c");
+		readAll.setOp(RuleOpEnum.READ);
+		readAll.setAppliesTo(AppliesTypeEnum.ALL_RESOURCES);
+		assertTrue(readAll.isApplicableToOutputResource(RestOperationTypeEnum.READ, "Observation"));
+
+		RuleImplOp write = new RuleImplOp("d");
+		write.setOp(RuleOpEnum.WRITE);
+		write.setAppliesTo(AppliesTypeEnum.ALL_RESOURCES);
+		assertFalse(write.isApplicableToOutputResource(RestOperationTypeEnum.SEARCH_TYPE, "Observation"));
+
+		RuleImplOp transaction = new RuleImplOp("e");
+		transaction.setOp(RuleOpEnum.TRANSACTION);
+		assertTrue(transaction.isApplicableToOutputResource(RestOperationTypeEnum.TRANSACTION, "Observation"));
+		assertFalse(transaction.isApplicableToOutputResource(RestOperationTypeEnum.SEARCH_TYPE, "Observation"));
+
+		RuleImplOp all = new RuleImplOp("f");
+		all.setOp(RuleOpEnum.ALL);
+		assertTrue(all.isApplicableToOutputResource(RestOperationTypeEnum.SEARCH_TYPE, "Observation"));
+	}
+
 	@Test
 	public void testMatchesInstances() {
 		RuleImplOp aRuleOp = new RuleImplOp("a");
@@ -21,6 +21,7 @@ package ca.uhn.fhir.sl.cache;
  */
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 /**
@@ -50,4 +51,12 @@ public interface Cache<K, V> {
 	long estimatedSize();
 
 	void cleanUp();
+
+	/**
+	 * Returns a thread-safe view of the entries currently stored in this cache. Changes
+	 * made to the returned map are reflected in the cache.
+	 *
+	 * @since 7.6.0
+	 */
+	ConcurrentMap<K, V> asMap();
 }
@@ -19,8 +19,11 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class CacheLoaderTest {
@@ -56,4 +59,18 @@ public class CacheLoaderTest {
 		});
 		assertNull(cache.get("1"));
 	}
+
+	@Test
+	void asMapConditionalOperationsTest() {
+		Cache<String, String> cache = CacheFactory.build(1000);
+		cache.put("1", "A");
+
+		assertFalse(cache.asMap().replace("1", "B", "C"));
+		assertTrue(cache.asMap().replace("1", "A", "B"));
+		assertEquals("B", cache.getIfPresent("1"));
+
+		assertFalse(cache.asMap().remove("1", "A"));
+		assertTrue(cache.asMap().remove("1", "B"));
+		assertNull(cache.getIfPresent("1"));
+	}
 }
@@ -1,10 +1,14 @@
 package ca.uhn.fhir.sl.cache.guava;
 
+import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.sl.cache.CacheFactory;
 import ca.uhn.fhir.sl.cache.LoadingCache;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CacheLoaderTest {
 	@Test
@@ -14,4 +18,18 @@ public class CacheLoaderTest {
 		});
 		assertNull(cache.get("1"));
 	}
+
+	@Test
+	void asMapConditionalOperationsTest() {
+		Cache<String, String> cache = CacheFactory.build(1000);
+		cache.put("1", "A");
+
+		assertFalse(cache.asMap().replace("1", "B", "C"));
+		assertTrue(cache.asMap().replace("1", "A", "B"));
+		assertEquals("B", cache.getIfPresent("1"));
+
+		assertFalse(cache.asMap().remove("1", "A"));
+		assertTrue(cache.asMap().remove("1", "B"));
+		assertNull(cache.getIfPresent("1"));
+	}
 }
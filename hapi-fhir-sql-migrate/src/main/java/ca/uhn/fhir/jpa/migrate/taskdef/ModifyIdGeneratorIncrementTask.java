@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * HAPI FHIR Server - SQL Migration
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.migrate.taskdef;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.migrate.JdbcUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Changes the increment of an existing id generator (database sequence). This is used to
+ * allow the Hibernate pooled optimizers to allocate larger blocks of IDs per round trip.
+ * <p>
+ * On databases where sequences are emulated using a table (MySQL and MariaDB) the increment
+ * is not stored in the database, so this task does nothing.
+ * </p>
+ */
+public class ModifyIdGeneratorIncrementTask extends BaseTask {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(ModifyIdGeneratorIncrementTask.class);
+	private final String myGeneratorName;
+	private final int myIncrement;
+
+	public ModifyIdGeneratorIncrementTask(
+			String theProductVersion, String theSchemaVersion, String theGeneratorName, int theIncrement) {
+		super(theProductVersion, theSchemaVersion);
+		myGeneratorName = theGeneratorName;
+		myIncrement = theIncrement;
+	}
+
+	@Override
+	public void validate() {
+		Validate.notBlank(myGeneratorName);
+		Validate.isTrue(myIncrement > 0, "Increment must be a positive number");
+		setDescription("Modify id generator " + myGeneratorName + " increment to " + myIncrement);
+	}
+
+	@Override
+	public void doExecute() throws SQLException {
+		String sql = null;
+
+		switch (getDriverType()) {
+			case MARIADB_10_1:
+			case MYSQL_5_7:
+				// These use a table, and the increment is applied by Hibernate
+				logInfo(ourLog, "Id generator {} is not a sequence - No action performed", myGeneratorName);
+				break;
+			case DERBY_EMBEDDED:
+				// Derby does not support altering a sequence
+				logInfo(ourLog, "Derby does not support modifying sequence {} - No action performed", myGeneratorName);
+				break;
+			case H2_EMBEDDED:
+			case POSTGRES_9_4:
+			case COCKROACHDB_21_1:
+			case ORACLE_12C:
+			case MSSQL_2012:
+				sql = "alter sequence " + myGeneratorName + " increment by " + myIncrement;
+				break;
+			default:
+				throw new IllegalStateException(Msg.code(2552));
+		}
+
+		if (isNotBlank(sql)) {
+			Set<String> sequenceNames = JdbcUtils.getSequenceNames(getConnectionProperties()).stream()
+					.map(s -> s.toLowerCase(Locale.US))
+					.collect(Collectors.toSet());
+			ourLog.debug("Currently have sequences: {}", sequenceNames);
+			if (!sequenceNames.contains(myGeneratorName.toLowerCase(Locale.US))) {
+				logInfo(ourLog, "Sequence {} does not exist - No action performed", myGeneratorName);
+				return;
+			}
+
+			executeSql(myGeneratorName, sql);
+		}
+	}
+
+	@Override
+	protected void generateEquals(EqualsBuilder theBuilder, BaseTask theOtherObject) {
+		ModifyIdGeneratorIncrementTask otherObject = (ModifyIdGeneratorIncrementTask) theOtherObject;
+		theBuilder.append(myGeneratorName, otherObject.myGeneratorName);
+		theBuilder.append(myIncrement, otherObject.myIncrement);
+	}
+
+	@Override
+	protected void generateHashCode(HashCodeBuilder theBuilder) {
+		theBuilder.append(myGeneratorName);
+		theBuilder.append(myIncrement);
+	}
+}
@@ -45,6 +45,7 @@ import ca.uhn.fhir.jpa.migrate.taskdef.MigrateColumBlobTypeToBinaryTypeTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.MigrateColumnClobTypeToTextTypeTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.MigratePostgresTextClobToBinaryClobTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.ModifyColumnTask;
+import ca.uhn.fhir.jpa.migrate.taskdef.ModifyIdGeneratorIncrementTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.NopTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.RenameColumnTask;
 import ca.uhn.fhir.jpa.migrate.taskdef.RenameIndexTask;
@@ -180,6 +181,14 @@ public class Builder {
 		return new BuilderCompleteTask(task);
 	}
 
+	public BuilderCompleteTask modifyIdGeneratorIncrement(
+			String theVersion, String theIdGeneratorName, int theIncrement) {
+		ModifyIdGeneratorIncrementTask task =
+				new ModifyIdGeneratorIncrementTask(myRelease, theVersion, theIdGeneratorName, theIncrement);
+		addTask(task);
+		return new BuilderCompleteTask(task);
+	}
+
 	public void addNop(String theVersion) {
 		addTask(new NopTask(myRelease, theVersion));
 	}
@@ -0,0 +1,61 @@
+package ca.uhn.fhir.jpa.migrate.taskdef;
+
+import ca.uhn.fhir.jpa.migrate.DriverTypeEnum;
+import ca.uhn.fhir.jpa.migrate.JdbcUtils;
+import ca.uhn.fhir.jpa.migrate.tasks.api.BaseMigrationTasks;
+import ca.uhn.fhir.jpa.migrate.tasks.api.Builder;
+import ca.uhn.fhir.util.VersionEnum;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ModifyIdGeneratorIncrementTaskTest extends BaseTest {
+
+	@ParameterizedTest(name = "{index}: {0}")
+	@MethodSource("data")
+	public void testModifyIdGeneratorIncrement(Supplier<TestDatabaseDetails> theTestDatabaseDetails) throws SQLException {
+		DriverTypeEnum driverType = before(theTestDatabaseDetails);
+
+		MyMigrationTasks migrationTasks = new MyMigrationTasks();
+		getMigrator().addTasks(migrationTasks.getTaskList(VersionEnum.V3_3_0, VersionEnum.V3_6_0));
+		getMigrator().migrate();
+
+		assertThat(JdbcUtils.getSequenceNames(getConnectionProperties())).containsExactlyInAnyOrder("SEQ_FOO");
+
+		if (driverType == DriverTypeEnum.H2_EMBEDDED) {
+			List<Map<String, Object>> rows = executeQuery("SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'SEQ_FOO'");
+			assertEquals(1000L, ((Number) rows.get(0).get("INCREMENT")).longValue());
+		}
+	}
+
+	@ParameterizedTest(name = "{index}: {0}")
+	@MethodSource("data")
+	public void testModifyIdGeneratorIncrement_SequenceDoesNotExist(Supplier<TestDatabaseDetails> theTestDatabaseDetails) throws SQLException {
+		before(theTestDatabaseDetails);
+
+		BaseMigrationTasks<VersionEnum> migrationTasks = new BaseMigrationTasks<>();
+		migrationTasks.forVersion(VersionEnum.V3_5_0).modifyIdGeneratorIncrement("20240801.1", "SEQ_FOO", 1000);
+		getMigrator().addTasks(migrationTasks.getTaskList(VersionEnum.V3_3_0, VersionEnum.V3_6_0));
+		getMigrator().migrate();
+
+		assertThat(JdbcUtils.getSequenceNames(getConnectionProperties())).isEmpty();
+	}
+
+	private static class MyMigrationTasks extends BaseMigrationTasks<VersionEnum> {
+
+		public MyMigrationTasks() {
+			Builder v = forVersion(VersionEnum.V3_5_0);
+			v.addIdGenerator("20240801.1", "SEQ_FOO");
+			v.modifyIdGeneratorIncrement("20240801.2", "SEQ_FOO", 1000);
+		}
+
+	}
+
+}
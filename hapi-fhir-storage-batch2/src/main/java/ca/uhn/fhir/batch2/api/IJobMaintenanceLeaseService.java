@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server - Batch2 Task Processor
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.api;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Coordinates which cluster node performs batch2 maintenance for which job instances
+ * when maintenance is partitioned (see
+ * {@link ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setJobMaintenancePartitionCount(int)}).
+ * <p>
+ * Job instance IDs are hashed into a fixed number of partitions, and each partition is
+ * leased to at most one node at a time. A node only performs maintenance on the instances
+ * in the partitions it currently holds a lease for, which means that every instance still
+ * has a single writer even though maintenance passes run in parallel on every node.
+ * </p>
+ * <p>
+ * All nodes in a cluster must use the same maintenance mode. Nodes which are not configured
+ * for partitioned maintenance skip their maintenance pass while any partition lease is active
+ * (see {@link #hasActiveLeases(Date)}).
+ * </p>
+ */
+public interface IJobMaintenanceLeaseService {
+
+	/**
+	 * Records that the given node is alive, renews the leases it already holds, and acquires
+	 * leases on partitions which are not leased (or whose lease has expired) until the node
+	 * holds its fair share of the partitions. If the node holds more than its fair share
+	 * (e.g. because another node has joined the cluster), the extra leases are released so
+	 * that other nodes can acquire them.
+	 *
+	 * @param theNodeId         A unique identifier for the node
+	 * @param thePartitionCount The total number of partitions
+	 * @param theNow            The current time
+	 * @param theLeaseExpiry    The time that any renewed or acquired leases expire
+	 * @return The partitions which are leased to the node until <code>theLeaseExpiry</code>
+	 */
+	@Nonnull
+	Set<Integer> acquireLeases(
+			@Nonnull String theNodeId, int thePartitionCount, @Nonnull Date theNow, @Nonnull Date theLeaseExpiry);
+
+	/**
+	 * Returns <code>true</code> if the given node still holds an unexpired lease on the given
+	 * partition. This is checked before each change a node makes to a job instance, so that a
+	 * node which has lost its lease (e.g. because it was paused for longer than the lease lasts
+	 * and another node acquired the partition) stops writing to the instances in the partition.
+	 */
+	boolean isLeaseHeld(@Nonnull String theNodeId, int thePartition, @Nonnull Date theNow);
+
+	/**
+	 * Returns <code>true</code> if any node holds an unexpired lease on any partition, meaning
+	 * that partitioned maintenance is in use somewhere in the cluster.
+	 */
+	boolean hasActiveLeases(@Nonnull Date theNow);
+
+	/**
+	 * Releases all leases held by the given node so that other nodes can acquire them
+	 * without waiting for them to expire. This is called when a node shuts down.
+	 */
+	void releaseLeases(@Nonnull String theNodeId);
+}
@@ -20,6 +20,7 @@
 package ca.uhn.fhir.batch2.config;
 
 import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
 import ca.uhn.fhir.batch2.api.IJobMaintenanceService;
 import ca.uhn.fhir.batch2.api.IJobPartitionProvider;
 import ca.uhn.fhir.batch2.api.IJobPersistence;
@@ -43,6 +44,7 @@ import ca.uhn.fhir.jpa.subscription.channel.api.ChannelProducerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelFactory;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelProducer;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -108,8 +110,9 @@ public abstract class BaseBatch2Config {
 			JpaStorageSettings theStorageSettings,
 			BatchJobSender theBatchJobSender,
 			WorkChunkProcessor theExecutor,
-			IReductionStepExecutorService theReductionStepExecutorService) {
-		return new JobMaintenanceServiceImpl(
+			IReductionStepExecutorService theReductionStepExecutorService,
+			ObjectProvider<IJobMaintenanceLeaseService> theLeaseService) {
+		JobMaintenanceServiceImpl retVal = new JobMaintenanceServiceImpl(
 				theSchedulerService,
 				myPersistence,
 				theStorageSettings,
@@ -117,6 +120,8 @@ public abstract class BaseBatch2Config {
 				theBatchJobSender,
 				theExecutor,
 				theReductionStepExecutorService);
+		retVal.setLeaseService(theLeaseService.getIfAvailable());
+		return retVal;
 	}
 
 	@Bean
@@ -45,6 +45,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 public class JobInstanceProcessor {
 	private static final Logger ourLog = Logs.getBatchTroubleshootingLog();
@@ -60,6 +61,7 @@ public class JobInstanceProcessor {
 	private final IReductionStepExecutorService myReductionStepExecutorService;
 	private final String myInstanceId;
 	private final JobDefinitionRegistry myJobDefinitionegistry;
+	private BooleanSupplier myOwnershipCheck = () -> true;
 
 	public JobInstanceProcessor(
 			IJobPersistence theJobPersistence,
@@ -79,12 +81,29 @@ public class JobInstanceProcessor {
 		myJobInstanceStatusUpdater = new JobInstanceStatusUpdater(theJobDefinitionRegistry);
 	}
 
+	/**
+	 * Sets a check which is made before each change to the job instance. If the check returns
+	 * <code>false</code>, this node is no longer responsible for maintaining the instance and
+	 * processing stops. By default, the check always passes.
+	 */
+	public void setOwnershipCheck(BooleanSupplier theOwnershipCheck) {
+		myOwnershipCheck = theOwnershipCheck;
+	}
+
+	private boolean isStillOwned() {
+		if (myOwnershipCheck.getAsBoolean()) {
+			return true;
+		}
+		ourLog.info("No longer responsible for maintenance of job {}, stopping", myInstanceId);
+		return false;
+	}
+
 	public void process() {
 		ourLog.debug("Starting job processing: {}", myInstanceId);
 		StopWatch stopWatch = new StopWatch();
 
 		JobInstance theInstance = myJobPersistence.fetchInstance(myInstanceId).orElse(null);
-		if (theInstance == null) {
+		if (theInstance == null || !isStillOwned()) {
 			return;
 		}
 
@@ -98,13 +117,22 @@ public class JobInstanceProcessor {
 				myJobDefinitionegistry.getJobDefinitionOrThrowException(theInstance);
 
 		// move POLL_WAITING -> READY
+		if (!isStillOwned()) {
+			return;
+		}
 		processPollingChunks(theInstance.getInstanceId());
 		// determine job progress; delete CANCELED/COMPLETE/FAILED jobs that are no longer needed
+		if (!isStillOwned()) {
+			return;
+		}
 		cleanupInstance(theInstance);
 		// move gated jobs to the next step, if needed
 		// moves GATE_WAITING / QUEUED (legacy) chunks to:
 		// READY (for regular gated jobs)
 		// REDUCTION_READY (if it's the final reduction step)
+		if (!isStillOwned()) {
+			return;
+		}
 		triggerGatedExecutions(theInstance, jobDefinition);
 
 		if (theInstance.hasGatedStep() && theInstance.isRunning()) {
@@ -118,12 +146,17 @@ public class JobInstanceProcessor {
 					jobDefinition, updatedInstance.get().getCurrentGatedStepId());
 			if (jobWorkCursor.isReductionStep()) {
 				// Reduction step work chunks should never be sent to the queue but to its specific service instead.
-				triggerReductionStep(theInstance, jobWorkCursor);
+				if (isStillOwned()) {
+					triggerReductionStep(theInstance, jobWorkCursor);
+				}
 				return;
 			}
 		}
 
 		// enqueue all READY chunks
+		if (!isStillOwned()) {
+			return;
+		}
 		enqueueReadyChunks(theInstance, jobDefinition);
 
 		ourLog.debug("Finished job processing: {} - {}", myInstanceId, stopWatch);
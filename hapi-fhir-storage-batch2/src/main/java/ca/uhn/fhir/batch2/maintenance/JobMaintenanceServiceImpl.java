@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.batch2.maintenance;
 
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
 import ca.uhn.fhir.batch2.api.IJobMaintenanceService;
 import ca.uhn.fhir.batch2.api.IJobPersistence;
 import ca.uhn.fhir.batch2.api.IReductionStepExecutorService;
@@ -35,15 +36,20 @@ import ca.uhn.fhir.jpa.model.sched.ScheduledJobDefinition;
 import ca.uhn.fhir.util.Logs;
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.time.DateUtils;
 import org.quartz.JobExecutionContext;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -75,6 +81,13 @@ import java.util.concurrent.TimeUnit;
  *    The maintenance pass is run once per minute.  However if a gated job is fast-tracking (i.e. every step produced
  *    exactly one chunk, then the maintenance task will be triggered earlier than scheduled by the step executor.
  * </p>
+ *
+ * <p>
+ *    By default the maintenance pass runs on a single node of the cluster (whichever node holds the clustered
+ *    scheduler lock). If {@link JpaStorageSettings#setJobMaintenancePartitionCount(int) partitioned maintenance}
+ *    is enabled and an {@link IJobMaintenanceLeaseService} is available, the pass instead runs on every node,
+ *    and each node only processes the job instances whose ID hashes into a partition it holds a lease for.
+ * </p>
  */
 public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasScheduledJobs {
 	static final Logger ourLog = Logs.getBatchTroubleshootingLog();
@@ -82,6 +95,7 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 	public static final int INSTANCES_PER_PASS = 100;
 	public static final String SCHEDULED_JOB_ID = JobMaintenanceScheduledJob.class.getName();
 	public static final int MAINTENANCE_TRIGGER_RUN_WITHOUT_SCHEDULER_TIMEOUT = 5;
+	public static final long DEFAULT_LEASE_DURATION_MILLIS = 5 * DateUtils.MILLIS_PER_MINUTE;
 
 	private final IJobPersistence myJobPersistence;
 	private final ISchedulerService mySchedulerService;
@@ -99,6 +113,13 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 
 	private boolean myEnabledBool = true;
 
+	private final String myNodeId = UUID.randomUUID().toString();
+	private IJobMaintenanceLeaseService myLeaseService;
+	private long myLeaseDurationMillis = DEFAULT_LEASE_DURATION_MILLIS;
+	private Set<Integer> myLeasedPartitions = Collections.emptySet();
+	private long myLeaseRenewalTime;
+	private long myLeaseValidUntil;
+
 	/**
 	 * Constructor
 	 */
@@ -126,7 +147,12 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 
 	@Override
 	public void scheduleJobs(ISchedulerService theSchedulerService) {
-		mySchedulerService.scheduleClusteredJob(myScheduledJobFrequencyMillis, buildJobDefinition());
+		if (isMaintenancePartitioned()) {
+			// Every node runs its own pass over the partitions it holds a lease for
+			mySchedulerService.scheduleLocalJob(myScheduledJobFrequencyMillis, buildJobDefinition());
+		} else {
+			mySchedulerService.scheduleClusteredJob(myScheduledJobFrequencyMillis, buildJobDefinition());
+		}
 	}
 
 	@Nonnull
@@ -141,6 +167,30 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 		myScheduledJobFrequencyMillis = theScheduledJobFrequencyMillis;
 	}
 
+	/**
+	 * Provides the service used to lease maintenance partitions. If this is not set, maintenance
+	 * is never partitioned.
+	 */
+	public void setLeaseService(@Nullable IJobMaintenanceLeaseService theLeaseService) {
+		myLeaseService = theLeaseService;
+	}
+
+	/**
+	 * Sets how long a lease on a maintenance partition is held for before it must be renewed.
+	 * This must be comfortably longer than the time needed to run a maintenance pass for a single
+	 * job instance, since a node stops processing a partition when less than a quarter of its
+	 * lease remains. Default is {@link #DEFAULT_LEASE_DURATION_MILLIS}.
+	 */
+	public void setLeaseDurationMillis(long theLeaseDurationMillis) {
+		Validate.isTrue(theLeaseDurationMillis > 0, "theLeaseDurationMillis must be positive");
+		myLeaseDurationMillis = theLeaseDurationMillis;
+	}
+
+	@VisibleForTesting
+	String getNodeId() {
+		return myNodeId;
+	}
+
 	/**
 	 * @return true if a request to run a maintance pass was submitted
 	 */
@@ -150,7 +200,11 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 			return false;
 		}
 		if (mySchedulerService.isClusteredSchedulingEnabled()) {
-			mySchedulerService.triggerClusteredJobImmediately(buildJobDefinition());
+			if (isMaintenancePartitioned()) {
+				mySchedulerService.triggerLocalJobImmediately(buildJobDefinition());
+			} else {
+				mySchedulerService.triggerClusteredJobImmediately(buildJobDefinition());
+			}
 			return true;
 		} else {
 			// We are probably running a unit test
@@ -223,8 +277,121 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 		}
 	}
 
+	@PreDestroy
+	public void stop() {
+		if (myLeaseService != null && !myLeasedPartitions.isEmpty()) {
+			try {
+				myLeaseService.releaseLeases(myNodeId);
+			} catch (Exception e) {
+				ourLog.warn("Failed to release maintenance partition leases for node {}", myNodeId, e);
+			}
+			myLeasedPartitions = Collections.emptySet();
+			myLeaseValidUntil = 0;
+		}
+	}
+
+	private boolean isMaintenancePartitioned() {
+		return myLeaseService != null && myStorageSettings.getJobMaintenancePartitionCount() > 1;
+	}
+
+	/**
+	 * Renews and acquires leases on maintenance partitions. The leases are treated as valid for
+	 * three quarters of the lease duration only, which leaves a margin for clock differences
+	 * between nodes and for the processing of an instance that was started just before the cutoff.
+	 */
+	private void refreshLeases() {
+		long now = System.currentTimeMillis();
+		try {
+			myLeasedPartitions = myLeaseService.acquireLeases(
+					myNodeId,
+					myStorageSettings.getJobMaintenancePartitionCount(),
+					new Date(now),
+					new Date(now + myLeaseDurationMillis));
+			myLeaseRenewalTime = now + (myLeaseDurationMillis / 2);
+			myLeaseValidUntil = now + (myLeaseDurationMillis * 3 / 4);
+			ourLog.debug("Node {} holds maintenance partitions: {}", myNodeId, myLeasedPartitions);
+		} catch (Exception e) {
+			ourLog.error("Failed to acquire maintenance partition leases for node {}", myNodeId, e);
+			myLeasedPartitions = Collections.emptySet();
+			myLeaseValidUntil = 0;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if this node still holds the lease on the partition of the given job
+	 * instance, checking the lease in the database so that a lease which was lost since it was last
+	 * refreshed (e.g. because this node was paused and another node acquired the partition) is
+	 * detected before any further change is made to the instance.
+	 */
+	private boolean isLeaseStillHeld(String theInstanceId) {
+		if (System.currentTimeMillis() >= myLeaseValidUntil) {
+			return false;
+		}
+		int partition = getMaintenancePartition(theInstanceId, myStorageSettings.getJobMaintenancePartitionCount());
+		try {
+			return myLeaseService.isLeaseHeld(myNodeId, partition, new Date());
+		} catch (Exception e) {
+			ourLog.error("Failed to check maintenance partition lease for node {}", myNodeId, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Partitioned and non-partitioned maintenance can not be mixed within a cluster, since the node
+	 * holding the clustered scheduler lock would then maintain the same instances as the nodes holding
+	 * partition leases. A node which is not configured for partitioned maintenance therefore skips its
+	 * pass while any partition lease is active.
+	 */
+	private boolean isPartitionedMaintenanceActiveElsewhere() {
+		if (myLeaseService == null || isMaintenancePartitioned()) {
+			return false;
+		}
+		try {
+			if (myLeaseService.hasActiveLeases(new Date())) {
+				ourLog.warn(
+						"Skipping batch2 maintenance pass: other nodes are running partitioned maintenance. All nodes in a cluster must use the same JobMaintenancePartitionCount setting");
+				return true;
+			}
+		} catch (Exception e) {
+			ourLog.warn("Failed to check for batch2 maintenance partition leases: {}", e.toString());
+		}
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if this node is currently responsible for performing maintenance on
+	 * the given job instance. This is always the case if maintenance is not partitioned.
+	 */
+	private boolean isMaintainedByThisNode(String theInstanceId) {
+		if (!isMaintenancePartitioned()) {
+			return true;
+		}
+		if (System.currentTimeMillis() >= myLeaseRenewalTime) {
+			refreshLeases();
+		}
+		if (System.currentTimeMillis() >= myLeaseValidUntil) {
+			return false;
+		}
+		int partition = getMaintenancePartition(theInstanceId, myStorageSettings.getJobMaintenancePartitionCount());
+		return myLeasedPartitions.contains(partition);
+	}
+
+	/**
+	 * Returns the maintenance partition for a given job instance ID
+	 */
+	public static int getMaintenancePartition(String theInstanceId, int thePartitionCount) {
+		return Math.floorMod(theInstanceId.hashCode(), thePartitionCount);
+	}
+
 	private void doMaintenancePass() {
 		myMaintenanceJobStartedCallback.run();
+		if (isPartitionedMaintenanceActiveElsewhere()) {
+			myMaintenanceJobFinishedCallback.run();
+			return;
+		}
+		if (isMaintenancePartitioned()) {
+			refreshLeases();
+		}
 		Set<String> processedInstanceIds = new HashSet<>();
 		JobChunkProgressAccumulator progressAccumulator = new JobChunkProgressAccumulator();
 		for (int page = 0; ; page++) {
@@ -232,6 +399,9 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 
 			for (JobInstance instance : instances) {
 				String instanceId = instance.getInstanceId();
+				if (!isMaintainedByThisNode(instanceId)) {
+					continue;
+				}
 				if (myJobDefinitionRegistry
 						.getJobDefinition(instance.getJobDefinitionId(), instance.getJobDefinitionVersion())
 						.isPresent()) {
@@ -244,6 +414,9 @@ public class JobMaintenanceServiceImpl implements IJobMaintenanceService, IHasSc
 								progressAccumulator,
 								myReductionStepExecutorService,
 								myJobDefinitionRegistry);
+						if (isMaintenancePartitioned()) {
+							jobInstanceProcessor.setOwnershipCheck(() -> isLeaseStillHeld(instanceId));
+						}
 						ourLog.debug(
 								"Triggering maintenance process for instance {} in status {}",
 								instanceId,
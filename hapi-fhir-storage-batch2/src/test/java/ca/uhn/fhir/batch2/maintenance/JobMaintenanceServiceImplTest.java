@@ -1,6 +1,7 @@
 package ca.uhn.fhir.batch2.maintenance;
 
 import ca.uhn.fhir.batch2.api.IJobCompletionHandler;
+import ca.uhn.fhir.batch2.api.IJobMaintenanceLeaseService;
 import ca.uhn.fhir.batch2.api.IJobPersistence;
 import ca.uhn.fhir.batch2.api.IReductionStepExecutorService;
 import ca.uhn.fhir.batch2.api.JobCompletionDetails;
@@ -69,9 +70,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -105,6 +108,8 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 	private ArgumentCaptor<JobCompletionDetails<TestJobParameters>> myJobCompletionCaptor;
 	@Mock
 	private IReductionStepExecutorService myReductionStepExecutorService;
+	@Mock
+	private IJobMaintenanceLeaseService myLeaseService;
 
 	@BeforeEach
 	public void beforeEach() {
@@ -574,6 +579,87 @@ public class JobMaintenanceServiceImplTest extends BaseBatch2Test {
 		assertTrue(result2.get());
 	}
 
+	@Test
+	void testPartitionedMaintenance_onlyLeasedInstancesProcessed() {
+		int partitionCount = 4;
+		myStorageSettings.setJobMaintenancePartitionCount(partitionCount);
+		mySvc.setLeaseService(myLeaseService);
+
+		int leasedPartition = JobMaintenanceServiceImpl.getMaintenancePartition(INSTANCE_ID, partitionCount);
+		String otherInstanceId = INSTANCE_ID;
+		for (int i = 0; JobMaintenanceServiceImpl.getMaintenancePartition(otherInstanceId, partitionCount) == leasedPartition; i++) {
+			otherInstanceId = INSTANCE_ID + "-" + i;
+		}
+
+		myJobDefinitionRegistry.addJobDefinition(createJobDefinition());
+		JobInstance instance = createInstance();
+		JobInstance otherInstance = createInstance();
+		otherInstance.setInstanceId(otherInstanceId);
+		when(myJobPersistence.fetchInstances(anyInt(), eq(0))).thenReturn(List.of(instance, otherInstance));
+		when(myLeaseService.acquireLeases(eq(mySvc.getNodeId()), eq(partitionCount), any(), any()))
+			.thenReturn(Set.of(leasedPartition));
+		when(myJobPersistence.fetchInstance(INSTANCE_ID)).thenReturn(Optional.of(instance));
+		when(myLeaseService.isLeaseHeld(eq(mySvc.getNodeId()), eq(leasedPartition), any())).thenReturn(true);
+
+		mySvc.runMaintenancePass();
+
+		verify(myLeaseService, times(1)).acquireLeases(any(), anyInt(), any(), any());
+		verify(myJobPersistence, atLeastOnce()).fetchInstance(INSTANCE_ID);
+		verify(myJobPersistence, never()).fetchInstance(otherInstanceId);
+		verify(myJobPersistence, times(1)).updatePollWaitingChunksForJobIfReady(INSTANCE_ID);
+	}
+
+	@Test
+	void testPartitionedMaintenance_leaseLost_stopsProcessingInstance() {
+		int partitionCount = 4;
+		myStorageSettings.setJobMaintenancePartitionCount(partitionCount);
+		mySvc.setLeaseService(myLeaseService);
+
+		int leasedPartition = JobMaintenanceServiceImpl.getMaintenancePartition(INSTANCE_ID, partitionCount);
+		myJobDefinitionRegistry.addJobDefinition(createJobDefinition());
+		when(myJobPersistence.fetchInstances(anyInt(), eq(0))).thenReturn(List.of(createInstance()));
+		when(myJobPersistence.fetchInstance(INSTANCE_ID)).thenReturn(Optional.of(createInstance()));
+		when(myLeaseService.acquireLeases(eq(mySvc.getNodeId()), eq(partitionCount), any(), any()))
+			.thenReturn(Set.of(leasedPartition));
+		// Another node has taken over the partition since the leases were refreshed
+		when(myLeaseService.isLeaseHeld(eq(mySvc.getNodeId()), eq(leasedPartition), any())).thenReturn(false);
+
+		mySvc.runMaintenancePass();
+
+		verify(myJobPersistence, never()).updatePollWaitingChunksForJobIfReady(any());
+		verify(myJobPersistence, never()).updateInstance(any(), any());
+	}
+
+	@Test
+	void testNotPartitionedMaintenance_otherNodesHoldLeases_passSkipped() {
+		mySvc.setLeaseService(myLeaseService);
+		when(myLeaseService.hasActiveLeases(any())).thenReturn(true);
+
+		mySvc.runMaintenancePass();
+
+		verify(myJobPersistence, never()).fetchInstances(anyInt(), anyInt());
+	}
+
+	@Test
+	void testPartitionedMaintenance_scheduledOnEveryNode() {
+		myStorageSettings.setJobMaintenancePartitionCount(4);
+		mySvc.setLeaseService(myLeaseService);
+
+		mySvc.scheduleJobs(mySchedulerService);
+
+		verify(mySchedulerService, times(1)).scheduleLocalJob(anyLong(), any());
+		verify(mySchedulerService, never()).scheduleClusteredJob(anyLong(), any());
+	}
+
+	@Test
+	void testPartitionedMaintenance_noLeaseService_notPartitioned() {
+		myStorageSettings.setJobMaintenancePartitionCount(4);
+
+		mySvc.scheduleJobs(mySchedulerService);
+
+		verify(mySchedulerService, times(1)).scheduleClusteredJob(anyLong(), any());
+	}
+
 	private static Date parseTime(String theDate) {
 		return new DateTimeType(theDate).getValue();
 	}
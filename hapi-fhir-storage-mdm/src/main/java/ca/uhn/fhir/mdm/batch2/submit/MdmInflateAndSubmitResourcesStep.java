@@ -29,7 +29,9 @@ import ca.uhn.fhir.batch2.jobs.chunk.ResourceIdListWorkChunkJson;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.mdm.api.IMdmBatchMatchingSvc;
 import ca.uhn.fhir.mdm.api.IMdmChannelSubmitterSvc;
+import ca.uhn.fhir.mdm.api.IMdmSettings;
 import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.interceptor.ResponseTerminologyTranslationSvc;
@@ -55,6 +57,12 @@ public class MdmInflateAndSubmitResourcesStep
 	@Autowired
 	private IMdmChannelSubmitterSvc myMdmChannelSubmitterSvc;
 
+	@Autowired(required = false)
+	private IMdmBatchMatchingSvc myMdmBatchMatchingSvc;
+
+	@Autowired
+	private IMdmSettings myMdmSettings;
+
 	@Autowired
 	private IIdHelperService<? extends IResourcePersistentId> myIdHelperService;
 
@@ -80,8 +88,12 @@ public class MdmInflateAndSubmitResourcesStep
 		}
 
 		// Submit
-		for (IBaseResource nextResource : allResources) {
-			myMdmChannelSubmitterSvc.submitResourceToMdmChannel(nextResource);
+		if (myMdmSettings.isBatchMatchingEnabled() && myMdmBatchMatchingSvc != null) {
+			myMdmBatchMatchingSvc.matchResources(allResources);
+		} else {
+			for (IBaseResource nextResource : allResources) {
+				myMdmChannelSubmitterSvc.submitResourceToMdmChannel(nextResource);
+			}
 		}
 
 		ourLog.info("Expanding of {} resources of type completed", idList.size());
@@ -325,6 +325,22 @@ public class JpaStorageSettings extends StorageSettings {
 	 * Since 6.4.0
 	 */
 	private boolean myJobFastTrackingEnabled = false;
+	/**
+	 * Since 7.6.0
+	 */
+	private int myJobMaintenancePartitionCount = 0;
+	/**
+	 * Since 7.6.0
+	 */
+	private int myMaterializedPidListThreshold = 0;
+	/**
+	 * Since 7.6.0
+	 */
+	private long myResourceReadCacheMillis = 0;
+	/**
+	 * Since 7.6.0
+	 */
+	private boolean myStoredJsonPassThroughEnabled = false;
 
 	/**
 	 * Since 6.6.0
@@ -2373,6 +2389,183 @@ public class JpaStorageSettings extends StorageSettings {
 		myJobFastTrackingEnabled = theJobFastTrackingEnabled;
 	}
 
+	/**
+	 * If this setting is set to a value greater than 1, batch2 job maintenance is partitioned across
+	 * the nodes of a cluster. Job instances are hashed into this number of partitions, and each node
+	 * leases a share of the partitions and performs maintenance only for the job instances in them.
+	 * Maintenance passes then run in parallel on every node instead of on a single node holding the
+	 * clustered scheduler lock, while each job instance is still maintained by a single node at a time.
+	 * <p>
+	 * The number of partitions should be larger than the number of nodes in the cluster (e.g. 4 or 8
+	 * times larger) so that the partitions can be spread evenly. Default is 0, meaning that
+	 * maintenance is not partitioned.
+	 * </p>
+	 * <p>
+	 * All nodes in a cluster must use the same setting. Mixing partitioned and non-partitioned
+	 * maintenance is not supported: a node which is not partitioned skips its maintenance pass
+	 * while any partition lease is held by another node.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public int getJobMaintenancePartitionCount() {
+		return myJobMaintenancePartitionCount;
+	}
+
+	/**
+	 * If this setting is set to a value greater than 1, batch2 job maintenance is partitioned across
+	 * the nodes of a cluster. Job instances are hashed into this number of partitions, and each node
+	 * leases a share of the partitions and performs maintenance only for the job instances in them.
+	 * Maintenance passes then run in parallel on every node instead of on a single node holding the
+	 * clustered scheduler lock, while each job instance is still maintained by a single node at a time.
+	 * <p>
+	 * The number of partitions should be larger than the number of nodes in the cluster (e.g. 4 or 8
+	 * times larger) so that the partitions can be spread evenly. Default is 0, meaning that
+	 * maintenance is not partitioned.
+	 * </p>
+	 * <p>
+	 * All nodes in a cluster must use the same setting. Mixing partitioned and non-partitioned
+	 * maintenance is not supported: a node which is not partitioned skips its maintenance pass
+	 * while any partition lease is held by another node.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setJobMaintenancePartitionCount(int theJobMaintenancePartitionCount) {
+		Validate.isTrue(theJobMaintenancePartitionCount >= 0, "theJobMaintenancePartitionCount must not be negative");
+		myJobMaintenancePartitionCount = theJobMaintenancePartitionCount;
+	}
+
+	/**
+	 * If this setting is set to a value greater than 0, searches on reference parameters and on
+	 * <code>_id</code> whose OR-list resolves to more than this number of resources will not place
+	 * the resource IDs in the SQL query as a large <code>IN (...)</code> list. Instead, the IDs are
+	 * stored once as a server-side list in the search result table, and the query selects against
+	 * that list using a single bind variable. Identical lists (e.g. the compartments added by
+	 * SearchNarrowingInterceptor for a given user) are stored once and reused by later searches, so
+	 * the database sees the same SQL for every such search and can reuse its query plan.
+	 * <p>
+	 * Stored lists are reused for half of {@link #getExpireSearchResultsAfterMillis()} and are then
+	 * removed along with other expired search results. This setting requires that searches are
+	 * cached in the database (which is the default). Default is 0, meaning that IDs are always
+	 * placed in the SQL query.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public int getMaterializedPidListThreshold() {
+		return myMaterializedPidListThreshold;
+	}
+
+	/**
+	 * If this setting is set to a value greater than 0, searches on reference parameters and on
+	 * <code>_id</code> whose OR-list resolves to more than this number of resources will not place
+	 * the resource IDs in the SQL query as a large <code>IN (...)</code> list. Instead, the IDs are
+	 * stored once as a server-side list in the search result table, and the query selects against
+	 * that list using a single bind variable. Identical lists (e.g. the compartments added by
+	 * SearchNarrowingInterceptor for a given user) are stored once and reused by later searches, so
+	 * the database sees the same SQL for every such search and can reuse its query plan.
+	 * <p>
+	 * Stored lists are reused for half of {@link #getExpireSearchResultsAfterMillis()} and are then
+	 * removed along with other expired search results. This setting requires that searches are
+	 * cached in the database (which is the default). Default is 0, meaning that IDs are always
+	 * placed in the SQL query.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setMaterializedPidListThreshold(int theMaterializedPidListThreshold) {
+		Validate.isTrue(theMaterializedPidListThreshold >= 0, "theMaterializedPidListThreshold must not be negative");
+		myMaterializedPidListThreshold = theMaterializedPidListThreshold;
+	}
+
+	/**
+	 * If this setting is set to a value greater than 0, resources returned by read and vread
+	 * operations are cached in memory for up to the given number of milliseconds, so that
+	 * repeated reads of frequently used resources (e.g. Practitioner, Organization and Location)
+	 * do not need to load and decode the stored resource. Entries are invalidated as soon as the
+	 * resource is updated, deleted, expunged or has its tags changed on this server. On a
+	 * clustered server, a read on another node may return the previous version of a resource
+	 * until its cache entry expires, so this value should be kept short in that case.
+	 * <p>
+	 * Default is 0, meaning that reads are not cached.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public long getResourceReadCacheMillis() {
+		return myResourceReadCacheMillis;
+	}
+
+	/**
+	 * If this setting is set to a value greater than 0, resources returned by read and vread
+	 * operations are cached in memory for up to the given number of milliseconds, so that
+	 * repeated reads of frequently used resources (e.g. Practitioner, Organization and Location)
+	 * do not need to load and decode the stored resource. Entries are invalidated as soon as the
+	 * resource is updated, deleted, expunged or has its tags changed on this server. On a
+	 * clustered server, a read on another node may return the previous version of a resource
+	 * until its cache entry expires, so this value should be kept short in that case.
+	 * <p>
+	 * Default is 0, meaning that reads are not cached.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setResourceReadCacheMillis(long theResourceReadCacheMillis) {
+		Validate.isTrue(theResourceReadCacheMillis >= 0, "theResourceReadCacheMillis must not be negative");
+		myResourceReadCacheMillis = theResourceReadCacheMillis;
+	}
+
+	/**
+	 * If enabled (default is {@literal false}), resources returned by read, vread and search
+	 * operations which are stored as JSON are written to JSON responses using their stored form,
+	 * instead of being parsed into a resource model and encoded again. Only the resource ID and
+	 * metadata (version, last updated date, tags, etc.) are added to the stored JSON. The stored
+	 * form is only used if the response is compact (not pretty-printed) JSON, no
+	 * <code>_summary</code> or <code>_elements</code> parameter is used, and no narrative generator
+	 * is registered. Resources are also parsed as usual if any interceptors are registered for the
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#STORAGE_PREACCESS_RESOURCES},
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#STORAGE_PRESHOW_RESOURCES} or
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#SERVER_OUTGOING_RESPONSE} pointcuts, since
+	 * these may need to examine or modify the resources.
+	 * <p>
+	 * Note that references in resources which are written using their stored form are not
+	 * modified, so for example absolute references to this server are not made relative. This
+	 * setting should not be enabled if custom resource providers modify the resources returned
+	 * by the DAOs.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public boolean isStoredJsonPassThroughEnabled() {
+		return myStoredJsonPassThroughEnabled;
+	}
+
+	/**
+	 * If enabled (default is {@literal false}), resources returned by read, vread and search
+	 * operations which are stored as JSON are written to JSON responses using their stored form,
+	 * instead of being parsed into a resource model and encoded again. Only the resource ID and
+	 * metadata (version, last updated date, tags, etc.) are added to the stored JSON. The stored
+	 * form is only used if the response is compact (not pretty-printed) JSON, no
+	 * <code>_summary</code> or <code>_elements</code> parameter is used, and no narrative generator
+	 * is registered. Resources are also parsed as usual if any interceptors are registered for the
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#STORAGE_PREACCESS_RESOURCES},
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#STORAGE_PRESHOW_RESOURCES} or
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#SERVER_OUTGOING_RESPONSE} pointcuts, since
+	 * these may need to examine or modify the resources.
+	 * <p>
+	 * Note that references in resources which are written using their stored form are not
+	 * modified, so for example absolute references to this server are not made relative. This
+	 * setting should not be enabled if custom resource providers modify the resources returned
+	 * by the DAOs.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setStoredJsonPassThroughEnabled(boolean theStoredJsonPassThroughEnabled) {
+		myStoredJsonPassThroughEnabled = theStoredJsonPassThroughEnabled;
+	}
+
 	/**
 	 * If set to {@literal false} (default is {@literal true}), the server will not
 	 * preserve resource history and will delete previous versions of resources when
@@ -89,6 +89,7 @@ import ca.uhn.fhir.util.UrlUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
@@ -146,6 +147,8 @@ public abstract class BaseTransactionProcessor {
 	public static final Pattern UNQUALIFIED_MATCH_URL_START = Pattern.compile("^[a-zA-Z0-9_-]+=");
 	public static final Pattern INVALID_PLACEHOLDER_PATTERN = Pattern.compile("[a-zA-Z]+:.*");
 	private static final Logger ourLog = LoggerFactory.getLogger(BaseTransactionProcessor.class);
+	private static final String BATCH_GROUP_DEFERRED_HOOKS =
+			BaseTransactionProcessor.class.getName() + "_BATCH_GROUP_DEFERRED_HOOKS";
 
 	@Autowired
 	private IRequestPartitionHelperSvc myRequestPartitionHelperService;
@@ -208,7 +211,8 @@ public abstract class BaseTransactionProcessor {
 			myExecutor = myThreadPoolFactory.newThreadPool(
 					myStorageSettings.getBundleBatchPoolSize(),
 					myStorageSettings.getBundleBatchMaxPoolSize(),
-					"bundle-batch-");
+					"bundle-batch-",
+					myStorageSettings.isVirtualThreadsEnabled());
 		}
 		return myExecutor;
 	}
@@ -414,7 +418,14 @@ public abstract class BaseTransactionProcessor {
 			}
 		}
 		// Execute all non-gets on calling thread.
-		nonGetCalls.forEach(RetriableBundleTask::run);
+		int groupSize = myStorageSettings.getBundleBatchGroupSize();
+		if (groupSize > 1) {
+			for (List<RetriableBundleTask> nextGroup : Lists.partition(nonGetCalls, groupSize)) {
+				processBatchGroup(theRequestDetails, nextGroup);
+			}
+		} else {
+			nonGetCalls.forEach(RetriableBundleTask::run);
+		}
 		// Execute all gets (potentially in a pool)
 		if (myStorageSettings.getBundleBatchPoolSize() == 1) {
 			getCalls.forEach(RetriableBundleTask::run);
@@ -449,6 +460,85 @@ public abstract class BaseTransactionProcessor {
 		return response;
 	}
 
+	/**
+	 * Processes a group of batch entries within a single database transaction. If anything
+	 * in the group fails, the whole group is rolled back and each entry is then processed
+	 * individually so that the failure is reported only against the entry (or entries) which
+	 * actually caused it.
+	 * <p>
+	 * The interceptor hooks which each entry would normally invoke once its own database
+	 * transaction is complete are held back until every entry in the group has been written,
+	 * so that they are invoked exactly once per entry and never for writes which are rolled back.
+	 * </p>
+	 */
+	private void processBatchGroup(RequestDetails theRequestDetails, List<RetriableBundleTask> theGroup) {
+		if (theGroup.size() == 1 || theRequestDetails == null) {
+			theGroup.forEach(RetriableBundleTask::run);
+			return;
+		}
+
+		List<IBase> groupEntries =
+				theGroup.stream().map(RetriableBundleTask::getNextReqEntry).collect(Collectors.toList());
+
+		StopWatch sw = new StopWatch();
+		BatchGroupDeferredHooks deferredHooks = new BatchGroupDeferredHooks();
+		theRequestDetails.getUserData().put(BATCH_GROUP_DEFERRED_HOOKS, deferredHooks);
+		boolean committed = false;
+		try {
+			RequestPartitionId requestPartitionId =
+					determineRequestPartitionIdForWriteEntries(theRequestDetails, groupEntries);
+			myHapiTransactionService
+					.withRequest(theRequestDetails)
+					.withRequestPartitionId(requestPartitionId)
+					.execute(() -> {
+						prepareSessionForBatchGroup(theGroup.size());
+						for (RetriableBundleTask next : theGroup) {
+							next.processBatchEntry();
+						}
+						deferredHooks.callPreCommitHooks();
+					});
+			committed = true;
+		} catch (Exception e) {
+			ourLog.info(
+					"Failure processing batch group of {} entries, falling back to processing entries individually: {}",
+					theGroup.size(),
+					e.toString());
+		} finally {
+			theRequestDetails.getUserData().remove(BATCH_GROUP_DEFERRED_HOOKS);
+			// These pair up with the STORAGE_TRANSACTION_WRITE_OPERATIONS_PRE calls which have
+			// already been made, so they are invoked even if the group was rolled back
+			deferredHooks.callWriteOperationsPostHooks();
+		}
+
+		if (!committed) {
+			theGroup.forEach(RetriableBundleTask::run);
+			return;
+		}
+
+		theGroup.forEach(RetriableBundleTask::markCompleted);
+		ourLog.debug("Processed batch group of {} entries in {}", theGroup.size(), sw);
+	}
+
+	/**
+	 * Subclasses may override this method in order to tune the persistence session
+	 * before a group of batch entries is processed within a single database transaction
+	 * (e.g. to enable JDBC statement batching). This method is called from within the
+	 * group transaction.
+	 *
+	 * @param theGroupSize The number of entries in the group
+	 */
+	protected void prepareSessionForBatchGroup(int theGroupSize) {
+		// nothing by default
+	}
+
+	@Nullable
+	private static BatchGroupDeferredHooks getBatchGroupDeferredHooks(@Nullable RequestDetails theRequestDetails) {
+		if (theRequestDetails == null) {
+			return null;
+		}
+		return (BatchGroupDeferredHooks) theRequestDetails.getUserData().get(BATCH_GROUP_DEFERRED_HOOKS);
+	}
+
 	@VisibleForTesting
 	public void setHapiTransactionService(HapiTransactionService theHapiTransactionService) {
 		myHapiTransactionService = theHapiTransactionService;
@@ -721,11 +811,18 @@ public abstract class BaseTransactionProcessor {
 					.execute(txCallback);
 		} finally {
 			if (haveWriteOperationsHooks(theRequestDetails)) {
-				callWriteOperationsHook(
+				TransactionWriteOperationsDetails finalWriteOperationsDetails = writeOperationsDetails;
+				Runnable writeOperationsPostHook = () -> callWriteOperationsHook(
 						Pointcut.STORAGE_TRANSACTION_WRITE_OPERATIONS_POST,
 						theRequestDetails,
 						theTransactionDetails,
-						writeOperationsDetails);
+						finalWriteOperationsDetails);
+				BatchGroupDeferredHooks batchGroupDeferredHooks = getBatchGroupDeferredHooks(theRequestDetails);
+				if (batchGroupDeferredHooks != null) {
+					batchGroupDeferredHooks.addWriteOperationsPostHook(writeOperationsPostHook);
+				} else {
+					writeOperationsPostHook.run();
+				}
 			}
 		}
 
@@ -1471,26 +1568,15 @@ public abstract class BaseTransactionProcessor {
 
 			ListMultimap<Pointcut, HookParams> deferredBroadcastEvents =
 					theTransactionDetails.endAcceptingDeferredInterceptorBroadcasts();
-			for (Map.Entry<Pointcut, HookParams> nextEntry : deferredBroadcastEvents.entries()) {
-				Pointcut nextPointcut = nextEntry.getKey();
-				HookParams nextParams = nextEntry.getValue();
-				CompositeInterceptorBroadcaster.doCallHooks(
-						myInterceptorBroadcaster, theRequest, nextPointcut, nextParams);
+			BatchGroupDeferredHooks batchGroupDeferredHooks = getBatchGroupDeferredHooks(theRequest);
+			if (batchGroupDeferredHooks != null) {
+				batchGroupDeferredHooks.addPreCommitHook(() -> callDeferredInterceptorBroadcasts(
+						theRequest, theTransactionDetails, theResponse, deferredBroadcastEvents));
+			} else {
+				callDeferredInterceptorBroadcasts(
+						theRequest, theTransactionDetails, theResponse, deferredBroadcastEvents);
 			}
 
-			DeferredInterceptorBroadcasts deferredInterceptorBroadcasts =
-					new DeferredInterceptorBroadcasts(deferredBroadcastEvents);
-			HookParams params = new HookParams()
-					.add(RequestDetails.class, theRequest)
-					.addIfMatchesType(ServletRequestDetails.class, theRequest)
-					.add(DeferredInterceptorBroadcasts.class, deferredInterceptorBroadcasts)
-					.add(TransactionDetails.class, theTransactionDetails)
-					.add(IBaseBundle.class, theResponse);
-			CompositeInterceptorBroadcaster.doCallHooks(
-					myInterceptorBroadcaster, theRequest, Pointcut.STORAGE_TRANSACTION_PROCESSED, params);
-
-			theTransactionDetails.deferredBroadcastProcessingFinished();
-
 			// finishedCallingDeferredInterceptorBroadcasts
 
 			return entriesToProcess;
@@ -1502,6 +1588,31 @@ public abstract class BaseTransactionProcessor {
 		}
 	}
 
+	private void callDeferredInterceptorBroadcasts(
+			RequestDetails theRequest,
+			TransactionDetails theTransactionDetails,
+			IBaseBundle theResponse,
+			ListMultimap<Pointcut, HookParams> theDeferredBroadcastEvents) {
+		for (Map.Entry<Pointcut, HookParams> nextEntry : theDeferredBroadcastEvents.entries()) {
+			Pointcut nextPointcut = nextEntry.getKey();
+			HookParams nextParams = nextEntry.getValue();
+			CompositeInterceptorBroadcaster.doCallHooks(myInterceptorBroadcaster, theRequest, nextPointcut, nextParams);
+		}
+
+		DeferredInterceptorBroadcasts deferredInterceptorBroadcasts =
+				new DeferredInterceptorBroadcasts(theDeferredBroadcastEvents);
+		HookParams params = new HookParams()
+				.add(RequestDetails.class, theRequest)
+				.addIfMatchesType(ServletRequestDetails.class, theRequest)
+				.add(DeferredInterceptorBroadcasts.class, deferredInterceptorBroadcasts)
+				.add(TransactionDetails.class, theTransactionDetails)
+				.add(IBaseBundle.class, theResponse);
+		CompositeInterceptorBroadcaster.doCallHooks(
+				myInterceptorBroadcaster, theRequest, Pointcut.STORAGE_TRANSACTION_PROCESSED, params);
+
+		theTransactionDetails.deferredBroadcastProcessingFinished();
+	}
+
 	/**
 	 * Check for if a resource id should be matched in a conditional update
 	 * If the FHIR version is older than R4, it follows the old specifications and does not match
@@ -2232,6 +2343,34 @@ public abstract class BaseTransactionProcessor {
 		}
 	}
 
+	/**
+	 * Interceptor hook invocations which are held back while the entries of a batch
+	 * group are processed, see {@link #processBatchGroup(RequestDetails, List)}
+	 */
+	private static class BatchGroupDeferredHooks {
+
+		private final List<Runnable> myPreCommitHooks = new ArrayList<>();
+		private final List<Runnable> myWriteOperationsPostHooks = new ArrayList<>();
+
+		void addPreCommitHook(Runnable theHook) {
+			myPreCommitHooks.add(theHook);
+		}
+
+		void addWriteOperationsPostHook(Runnable theHook) {
+			myWriteOperationsPostHooks.add(theHook);
+		}
+
+		void callPreCommitHooks() {
+			myPreCommitHooks.forEach(Runnable::run);
+			myPreCommitHooks.clear();
+		}
+
+		void callWriteOperationsPostHooks() {
+			myWriteOperationsPostHooks.forEach(Runnable::run);
+			myWriteOperationsPostHooks.clear();
+		}
+	}
+
 	public class RetriableBundleTask implements Runnable {
 
 		private final CountDownLatch myCompletedLatch;
@@ -2309,11 +2448,19 @@ public abstract class BaseTransactionProcessor {
 				populateResponseMapWithLastSeenException();
 			}
 
+			markCompleted();
+		}
+
+		private void markCompleted() {
 			// checking for the parallelism
 			ourLog.debug("processing batch for {} is completed", myVersionAdapter.getEntryRequestUrl(myNextReqEntry));
 			myCompletedLatch.countDown();
 		}
 
+		private IBase getNextReqEntry() {
+			return myNextReqEntry;
+		}
+
 		private void populateResponseMapWithLastSeenException() {
 			ServerResponseExceptionHolder caughtEx = new ServerResponseExceptionHolder();
 			caughtEx.setException(myLastSeenException);
@@ -31,4 +31,26 @@ public class ThreadPoolFactory {
 			Integer theBundleBatchPoolSize, Integer theBundleBatchMaxPoolSize, String theThreadPrefix) {
 		return ThreadPoolUtil.newThreadPool(theBundleBatchPoolSize, theBundleBatchMaxPoolSize, theThreadPrefix);
 	}
+
+	/**
+	 * Creates a task executor which uses virtual threads if <code>theUseVirtualThreads</code> is
+	 * <code>true</code> and the JVM supports them. At most <code>theBundleBatchMaxPoolSize</code>
+	 * tasks run concurrently either way.
+	 *
+	 * @since 7.6.0
+	 */
+	public AsyncTaskExecutor newThreadPool(
+			Integer theBundleBatchPoolSize,
+			Integer theBundleBatchMaxPoolSize,
+			String theThreadPrefix,
+			boolean theUseVirtualThreads) {
+		if (theUseVirtualThreads) {
+			AsyncTaskExecutor retVal =
+					ThreadPoolUtil.newVirtualThreadTaskExecutor(theThreadPrefix, theBundleBatchMaxPoolSize);
+			if (retVal != null) {
+				return retVal;
+			}
+		}
+		return newThreadPool(theBundleBatchPoolSize, theBundleBatchMaxPoolSize, theThreadPrefix);
+	}
 }
@@ -21,11 +21,17 @@ package ca.uhn.fhir.util;
 
 import ca.uhn.fhir.jpa.search.reindex.BlockPolicy;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 public final class ThreadPoolUtil {
+	private static final Logger ourLog = LoggerFactory.getLogger(ThreadPoolUtil.class);
+
 	private ThreadPoolUtil() {}
 
 	@Nonnull
@@ -62,4 +68,36 @@ public final class ThreadPoolUtil {
 		asyncTaskExecutor.initialize();
 		return asyncTaskExecutor;
 	}
+
+	/**
+	 * Creates a task executor which runs each task on a new virtual thread. Virtual threads are
+	 * cheap to create and don't occupy a platform thread while blocked on I/O, so this is a good
+	 * fit for tasks which spend most of their time waiting on the database.
+	 *
+	 * @param theThreadNamePrefix The thread name prefix, which must end with a hyphen
+	 * @param theConcurrencyLimit The maximum number of tasks which may run at the same time (callers submitting
+	 *                            further tasks block until a task completes), or 0 for no limit
+	 * @return Returns the executor, or <code>null</code> if the JVM does not support virtual threads
+	 * (they require Java 21 or newer)
+	 * @since 7.6.0
+	 */
+	@Nullable
+	public static SimpleAsyncTaskExecutor newVirtualThreadTaskExecutor(
+			String theThreadNamePrefix, int theConcurrencyLimit) {
+		Validate.isTrue(theThreadNamePrefix.endsWith("-"), "Thread pool prefix name must end with a hyphen");
+		Validate.isTrue(theConcurrencyLimit >= 0, "theConcurrencyLimit must not be negative");
+		SimpleAsyncTaskExecutor retVal = new SimpleAsyncTaskExecutor(theThreadNamePrefix);
+		try {
+			retVal.setVirtualThreads(true);
+		} catch (UnsupportedOperationException e) {
+			ourLog.warn(
+					"Virtual threads are not supported by this JVM (Java 21 or newer is required), using platform threads for {}",
+					theThreadNamePrefix);
+			return null;
+		}
+		if (theConcurrencyLimit > 0) {
+			retVal.setConcurrencyLimit(theConcurrencyLimit);
+		}
+		return retVal;
+	}
 }
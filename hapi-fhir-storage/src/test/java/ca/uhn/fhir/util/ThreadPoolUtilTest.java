@@ -0,0 +1,42 @@
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.jpa.dao.ThreadPoolFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThreadPoolUtilTest {
+
+	private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+	@Test
+	public void testNewVirtualThreadTaskExecutor() throws Exception {
+		SimpleAsyncTaskExecutor executor = ThreadPoolUtil.newVirtualThreadTaskExecutor("test-", 2);
+		if (!VIRTUAL_THREADS_SUPPORTED) {
+			assertNull(executor);
+			return;
+		}
+
+		assertNotNull(executor);
+		assertEquals(2, executor.getConcurrencyLimit());
+		Future<Boolean> isVirtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+		assertTrue(isVirtual.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testThreadPoolFactory_VirtualThreadsFallBackToPlatformThreads() throws Exception {
+		AsyncTaskExecutor executor = new ThreadPoolFactory().newThreadPool(1, 2, "test-", true);
+
+		Future<String> threadName = executor.submit(() -> Thread.currentThread().getName());
+		assertTrue(threadName.get(10, TimeUnit.SECONDS).startsWith("test-"));
+		assertEquals(VIRTUAL_THREADS_SUPPORTED, executor instanceof SimpleAsyncTaskExecutor);
+	}
+}
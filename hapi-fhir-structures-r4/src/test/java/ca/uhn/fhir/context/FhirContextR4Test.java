@@ -1,11 +1,18 @@
 package ca.uhn.fhir.context;
 
+import ca.uhn.fhir.parser.CustomResource364R4.CustomResource364CustomDate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.r4.model.ElementDefinition;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.StringType;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class FhirContextR4Test {
 
@@ -45,4 +52,29 @@ public class FhirContextR4Test {
 
 		assertThatExceptionOfType(ConfigurationException.class).isThrownBy(() -> fhirContext.getAllResourceDefinitions());
 	}
+
+	@Test
+	void anyChoiceTypesAreConsistentAcrossChildrenAndContexts() {
+		FhirContext ctx1 = new FhirContext(FhirVersionEnum.R4);
+		RuntimeChildAny extensionValue = getAnyChild(ctx1, Extension.class, "value[x]");
+		RuntimeChildAny defaultValue = getAnyChild(ctx1, ElementDefinition.class, "defaultValue[x]");
+
+		assertThat(extensionValue.getChoices()).containsExactlyElementsOf(defaultValue.getChoices());
+		assertThat(extensionValue.getChoices()).contains(StringType.class, Reference.class);
+		assertEquals("valueString", extensionValue.getChildNameByDatatype(StringType.class));
+		assertEquals("defaultValueReference", defaultValue.getChildNameByDatatype(Reference.class));
+
+		// A context with an additional custom type must not reuse the choice types of the first one
+		FhirContext ctx2 = new FhirContext(FhirVersionEnum.R4);
+		ctx2.registerCustomType(CustomResource364CustomDate.class);
+		ctx2.getAllResourceDefinitions();
+		RuntimeChildAny extensionValue2 = getAnyChild(ctx2, Extension.class, "value[x]");
+		assertThat(extensionValue2.getChoices()).contains(CustomResource364CustomDate.class);
+		assertThat(extensionValue.getChoices()).doesNotContain(CustomResource364CustomDate.class);
+	}
+
+	private static RuntimeChildAny getAnyChild(FhirContext theContext, Class<? extends IBase> theType, String theChildName) {
+		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) theContext.getElementDefinition(theType);
+		return (RuntimeChildAny) def.getChildByName(theChildName);
+	}
 }
@@ -0,0 +1,37 @@
+package ca.uhn.fhir.context;
+
+import ca.uhn.fhir.util.StopWatch;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time taken to create a new R4 {@link FhirContext} and fully scan the model. The
+ * first pass includes class loading, so the later passes show the cost of the scan itself. Run with:
+ * <pre>
+ * mvn test -Dtest=FhirContextStartupPerfTest
+ * </pre>
+ */
+@Disabled("Performance test")
+public class FhirContextStartupPerfTest {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(FhirContextStartupPerfTest.class);
+	private static final int PASSES = 10;
+
+	@Test
+	public void testStartup() {
+		for (int i = 0; i < PASSES; i++) {
+			StopWatch sw = new StopWatch();
+			FhirContext ctx = new FhirContext(FhirVersionEnum.R4);
+			int childCount = 0;
+			for (String next : ctx.getResourceTypes()) {
+				childCount += ctx.getResourceDefinition(next).getChildren().size();
+			}
+			ourLog.info("Pass {}: scanned model with {} resource children in {}", i, childCount, sw);
+			assertThat(childCount).isGreaterThan(0);
+		}
+	}
+}
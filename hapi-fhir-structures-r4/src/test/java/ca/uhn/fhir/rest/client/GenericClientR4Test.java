@@ -81,6 +81,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -88,14 +89,22 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 public class GenericClientR4Test extends BaseGenericClientR4Test {
@@ -2685,6 +2694,75 @@ public class GenericClientR4Test extends BaseGenericClientR4Test {
 		}
 	}
 
+	@Test
+	public void testLoadAllPages() throws Exception {
+		Map<String, String> pages = new HashMap<>();
+		pages.put("http://example.com/fhir?page=2", createPage("http://example.com/fhir?page=3", "B", "C"));
+		pages.put("http://example.com/fhir?page=3", createPage(null, "D"));
+		List<String> requestedUrls = mockPages(pages);
+
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://example.com/fhir");
+		Bundle firstPage = ourCtx.newJsonParser().parseResource(Bundle.class, createPage("http://example.com/fhir?page=2", "A"));
+
+		List<String> ids;
+		try (Stream<Patient> stream = client.loadPage().allPages(firstPage).prefetchPages(1).stream(Patient.class)) {
+			ids = stream.map(t -> t.getIdElement().getIdPart()).collect(Collectors.toList());
+		}
+
+		assertThat(ids).containsExactly("A", "B", "C", "D");
+		assertThat(requestedUrls).containsExactly("http://example.com/fhir?page=2", "http://example.com/fhir?page=3");
+	}
+
+	@Test
+	public void testLoadAllPages_StopEarly() throws Exception {
+		Map<String, String> pages = new HashMap<>();
+		for (int i = 2; i < 10; i++) {
+			pages.put("http://example.com/fhir?page=" + i, createPage("http://example.com/fhir?page=" + (i + 1), "P" + i));
+		}
+		List<String> requestedUrls = mockPages(pages);
+
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://example.com/fhir");
+		Bundle firstPage = ourCtx.newJsonParser().parseResource(Bundle.class, createPage("http://example.com/fhir?page=2", "P1"));
+
+		List<String> ids;
+		try (Stream<Patient> stream = client.loadPage().allPages(firstPage).prefetchPages(2).stream(Patient.class)) {
+			ids = stream.limit(3).map(t -> t.getIdElement().getIdPart()).collect(Collectors.toList());
+		}
+		assertThat(ids).containsExactly("P1", "P2", "P3");
+
+		// Pages beyond the prefetch window are never requested
+		Thread.sleep(200);
+		assertThat(requestedUrls).hasSizeLessThanOrEqualTo(4);
+	}
+
+	private String createPage(String theNextUrl, String... thePatientIds) {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		if (theNextUrl != null) {
+			bundle.addLink().setRelation("next").setUrl(theNextUrl);
+		}
+		for (String next : thePatientIds) {
+			bundle.addEntry().setResource(new Patient().setId(next));
+			bundle.addEntry().setResource(new Organization().setId("ORG-" + next));
+		}
+		return ourCtx.newJsonParser().encodeResourceToString(bundle);
+	}
+
+	private List<String> mockPages(Map<String, String> thePages) throws IOException {
+		List<String> requestedUrls = Collections.synchronizedList(new ArrayList<>());
+		AtomicReference<String> lastUrl = new AtomicReference<>();
+		when(myHttpClient.execute(any(HttpUriRequest.class))).thenAnswer(t -> {
+			String url = ((HttpUriRequest) t.getArgument(0)).getURI().toString();
+			requestedUrls.add(url);
+			lastUrl.set(url);
+			return myHttpResponse;
+		});
+		when(myHttpResponse.getStatusLine()).thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 200, "OK"));
+		when(myHttpResponse.getEntity().getContentType()).thenReturn(new BasicHeader("content-type", Constants.CT_FHIR_JSON_NEW + "; charset=UTF-8"));
+		when(myHttpResponse.getEntity().getContent()).thenAnswer(t -> new ReaderInputStream(new StringReader(thePages.get(lastUrl.get())), StandardCharsets.UTF_8));
+		return requestedUrls;
+	}
+
 	@Test
 	public void testLoadPageAndReturnDstu1Bundle() throws Exception {
 
@@ -2819,6 +2897,47 @@ public class GenericClientR4Test extends BaseGenericClientR4Test {
 
 	}
 
+	@Test
+	public void testReadAsync() throws Exception {
+
+		String msg = getResourceResult();
+
+		ArgumentCaptor<HttpUriRequest> capt = ArgumentCaptor.forClass(HttpUriRequest.class);
+		when(myHttpClient.execute(capt.capture())).thenReturn(myHttpResponse);
+		when(myHttpResponse.getStatusLine()).thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 200, "OK"));
+		when(myHttpResponse.getEntity().getContentType()).thenReturn(new BasicHeader("content-type", Constants.CT_FHIR_XML + "; charset=UTF-8"));
+		when(myHttpResponse.getEntity().getContent()).thenReturn(new ReaderInputStream(new StringReader(msg), StandardCharsets.UTF_8));
+
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://example.com/fhir");
+
+		CompletableFuture<Patient> future = client
+			.read()
+			.resource(Patient.class)
+			.withId(new IdType("Patient/1234"))
+			.executeAsync();
+
+		Patient response = future.get(10, TimeUnit.SECONDS);
+		assertThat(response.getNameFirstRep().getFamily()).contains("Cardinal");
+		assertEquals("http://example.com/fhir/Patient/1234", capt.getValue().getURI().toString());
+	}
+
+	@Test
+	public void testReadAsync_Failure() throws Exception {
+		when(myHttpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException("FOO"));
+
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://example.com/fhir");
+
+		CompletableFuture<Patient> future = client
+			.read()
+			.resource(Patient.class)
+			.withId(new IdType("Patient/1234"))
+			.executeAsync();
+
+		assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasCauseInstanceOf(FhirClientConnectionException.class);
+	}
+
 	@Test
 	public void testReadFluent() throws Exception {
 
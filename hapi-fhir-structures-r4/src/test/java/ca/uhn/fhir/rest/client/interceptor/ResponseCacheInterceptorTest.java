@@ -0,0 +1,235 @@
+package ca.uhn.fhir.rest.client.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.model.api.annotation.ResourceDef;
+import ca.uhn.fhir.rest.api.CacheControlDirective;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class ResponseCacheInterceptorTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx);
+	@RegisterExtension
+	public HashMapResourceProviderExtension<Patient> myPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+	private ResponseCacheInterceptor myInterceptor;
+	private CapturingInterceptor myCapturingInterceptor;
+	private IGenericClient myClient;
+	private final CacheControlServerInterceptor myServerInterceptor = new CacheControlServerInterceptor();
+
+	@BeforeEach
+	public void before() {
+		ourServer.registerInterceptor(myServerInterceptor);
+		myInterceptor = new ResponseCacheInterceptor(10);
+		myCapturingInterceptor = new CapturingInterceptor();
+		myClient = ourServer.getFhirClient();
+		myClient.registerInterceptor(myInterceptor);
+		myClient.registerInterceptor(myCapturingInterceptor);
+	}
+
+	@AfterEach
+	public void after() {
+		myClient.unregisterInterceptor(myInterceptor);
+		myClient.unregisterInterceptor(myCapturingInterceptor);
+		ourServer.unregisterInterceptor(myServerInterceptor);
+	}
+
+	@Test
+	public void testReadIsRevalidated() {
+		IIdType id = createPatient("Simpson");
+
+		Patient first = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getCacheSize());
+
+		// Changes made by the caller must not leak into the cache
+		first.getNameFirstRep().setFamily("Changed");
+
+		Patient second = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(304, myCapturingInterceptor.getLastResponse().getStatus());
+		assertThat(myCapturingInterceptor.getLastRequest().getAllHeaders()).containsKey("If-None-Match");
+		assertEquals(1, myInterceptor.getHitCount());
+		assertNotSame(first, second);
+		assertEquals("Simpson", second.getNameFirstRep().getFamily());
+		assertEquals(id.withVersion("1").getValue(), second.getIdElement().toUnqualified().getValue());
+
+		// Once the resource changes, the server returns the new version
+		second.getNameFirstRep().setFamily("Flanders");
+		myClient.update().resource(second).execute();
+		Patient third = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(200, myCapturingInterceptor.getLastResponse().getStatus());
+		assertEquals("Flanders", third.getNameFirstRep().getFamily());
+		assertEquals("2", third.getIdElement().getVersionIdPart());
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(2, myInterceptor.getMissCount());
+	}
+
+	@Test
+	public void testFreshResponseIsNotRequested() {
+		IIdType id = createPatient("Simpson");
+		myServerInterceptor.myCacheControl = "max-age=60";
+		myServerInterceptor.myRequestCount.set(0);
+
+		Patient first = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(1, myServerInterceptor.myRequestCount.get());
+		first.getNameFirstRep().setFamily("Changed");
+
+		// Within max-age, the cached resource is returned without contacting the server
+		Patient second = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(1, myServerInterceptor.myRequestCount.get());
+		assertEquals(1, myInterceptor.getHitCount());
+		assertNotSame(first, second);
+		assertEquals("Simpson", second.getNameFirstRep().getFamily());
+
+		// Once the entry is stale, it is revalidated
+		myInterceptor.setNowForUnitTest(System.currentTimeMillis() + 61 * 1000L);
+		Patient third = myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(2, myServerInterceptor.myRequestCount.get());
+		assertEquals(304, myCapturingInterceptor.getLastResponse().getStatus());
+		assertThat(myCapturingInterceptor.getLastRequest().getAllHeaders()).containsKey("If-None-Match");
+		assertEquals("Simpson", third.getNameFirstRep().getFamily());
+		assertEquals(2, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testNoCacheResponseIsAlwaysRevalidated() {
+		IIdType id = createPatient("Simpson");
+		myServerInterceptor.myCacheControl = "max-age=60, no-cache";
+		myServerInterceptor.myRequestCount.set(0);
+
+		myClient.read().resource(Patient.class).withId(id).execute();
+		myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(2, myServerInterceptor.myRequestCount.get());
+		assertEquals(304, myCapturingInterceptor.getLastResponse().getStatus());
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testCachedEntryForOtherReturnType_RequestIsRepeated() {
+		IIdType id = createPatient("Simpson");
+
+		// Use a separate context so that the custom type is not registered with the shared one
+		IGenericClient client = FhirContext.forR4().newRestfulGenericClient(ourServer.getBaseUrl());
+		client.registerInterceptor(myInterceptor);
+		client.registerInterceptor(myCapturingInterceptor);
+
+		client.read().resource(Patient.class).withId(id).execute();
+		assertEquals(1, myInterceptor.getCacheSize());
+
+		// The cached Patient can't be returned as a MyPatient, so the 304 is followed by a full request
+		MyPatient patient = client.read().resource(MyPatient.class).withId(id).execute();
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertThat(myCapturingInterceptor.getLastRequest().getAllHeaders()).doesNotContainKey("If-None-Match");
+		assertEquals(0, myInterceptor.getHitCount());
+
+		// The entry now holds a MyPatient, which can be returned after revalidation
+		patient = client.read().resource(MyPatient.class).withId(id).execute();
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testCachedEntryForOtherContext_NotRevalidated() {
+		IIdType id = createPatient("Simpson");
+		myClient.read().resource(Patient.class).withId(id).execute();
+		assertEquals(1, myInterceptor.getCacheSize());
+
+		IGenericClient client = FhirContext.forR4().newRestfulGenericClient(ourServer.getBaseUrl());
+		client.registerInterceptor(myInterceptor);
+		client.registerInterceptor(myCapturingInterceptor);
+
+		Patient patient = client.read().resource(Patient.class).withId(id).execute();
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertThat(myCapturingInterceptor.getLastRequest().getAllHeaders()).doesNotContainKey("If-None-Match");
+		assertEquals(200, myCapturingInterceptor.getLastResponse().getStatus());
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testNoStoreBypassesCache() {
+		createPatient("Simpson");
+
+		myClient.search().forResource(Patient.class).returnBundle(Bundle.class).cacheControl(new CacheControlDirective().setNoStore(true)).execute();
+		assertEquals(0, myInterceptor.getCacheSize());
+
+		myClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertEquals(1, myInterceptor.getCacheSize());
+
+		myClient.search().forResource(Patient.class).returnBundle(Bundle.class).cacheControl(new CacheControlDirective().setNoCache(true)).execute();
+		assertThat(myCapturingInterceptor.getLastRequest().getAllHeaders()).doesNotContainKey("If-Modified-Since");
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testChangedSearchResultsAreReturned() {
+		createPatient("Simpson");
+		Bundle bundle = myClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(bundle.getEntry()).hasSize(1);
+
+		createPatient("Flanders");
+		bundle = myClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertEquals(200, myCapturingInterceptor.getLastResponse().getStatus());
+		assertThat(bundle.getEntry()).hasSize(2);
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testEviction() {
+		for (int i = 0; i < 20; i++) {
+			IIdType id = createPatient("Simpson" + i);
+			myClient.read().resource(Patient.class).withId(id).execute();
+		}
+		assertThat(myInterceptor.getCacheSize()).isLessThanOrEqualTo(10);
+
+		myInterceptor.clearCache();
+		assertEquals(0, myInterceptor.getCacheSize());
+	}
+
+	@Interceptor
+	public static class CacheControlServerInterceptor {
+		private final AtomicInteger myRequestCount = new AtomicInteger();
+		private String myCacheControl;
+
+		@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+		public void incomingRequest() {
+			myRequestCount.incrementAndGet();
+		}
+
+		@Hook(Pointcut.SERVER_OUTGOING_RESPONSE)
+		public void outgoingResponse(HttpServletResponse theResponse) {
+			if (myCacheControl != null) {
+				theResponse.setHeader("Cache-Control", myCacheControl);
+			}
+		}
+	}
+
+	@ResourceDef(name = "Patient")
+	public static class MyPatient extends Patient {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private IIdType createPatient(String theFamily) {
+		Patient patient = new Patient();
+		patient.addName().setFamily(theFamily);
+		return myClient.create().resource(patient).execute().getId().toUnqualifiedVersionless();
+	}
+}
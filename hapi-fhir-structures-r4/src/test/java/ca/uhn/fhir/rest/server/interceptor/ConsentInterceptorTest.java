@@ -15,12 +15,14 @@ import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.interceptor.consent.ConsentInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.consent.ConsentOperationStatusEnum;
 import ca.uhn.fhir.rest.server.interceptor.consent.ConsentOutcome;
+import ca.uhn.fhir.rest.server.interceptor.consent.IBatchConsentService;
 import ca.uhn.fhir.rest.server.interceptor.consent.IConsentService;
 import ca.uhn.fhir.rest.server.provider.HashMapResourceProvider;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.rest.server.util.ICachedSearchDetails;
 import ca.uhn.fhir.test.utilities.HttpClientExtension;
 import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import ca.uhn.fhir.util.TestUtil;
 import com.google.common.base.Charsets;
 import com.helger.commons.collection.iterate.EmptyEnumeration;
 import jakarta.servlet.ReadListener;
@@ -55,9 +57,12 @@ import org.springframework.util.Assert;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -97,6 +102,8 @@ public class ConsentInterceptorTest {
 	private IConsentService myConsentSvc;
 	@Mock(answer = Answers.CALLS_REAL_METHODS)
 	private IConsentService myConsentSvc2;
+	@Mock(answer = Answers.CALLS_REAL_METHODS)
+	private IBatchConsentService myBatchConsentSvc;
 	private ConsentInterceptor myInterceptor;
 	@Captor
 	private ArgumentCaptor<BaseServerResponseException> myExceptionCaptor;
@@ -823,6 +830,104 @@ public class ConsentInterceptorTest {
 		verifyNoMoreInteractions(myConsentSvc2);
 	}
 
+	@Test
+	public void testCanSeeResource_VerdictsCachedByContextKey() {
+		myInterceptor.unregisterConsentService(myConsentSvc);
+		myInterceptor.registerConsentService(myBatchConsentSvc);
+		myInterceptor.setVerdictCacheMillis(ConsentInterceptor.SUGGESTED_VERDICT_CACHE_MILLIS);
+
+		ourPatientProvider.store((Patient) new Patient().setActive(true).setId("PTA"));
+		ourPatientProvider.store((Patient) new Patient().setActive(false).setId("PTB"));
+
+		AtomicReference<String> contextKey = new AtomicReference<>("user1");
+		List<Integer> batchSizes = new ArrayList<>();
+		when(myBatchConsentSvc.getConsentContextKey(any(), any())).thenAnswer(t -> contextKey.get());
+		when(myBatchConsentSvc.canSeeResources(any(), any(), any())).thenAnswer(t -> {
+			List<IBaseResource> resources = t.getArgument(1);
+			batchSizes.add(resources.size());
+			return resources
+				.stream()
+				.map(r -> ((Patient) r).getActive() ? ConsentOutcome.PROCEED : ConsentOutcome.REJECT)
+				.collect(Collectors.toList());
+		});
+
+		// Both resources are checked using a single batch call
+		Bundle response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		assertThat(batchSizes).containsExactly(2);
+
+		// Same context key, so the cached verdicts are used
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		assertThat(batchSizes).containsExactly(2);
+
+		// Different context key
+		contextKey.set("user2");
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		assertThat(batchSizes).containsExactly(2, 2);
+
+		// Only the updated resource needs to be checked again
+		ourPatientProvider.store((Patient) new Patient().setActive(true).setId("PTB"));
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(2);
+		assertThat(batchSizes).containsExactly(2, 2, 1);
+
+		// Cache cleared
+		myInterceptor.clearVerdictCache();
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(2);
+		assertThat(batchSizes).containsExactly(2, 2, 1, 2);
+		verify(myBatchConsentSvc, never()).canSeeResource(any(), any(), any());
+	}
+
+	@Test
+	public void testCanSeeResource_CachedVerdictsExpire() {
+		myInterceptor.unregisterConsentService(myConsentSvc);
+		myInterceptor.registerConsentService(myBatchConsentSvc);
+		myInterceptor.setVerdictCacheMillis(2000);
+
+		ourPatientProvider.store((Patient) new Patient().setActive(true).setId("PTA"));
+
+		List<Integer> batchSizes = new ArrayList<>();
+		when(myBatchConsentSvc.getConsentContextKey(any(), any())).thenReturn("user1");
+		when(myBatchConsentSvc.canSeeResources(any(), any(), any())).thenAnswer(t -> {
+			List<IBaseResource> resources = t.getArgument(1);
+			batchSizes.add(resources.size());
+			return Collections.nCopies(resources.size(), ConsentOutcome.PROCEED);
+		});
+
+		Bundle response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		assertThat(batchSizes).containsExactly(1);
+
+		// The cached verdict has expired, so the resource is checked again
+		TestUtil.sleepAtLeast(2100);
+		response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertThat(response.getEntry()).hasSize(1);
+		assertThat(batchSizes).containsExactly(1, 1);
+	}
+
+	@Test
+	public void testCanSeeResource_NoContextKey() {
+		myInterceptor.setVerdictCacheMillis(ConsentInterceptor.SUGGESTED_VERDICT_CACHE_MILLIS);
+
+		ourPatientProvider.store((Patient) new Patient().setActive(true).setId("PTA"));
+
+		when(myConsentSvc.startOperation(any(), any())).thenReturn(ConsentOutcome.PROCEED);
+		when(myConsentSvc.canSeeResource(any(), any(), any())).thenReturn(ConsentOutcome.PROCEED);
+		when(myConsentSvc.willSeeResource(any(), any(), any())).thenReturn(ConsentOutcome.PROCEED);
+
+		for (int i = 0; i < 2; i++) {
+			Bundle response = myFhirClient.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+			assertThat(response.getEntry()).hasSize(1);
+		}
+		verify(myConsentSvc, times(2)).getConsentContextKey(any(), any());
+		verify(myConsentSvc, times(2)).canSeeResource(any(), any(), any());
+	}
+
 	@Test
 	public void testTwoServices_ModificationsInWillSee() {
 		myInterceptor.registerConsentService(myConsentSvc2);
@@ -1043,6 +1148,38 @@ public class ConsentInterceptorTest {
 			myInterceptor.interceptPreSearchRegistered(myRequestDetails, myCachedSearchDetails);
 			verify(myCachedSearchDetails, never()).setCannotBeReused();
 		}
+
+		@Test
+		void testCanSeeResourceFilteredRequestsWithContextKeyMayBeCachedAndUseCache() {
+			myInterceptor.setVerdictCacheMillis(ConsentInterceptor.SUGGESTED_VERDICT_CACHE_MILLIS);
+			when(myConsentSvc.startOperation(any(), any())).thenReturn(ConsentOutcome.PROCEED);
+			when(myConsentSvc.shouldProcessCanSeeResource(any(), any())).thenReturn(true);
+			when(myConsentSvc.getConsentContextKey(any(), any())).thenReturn("user1");
+			myInterceptor.interceptPreHandled(myRequestDetails);
+
+			assertThat(myInterceptor.interceptPreCheckForCachedSearch(myRequestDetails)).as("requests with a context key can use cache").isTrue();
+			assertThat(ICachedSearchDetails.getSearchCacheScope(myRequestDetails)).contains("user1");
+
+			myInterceptor.interceptPreSearchRegistered(myRequestDetails, myCachedSearchDetails);
+			verify(myCachedSearchDetails, never()).setCannotBeReused();
+		}
+
+		@Test
+		void testCanSeeResourceFilteredRequestsWithoutContextKeyMayNotBeCachedNorUseCache() {
+			myInterceptor.setVerdictCacheMillis(ConsentInterceptor.SUGGESTED_VERDICT_CACHE_MILLIS);
+			when(myConsentSvc.startOperation(any(), any())).thenReturn(ConsentOutcome.PROCEED);
+			when(myConsentSvc.shouldProcessCanSeeResource(any(), any())).thenReturn(true);
+			when(myConsentSvc.getConsentContextKey(any(), any())).thenReturn("user1");
+			when(myConsentSvc2.startOperation(any(), any())).thenReturn(ConsentOutcome.PROCEED);
+			when(myConsentSvc2.shouldProcessCanSeeResource(any(), any())).thenReturn(true);
+			myInterceptor.registerConsentService(myConsentSvc2);
+			myInterceptor.interceptPreHandled(myRequestDetails);
+
+			assertThat(myInterceptor.interceptPreCheckForCachedSearch(myRequestDetails)).as("a service without a context key prevents cache use").isFalse();
+
+			myInterceptor.interceptPreSearchRegistered(myRequestDetails, myCachedSearchDetails);
+			verify(myCachedSearchDetails).setCannotBeReused();
+		}
 	}
 
 
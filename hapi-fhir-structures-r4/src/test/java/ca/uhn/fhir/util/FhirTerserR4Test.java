@@ -43,6 +43,7 @@ import org.hl7.fhir.r4.model.StringType;
 import org.hl7.fhir.r4.model.Substance;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
@@ -221,6 +222,84 @@ public class FhirTerserR4Test {
 
 	}
 
+	@Test
+	public void testContainResources_NoAttachedResources() {
+		Patient patient = new Patient();
+		patient.setId("Patient/123");
+		patient.setManagingOrganization(new Reference("Organization/456"));
+		patient.addGeneralPractitioner().setReference("Practitioner/789");
+		patient.addExtension("http://foo", new Reference("Organization/999"));
+
+		FhirTerser.ContainedResources contained = myCtx.newTerser().containResources(patient, FhirTerser.OptionsEnum.MODIFY_RESOURCE);
+
+		assertTrue(contained.isEmpty());
+		assertThat(patient.getContained()).isEmpty();
+		assertEquals("Organization/456", patient.getManagingOrganization().getReference());
+	}
+
+	@Test
+	public void testContainResources_AttachedResourceInExtensionAndExistingContained() {
+		Organization existing = new Organization();
+		existing.setId("#org");
+		existing.setName("Existing");
+
+		Patient patient = new Patient();
+		patient.getContained().add(existing);
+		patient.setManagingOrganization(new Reference("#org"));
+		patient.addExtension("http://foo", new Reference(new Practitioner().setActive(true)));
+
+		myCtx.newTerser().containResources(patient, FhirTerser.OptionsEnum.MODIFY_RESOURCE);
+
+		assertThat(patient.getContained()).hasSize(2);
+		assertEquals("#org", patient.getContained().get(0).getId());
+		assertEquals(ResourceType.Practitioner, patient.getContained().get(1).getResourceType());
+		Reference extensionValue = (Reference) patient.getExtensionByUrl("http://foo").getValue();
+		assertEquals(patient.getContained().get(1).getId(), extensionValue.getReference());
+	}
+
+	/**
+	 * Compares the cost of scanning a parsed resource (which has no attached reference
+	 * targets) for resources to contain against the full visit which was previously used.
+	 * <p>
+	 * 2026-10-19 - Full visit: 2236ms for 2000 passes, Contain resources: 555ms for 2000 passes
+	 */
+	@Test
+	@Disabled("Benchmark")
+	public void testContainResources_NoAttachedResources_Benchmark() {
+		Observation source = new Observation();
+		source.setId("Observation/123");
+		source.setSubject(new Reference("Patient/123"));
+		source.setEncounter(new Reference("Encounter/123"));
+		for (int i = 0; i < 200; i++) {
+			Observation.ObservationComponentComponent component = source.addComponent();
+			component.getCode().addCoding().setSystem("http://loinc.org").setCode("code-" + i).setDisplay("Display " + i);
+			component.setValue(new Quantity().setSystem("http://unitsofmeasure.org").setCode("mg").setValue(i));
+			component.addReferenceRange().getLow().setValue(0).setUnit("mg");
+			component.addExtension("http://foo", new Reference("Practitioner/" + i));
+			source.addPerformer().setReference("Practitioner/" + i).setDisplay("Practitioner " + i);
+		}
+		Observation obs = myCtx.newJsonParser().parseResource(Observation.class, myCtx.newJsonParser().encodeResourceToString(source));
+		FhirTerser terser = myCtx.newTerser();
+
+		int passes = 2000;
+		for (int i = 0; i < passes; i++) {
+			terser.getAllPopulatedChildElementsOfType(obs, IBaseReference.class);
+			terser.containResources(obs);
+		}
+
+		StopWatch visitStopWatch = new StopWatch();
+		for (int i = 0; i < passes; i++) {
+			terser.getAllPopulatedChildElementsOfType(obs, IBaseReference.class);
+		}
+		ourLog.info("Full visit: {}ms for {} passes", visitStopWatch.getMillis(), passes);
+
+		StopWatch containStopWatch = new StopWatch();
+		for (int i = 0; i < passes; i++) {
+			terser.containResources(obs);
+		}
+		ourLog.info("Contain resources: {}ms for {} passes", containStopWatch.getMillis(), passes);
+	}
+
 	@Test
 	public void testContainResourcesWithModify_DontTouchEmbeddedResources() {
 
@@ -631,6 +710,95 @@ public class FhirTerserR4Test {
 		assertEquals("nestedValue", ((StringType) ((Extension) values.get(0)).getValue()).getValueAsString());
 	}
 
+	@Test
+	public void testCompile() {
+		Patient p1 = new Patient();
+		p1.addName().addGiven("A1").addGiven("A2");
+		p1.addName().addGiven("B1");
+		p1.addExtension("http://foo", new StringType("FOO"));
+		Patient p2 = new Patient();
+		p2.addName().addGiven("C1");
+
+		FhirTerser t = myCtx.newTerser();
+		CompiledTerserPath path = t.compile("Patient", "Patient.name.given");
+		assertEquals("Patient.name.given", path.getPath());
+		assertEquals("Patient", path.getDefinition().getName());
+
+		List<StringType> values = path.getValues(p1, StringType.class);
+		assertThat(values.stream().map(StringType::getValue)).containsExactly("A1", "A2", "B1");
+		assertThat(path.getValues(p2)).hasSize(1);
+		assertThat(path.getValues(new Patient())).isEmpty();
+
+		CompiledTerserPath extensionPath = t.compile(Patient.class, "extension('http://foo').value[x]");
+		assertEquals("FOO", ((StringType) extensionPath.getSingleValueOrNull(p1, IBase.class)).getValue());
+		assertNull(extensionPath.getSingleValueOrNull(p2, IBase.class));
+
+		// Mismatched resource type
+		assertThat(t.compile("Patient", "Observation.code").getValues(p1)).isEmpty();
+	}
+
+	@Test
+	public void testCompile_IsCached() {
+		FhirTerser t = myCtx.newTerser();
+		CompiledTerserPath path = t.compile("Patient", "name.family");
+		assertThat(myCtx.newTerser().compile("Patient", "name.family")).isSameAs(path);
+		assertThat(myCtx.getResourceDefinition("Patient").getTerserPathCache()).containsEntry("name.family", path);
+	}
+
+	@Test
+	public void testCompile_InvalidPath() {
+		FhirTerser t = myCtx.newTerser();
+		try {
+			t.compile("Patient", "Patient.foo");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).startsWith(Msg.code(1700) + "Unknown child name 'foo'");
+		}
+		try {
+			t.compile(StringType.class, "value");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(Msg.code(2553) + "Element type is not a composite type: " + StringType.class.getName(), e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCompile_ChoiceTypeInMiddleOfPath() {
+		Observation obs1 = new Observation();
+		obs1.setValue(new Quantity().setValue(123).setUnit("mg"));
+		Observation obs2 = new Observation();
+		obs2.setValue(new StringType("FOO"));
+
+		FhirTerser t = myCtx.newTerser();
+		assertThat(t.getValues(obs1, "Observation.valueQuantity.unit", StringType.class)).hasSize(1);
+		assertThat(t.getValues(obs2, "Observation.valueQuantity.unit", StringType.class)).isEmpty();
+		assertThat(t.getValues(obs2, "Observation.value[x]")).hasSize(1);
+	}
+
+	@Test
+	public void testCompile_MultipleThreads() throws ExecutionException, InterruptedException {
+		Patient patient = new Patient();
+		patient.addIdentifier().setSystem("http://foo").setValue("1");
+		Organization organization = new Organization();
+		organization.addIdentifier().setSystem("http://foo").setValue("2");
+
+		CompiledTerserPath path = myCtx.newTerser().compile(Patient.class, "identifier.value");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<StringType>>> futures = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				futures.add(executor.submit(() -> path.getValues(patient, StringType.class)));
+				futures.add(executor.submit(() -> myCtx.newTerser().getValues(organization, "identifier.value", StringType.class)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				String expected = i % 2 == 0 ? "1" : "2";
+				assertEquals(expected, futures.get(i).get().get(0).getValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testGetEmbeddedResourcesOnBundle() {
 
@@ -0,0 +1,109 @@
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PreEncodedResourceUtilTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final String STORED_JSON = "{\"resourceType\":\"Patient\",\"active\":true,\"name\":[{\"family\":\"Simpson\"}]}";
+
+	@Test
+	public void testExtractElements() {
+		assertEquals("\"active\":true,\"name\":[{\"family\":\"Simpson\"}]", PreEncodedResourceUtil.extractElements("Patient", STORED_JSON));
+		assertEquals("", PreEncodedResourceUtil.extractElements("Patient", "{\"resourceType\":\"Patient\"}"));
+
+		// Wrong type, pretty printed, or with elements which come from the model
+		assertNull(PreEncodedResourceUtil.extractElements("Observation", STORED_JSON));
+		assertNull(PreEncodedResourceUtil.extractElements("Patient", "{\n  \"resourceType\": \"Patient\"\n}"));
+		assertNull(PreEncodedResourceUtil.extractElements("Patient", "{\"resourceType\":\"PatientX\",\"active\":true}"));
+		assertNull(PreEncodedResourceUtil.extractElements("Patient", "{\"resourceType\":\"Patient\",\"meta\":{\"extension\":[]},\"active\":true}"));
+		assertNull(PreEncodedResourceUtil.extractElements("Patient", "{\"resourceType\":\"Patient\",\"id\":\"A\"}"));
+	}
+
+	@Test
+	public void testEncodeJson_WritesEncodedElements() {
+		Patient patient = createPreEncodedPatient();
+
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(patient);
+		assertEquals("{\"resourceType\":\"Patient\",\"id\":\"A\",\"meta\":{\"versionId\":\"2\",\"lastUpdated\":\"2024-01-02T10:00:00Z\",\"tag\":[{\"system\":\"http://tags\",\"code\":\"foo\"}]},\"active\":true,\"name\":[{\"family\":\"Simpson\"}]}", encoded);
+
+		// The resource was not inflated
+		assertThat(patient.getName()).isEmpty();
+		assertEquals(encoded, ourCtx.newJsonParser().encodeResourceToString(createInflatedPatient()));
+	}
+
+	@Test
+	public void testEncodeJson_InBundle() {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		bundle.addEntry().setFullUrl("http://foo/Patient/A").setResource(createPreEncodedPatient());
+		bundle.addEntry().setFullUrl("http://foo/Patient/B").setResource(new Patient().setActive(false).setId("B"));
+
+		Bundle expected = new Bundle();
+		expected.setType(Bundle.BundleType.SEARCHSET);
+		expected.addEntry().setFullUrl("http://foo/Patient/A").setResource(createInflatedPatient());
+		expected.addEntry().setFullUrl("http://foo/Patient/B").setResource(new Patient().setActive(false).setId("B"));
+
+		assertEquals(ourCtx.newJsonParser().encodeResourceToString(expected), ourCtx.newJsonParser().encodeResourceToString(bundle));
+		assertThat(((Patient) bundle.getEntry().get(0).getResource()).getName()).isEmpty();
+	}
+
+	@Test
+	public void testEncode_InflatesWhenElementsAreFiltered() {
+		String expectedXml = ourCtx.newXmlParser().encodeResourceToString(createInflatedPatient());
+		assertEquals(expectedXml, ourCtx.newXmlParser().encodeResourceToString(createPreEncodedPatient()));
+
+		String expectedPretty = ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(createInflatedPatient());
+		assertEquals(expectedPretty, ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(createPreEncodedPatient()));
+
+		String expectedElements = ourCtx.newJsonParser().setEncodeElements(Set.of("Patient.name")).encodeResourceToString(createInflatedPatient());
+		assertEquals(expectedElements, ourCtx.newJsonParser().setEncodeElements(Set.of("Patient.name")).encodeResourceToString(createPreEncodedPatient()));
+		assertThat(expectedElements).contains("Simpson").doesNotContain("active");
+	}
+
+	@Test
+	public void testInflate() {
+		Patient patient = createPreEncodedPatient();
+		patient.setUserData("foo", "bar");
+
+		PreEncodedResourceUtil.inflate(ourCtx, patient);
+
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(true, patient.getActive());
+		assertEquals("Patient/A/_history/2", patient.getIdElement().getValue());
+		assertEquals("foo", patient.getMeta().getTagFirstRep().getCode());
+		assertEquals("bar", patient.getUserData("foo"));
+		assertNull(PreEncodedResourceUtil.getPreEncodedElements(patient));
+	}
+
+	private static Patient createPreEncodedPatient() {
+		Patient retVal = new Patient();
+		populateIdAndMeta(retVal);
+		PreEncodedResourceUtil.setPreEncodedElements(retVal, PreEncodedResourceUtil.extractElements("Patient", STORED_JSON));
+		return retVal;
+	}
+
+	private static Patient createInflatedPatient() {
+		Patient retVal = ourCtx.newJsonParser().parseResource(Patient.class, STORED_JSON);
+		populateIdAndMeta(retVal);
+		return retVal;
+	}
+
+	private static void populateIdAndMeta(Patient thePatient) {
+		thePatient.setId("Patient/A/_history/2");
+		thePatient.getMeta().setVersionId("2");
+		thePatient.getMeta().setLastUpdatedElement(new InstantType("2024-01-02T10:00:00Z"));
+		thePatient.getMeta().addTag("http://tags", "foo", null);
+	}
+
+}
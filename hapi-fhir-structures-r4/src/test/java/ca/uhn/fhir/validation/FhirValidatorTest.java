@@ -1,11 +1,18 @@
 package ca.uhn.fhir.validation;
 
 import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.StringType;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -33,4 +40,100 @@ public class FhirValidatorTest {
 		assertThat(patient.getContained()).hasSize(1);
 		assertEquals("heavy", ((Observation) patient.getContained().get(0)).getValue().toString());
 	}
+
+	@Test
+	public void testCreateBundleWithPlaceholderResources() {
+		FhirValidator validator = new FhirValidator(ourFhirContext);
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.TRANSACTION);
+		Patient patient = new Patient();
+		patient.setId("Patient/A");
+		patient.addName().setFamily("Simpson");
+		bundle.addEntry()
+				.setFullUrl("http://example.com/Patient/A")
+				.setResource(patient)
+				.getRequest()
+				.setMethod(Bundle.HTTPVerb.PUT)
+				.setUrl("Patient/A");
+		bundle.addEntry().getRequest().setMethod(Bundle.HTTPVerb.DELETE).setUrl("Patient/B");
+
+		Bundle placeholderBundle = (Bundle) validator.createBundleWithPlaceholderResources(bundle);
+
+		assertEquals(Bundle.BundleType.TRANSACTION, placeholderBundle.getType());
+		assertThat(placeholderBundle.getEntry()).hasSize(2);
+		Bundle.BundleEntryComponent entry0 = placeholderBundle.getEntry().get(0);
+		assertEquals("http://example.com/Patient/A", entry0.getFullUrl());
+		assertEquals("Patient/A", entry0.getRequest().getUrl());
+		Patient placeholder = (Patient) entry0.getResource();
+		assertEquals("Patient/A", placeholder.getIdElement().getValue());
+		assertThat(placeholder.getName()).isEmpty();
+		assertThat(placeholderBundle.getEntry().get(1).getResource()).isNull();
+		assertEquals("Patient/B", placeholderBundle.getEntry().get(1).getRequest().getUrl());
+
+		// The original Bundle is not modified
+		assertThat(bundle.getEntry().get(0).getResource()).isSameAs(patient);
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testConcurrentBundleValidation_WithStructureValidation() {
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		try {
+			FhirValidator validator = new FhirValidator(ourFhirContext);
+			validator.setValidateAgainstStandardSchema(false);
+			validator.setValidateAgainstStandardSchematron(false);
+			validator.setConcurrentBundleValidation(true);
+			validator.setExecutorService(executorService);
+			validator.registerValidatorModule(new LocationReportingValidatorModule());
+
+			Bundle bundle = new Bundle();
+			bundle.setType(Bundle.BundleType.COLLECTION);
+			bundle.addEntry().setFullUrl("http://example.com/Patient/A");
+			bundle.addEntry().setFullUrl("http://example.com/Patient/A").setResource(new Patient());
+
+			List<String> locations = validator.validateWithResult(bundle).getMessages().stream()
+					.map(SingleValidationMessage::getLocationString)
+					.collect(Collectors.toList());
+			assertThat(locations).containsExactly("Bundle.entry[1].resource.ofType(Patient).name");
+
+			validator.setConcurrentBundleStructureValidation(true);
+			locations = validator.validateWithResult(bundle).getMessages().stream()
+					.map(SingleValidationMessage::getLocationString)
+					.collect(Collectors.toList());
+			assertThat(locations)
+					.containsExactly("Bundle.entry[1].fullUrl", "Bundle.entry[1].resource.ofType(Patient).name");
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Reports one message for each Bundle entry which has a resource, and one message for each Patient
+	 */
+	private static class LocationReportingValidatorModule implements IValidatorModule {
+
+		@Override
+		public void validateResource(IValidationContext<IBaseResource> theCtx) {
+			IBaseResource resource = theCtx.getResource();
+			if (resource instanceof Bundle) {
+				List<Bundle.BundleEntryComponent> entries = ((Bundle) resource).getEntry();
+				for (int i = 0; i < entries.size(); i++) {
+					if (entries.get(i).getResource() != null) {
+						addMessage(theCtx, "Bundle.entry[" + i + "].fullUrl");
+						addMessage(theCtx, "Bundle.entry[" + i + "].resource.ofType(Patient).name");
+					}
+				}
+			} else if (resource instanceof Patient) {
+				addMessage(theCtx, "Patient.name");
+			}
+		}
+
+		private static void addMessage(IValidationContext<IBaseResource> theCtx, String theLocation) {
+			SingleValidationMessage message = new SingleValidationMessage();
+			message.setSeverity(ResultSeverityEnum.ERROR);
+			message.setLocationString(theLocation);
+			message.setMessage("Message at " + theLocation);
+			theCtx.addValidationMessage(message);
+		}
+	}
 }
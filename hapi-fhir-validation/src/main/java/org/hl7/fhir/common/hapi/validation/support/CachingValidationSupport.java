@@ -5,27 +5,41 @@ import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
 import ca.uhn.fhir.context.support.TranslateConceptResults;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
 import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.context.support.ValueSetExpansionOptions;
 import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.sl.cache.CacheFactory;
+import ca.uhn.fhir.util.ParametersUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.time.DateUtils;
+import org.hl7.fhir.common.hapi.validation.support.IValidationSupportCacheMetrics.CacheType;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
@@ -39,14 +53,22 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 	private static final Logger ourLog = LoggerFactory.getLogger(CachingValidationSupport.class);
 	public static final ValueSetExpansionOptions EMPTY_EXPANSION_OPTIONS = new ValueSetExpansionOptions();
 
-	private final Cache<String, Object> myCache;
-	private final Cache<String, Object> myValidateCodeCache;
-	private final Cache<TranslateCodeRequest, Object> myTranslateCodeCache;
-	private final Cache<String, Object> myLookupCodeCache;
+	private static final String EXPORT_VALIDATE_CODE = "validateCode";
+	private static final String EXPORT_LOOKUP_CODE = "lookupCode";
+
+	private final ManagedCache<String> myCache;
+	private final ManagedCache<String> myValidateCodeCache;
+	private final ManagedCache<TranslateCodeRequest> myTranslateCodeCache;
+	private final ManagedCache<String> myLookupCodeCache;
 	private final ThreadPoolExecutor myBackgroundExecutor;
 	private final Map<Object, Object> myNonExpiringCache;
-	private final Cache<String, Object> myExpandValueSetCache;
+	private final ManagedCache<String> myExpandValueSetCache;
 	private final boolean myIsEnabledValidationForCodingsLogicalAnd;
+	private final double myExpiryJitter;
+	private volatile IValidationSupportCacheMetrics myMetrics = new ValidationSupportCacheMetrics();
+	private volatile Executor myRefreshAheadExecutor;
+	private double myRefreshAheadThreshold = 0.8;
+	private int myRefreshAheadMinimumHits = 2;
 
 	/**
 	 * Constructor with default timeouts
@@ -76,11 +98,15 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 			CacheTimeouts theCacheTimeouts,
 			boolean theIsEnabledValidationForCodingsLogicalAnd) {
 		super(theWrap.getFhirContext(), theWrap);
-		myExpandValueSetCache = CacheFactory.build(theCacheTimeouts.getExpandValueSetMillis(), 100);
-		myValidateCodeCache = CacheFactory.build(theCacheTimeouts.getValidateCodeMillis(), 5000);
-		myLookupCodeCache = CacheFactory.build(theCacheTimeouts.getLookupCodeMillis(), 5000);
-		myTranslateCodeCache = CacheFactory.build(theCacheTimeouts.getTranslateCodeMillis(), 5000);
-		myCache = CacheFactory.build(theCacheTimeouts.getMiscMillis(), 5000);
+		myExpandValueSetCache =
+				new ManagedCache<>(CacheType.EXPAND_VALUE_SET, theCacheTimeouts.getExpandValueSetMillis(), 100);
+		myValidateCodeCache =
+				new ManagedCache<>(CacheType.VALIDATE_CODE, theCacheTimeouts.getValidateCodeMillis(), 5000);
+		myLookupCodeCache = new ManagedCache<>(CacheType.LOOKUP_CODE, theCacheTimeouts.getLookupCodeMillis(), 5000);
+		myTranslateCodeCache =
+				new ManagedCache<>(CacheType.TRANSLATE_CODE, theCacheTimeouts.getTranslateCodeMillis(), 5000);
+		myCache = new ManagedCache<>(CacheType.MISC, theCacheTimeouts.getMiscMillis(), 5000);
+		myExpiryJitter = theCacheTimeouts.getExpiryJitter();
 		myNonExpiringCache = Collections.synchronizedMap(new HashMap<>());
 
 		LinkedBlockingQueue<Runnable> executorQueue = new LinkedBlockingQueue<>(1000);
@@ -185,15 +211,103 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 			String theCode,
 			String theDisplay,
 			String theValueSetUrl) {
-		String key = "validateCode " + theCodeSystem + " " + theCode + " " + defaultString(theDisplay) + " "
-				+ defaultIfBlank(theValueSetUrl, "NO_VS");
+		String key = createValidateCodeKey(theCodeSystem, theCode, theDisplay, theValueSetUrl);
 		return loadFromCache(
 				myValidateCodeCache,
 				key,
+				new ValidateCodeRequest(theCodeSystem, theCode, theDisplay, theValueSetUrl),
 				t -> super.validateCode(
 						theValidationSupportContext, theOptions, theCodeSystem, theCode, theDisplay, theValueSetUrl));
 	}
 
+	/**
+	 * Cached results are returned directly, and the remaining requests are passed to the wrapped
+	 * module as a single batch. The results are cached exactly as though each code had been validated
+	 * using {@link #validateCode(ValidationSupportContext, ConceptValidationOptions, String, String, String, String)}
+	 * (and, for requests with a ValueSet URL, using
+	 * {@link #validateCodeInValueSet(ValidationSupportContext, ConceptValidationOptions, String, String, String, IBaseResource)}),
+	 * so a batch can be used to populate the cache ahead of a validation pass.
+	 */
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodeBatch(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			List<ValidateCodeRequest> theRequests) {
+		CodeValidationResult[] retVal = new CodeValidationResult[theRequests.size()];
+		List<Integer> missIndexes = new ArrayList<>();
+		List<ValidateCodeRequest> misses = new ArrayList<>();
+		List<String> missKeys = new ArrayList<>();
+		for (int i = 0; i < retVal.length; i++) {
+			ValidateCodeRequest request = theRequests.get(i);
+			String key = createValidateCodeKey(
+					request.getSystem(), request.getCode(), request.getDisplay(), request.getValueSetUrl());
+			CacheEntry cached = getEntryIfPresent(
+					myValidateCodeCache,
+					key,
+					t -> super.validateCode(
+							theValidationSupportContext,
+							theOptions,
+							request.getSystem(),
+							request.getCode(),
+							request.getDisplay(),
+							request.getValueSetUrl()));
+			if (cached != null && cached.getValue() != null) {
+				retVal[i] = (CodeValidationResult) cached.getValue();
+			} else {
+				missIndexes.add(i);
+				misses.add(request);
+				missKeys.add(key);
+			}
+		}
+
+		if (!misses.isEmpty()) {
+			long start = System.nanoTime();
+			List<CodeValidationResult> results =
+					super.validateCodeBatch(theValidationSupportContext, theOptions, misses);
+			myMetrics.recordLoad(myValidateCodeCache.myCacheType, System.nanoTime() - start);
+			for (int i = 0; i < misses.size(); i++) {
+				CodeValidationResult result = results.get(i);
+				if (result != null) {
+					myValidateCodeCache.myCache.put(
+							missKeys.get(i), newEntry(myValidateCodeCache, result, misses.get(i)));
+					ValidateCodeRequest request = misses.get(i);
+					if (isNotBlank(request.getValueSetUrl())) {
+						// The validator checks codes against a binding using validateCodeInValueSet
+						String valueSetKey = createValidateCodeInValueSetKey(
+								theOptions,
+								request.getSystem(),
+								request.getCode(),
+								request.getDisplay(),
+								request.getValueSetUrl());
+						myValidateCodeCache.myCache.put(valueSetKey, newEntry(myValidateCodeCache, result, null));
+					}
+				}
+				retVal[missIndexes.get(i)] = result;
+			}
+		}
+
+		return Arrays.asList(retVal);
+	}
+
+	@Nonnull
+	private static String createValidateCodeKey(
+			String theCodeSystem, String theCode, String theDisplay, String theValueSetUrl) {
+		return "validateCode " + theCodeSystem + " " + theCode + " " + defaultString(theDisplay) + " "
+				+ defaultIfBlank(theValueSetUrl, "NO_VS");
+	}
+
+	@Nonnull
+	private static String createValidateCodeInValueSetKey(
+			ConceptValidationOptions theOptions,
+			String theCodeSystem,
+			String theCode,
+			String theDisplay,
+			String theValueSetUrl) {
+		return "validateCodeInValueSet " + theOptions.toString() + " " + defaultString(theCodeSystem) + " "
+				+ defaultString(theCode) + " " + defaultString(theDisplay) + " " + theValueSetUrl;
+	}
+
 	@Override
 	public LookupCodeResult lookupCode(
 			ValidationSupportContext theValidationSupportContext, @Nonnull LookupCodeRequest theLookupCodeRequest) {
@@ -202,7 +316,10 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 				+ " " + defaultIfBlank(theLookupCodeRequest.getDisplayLanguage(), "NO_LANG")
 				+ " " + theLookupCodeRequest.getPropertyNames().toString();
 		return loadFromCache(
-				myLookupCodeCache, key, t -> super.lookupCode(theValidationSupportContext, theLookupCodeRequest));
+				myLookupCodeCache,
+				key,
+				theLookupCodeRequest,
+				t -> super.lookupCode(theValidationSupportContext, theLookupCodeRequest));
 	}
 
 	@Override
@@ -221,9 +338,8 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 				.filter(t -> isNotBlank(t))
 				.findFirst();
 		if (valueSetUrl.isPresent()) {
-			String key =
-					"validateCodeInValueSet " + theValidationOptions.toString() + " " + defaultString(theCodeSystem)
-							+ " " + defaultString(theCode) + " " + defaultString(theDisplay) + " " + valueSetUrl.get();
+			String key = createValidateCodeInValueSetKey(
+					theValidationOptions, theCodeSystem, theCode, theDisplay, valueSetUrl.get());
 			return loadFromCache(
 					myValidateCodeCache,
 					key,
@@ -245,23 +361,33 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 		return loadFromCache(myTranslateCodeCache, theRequest, k -> super.translateConcept(theRequest));
 	}
 
-	@SuppressWarnings("OptionalAssignedToNull")
 	@Nullable
-	private <S, T> T loadFromCache(Cache<S, Object> theCache, S theKey, Function<S, T> theLoader) {
+	private <S, T> T loadFromCache(ManagedCache<S> theCache, S theKey, Function<S, T> theLoader) {
+		return loadFromCache(theCache, theKey, null, theLoader);
+	}
+
+	/**
+	 * @param theRequest If not null, the request is stored with the cache entry so that it can be
+	 *                   included in {@link #exportCacheContents()}
+	 */
+	@Nullable
+	private <S, T> T loadFromCache(
+			ManagedCache<S> theCache, S theKey, @Nullable Object theRequest, Function<S, T> theLoader) {
 		ourLog.trace("Fetching from cache: {}", theKey);
 
-		Function<S, Optional<T>> loaderWrapper = key -> Optional.ofNullable(theLoader.apply(theKey));
-		Optional<T> result = (Optional<T>) theCache.get(theKey, loaderWrapper);
-		assert result != null;
+		CacheEntry entry = getEntryIfPresent(theCache, theKey, theLoader);
+		if (entry == null) {
+			entry = theCache.myCache.get(theKey, key -> loadEntry(theCache, key, theRequest, theLoader));
+			assert entry != null;
+		}
 
-		// UGH!  Animal sniffer :(
-		if (!result.isPresent()) {
+		if (entry.getValue() == null) {
 			ourLog.debug(
 					"Invalidating cache entry for key: {} since the result of the underlying query is empty", theKey);
-			theCache.invalidate(theKey);
+			removeIfSame(theCache, theKey, entry);
 		}
 
-		return result.orElse(null);
+		return (T) entry.getValue();
 	}
 
 	/**
@@ -270,25 +396,25 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 	 * method in place of loadFromCache in situations where a cache lookup calls another cache lookup within its lambda
 	 */
 	@Nullable
-	private <S, T> T loadFromCacheReentrantSafe(Cache<S, Object> theCache, S theKey, Function<S, T> theLoader) {
+	private <S, T> T loadFromCacheReentrantSafe(ManagedCache<S> theCache, S theKey, Function<S, T> theLoader) {
 		ourLog.trace("Reentrant fetch from cache: {}", theKey);
 
-		Optional<T> result = (Optional<T>) theCache.getIfPresent(theKey);
-		if (result != null && result.isPresent()) {
-			return result.get();
+		CacheEntry entry = getEntryIfPresent(theCache, theKey, null);
+		if (entry != null && entry.getValue() != null) {
+			return (T) entry.getValue();
 		}
-		T value = theLoader.apply(theKey);
-		assert value != null;
+		entry = loadEntry(theCache, theKey, null, theLoader);
+		assert entry.getValue() != null;
 
-		theCache.put(theKey, Optional.of(value));
+		theCache.myCache.put(theKey, entry);
 
-		return value;
+		return (T) entry.getValue();
 	}
 
-	private <S, T> T loadFromCacheWithAsyncRefresh(Cache<S, Object> theCache, S theKey, Function<S, T> theLoader) {
-		T retVal = (T) theCache.getIfPresent(theKey);
-		if (retVal == null) {
-			retVal = (T) myNonExpiringCache.get(theKey);
+	private <S, T> T loadFromCacheWithAsyncRefresh(ManagedCache<S> theCache, S theKey, Function<S, T> theLoader) {
+		CacheEntry entry = getEntryIfPresent(theCache, theKey, null);
+		if (entry == null) {
+			T retVal = (T) myNonExpiringCache.get(theKey);
 			if (retVal != null) {
 
 				Runnable loaderTask = () -> {
@@ -299,22 +425,352 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 
 				return retVal;
 			}
+		} else if (entry.getValue() != null) {
+			return (T) entry.getValue();
 		}
 
-		retVal = loadFromCache(theCache, theKey, theLoader);
+		T retVal = loadFromCache(theCache, theKey, theLoader);
 		myNonExpiringCache.put(theKey, retVal);
 		return retVal;
 	}
 
+	/**
+	 * Returns the cached entry for the given key, or <code>null</code> if there is no entry or if
+	 * the entry has passed its (jittered) expiry time. If a refresh-ahead executor is configured and
+	 * a frequently used entry is approaching its expiry, a reload of the entry is scheduled.
+	 *
+	 * @param theLoader The loader used to refresh the entry, or <code>null</code> if the entry should never
+	 *                  be refreshed ahead of its expiry
+	 */
+	@Nullable
+	private <S> CacheEntry getEntryIfPresent(ManagedCache<S> theCache, S theKey, @Nullable Function<S, ?> theLoader) {
+		CacheEntry entry = theCache.myCache.getIfPresent(theKey);
+		if (entry != null) {
+			long now = System.currentTimeMillis();
+			if (now < entry.myExpiryMillis) {
+				myMetrics.recordHit(theCache.myCacheType);
+				int hits = entry.myHits.incrementAndGet();
+				if (theLoader != null && hits >= myRefreshAheadMinimumHits && now >= entry.myRefreshAfterMillis) {
+					refreshAhead(theCache, theKey, entry, theLoader);
+				}
+				return entry;
+			}
+			removeIfSame(theCache, theKey, entry);
+		}
+		myMetrics.recordMiss(theCache.myCacheType);
+		return null;
+	}
+
+	/**
+	 * Atomically removes the entry for the given key, unless it has already been replaced by another entry
+	 */
+	private static <S> void removeIfSame(ManagedCache<S> theCache, S theKey, CacheEntry theEntry) {
+		theCache.myCache.asMap().remove(theKey, theEntry);
+	}
+
+	/**
+	 * Atomically replaces the entry for the given key, unless it has already been replaced or removed
+	 */
+	private static <S> void replaceIfSame(
+			ManagedCache<S> theCache, S theKey, CacheEntry theEntry, CacheEntry theReplacement) {
+		theCache.myCache.asMap().replace(theKey, theEntry, theReplacement);
+	}
+
+	private <S> void refreshAhead(ManagedCache<S> theCache, S theKey, CacheEntry theEntry, Function<S, ?> theLoader) {
+		Executor executor = myRefreshAheadExecutor;
+		if (executor == null || !theEntry.myRefreshing.compareAndSet(false, true)) {
+			return;
+		}
+
+		Runnable refreshTask = () -> {
+			try {
+				CacheEntry refreshed = loadEntry(theCache, theKey, theEntry.myRequest, theLoader);
+				if (refreshed.getValue() != null) {
+					replaceIfSame(theCache, theKey, theEntry, refreshed);
+				}
+			} catch (Exception e) {
+				ourLog.warn("Failed to refresh cache entry for key {}: {}", theKey, e.toString());
+			}
+		};
+
+		try {
+			executor.execute(refreshTask);
+			myMetrics.recordRefreshAhead(theCache.myCacheType);
+		} catch (RejectedExecutionException e) {
+			ourLog.debug("Refresh of cache entry for key {} was rejected by the executor", theKey);
+			theEntry.myRefreshing.set(false);
+		}
+	}
+
+	@Nonnull
+	private <S> CacheEntry loadEntry(
+			ManagedCache<S> theCache, S theKey, @Nullable Object theRequest, Function<S, ?> theLoader) {
+		long start = System.nanoTime();
+		Object value = theLoader.apply(theKey);
+		myMetrics.recordLoad(theCache.myCacheType, System.nanoTime() - start);
+		return newEntry(theCache, value, theRequest);
+	}
+
+	@Nonnull
+	private CacheEntry newEntry(ManagedCache<?> theCache, @Nullable Object theValue, @Nullable Object theRequest) {
+		long now = System.currentTimeMillis();
+		long lifetime = theCache.myTimeoutMillis;
+		if (myExpiryJitter > 0) {
+			lifetime -= (long)
+					(lifetime * myExpiryJitter * ThreadLocalRandom.current().nextDouble());
+		}
+		long refreshAfter = now + (long) (lifetime * myRefreshAheadThreshold);
+		return new CacheEntry(theValue, theRequest, now + lifetime, refreshAfter);
+	}
+
 	@Override
 	public void invalidateCaches() {
-		myExpandValueSetCache.invalidateAll();
-		myLookupCodeCache.invalidateAll();
-		myCache.invalidateAll();
-		myValidateCodeCache.invalidateAll();
+		myExpandValueSetCache.myCache.invalidateAll();
+		myLookupCodeCache.myCache.invalidateAll();
+		myCache.myCache.invalidateAll();
+		myValidateCodeCache.myCache.invalidateAll();
 		myNonExpiringCache.clear();
 	}
 
+	/**
+	 * Returns the metrics collector which receives cache hit, miss and load statistics. By default
+	 * this is a {@link ValidationSupportCacheMetrics} instance.
+	 *
+	 * @since 7.6.0
+	 */
+	@Nonnull
+	public IValidationSupportCacheMetrics getMetrics() {
+		return myMetrics;
+	}
+
+	/**
+	 * Sets the metrics collector which receives cache hit, miss and load statistics. This can be
+	 * used to publish the statistics to an external metrics system.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setMetrics(@Nonnull IValidationSupportCacheMetrics theMetrics) {
+		Validate.notNull(theMetrics, "theMetrics must not be null");
+		myMetrics = theMetrics;
+	}
+
+	/**
+	 * Sets an executor used to reload frequently used cache entries before they expire, so that
+	 * validation threads do not have to wait for the wrapped module when hot entries expire. Refresh-ahead
+	 * is disabled if this is <code>null</code> (which is the default).
+	 *
+	 * @see #setRefreshAheadThreshold(double)
+	 * @see #setRefreshAheadMinimumHits(int)
+	 * @since 7.6.0
+	 */
+	public void setRefreshAheadExecutor(@Nullable Executor theRefreshAheadExecutor) {
+		myRefreshAheadExecutor = theRefreshAheadExecutor;
+	}
+
+	/**
+	 * @since 7.6.0
+	 */
+	@Nullable
+	public Executor getRefreshAheadExecutor() {
+		return myRefreshAheadExecutor;
+	}
+
+	/**
+	 * Sets the fraction of an entry's lifetime after which it will be refreshed ahead of its expiry
+	 * if it is used. The default is <code>0.8</code>. Only applies to entries loaded after this is set.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setRefreshAheadThreshold(double theRefreshAheadThreshold) {
+		Validate.isTrue(
+				theRefreshAheadThreshold > 0 && theRefreshAheadThreshold <= 1,
+				"theRefreshAheadThreshold must be greater than 0 and no more than 1");
+		myRefreshAheadThreshold = theRefreshAheadThreshold;
+	}
+
+	/**
+	 * @since 7.6.0
+	 */
+	public double getRefreshAheadThreshold() {
+		return myRefreshAheadThreshold;
+	}
+
+	/**
+	 * Sets the number of times an entry must be read from the cache before it is considered
+	 * frequently used, and is therefore refreshed ahead of its expiry. The default is <code>2</code>.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setRefreshAheadMinimumHits(int theRefreshAheadMinimumHits) {
+		Validate.isTrue(theRefreshAheadMinimumHits > 0, "theRefreshAheadMinimumHits must be greater than 0");
+		myRefreshAheadMinimumHits = theRefreshAheadMinimumHits;
+	}
+
+	/**
+	 * @since 7.6.0
+	 */
+	public int getRefreshAheadMinimumHits() {
+		return myRefreshAheadMinimumHits;
+	}
+
+	/**
+	 * Exports the code validations and code lookups which are currently cached, as a
+	 * <code>Parameters</code> resource which can be stored and passed to {@link #warmUpCaches(IBaseParameters)}
+	 * on another node (or after a restart) in order to pre-populate its caches. Cached results can
+	 * contain resources and module-specific state, so the requests are exported rather than
+	 * the results, and they are repeated against the validation support modules of the new node.
+	 * Exporting requires a cache provider which supports {@link Cache#asMap()}, as the bundled
+	 * Caffeine and Guava providers do.
+	 *
+	 * @since 7.6.0
+	 */
+	@Nonnull
+	public IBaseParameters exportCacheContents() {
+		IBaseParameters retVal = ParametersUtil.newInstance(myCtx);
+		long now = System.currentTimeMillis();
+
+		for (CacheEntry next : getCachedEntries(myValidateCodeCache)) {
+			if (next.myRequest instanceof ValidateCodeRequest && now < next.myExpiryMillis) {
+				ValidateCodeRequest request = (ValidateCodeRequest) next.myRequest;
+				IBase param = ParametersUtil.addParameterToParameters(myCtx, retVal, EXPORT_VALIDATE_CODE);
+				addExportPart(param, "system", request.getSystem());
+				addExportPart(param, "code", request.getCode());
+				addExportPart(param, "display", request.getDisplay());
+				addExportPart(param, "url", request.getValueSetUrl());
+			}
+		}
+
+		for (CacheEntry next : getCachedEntries(myLookupCodeCache)) {
+			if (next.myRequest instanceof LookupCodeRequest && now < next.myExpiryMillis) {
+				LookupCodeRequest request = (LookupCodeRequest) next.myRequest;
+				IBase param = ParametersUtil.addParameterToParameters(myCtx, retVal, EXPORT_LOOKUP_CODE);
+				addExportPart(param, "system", request.getSystem());
+				addExportPart(param, "code", request.getCode());
+				addExportPart(param, "displayLanguage", request.getDisplayLanguage());
+				for (String nextPropertyName : request.getPropertyNames()) {
+					addExportPart(param, "property", nextPropertyName);
+				}
+			}
+		}
+
+		return retVal;
+	}
+
+	private static Collection<CacheEntry> getCachedEntries(ManagedCache<?> theCache) {
+		try {
+			return theCache.myCache.asMap().values();
+		} catch (UnsupportedOperationException e) {
+			ourLog.warn("Unable to export the contents of the {} cache: {}", theCache.myCacheType, e.getMessage());
+			return Collections.emptyList();
+		}
+	}
+
+	private void addExportPart(IBase theParameter, String theName, @Nullable String theValue) {
+		if (isNotBlank(theValue)) {
+			ParametersUtil.addPartString(myCtx, theParameter, theName, theValue);
+		}
+	}
+
+	/**
+	 * Populates the caches by repeating the requests in a <code>Parameters</code> resource which
+	 * was created by {@link #exportCacheContents()}. Code validations are passed to the wrapped module
+	 * as a single {@link #validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, List) batch}.
+	 * Failures are logged and do not prevent the remaining requests from being loaded.
+	 *
+	 * @since 7.6.0
+	 */
+	public void warmUpCaches(@Nonnull IBaseParameters theCacheContents) {
+		ValidationSupportContext context = new ValidationSupportContext(this);
+
+		List<ValidateCodeRequest> validateCodeRequests = new ArrayList<>();
+		for (IBase next : ParametersUtil.getNamedParameters(myCtx, theCacheContents, EXPORT_VALIDATE_CODE)) {
+			validateCodeRequests.add(new ValidateCodeRequest(
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "system"),
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "code"),
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "display"),
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "url")));
+		}
+		if (!validateCodeRequests.isEmpty()) {
+			try {
+				validateCodeBatch(context, new ConceptValidationOptions(), validateCodeRequests);
+			} catch (Exception e) {
+				ourLog.warn("Failed to warm up code validation cache: {}", e.toString());
+			}
+		}
+
+		int lookupCount = 0;
+		for (IBase next : ParametersUtil.getNamedParameters(myCtx, theCacheContents, EXPORT_LOOKUP_CODE)) {
+			List<String> propertyNames = new ArrayList<>();
+			for (IBase nextPart : myCtx.newTerser().getValues(next, "part")) {
+				if ("property".equals(myCtx.newTerser().getSinglePrimitiveValueOrNull(nextPart, "name"))) {
+					propertyNames.add(myCtx.newTerser().getSinglePrimitiveValueOrNull(nextPart, "value[x]"));
+				}
+			}
+			LookupCodeRequest request = new LookupCodeRequest(
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "system"),
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "code"),
+					ParametersUtil.getParameterPartValueAsString(myCtx, next, "displayLanguage"),
+					propertyNames);
+			try {
+				lookupCode(context, request);
+				lookupCount++;
+			} catch (Exception e) {
+				ourLog.warn(
+						"Failed to warm up code lookup cache for {}|{}: {}",
+						request.getSystem(),
+						request.getCode(),
+						e.toString());
+			}
+		}
+
+		ourLog.info(
+				"Warmed up caches with {} code validations and {} code lookups",
+				validateCodeRequests.size(),
+				lookupCount);
+	}
+
+	private static class ManagedCache<K> {
+		private final Cache<K, CacheEntry> myCache;
+		private final CacheType myCacheType;
+		private final long myTimeoutMillis;
+
+		private ManagedCache(CacheType theCacheType, long theTimeoutMillis, long theMaximumSize) {
+			myCache = CacheFactory.build(theTimeoutMillis, theMaximumSize);
+			myCacheType = theCacheType;
+			myTimeoutMillis = theTimeoutMillis;
+		}
+	}
+
+	/**
+	 * A cached value along with the times at which it expires and becomes eligible for refresh-ahead.
+	 * Entries are compared by identity so that a refreshed entry is only stored if the entry it
+	 * replaces is still current.
+	 */
+	private static class CacheEntry {
+		private final Object myValue;
+		private final Object myRequest;
+		private final long myExpiryMillis;
+		private final long myRefreshAfterMillis;
+		private final AtomicInteger myHits = new AtomicInteger();
+		private final AtomicBoolean myRefreshing = new AtomicBoolean();
+
+		private CacheEntry(
+				@Nullable Object theValue,
+				@Nullable Object theRequest,
+				long theExpiryMillis,
+				long theRefreshAfterMillis) {
+			myValue = theValue;
+			myRequest = theRequest;
+			myExpiryMillis = theExpiryMillis;
+			myRefreshAfterMillis = theRefreshAfterMillis;
+		}
+
+		@Nullable
+		private Object getValue() {
+			return myValue;
+		}
+	}
+
 	/**
 	 * @since 5.4.0
 	 */
@@ -325,6 +781,29 @@ public class CachingValidationSupport extends BaseValidationSupportWrapper imple
 		private long myValidateCodeMillis;
 		private long myMiscMillis;
 		private long myExpandValueSetMillis;
+		private double myExpiryJitter;
+
+		/**
+		 * @since 7.6.0
+		 */
+		public double getExpiryJitter() {
+			return myExpiryJitter;
+		}
+
+		/**
+		 * Entries expire after a random time between <code>(1 - theExpiryJitter)</code> and <code>1</code>
+		 * times their configured timeout, so that entries which were loaded together (e.g. during the
+		 * first validation after startup) do not all expire together. The default is <code>0</code>, meaning
+		 * that entries expire exactly after their configured timeout.
+		 *
+		 * @param theExpiryJitter A value between <code>0</code> and <code>1</code>
+		 * @since 7.6.0
+		 */
+		public CacheTimeouts setExpiryJitter(double theExpiryJitter) {
+			Validate.isTrue(theExpiryJitter >= 0 && theExpiryJitter < 1, "theExpiryJitter must be between 0 and 1");
+			myExpiryJitter = theExpiryJitter;
+			return this;
+		}
 
 		public long getExpandValueSetMillis() {
 			return myExpandValueSetMillis;
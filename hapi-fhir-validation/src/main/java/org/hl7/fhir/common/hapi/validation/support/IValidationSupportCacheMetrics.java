@@ -0,0 +1,54 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Receives cache statistics from {@link CachingValidationSupport}. Implementations can be used
+ * to publish hit rates and load times to a metrics system. Methods on this interface are called
+ * on the validation thread (or on the refresh-ahead executor) for every cache access, so they
+ * must be thread-safe and should return quickly.
+ *
+ * @see ValidationSupportCacheMetrics
+ * @since 7.6.0
+ */
+public interface IValidationSupportCacheMetrics {
+
+	/**
+	 * A cached value was returned
+	 */
+	void recordHit(@Nonnull CacheType theCacheType);
+
+	/**
+	 * No cached value was available, so the value is loaded from the wrapped module
+	 */
+	void recordMiss(@Nonnull CacheType theCacheType);
+
+	/**
+	 * A value was loaded from the wrapped module, either because of a miss or because
+	 * a frequently used entry was refreshed ahead of its expiry
+	 *
+	 * @param theLoadTimeNanos The time taken to load the value, in nanoseconds
+	 */
+	void recordLoad(@Nonnull CacheType theCacheType, long theLoadTimeNanos);
+
+	/**
+	 * A frequently used entry was scheduled for refresh ahead of its expiry
+	 */
+	default void recordRefreshAhead(@Nonnull CacheType theCacheType) {
+		// nothing
+	}
+
+	/**
+	 * The caches maintained by {@link CachingValidationSupport}
+	 */
+	enum CacheType {
+		VALIDATE_CODE,
+		LOOKUP_CODE,
+		EXPAND_VALUE_SET,
+		TRANSLATE_CODE,
+		/**
+		 * Conformance resource fetches and other lookups
+		 */
+		MISC
+	}
+}
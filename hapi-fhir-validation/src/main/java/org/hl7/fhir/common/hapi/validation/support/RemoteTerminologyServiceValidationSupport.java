@@ -7,6 +7,7 @@ import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
 import ca.uhn.fhir.context.support.TranslateConceptResults;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
 import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.SummaryEnum;
@@ -14,14 +15,18 @@ import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.gclient.IQuery;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.OperationOutcomeUtil;
 import ca.uhn.fhir.util.ParametersUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDatatype;
+import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
 import org.hl7.fhir.instance.model.api.IBaseParameters;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Base;
@@ -37,8 +42,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -52,8 +60,17 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class RemoteTerminologyServiceValidationSupport extends BaseValidationSupport implements IValidationSupport {
 	private static final Logger ourLog = LoggerFactory.getLogger(RemoteTerminologyServiceValidationSupport.class);
 
+	/**
+	 * Default value for {@link #setBatchSize(int)}
+	 *
+	 * @since 7.6.0
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 50;
+
 	private String myBaseUrl;
 	private final List<Object> myClientInterceptors = new ArrayList<>();
+	private int myBatchSize = DEFAULT_BATCH_SIZE;
+	private int myBatchConcurrency = 1;
 
 	/**
 	 * Constructor
@@ -86,6 +103,115 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		return invokeRemoteValidateCode(theCodeSystem, theCode, theDisplay, theValueSetUrl, null);
 	}
 
+	/**
+	 * Codes are validated by sending <code>$validate-code</code> requests to the remote server in
+	 * <code>batch</code> Bundles of up to {@link #getBatchSize()} requests each, with up to
+	 * {@link #getBatchConcurrency()} Bundles in flight at the same time. If the server does not
+	 * accept a batch Bundle, the codes in it are validated using individual requests instead.
+	 */
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodeBatch(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			List<ValidateCodeRequest> theRequests) {
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < theRequests.size(); i++) {
+			if (isNotBlank(theRequests.get(i).getCode())) {
+				indexes.add(i);
+			}
+		}
+		if (myBatchSize <= 1 || indexes.size() <= 1) {
+			return super.validateCodeBatch(theValidationSupportContext, theOptions, theRequests);
+		}
+
+		List<List<Integer>> chunks = new ArrayList<>();
+		for (int i = 0; i < indexes.size(); i += myBatchSize) {
+			chunks.add(indexes.subList(i, Math.min(i + myBatchSize, indexes.size())));
+		}
+
+		// Each lane sends its Bundles one after another, so at most one Bundle per lane is in flight
+		IGenericClient client = provideClient();
+		CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(myBatchConcurrency, chunks.size())];
+		List<CompletableFuture<IBaseBundle>> responses = new ArrayList<>(chunks.size());
+		for (int i = 0; i < chunks.size(); i++) {
+			IBaseBundle batch = buildValidateCodeBatch(theRequests, chunks.get(i));
+			int lane = i % lanes.length;
+			CompletableFuture<?> previous =
+					lanes[lane] != null ? lanes[lane].handle((t, e) -> null) : CompletableFuture.completedFuture(null);
+			CompletableFuture<IBaseBundle> response = previous.thenCompose(
+					t -> client.transaction().withBundle(batch).executeAsync());
+			lanes[lane] = response;
+			responses.add(response);
+		}
+
+		CodeValidationResult[] retVal = new CodeValidationResult[theRequests.size()];
+		for (int i = 0; i < chunks.size(); i++) {
+			List<Integer> chunk = chunks.get(i);
+			List<BundleEntryParts> entries = null;
+			try {
+				entries = BundleUtil.toListOfEntries(
+						getFhirContext(), responses.get(i).join());
+			} catch (CompletionException e) {
+				ourLog.warn(
+						"Failed to validate {} codes using a batch request to {}, validating them individually: {}",
+						chunk.size(),
+						client.getServerBase(),
+						e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+			}
+
+			if (entries == null || entries.size() != chunk.size()) {
+				for (int index : chunk) {
+					ValidateCodeRequest request = theRequests.get(index);
+					retVal[index] = invokeRemoteValidateCode(
+							request.getSystem(),
+							request.getCode(),
+							request.getDisplay(),
+							request.getValueSetUrl(),
+							null);
+				}
+				continue;
+			}
+
+			for (int j = 0; j < chunk.size(); j++) {
+				ValidateCodeRequest request = theRequests.get(chunk.get(j));
+				IBaseResource resource = entries.get(j).getResource();
+				if (resource instanceof IBaseParameters) {
+					retVal[chunk.get(j)] = createCodeValidationResult(request.getCode(), (IBaseParameters) resource);
+				} else {
+					String serverMessage = resource instanceof IBaseOperationOutcome
+							? OperationOutcomeUtil.getFirstIssueDetails(
+									getFhirContext(), (IBaseOperationOutcome) resource)
+							: null;
+					CodeValidationResult result = new CodeValidationResult();
+					result.setSeverity(IssueSeverity.ERROR);
+					result.setMessage(buildErrorMessage(
+							request.getSystem(),
+							request.getCode(),
+							request.getValueSetUrl(),
+							null,
+							client.getServerBase(),
+							serverMessage));
+					retVal[chunk.get(j)] = result;
+				}
+			}
+		}
+		return Arrays.asList(retVal);
+	}
+
+	private IBaseBundle buildValidateCodeBatch(List<ValidateCodeRequest> theRequests, List<Integer> theIndexes) {
+		BundleBuilder bundleBuilder = new BundleBuilder(getFhirContext());
+		for (int index : theIndexes) {
+			ValidateCodeRequest request = theRequests.get(index);
+			IBaseParameters input = buildValidateCodeInputParameters(
+					request.getSystem(), request.getCode(), request.getDisplay(), request.getValueSetUrl(), null);
+			String resourceType = getValidateCodeResourceType(request.getValueSetUrl(), null);
+			bundleBuilder.addTransactionOperationEntry(resourceType + "/$validate-code", input);
+		}
+		bundleBuilder.setType("batch");
+		return bundleBuilder.getBundle();
+	}
+
 	@Override
 	public CodeValidationResult validateCodeInValueSet(
 			ValidationSupportContext theValidationSupportContext,
@@ -578,10 +704,7 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		IBaseParameters input =
 				buildValidateCodeInputParameters(theCodeSystem, theCode, theDisplay, theValueSetUrl, theValueSet);
 
-		String resourceType = "ValueSet";
-		if (theValueSet == null && theValueSetUrl == null) {
-			resourceType = "CodeSystem";
-		}
+		String resourceType = getValidateCodeResourceType(theValueSetUrl, theValueSet);
 
 		IBaseParameters output;
 		try {
@@ -600,6 +723,11 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 			return result;
 		}
 
+		return createCodeValidationResult(theCode, output);
+	}
+
+	@Nullable
+	private CodeValidationResult createCodeValidationResult(String theCode, IBaseParameters output) {
 		List<String> resultValues = ParametersUtil.getNamedParameterValuesAsString(getFhirContext(), output, "result");
 		if (resultValues.isEmpty() || isBlank(resultValues.get(0))) {
 			return null;
@@ -630,6 +758,17 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		return retVal;
 	}
 
+	/**
+	 * Codes are validated against their CodeSystem unless a ValueSet or a (non-blank) ValueSet URL is given
+	 */
+	private static boolean isCodeSystemValidation(String theValueSetUrl, IBaseResource theValueSet) {
+		return theValueSet == null && isBlank(theValueSetUrl);
+	}
+
+	private static String getValidateCodeResourceType(String theValueSetUrl, IBaseResource theValueSet) {
+		return isCodeSystemValidation(theValueSetUrl, theValueSet) ? "CodeSystem" : "ValueSet";
+	}
+
 	private String buildErrorMessage(
 			String theCodeSystem,
 			String theCode,
@@ -637,7 +776,7 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 			IBaseResource theValueSet,
 			String theServerUrl,
 			String theServerMessage) {
-		if (theValueSetUrl == null && theValueSet == null) {
+		if (isCodeSystemValidation(theValueSetUrl, theValueSet)) {
 			return getErrorMessage("unknownCodeInSystem", theCodeSystem, theCode, theServerUrl, theServerMessage);
 		} else {
 			return getErrorMessage(
@@ -649,7 +788,7 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 			String theCodeSystem, String theCode, String theDisplay, String theValueSetUrl, IBaseResource theValueSet) {
 		IBaseParameters params = ParametersUtil.newInstance(getFhirContext());
 
-		if (theValueSet == null && theValueSetUrl == null) {
+		if (isCodeSystemValidation(theValueSetUrl, theValueSet)) {
 			ParametersUtil.addParameterToParametersUri(getFhirContext(), params, "url", theCodeSystem);
 			ParametersUtil.addParameterToParametersString(getFhirContext(), params, "code", theCode);
 			if (isNotBlank(theDisplay)) {
@@ -684,6 +823,53 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		myBaseUrl = theBaseUrl;
 	}
 
+	/**
+	 * Returns the maximum number of codes which are validated using a single <code>batch</code>
+	 * Bundle by {@link #validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, List)}.
+	 * Default is {@link #DEFAULT_BATCH_SIZE}.
+	 *
+	 * @since 7.6.0
+	 */
+	public int getBatchSize() {
+		return myBatchSize;
+	}
+
+	/**
+	 * Sets the maximum number of codes which are validated using a single <code>batch</code>
+	 * Bundle by {@link #validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, List)}.
+	 * Default is {@link #DEFAULT_BATCH_SIZE}. Set to <code>1</code> in order to validate each code
+	 * using an individual request, e.g. for servers which do not support batch Bundles.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setBatchSize(int theBatchSize) {
+		Validate.isTrue(theBatchSize > 0, "theBatchSize must be greater than 0");
+		myBatchSize = theBatchSize;
+	}
+
+	/**
+	 * Returns the maximum number of <code>batch</code> Bundles which are sent to the remote server
+	 * at the same time. Default is <code>1</code>.
+	 *
+	 * @since 7.6.0
+	 */
+	public int getBatchConcurrency() {
+		return myBatchConcurrency;
+	}
+
+	/**
+	 * Sets the maximum number of <code>batch</code> Bundles which are sent to the remote server
+	 * at the same time. Default is <code>1</code>. Note that the number of concurrent requests
+	 * to a single server is also limited by
+	 * {@link ca.uhn.fhir.rest.client.api.IRestfulClientFactory#setAsyncMaxRequestsPerHost(int)}.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setBatchConcurrency(int theBatchConcurrency) {
+		Validate.isTrue(theBatchConcurrency > 0, "theBatchConcurrency must be greater than 0");
+		myBatchConcurrency = theBatchConcurrency;
+	}
+
 	/**
 	 * Adds an interceptor that will be registered to all clients.
 	 * <p>
@@ -1,5 +1,6 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.support.IValidationSupport;
@@ -8,10 +9,14 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
+import ca.uhn.fhir.util.VersionUtil;
 import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.common.hapi.validation.validator.ProfileKnowledgeWorkerR5;
 import org.hl7.fhir.common.hapi.validation.validator.VersionSpecificWorkerContextWrapper;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r5.conformance.profile.ProfileKnowledgeProvider;
 import org.hl7.fhir.r5.conformance.profile.ProfileUtilities;
@@ -20,8 +25,21 @@ import org.hl7.fhir.utilities.validation.ValidationMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.hl7.fhir.common.hapi.validation.support.CommonCodeSystemsTerminologyService.getFhirVersionEnum;
 
@@ -34,11 +52,18 @@ import static org.hl7.fhir.common.hapi.validation.support.CommonCodeSystemsTermi
  *    <li>R4</li>
  *    <li>R5</li>
  * </ul>
+ * <p>
+ * If a {@link #setSnapshotCacheDirectory(Path) snapshot cache directory} is configured, generated
+ * snapshots are also stored on disk so that they do not need to be generated again after a restart.
+ * </p>
  */
 public class SnapshotGeneratingValidationSupport implements IValidationSupport {
 	private static final Logger ourLog = LoggerFactory.getLogger(SnapshotGeneratingValidationSupport.class);
+	private static final String SNAPSHOT_CACHE_FILE_SUFFIX = ".json";
 	private final FhirContext myCtx;
 	private final VersionCanonicalizer myVersionCanonicalizer;
+	private final Map<IBaseResource, byte[]> myBaseDefinitionHashes = Collections.synchronizedMap(new WeakHashMap<>());
+	private volatile Path mySnapshotCacheDirectory;
 
 	/**
 	 * Constructor
@@ -49,6 +74,37 @@ public class SnapshotGeneratingValidationSupport implements IValidationSupport {
 		myVersionCanonicalizer = new VersionCanonicalizer(theCtx);
 	}
 
+	/**
+	 * Returns the directory in which generated snapshots are cached, or <code>null</code>
+	 * (the default) if generated snapshots are not cached.
+	 *
+	 * @since 7.6.0
+	 */
+	@Nullable
+	public Path getSnapshotCacheDirectory() {
+		return mySnapshotCacheDirectory;
+	}
+
+	/**
+	 * Sets a directory in which generated snapshots are cached (default is <code>null</code>, meaning
+	 * that they are not cached). The directory is created if it does not exist, and can be shared by
+	 * multiple servers. Cached snapshots are only read when a snapshot is requested, so a large cache
+	 * does not slow down startup.
+	 * <p>
+	 * Cached snapshots are keyed by a hash of the HAPI FHIR version, the StructureDefinition being
+	 * snapshotted (including its URL and version, and therefore the version of the package it was
+	 * loaded from), and the snapshot of its base definition. A changed profile or base definition
+	 * therefore results in a new snapshot being generated. Other profiles which are referenced by
+	 * the StructureDefinition (e.g. datatype profiles) are not part of the key, so the directory
+	 * should be cleared if those change without a change to the version of the referencing profile.
+	 * </p>
+	 *
+	 * @since 7.6.0
+	 */
+	public void setSnapshotCacheDirectory(@Nullable Path theSnapshotCacheDirectory) {
+		mySnapshotCacheDirectory = theSnapshotCacheDirectory;
+	}
+
 	@SuppressWarnings("EnhancedSwitchMigration")
 	@Override
 	public IBaseResource generateSnapshot(
@@ -95,6 +151,15 @@ public class SnapshotGeneratingValidationSupport implements IValidationSupport {
 				baseCanonical = myVersionCanonicalizer.structureDefinitionToCanonical(base);
 			}
 
+			Path snapshotCacheDirectory = mySnapshotCacheDirectory;
+			String snapshotCacheKey = null;
+			if (snapshotCacheDirectory != null) {
+				snapshotCacheKey = createSnapshotCacheKey(theInput, base, theUrl, theWebUrl, theProfileName);
+				if (loadSnapshotFromCache(snapshotCacheDirectory, snapshotCacheKey, theInput)) {
+					return theInput;
+				}
+			}
+
 			ArrayList<ValidationMessage> messages = new ArrayList<>();
 			ProfileKnowledgeProvider profileKnowledgeProvider = new ProfileKnowledgeWorkerR5(myCtx);
 			IWorkerContext context =
@@ -162,6 +227,10 @@ public class SnapshotGeneratingValidationSupport implements IValidationSupport {
 							Msg.code(706) + "Can not generate snapshot for version: " + version);
 			}
 
+			if (snapshotCacheKey != null) {
+				storeSnapshotInCache(snapshotCacheDirectory, snapshotCacheKey, theInput);
+			}
+
 			return theInput;
 
 		} catch (BaseServerResponseException e) {
@@ -175,6 +244,105 @@ public class SnapshotGeneratingValidationSupport implements IValidationSupport {
 		}
 	}
 
+	@Nonnull
+	private String createSnapshotCacheKey(
+			IBaseResource theInput, IBaseResource theBase, String theUrl, String theWebUrl, String theProfileName)
+			throws Exception {
+		FhirContext inputContext = FhirContext.forCached(theInput.getStructureFhirVersionEnum());
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		for (String next : new String[] {
+			VersionUtil.getVersion(),
+			inputContext.getVersion().getVersion().name(),
+			defaultString(theUrl),
+			defaultString(theWebUrl),
+			defaultString(theProfileName),
+			inputContext.newJsonParser().encodeResourceToString(theInput)
+		}) {
+			digest.update(next.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+
+		// Base definitions (e.g. core resource definitions) are shared by many profiles, so their hash is reused
+		byte[] baseHash = myBaseDefinitionHashes.get(theBase);
+		if (baseHash == null) {
+			FhirContext baseContext = FhirContext.forCached(theBase.getStructureFhirVersionEnum());
+			String encoded = baseContext.newJsonParser().encodeResourceToString(theBase);
+			baseHash = MessageDigest.getInstance("SHA-256").digest(encoded.getBytes(StandardCharsets.UTF_8));
+			myBaseDefinitionHashes.put(theBase, baseHash);
+		}
+		digest.update(baseHash);
+
+		StringBuilder retVal = new StringBuilder();
+		for (byte next : digest.digest()) {
+			retVal.append(Character.forDigit((next >> 4) & 0xF, 16));
+			retVal.append(Character.forDigit(next & 0xF, 16));
+		}
+		return retVal.toString();
+	}
+
+	/**
+	 * @return Returns <code>true</code> if a cached snapshot was found and copied to the input
+	 */
+	private boolean loadSnapshotFromCache(Path theDirectory, String theKey, IBaseResource theInput) {
+		Path file = theDirectory.resolve(theKey + SNAPSHOT_CACHE_FILE_SUFFIX);
+		if (!Files.isRegularFile(file)) {
+			return false;
+		}
+
+		FhirContext inputContext = FhirContext.forCached(theInput.getStructureFhirVersionEnum());
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			IBaseResource cached = inputContext.newJsonParser().parseResource(theInput.getClass(), reader);
+			BaseRuntimeChildDefinition snapshotChild =
+					inputContext.getResourceDefinition(theInput).getChildByName("snapshot");
+			Optional<IBase> snapshot = snapshotChild.getAccessor().getFirstValueOrNull(cached);
+			if (!snapshot.isPresent() || snapshot.get().isEmpty()) {
+				ourLog.warn("Cached file {} does not contain a snapshot, it will be regenerated", file);
+				return false;
+			}
+			snapshotChild.getMutator().setValue(theInput, snapshot.get());
+			ourLog.debug(
+					"Loaded cached snapshot for {} from {}",
+					theInput.getIdElement().getValue(),
+					file);
+			return true;
+		} catch (Exception e) {
+			ourLog.warn("Failed to load cached snapshot from {}, it will be regenerated: {}", file, e.toString());
+			return false;
+		}
+	}
+
+	private void storeSnapshotInCache(Path theDirectory, String theKey, IBaseResource theInput) {
+		Path tempFile = null;
+		try {
+			Files.createDirectories(theDirectory);
+
+			// Write to a temporary file first so that concurrent readers never see a partial file
+			tempFile = Files.createTempFile(theDirectory, theKey, ".tmp");
+			FhirContext inputContext = FhirContext.forCached(theInput.getStructureFhirVersionEnum());
+			try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+				inputContext.newJsonParser().encodeResourceToWriter(theInput, writer);
+			}
+			Files.move(
+					tempFile,
+					theDirectory.resolve(theKey + SNAPSHOT_CACHE_FILE_SUFFIX),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			tempFile = null;
+		} catch (IOException | RuntimeException e) {
+			// DataFormatException (encoding failures) is a RuntimeException, and a cache write
+			// failure should never fail the snapshot generation itself
+			ourLog.warn("Failed to store generated snapshot in {}: {}", theDirectory, e.toString());
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException e) {
+					ourLog.debug("Failed to delete temporary file {}", tempFile, e);
+				}
+			}
+		}
+	}
+
 	@Override
 	public FhirContext getFhirContext() {
 		return myCtx;
@@ -0,0 +1,122 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link IValidationSupportCacheMetrics} implementation, which keeps running totals
+ * in memory. This is used by {@link CachingValidationSupport} unless another implementation
+ * is supplied.
+ *
+ * @since 7.6.0
+ */
+public class ValidationSupportCacheMetrics implements IValidationSupportCacheMetrics {
+
+	private final Map<CacheType, Counters> myCounters = new EnumMap<>(CacheType.class);
+
+	/**
+	 * Constructor
+	 */
+	public ValidationSupportCacheMetrics() {
+		for (CacheType next : CacheType.values()) {
+			myCounters.put(next, new Counters());
+		}
+	}
+
+	@Override
+	public void recordHit(@Nonnull CacheType theCacheType) {
+		myCounters.get(theCacheType).myHits.increment();
+	}
+
+	@Override
+	public void recordMiss(@Nonnull CacheType theCacheType) {
+		myCounters.get(theCacheType).myMisses.increment();
+	}
+
+	@Override
+	public void recordLoad(@Nonnull CacheType theCacheType, long theLoadTimeNanos) {
+		Counters counters = myCounters.get(theCacheType);
+		counters.myLoads.increment();
+		counters.myLoadTimeNanos.add(theLoadTimeNanos);
+	}
+
+	@Override
+	public void recordRefreshAhead(@Nonnull CacheType theCacheType) {
+		myCounters.get(theCacheType).myRefreshes.increment();
+	}
+
+	public long getHitCount(@Nonnull CacheType theCacheType) {
+		return myCounters.get(theCacheType).myHits.sum();
+	}
+
+	public long getMissCount(@Nonnull CacheType theCacheType) {
+		return myCounters.get(theCacheType).myMisses.sum();
+	}
+
+	public long getLoadCount(@Nonnull CacheType theCacheType) {
+		return myCounters.get(theCacheType).myLoads.sum();
+	}
+
+	public long getRefreshAheadCount(@Nonnull CacheType theCacheType) {
+		return myCounters.get(theCacheType).myRefreshes.sum();
+	}
+
+	/**
+	 * Returns the total time spent loading values for the given cache, in milliseconds
+	 */
+	public long getTotalLoadTimeMillis(@Nonnull CacheType theCacheType) {
+		return TimeUnit.NANOSECONDS.toMillis(
+				myCounters.get(theCacheType).myLoadTimeNanos.sum());
+	}
+
+	/**
+	 * Returns the fraction of lookups for the given cache which were served from the cache,
+	 * or <code>0</code> if the cache has not been used
+	 */
+	public double getHitRatio(@Nonnull CacheType theCacheType) {
+		long hits = getHitCount(theCacheType);
+		long total = hits + getMissCount(theCacheType);
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Resets all counters to zero
+	 */
+	public void reset() {
+		myCounters.values().forEach(Counters::reset);
+	}
+
+	@Override
+	public String toString() {
+		ToStringBuilder b = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+		for (CacheType next : CacheType.values()) {
+			b.append(
+					next.name(),
+					getHitCount(next) + " hits, " + getMissCount(next) + " misses, " + getTotalLoadTimeMillis(next)
+							+ "ms loading");
+		}
+		return b.toString();
+	}
+
+	private static class Counters {
+		private final LongAdder myHits = new LongAdder();
+		private final LongAdder myMisses = new LongAdder();
+		private final LongAdder myLoads = new LongAdder();
+		private final LongAdder myLoadTimeNanos = new LongAdder();
+		private final LongAdder myRefreshes = new LongAdder();
+
+		private void reset() {
+			myHits.reset();
+			myMisses.reset();
+			myLoads.reset();
+			myLoadTimeNanos.reset();
+			myRefreshes.reset();
+		}
+	}
+}
@@ -7,6 +7,7 @@ import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
 import ca.uhn.fhir.context.support.TranslateConceptResults;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
 import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.context.support.ValueSetExpansionOptions;
 import ca.uhn.fhir.i18n.Msg;
@@ -18,6 +19,7 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -385,6 +387,47 @@ public class ValidationSupportChain implements IValidationSupport {
 		return null;
 	}
 
+	/**
+	 * Each module in the chain is passed the requests which it supports and which have not already been
+	 * validated by a previous module, so that modules which support batches (e.g. a
+	 * {@link RemoteTerminologyServiceValidationSupport}) receive as many requests as possible at once.
+	 */
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodeBatch(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			List<ValidateCodeRequest> theRequests) {
+		CodeValidationResult[] retVal = new CodeValidationResult[theRequests.size()];
+		for (IValidationSupport next : myChain) {
+			List<Integer> indexes = new ArrayList<>();
+			List<ValidateCodeRequest> requests = new ArrayList<>();
+			for (int i = 0; i < retVal.length; i++) {
+				ValidateCodeRequest request = theRequests.get(i);
+				String valueSetUrl = request.getValueSetUrl();
+				if (retVal[i] == null
+						&& ((isBlank(valueSetUrl)
+										&& next.isCodeSystemSupported(theValidationSupportContext, request.getSystem()))
+								|| (isNotBlank(valueSetUrl)
+										&& next.isValueSetSupported(theValidationSupportContext, valueSetUrl)))) {
+					indexes.add(i);
+					requests.add(request);
+				}
+			}
+			if (requests.isEmpty()) {
+				continue;
+			}
+
+			List<CodeValidationResult> results =
+					next.validateCodeBatch(theValidationSupportContext, theOptions, requests);
+			for (int i = 0; i < indexes.size(); i++) {
+				retVal[indexes.get(i)] = results.get(i);
+			}
+			ourLog.debug("Validated batch of {} codes using {}", requests.size(), next.getName());
+		}
+		return Arrays.asList(retVal);
+	}
+
 	@Override
 	public CodeValidationResult validateCodeInValueSet(
 			ValidationSupportContext theValidationSupportContext,
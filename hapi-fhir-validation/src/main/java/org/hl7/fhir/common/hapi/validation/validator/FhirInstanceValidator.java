@@ -2,14 +2,23 @@ package org.hl7.fhir.common.hapi.validation.validator;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
+import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.validation.IInstanceValidatorModule;
 import ca.uhn.fhir.validation.IValidationContext;
 import jakarta.annotation.Nonnull;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.exceptions.PathEngineException;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseCoding;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.hl7.fhir.r5.fhirpath.FHIRPathEngine;
 import org.hl7.fhir.r5.fhirpath.FHIRPathUtilityClasses.FunctionDetails;
 import org.hl7.fhir.r5.fhirpath.TypeDetails;
@@ -19,15 +28,28 @@ import org.hl7.fhir.r5.utils.validation.IValidationPolicyAdvisor;
 import org.hl7.fhir.r5.utils.validation.IValidatorResourceFetcher;
 import org.hl7.fhir.r5.utils.validation.constants.BestPracticeWarningLevel;
 import org.hl7.fhir.utilities.validation.ValidationMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
 
 @SuppressWarnings({"PackageAccessibility", "Duplicates"})
 public class FhirInstanceValidator extends BaseValidatorBridge implements IInstanceValidatorModule {
 
+	private static final Logger ourLog = LoggerFactory.getLogger(FhirInstanceValidator.class);
 	private boolean myAnyExtensionsAllowed = true;
+	private boolean myPrefetchCodes;
 	private BestPracticeWarningLevel myBestPracticeWarningLevel;
 	private IValidationSupport myValidationSupport;
 	private boolean noTerminologyChecks = false;
@@ -221,10 +243,43 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 		return myExtensionDomains;
 	}
 
+	/**
+	 * If set to {@literal true} (default is false), all codings in a resource are passed to
+	 * {@link IValidationSupport#validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, List)}
+	 * as a single batch before the resource is validated.
+	 *
+	 * @see #setPrefetchCodes(boolean)
+	 * @since 7.6.0
+	 */
+	public boolean isPrefetchCodes() {
+		return myPrefetchCodes;
+	}
+
+	/**
+	 * If set to {@literal true} (default is false), all codings in a resource are passed to
+	 * {@link IValidationSupport#validateCodeBatch(ValidationSupportContext, ConceptValidationOptions, List)}
+	 * as a single batch before the resource is validated. Each coding is validated against its CodeSystem, and
+	 * codings in elements with a binding in the resource's StructureDefinition (or in its declared profiles) are
+	 * also validated against the bound ValueSet. This is useful when the validation support
+	 * chain contains a {@link org.hl7.fhir.common.hapi.validation.support.RemoteTerminologyServiceValidationSupport}
+	 * wrapped by a {@link org.hl7.fhir.common.hapi.validation.support.CachingValidationSupport}: the codes are
+	 * then validated by the remote server using a few batch requests, and the results are served from the
+	 * cache when the validator checks each coding, instead of each coding requiring its own round trip.
+	 *
+	 * @since 7.6.0
+	 */
+	public void setPrefetchCodes(boolean thePrefetchCodes) {
+		myPrefetchCodes = thePrefetchCodes;
+	}
+
 	@Override
 	protected List<ValidationMessage> validate(IValidationContext<?> theValidationCtx) {
 		VersionSpecificWorkerContextWrapper wrappedWorkerContext = provideWorkerContext();
 
+		if (myPrefetchCodes && !isNoTerminologyChecks()) {
+			prefetchCodes(theValidationCtx);
+		}
+
 		return new ValidatorWrapper()
 				.setAnyExtensionsAllowed(isAnyExtensionsAllowed())
 				.setBestPracticeWarningLevel(getBestPracticeWarningLevel())
@@ -239,14 +294,117 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 				.validate(wrappedWorkerContext, theValidationCtx);
 	}
 
+	private void prefetchCodes(IValidationContext<?> theValidationCtx) {
+		FhirContext fhirContext = theValidationCtx.getFhirContext();
+		if (fhirContext.getVersion().getVersion()
+				!= myValidationSupport.getFhirContext().getVersion().getVersion()) {
+			return;
+		}
+
+		try {
+			IBaseResource resource;
+			if (theValidationCtx.getResource() instanceof IBaseResource) {
+				resource = (IBaseResource) theValidationCtx.getResource();
+			} else {
+				resource = theValidationCtx
+						.getResourceAsStringEncoding()
+						.newParser(fhirContext)
+						.parseResource(theValidationCtx.getResourceAsString());
+			}
+
+			// Each coding is validated against its CodeSystem, and codings in bound elements are also validated
+			// against the binding's ValueSet, so the requests are keyed exactly as the validator will look them up
+			FhirTerser terser = fhirContext.newTerser();
+			Map<String, ValidateCodeRequest> requests = new LinkedHashMap<>();
+			for (IBaseCoding next : terser.getAllPopulatedChildElementsOfType(resource, IBaseCoding.class)) {
+				addPrefetchRequest(requests, next, null);
+			}
+
+			Set<String> profileUrls = new LinkedHashSet<>();
+			profileUrls.add("http://hl7.org/fhir/StructureDefinition/" + fhirContext.getResourceType(resource));
+			resource.getMeta().getProfile().forEach(t -> profileUrls.add(t.getValueAsString()));
+			profileUrls.addAll(theValidationCtx.getOptions().getProfiles());
+			for (String profileUrl : profileUrls) {
+				IBaseResource profile = myValidationSupport.fetchStructureDefinition(profileUrl);
+				if (profile != null) {
+					addBindingPrefetchRequests(terser, resource, profile, requests);
+				}
+			}
+
+			if (!requests.isEmpty()) {
+				myValidationSupport.validateCodeBatch(
+						new ValidationSupportContext(myValidationSupport),
+						new ConceptValidationOptions(),
+						new ArrayList<>(requests.values()));
+			}
+		} catch (Exception e) {
+			// The codes will simply be validated individually
+			ourLog.debug("Failed to prefetch code validation results", e);
+		}
+	}
+
+	private static void addBindingPrefetchRequests(
+			FhirTerser theTerser,
+			IBaseResource theResource,
+			IBaseResource theProfile,
+			Map<String, ValidateCodeRequest> theRequests) {
+		for (IBase element : theTerser.getValues(theProfile, "StructureDefinition.snapshot.element")) {
+			String path = theTerser.getSinglePrimitiveValueOrNull(element, "path");
+			String valueSetUrl = theTerser.getSinglePrimitiveValueOrNull(element, "binding.valueSet");
+			String strength = theTerser.getSinglePrimitiveValueOrNull(element, "binding.strength");
+			if (isBlank(path) || path.contains("[x]") || isBlank(valueSetUrl) || "example".equals(strength)) {
+				continue;
+			}
+
+			List<IBase> values;
+			try {
+				values = theTerser.getValues(theResource, path);
+			} catch (DataFormatException e) {
+				// e.g. an element defined by an extension or logical model, which we can't resolve here
+				continue;
+			}
+
+			// The validator looks ValueSets up by their canonical URL, without any version
+			String unversionedValueSetUrl = substringBefore(valueSetUrl, "|");
+			for (IBase value : values) {
+				if (value instanceof IBaseCoding) {
+					addPrefetchRequest(theRequests, (IBaseCoding) value, unversionedValueSetUrl);
+				} else if (!(value instanceof IPrimitiveType)) {
+					for (IBaseCoding coding : theTerser.getValues(value, "coding", IBaseCoding.class)) {
+						addPrefetchRequest(theRequests, coding, unversionedValueSetUrl);
+					}
+				}
+			}
+		}
+	}
+
+	private static void addPrefetchRequest(
+			Map<String, ValidateCodeRequest> theRequests, IBaseCoding theCoding, String theValueSetUrl) {
+		if (isNotBlank(theCoding.getSystem()) && isNotBlank(theCoding.getCode())) {
+			String key = theCoding.getSystem() + "|" + theCoding.getCode() + "|" + theCoding.getDisplay() + "|"
+					+ theValueSetUrl;
+			theRequests.putIfAbsent(
+					key,
+					new ValidateCodeRequest(
+							theCoding.getSystem(), theCoding.getCode(), theCoding.getDisplay(), theValueSetUrl));
+		}
+	}
+
 	@Nonnull
 	protected VersionSpecificWorkerContextWrapper provideWorkerContext() {
 		VersionSpecificWorkerContextWrapper wrappedWorkerContext = myWrappedWorkerContext;
 		if (wrappedWorkerContext == null) {
-			wrappedWorkerContext =
-					VersionSpecificWorkerContextWrapper.newVersionSpecificWorkerContextWrapper(myValidationSupport);
+			// Bundle entries may be validated concurrently, and they should all share a single
+			// worker context (and its caches) instead of each creating their own
+			synchronized (this) {
+				wrappedWorkerContext = myWrappedWorkerContext;
+				if (wrappedWorkerContext == null) {
+					wrappedWorkerContext = VersionSpecificWorkerContextWrapper.newVersionSpecificWorkerContextWrapper(
+							myValidationSupport);
+					myWrappedWorkerContext = wrappedWorkerContext;
+				}
+			}
 		}
-		myWrappedWorkerContext = wrappedWorkerContext;
 		return wrappedWorkerContext;
 	}
 
@@ -3,6 +3,7 @@ package org.hl7.fhir.common.hapi.validation.validator;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
 import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
@@ -795,6 +796,22 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 	@Override
 	public void validateCodeBatch(
 			ValidationOptions options, List<? extends CodingValidationRequest> codes, ValueSet vs) {
+		if (vs == null) {
+			// Codes which are only validated against their CodeSystem are passed to the chain as a single batch
+			List<ValidateCodeRequest> requests = new ArrayList<>(codes.size());
+			for (CodingValidationRequest next : codes) {
+				Coding coding = next.getCoding();
+				requests.add(new ValidateCodeRequest(coding.getSystem(), coding.getCode(), coding.getDisplay(), null));
+			}
+			List<IValidationSupport.CodeValidationResult> results = myValidationSupportContext
+					.getRootValidationSupport()
+					.validateCodeBatch(myValidationSupportContext, convertConceptValidationOptions(options), requests);
+			for (int i = 0; i < codes.size(); i++) {
+				codes.get(i).setResult(convertValidationResult(requests.get(i).getSystem(), results.get(i)));
+			}
+			return;
+		}
+
 		for (CodingValidationRequest next : codes) {
 			ValidationResult outcome = validateCode(options, next.getCoding(), vs);
 			next.setResult(outcome);
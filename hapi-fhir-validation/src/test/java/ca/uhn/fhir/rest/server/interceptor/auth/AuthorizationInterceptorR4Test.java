@@ -101,6 +101,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -3546,6 +3547,67 @@ public class AuthorizationInterceptorR4Test extends BaseValidationTestWithInline
 
 	}
 
+	@Test
+	public void testRuleListCachedByPrincipal() throws Exception {
+		AtomicInteger buildCount = new AtomicInteger();
+		AuthorizationInterceptor interceptor = new AuthorizationInterceptor(PolicyEnum.DENY) {
+			@Override
+			public List<IAuthRule> buildRuleList(RequestDetails theRequestDetails) {
+				buildCount.incrementAndGet();
+				return new RuleBuilder()
+					.deny("Rule 1").read().resourcesOfType(Patient.class).withAnyId().andThen()
+					.allow("Rule 2").read().resourcesOfType(Observation.class).inCompartment("Patient", new IdType("Patient/1"))
+					.build();
+			}
+
+			@Override
+			protected String getRuleListCacheKey(RequestDetails theRequestDetails) {
+				return theRequestDetails.getHeader("X-Principal");
+			}
+		};
+		ourServer.registerInterceptor(interceptor);
+
+		ourReturn = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ourReturn.add(createObservation(i, "Patient/1"));
+		}
+
+		for (String principal : List.of("A", "A", "B")) {
+			HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Observation?subject=Patient/1");
+			httpGet.addHeader("X-Principal", principal);
+			HttpResponse status = ourClient.execute(httpGet);
+			extractResponseAndClose(status);
+			assertEquals(200, status.getStatusLine().getStatusCode());
+		}
+		assertEquals(2, buildCount.get());
+
+		// Rules are still applied to every resource in the response
+		ourReturn = List.of(createObservation(10, "Patient/1"), createObservation(11, "Patient/2"));
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Observation?subject=Patient/1");
+		httpGet.addHeader("X-Principal", "A");
+		HttpResponse status = ourClient.execute(httpGet);
+		String response = extractResponseAndClose(status);
+		assertEquals(403, status.getStatusLine().getStatusCode());
+		assertThat(response).contains(Msg.code(334));
+		assertEquals(2, buildCount.get());
+
+		// Requests without a key are never cached
+		ourReturn = List.of(createObservation(10, "Patient/1"));
+		httpGet = new HttpGet(ourServer.getBaseUrl() + "/Observation?subject=Patient/1");
+		status = ourClient.execute(httpGet);
+		extractResponseAndClose(status);
+		assertEquals(200, status.getStatusLine().getStatusCode());
+		assertEquals(3, buildCount.get());
+
+		interceptor.clearRuleListCache();
+		httpGet = new HttpGet(ourServer.getBaseUrl() + "/Observation?subject=Patient/1");
+		httpGet.addHeader("X-Principal", "A");
+		status = ourClient.execute(httpGet);
+		extractResponseAndClose(status);
+		assertEquals(200, status.getStatusLine().getStatusCode());
+		assertEquals(4, buildCount.get());
+	}
+
 	@Test
 	public void testReadPageWrong() throws Exception {
 		ourServer.registerInterceptor(new AuthorizationInterceptor(PolicyEnum.DENY) {
@@ -1,12 +1,19 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.LookupCodeRequest;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
 import com.google.common.collect.Lists;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.hl7.fhir.common.hapi.validation.support.IValidationSupportCacheMetrics.CacheType;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.StructureDefinition;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
@@ -14,13 +21,21 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.util.TestUtil.sleepAtLeast;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -99,6 +114,132 @@ public class CachingValidationSupportTest {
 		assertEquals(theIsEnabledValidationForCodingsLogicalAnd != null && theIsEnabledValidationForCodingsLogicalAnd, support.isEnabledValidationForCodingsLogicalAnd());
 	}
 
+	@Test
+	public void testValidateCodeBatch() {
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		List<List<String>> batches = new ArrayList<>();
+		when(myValidationSupport.validateCodeBatch(any(), any(), any())).thenAnswer(t -> {
+			List<ValidateCodeRequest> requests = t.getArgument(2);
+			batches.add(requests.stream().map(ValidateCodeRequest::getCode).collect(Collectors.toList()));
+			return requests.stream()
+				.map(r -> "unknown".equals(r.getCode()) ? null : new IValidationSupport.CodeValidationResult().setCode(r.getCode()))
+				.collect(Collectors.toList());
+		});
+		CachingValidationSupport support = getSupport(null, null);
+		ValidationSupportContext context = new ValidationSupportContext(support);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+
+		List<IValidationSupport.CodeValidationResult> results = support.validateCodeBatch(context, options, List.of(
+			new ValidateCodeRequest("http://a", "1", null, null),
+			new ValidateCodeRequest("http://a", "unknown", null, null)
+		));
+		assertEquals("1", results.get(0).getCode());
+		assertNull(results.get(1));
+
+		// Results from the batch are used for individual validations
+		assertEquals("1", support.validateCode(context, options, "http://a", "1", null, null).getCode());
+		verify(myValidationSupport, never()).validateCode(any(), any(), any(), any(), any(), any());
+
+		// Only codes which are not cached are passed to the wrapped module
+		results = support.validateCodeBatch(context, options, List.of(
+			new ValidateCodeRequest("http://a", "1", null, null),
+			new ValidateCodeRequest("http://a", "2", null, null),
+			new ValidateCodeRequest("http://a", "unknown", null, null)
+		));
+		assertEquals("1", results.get(0).getCode());
+		assertEquals("2", results.get(1).getCode());
+		assertNull(results.get(2));
+		assertThat(batches).containsExactly(List.of("1", "unknown"), List.of("2", "unknown"));
+	}
+
+	@Test
+	public void testMetrics() {
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		when(myValidationSupport.validateCode(any(), any(), any(), any(), any(), any()))
+			.thenReturn(new IValidationSupport.CodeValidationResult().setCode("1"));
+		CachingValidationSupport support = getSupport(null, null);
+		ValidationSupportContext context = new ValidationSupportContext(support);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+
+		support.validateCode(context, options, "http://a", "1", null, null);
+		support.validateCode(context, options, "http://a", "1", null, null);
+		support.validateCode(context, options, "http://a", "1", null, null);
+
+		ValidationSupportCacheMetrics metrics = (ValidationSupportCacheMetrics) support.getMetrics();
+		assertEquals(2, metrics.getHitCount(CacheType.VALIDATE_CODE));
+		assertEquals(1, metrics.getMissCount(CacheType.VALIDATE_CODE));
+		assertEquals(1, metrics.getLoadCount(CacheType.VALIDATE_CODE));
+		assertEquals(2.0 / 3.0, metrics.getHitRatio(CacheType.VALIDATE_CODE), 0.001);
+		assertEquals(0, metrics.getHitCount(CacheType.LOOKUP_CODE));
+	}
+
+	@Test
+	public void testRefreshAhead() {
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		AtomicInteger loadCount = new AtomicInteger();
+		when(myValidationSupport.validateCode(any(), any(), any(), any(), any(), any()))
+			.thenAnswer(t -> new IValidationSupport.CodeValidationResult().setDisplay("Load " + loadCount.incrementAndGet()));
+		CachingValidationSupport.CacheTimeouts cacheTimeouts = CachingValidationSupport.CacheTimeouts
+			.defaultValues()
+			.setValidateCodeMillis(2000);
+		CachingValidationSupport support = getSupport(cacheTimeouts, null);
+		support.setRefreshAheadExecutor(Runnable::run);
+		support.setRefreshAheadThreshold(0.25);
+		support.setRefreshAheadMinimumHits(2);
+		ValidationSupportContext context = new ValidationSupportContext(support);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+
+		assertEquals("Load 1", support.validateCode(context, options, "http://a", "1", null, null).getDisplay());
+		sleepAtLeast(600);
+
+		// The first hit after the threshold is not enough to make the entry hot
+		assertEquals("Load 1", support.validateCode(context, options, "http://a", "1", null, null).getDisplay());
+		assertEquals(1, loadCount.get());
+
+		// The second hit triggers a refresh, but the current value is returned
+		assertEquals("Load 1", support.validateCode(context, options, "http://a", "1", null, null).getDisplay());
+		assertEquals(2, loadCount.get());
+		assertEquals("Load 2", support.validateCode(context, options, "http://a", "1", null, null).getDisplay());
+		assertEquals(1, ((ValidationSupportCacheMetrics) support.getMetrics()).getRefreshAheadCount(CacheType.VALIDATE_CODE));
+	}
+
+	@Test
+	public void testExportAndWarmUpCaches() {
+		when(myValidationSupport.getFhirContext()).thenReturn(ourCtx);
+		when(myValidationSupport.validateCode(any(), any(), any(), any(), any(), any()))
+			.thenReturn(new IValidationSupport.CodeValidationResult().setCode("1"));
+		when(myValidationSupport.lookupCode(any(), any()))
+			.thenReturn(new IValidationSupport.LookupCodeResult().setFound(true));
+		CachingValidationSupport support = getSupport(null, null);
+		ValidationSupportContext context = new ValidationSupportContext(support);
+		support.validateCode(context, new ConceptValidationOptions(), "http://a", "1", "One", "http://vs");
+		support.lookupCode(context, new LookupCodeRequest("http://a", "1", "fr", List.of("parent", "child")));
+
+		IBaseParameters exported = support.exportCacheContents();
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(exported);
+		IBaseParameters parsed = (IBaseParameters) ourCtx.newJsonParser().parseResource(encoded);
+
+		IValidationSupport newNodeSupport = mock(IValidationSupport.class);
+		when(newNodeSupport.getFhirContext()).thenReturn(ourCtx);
+		when(newNodeSupport.validateCodeBatch(any(), any(), any())).thenCallRealMethod();
+		when(newNodeSupport.validateCode(any(), any(), eq("http://a"), eq("1"), eq("One"), eq("http://vs")))
+			.thenReturn(new IValidationSupport.CodeValidationResult().setCode("1"));
+		when(newNodeSupport.lookupCode(any(), any()))
+			.thenReturn(new IValidationSupport.LookupCodeResult().setFound(true));
+		CachingValidationSupport newNode = new CachingValidationSupport(newNodeSupport);
+		newNode.warmUpCaches(parsed);
+
+		verify(newNodeSupport, times(1)).validateCodeBatch(any(), any(), any());
+		verify(newNodeSupport, times(1)).lookupCode(any(), any());
+
+		// Warmed up entries are served from the cache
+		ValidationSupportContext newContext = new ValidationSupportContext(newNode);
+		assertEquals("1", newNode.validateCode(newContext, new ConceptValidationOptions(), "http://a", "1", "One", "http://vs").getCode());
+		newNode.lookupCode(newContext, new LookupCodeRequest("http://a", "1", "fr", List.of("parent", "child")));
+		verify(newNodeSupport, times(1)).validateCode(any(), any(), any(), any(), any(), any());
+		verify(newNodeSupport, times(1)).lookupCode(any(), any());
+	}
+
 	@Nonnull
 	private CachingValidationSupport getSupport(@Nullable CachingValidationSupport.CacheTimeouts theCacheTimeouts, @Nullable Boolean theIsEnabledValidationForCodingsLogicalAnd) {
 		if (theCacheTimeouts == null) {
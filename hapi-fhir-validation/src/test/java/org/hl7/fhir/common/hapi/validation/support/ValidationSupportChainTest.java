@@ -3,12 +3,21 @@ package org.hl7.fhir.common.hapi.validation.support;
 import ca.uhn.fhir.context.ConfigurationException;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.i18n.Msg;
+import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -63,6 +72,64 @@ public class ValidationSupportChainTest extends BaseValidationTestWithInlineMock
 		assertNull(validationSupportChain.fetchBinary("nonExistentKey"));
 	}
 
+	@Test
+	public void testValidateCodeBatch() {
+		FakeTerminologySupport first = new FakeTerminologySupport("http://a");
+		FakeTerminologySupport second = new FakeTerminologySupport("http://a", "http://b");
+		ValidationSupportChain chain = new ValidationSupportChain(first, second);
+
+		List<IValidationSupport.CodeValidationResult> results = chain.validateCodeBatch(new ValidationSupportContext(chain), new ConceptValidationOptions(), List.of(
+			new ValidateCodeRequest("http://a", "1", null, null),
+			new ValidateCodeRequest("http://b", "2", null, null),
+			new ValidateCodeRequest("http://a", "unknown", null, null),
+			new ValidateCodeRequest("http://c", "3", null, null)
+		));
+
+		assertThat(results).hasSize(4);
+		assertEquals("1", results.get(0).getCode());
+		assertEquals("2", results.get(1).getCode());
+		assertNull(results.get(2));
+		assertNull(results.get(3));
+
+		// Each module only receives the codes it supports which have not already been validated
+		assertThat(first.myBatches).containsExactly(List.of("1", "unknown"));
+		assertThat(second.myBatches).containsExactly(List.of("2", "unknown"));
+	}
+
+	/**
+	 * Validates any code other than "unknown" in the given code systems
+	 */
+	private static class FakeTerminologySupport implements IValidationSupport {
+		private final Set<String> mySystems;
+		private final List<List<String>> myBatches = new ArrayList<>();
+
+		private FakeTerminologySupport(String... theSystems) {
+			mySystems = Set.of(theSystems);
+		}
+
+		@Override
+		public FhirContext getFhirContext() {
+			return FhirContext.forR4Cached();
+		}
+
+		@Override
+		public boolean isCodeSystemSupported(ValidationSupportContext theValidationSupportContext, String theSystem) {
+			return mySystems.contains(theSystem);
+		}
+
+		@Override
+		public CodeValidationResult validateCode(ValidationSupportContext theValidationSupportContext, ConceptValidationOptions theOptions, String theCodeSystem, String theCode, String theDisplay, String theValueSetUrl) {
+			return "unknown".equals(theCode) ? null : new CodeValidationResult().setCode(theCode);
+		}
+
+		@Nonnull
+		@Override
+		public List<CodeValidationResult> validateCodeBatch(ValidationSupportContext theValidationSupportContext, ConceptValidationOptions theOptions, List<ValidateCodeRequest> theRequests) {
+			myBatches.add(theRequests.stream().map(ValidateCodeRequest::getCode).collect(Collectors.toList()));
+			return IValidationSupport.super.validateCodeBatch(theValidationSupportContext, theOptions, theRequests);
+		}
+	}
+
 
 	private static IValidationSupport createMockValidationSupport() {
 		IValidationSupport validationSupport;
@@ -96,6 +96,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -1734,6 +1735,65 @@ public class FhirInstanceValidatorR4Test extends BaseValidationTestWithInlineMoc
 	}
 
 
+	@Test
+	public void testValidateBundleMultithreaded_WithBundleStructureValidation() {
+		// All entries share a fullUrl, which is only detected when the Bundle itself is validated
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.TRANSACTION);
+		for (int i = 0; i < 3; i++) {
+			Patient patient = new Patient();
+			patient.getText().setDiv(new XhtmlNode().setValue("<div>AA</div>")).setStatus(Narrative.NarrativeStatus.GENERATED);
+			patient.setActive(true);
+			if (i == 1) {
+				// pat-1: a contact must have details or an organization
+				patient.addContact().setGender(Enumerations.AdministrativeGender.MALE);
+			}
+			bundle.addEntry()
+				.setFullUrl("urn:uuid:4d3bb0e2-1c47-4d5e-9f10-000000000001")
+				.setResource(patient)
+				.getRequest().setMethod(Bundle.HTTPVerb.POST).setUrl("Patient");
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			myFhirValidator.setConcurrentBundleValidation(true);
+			myFhirValidator.setExecutorService(executorService);
+
+			ValidationResult entriesOnly = myFhirValidator.validateWithResult(bundle);
+			logResultsAndReturnAll(entriesOnly);
+			assertThat(entriesOnly.getMessages())
+				.allSatisfy(t -> assertThat(t.getLocationString()).matches("Bundle\\.entry\\[\\d+]\\.resource\\.ofType\\(Patient\\).*"));
+
+			myFhirValidator.setConcurrentBundleStructureValidation(true);
+			ValidationResult withStructure = myFhirValidator.validateWithResult(bundle);
+			logResultsAndReturnAll(withStructure);
+
+			// The entry messages are located in the real entries, and nothing is reported about the
+			// placeholder resources used to validate the Bundle structure
+			List<String> entryLocations = withStructure.getMessages().stream()
+				.map(SingleValidationMessage::getLocationString)
+				.filter(t -> t.matches("Bundle\\.entry\\[\\d+]\\.resource.*"))
+				.collect(Collectors.toList());
+			assertThat(entryLocations).containsExactlyInAnyOrderElementsOf(entriesOnly.getMessages().stream()
+				.map(SingleValidationMessage::getLocationString)
+				.collect(Collectors.toList()));
+			assertThat(logResultsAndReturnErrorOnes(withStructure))
+				.filteredOn(t -> t.getMessage().contains("pat-1"))
+				.extracting(SingleValidationMessage::getLocationString)
+				.containsExactly("Bundle.entry[1].resource.ofType(Patient).contact[0]");
+
+			// The Bundle level problem is reported too
+			assertThat(logResultsAndReturnErrorOnes(withStructure))
+				.filteredOn(t -> !t.getLocationString().matches("Bundle\\.entry\\[\\d+]\\.resource.*"))
+				.isNotEmpty();
+		} finally {
+			myFhirValidator.setConcurrentBundleStructureValidation(false);
+			myFhirValidator.setConcurrentBundleValidation(false);
+			myFhirValidator.setExecutorService(null);
+			executorService.shutdown();
+		}
+	}
+
 	@Test
 	void testValidateCommonCodes_Ucum_ErrorMessageIsPreserved() {
 		addValidConcept("http://loinc.org", "1234");
@@ -2,9 +2,12 @@ package org.hl7.fhir.r4.validation;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
+import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.TranslateConceptResult;
 import ca.uhn.fhir.context.support.TranslateConceptResults;
+import ca.uhn.fhir.context.support.ValidateCodeRequest;
+import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.jpa.model.util.JpaConstants;
 import ca.uhn.fhir.parser.IJsonLikeParser;
@@ -13,6 +16,8 @@ import ca.uhn.fhir.rest.annotation.Operation;
 import ca.uhn.fhir.rest.annotation.OperationParam;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
 import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.client.api.IClientInterceptor;
@@ -25,21 +30,31 @@ import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
 import ca.uhn.fhir.util.ParametersUtil;
+import ca.uhn.fhir.validation.FhirValidator;
 import com.google.common.collect.Lists;
 import jakarta.servlet.http.HttpServletRequest;
+import org.hl7.fhir.common.hapi.validation.support.CachingValidationSupport;
+import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.RemoteTerminologyServiceValidationSupport;
+import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
+import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
 import org.hl7.fhir.instance.model.api.IBaseCoding;
 import org.hl7.fhir.instance.model.api.IBaseParameters;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.CodeableConcept;
 import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.ConceptMap;
+import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.OperationOutcome;
 import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.StructureDefinition;
 import org.hl7.fhir.r4.model.UriType;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.AfterEach;
@@ -77,6 +92,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidationTestWithInlineMocks {
 	private static final String DISPLAY = "DISPLAY";
 	private static final String CODE_SYSTEM = "CODE_SYS";
+	private static final String CODE_SYSTEM_URL = "http://example.com/CodeSystem/example";
+	private static final String MARITAL_STATUS_VALUE_SET_URL = "http://hl7.org/fhir/ValueSet/marital-status";
 	private static final String CODE_SYSTEM_NAME = "Code System";
 	private static final String CODE = "CODE";
 	private static final String VALUE_SET_URL = "http://value.set/url";
@@ -239,6 +256,147 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 		assertEquals(CODE_SYSTEM, myCodeSystemProvider.mySystemUrl.getValueAsString());
 	}
 
+	@Test
+	public void testValidateCodeBatch_UsesBatchRequests() {
+		MyBatchProvider batchProvider = new MyBatchProvider();
+		myRestfulServerExtension.getRestfulServer().registerProvider(batchProvider);
+		try {
+			mySvc.setBatchSize(2);
+			mySvc.setBatchConcurrency(2);
+
+			List<IValidationSupport.CodeValidationResult> outcomes = mySvc.validateCodeBatch(null, new ConceptValidationOptions(), List.of(
+				new ValidateCodeRequest(CODE_SYSTEM, "good-1", DISPLAY, null),
+				new ValidateCodeRequest(CODE_SYSTEM, "", DISPLAY, null),
+				new ValidateCodeRequest(CODE_SYSTEM, "bad-1", null, null),
+				new ValidateCodeRequest(CODE_SYSTEM, "good-2", null, VALUE_SET_URL),
+				new ValidateCodeRequest(CODE_SYSTEM, "error-1", null, null)
+			));
+
+			assertThat(outcomes).hasSize(5);
+			assertEquals("good-1", outcomes.get(0).getCode());
+			assertEquals(DISPLAY, outcomes.get(0).getDisplay());
+			assertNull(outcomes.get(1));
+			assertEquals(IValidationSupport.IssueSeverity.ERROR, outcomes.get(2).getSeverity());
+			assertEquals(ERROR_MESSAGE, outcomes.get(2).getMessage());
+			assertEquals("good-2", outcomes.get(3).getCode());
+			assertEquals(IValidationSupport.IssueSeverity.ERROR, outcomes.get(4).getSeverity());
+			assertThat(outcomes.get(4).getMessage()).contains("Unknown code \"CODE_SYS#error-1\"", "Server failure");
+
+			assertThat(batchProvider.myEntryCounts).containsExactlyInAnyOrder(2, 2);
+			assertThat(batchProvider.myRequestUrls).containsExactlyInAnyOrder(
+				"CodeSystem/$validate-code", "CodeSystem/$validate-code", "ValueSet/$validate-code", "CodeSystem/$validate-code");
+			assertNull(myCodeSystemProvider.myCode);
+		} finally {
+			myRestfulServerExtension.getRestfulServer().unregisterProvider(batchProvider);
+		}
+	}
+
+	@Test
+	public void testValidateCodeBatch_BlankValueSetUrl_ValidatedAgainstCodeSystem() {
+		MyBatchProvider batchProvider = new MyBatchProvider();
+		myRestfulServerExtension.getRestfulServer().registerProvider(batchProvider);
+		try {
+			mySvc.setBatchSize(2);
+
+			List<IValidationSupport.CodeValidationResult> outcomes = mySvc.validateCodeBatch(null, new ConceptValidationOptions(), List.of(
+				new ValidateCodeRequest(CODE_SYSTEM, "good-1", null, ""),
+				new ValidateCodeRequest(CODE_SYSTEM, "good-2", null, " ")
+			));
+
+			assertEquals("good-1", outcomes.get(0).getCode());
+			assertEquals("good-2", outcomes.get(1).getCode());
+			assertThat(batchProvider.myRequestUrls).containsExactly("CodeSystem/$validate-code", "CodeSystem/$validate-code");
+		} finally {
+			myRestfulServerExtension.getRestfulServer().unregisterProvider(batchProvider);
+		}
+
+		// A single code with a blank ValueSet URL is sent to the same endpoint
+		myCodeSystemProvider.myNextValidationResult = new IValidationSupport.CodeValidationResult().setCode(CODE);
+		IValidationSupport.CodeValidationResult outcome = mySvc.validateCode(null, null, CODE_SYSTEM, CODE, DISPLAY, "");
+		assertNotNull(outcome);
+		assertEquals(CODE, myCodeSystemProvider.myCode.getCode());
+		assertEquals(CODE_SYSTEM, myCodeSystemProvider.mySystemUrl.getValueAsString());
+	}
+
+	@Test
+	public void testValidateWithPrefetchCodes_OneBatchThenCacheHits() {
+		MyBatchProvider batchProvider = new MyBatchProvider();
+		myRestfulServerExtension.getRestfulServer().registerProvider(batchProvider);
+		try {
+			myCodeSystemProvider.myNextReturnCodeSystems = List.of(
+				(CodeSystem) new CodeSystem().setUrl(CODE_SYSTEM_URL).setId("CodeSystem/cs"));
+			myValueSetProvider.myNextReturnValueSets = List.of(
+				(ValueSet) new ValueSet().setUrl(MARITAL_STATUS_VALUE_SET_URL).setId("ValueSet/vs"));
+
+			// A profile which binds two elements, so that codings in them are also prefetched against the bound ValueSet
+			StructureDefinition profile = new StructureDefinition();
+			profile.setUrl("http://example.com/StructureDefinition/patient");
+			profile.setType("Patient");
+			profile.getSnapshot().addElement().setPath("Patient");
+			profile.getSnapshot().addElement().setPath("Patient.maritalStatus").getBinding()
+				.setStrength(Enumerations.BindingStrength.EXTENSIBLE).setValueSet(MARITAL_STATUS_VALUE_SET_URL + "|4.0.1");
+			profile.getSnapshot().addElement().setPath("Patient.contact.relationship").getBinding()
+				.setStrength(Enumerations.BindingStrength.EXTENSIBLE).setValueSet("http://hl7.org/fhir/ValueSet/patient-contactrelationship");
+			PrePopulatedValidationSupport profileSupport = new PrePopulatedValidationSupport(ourCtx);
+			profileSupport.addStructureDefinition(profile);
+
+			CachingValidationSupport validationSupport = new CachingValidationSupport(new ValidationSupportChain(
+				profileSupport, new DefaultProfileValidationSupport(ourCtx), mySvc));
+			FhirInstanceValidator instanceValidator = new FhirInstanceValidator(validationSupport);
+			instanceValidator.setPrefetchCodes(true);
+			FhirValidator validator = ourCtx.newValidator().registerValidatorModule(instanceValidator);
+
+			Patient patient = new Patient();
+			patient.getMeta().addProfile(profile.getUrl());
+			patient.getMaritalStatus().addCoding().setSystem(CODE_SYSTEM_URL).setCode("good-1");
+			patient.addContact().addRelationship().addCoding().setSystem(CODE_SYSTEM_URL).setCode("good-2");
+
+			validator.validateWithResult(patient);
+
+			// Each code is validated against its CodeSystem and against its binding's ValueSet in a single batch
+			assertThat(batchProvider.myEntryCounts).containsExactly(4);
+			assertThat(batchProvider.myRequestUrls).containsExactlyInAnyOrder(
+				"CodeSystem/$validate-code", "CodeSystem/$validate-code", "ValueSet/$validate-code", "ValueSet/$validate-code");
+
+			// The lookups which the validator makes for a bound coding are then served from the cache
+			ValidationSupportContext context = new ValidationSupportContext(validationSupport);
+			ConceptValidationOptions options = new ConceptValidationOptions();
+			IValidationSupport.CodeValidationResult outcome = validationSupport.validateCodeInValueSet(
+				context, options, CODE_SYSTEM_URL, "good-1", null, new ValueSet().setUrl(MARITAL_STATUS_VALUE_SET_URL));
+			assertNotNull(outcome);
+			assertTrue(outcome.isOk());
+			outcome = validationSupport.validateCode(context, options, CODE_SYSTEM_URL, "good-1", null, null);
+			assertNotNull(outcome);
+			assertTrue(outcome.isOk());
+
+			// Validating again doesn't need another batch either
+			validator.validateWithResult(patient);
+
+			assertThat(batchProvider.myEntryCounts).containsExactly(4);
+			assertNull(myCodeSystemProvider.myCode);
+			assertEquals(0, myValueSetProvider.myInvocationCount);
+		} finally {
+			myRestfulServerExtension.getRestfulServer().unregisterProvider(batchProvider);
+		}
+	}
+
+	@Test
+	public void testValidateCodeBatch_BatchNotSupported_ValidatesIndividually() {
+		myCodeSystemProvider.myNextValidationResult = new IValidationSupport.CodeValidationResult();
+		myCodeSystemProvider.myNextValidationResult.setCode(CODE);
+		myCodeSystemProvider.myNextValidationResult.setDisplay(DISPLAY);
+
+		List<IValidationSupport.CodeValidationResult> outcomes = mySvc.validateCodeBatch(null, new ConceptValidationOptions(), List.of(
+			new ValidateCodeRequest(CODE_SYSTEM, CODE, DISPLAY, null),
+			new ValidateCodeRequest(CODE_SYSTEM, CODE, null, null)
+		));
+
+		assertThat(outcomes).hasSize(2);
+		assertEquals(CODE, outcomes.get(0).getCode());
+		assertEquals(CODE, outcomes.get(1).getCode());
+		assertEquals(CODE, myCodeSystemProvider.myCode.getCode());
+	}
+
 
 	@Test
 	public void testValidateCodeInValueSet_SystemCodeDisplayVS_Good() {
@@ -675,6 +833,42 @@ public class RemoteTerminologyServiceValidationSupportR4Test extends BaseValidat
 
 	}
 
+	/**
+	 * Accepts batch Bundles containing $validate-code requests. Codes starting with "good" are
+	 * valid, codes starting with "bad" are invalid, and any other code results in an error.
+	 */
+	private static class MyBatchProvider {
+		private final List<Integer> myEntryCounts = Collections.synchronizedList(new ArrayList<>());
+		private final List<String> myRequestUrls = Collections.synchronizedList(new ArrayList<>());
+
+		@Transaction
+		public Bundle transaction(@TransactionParam Bundle theInput) {
+			assertEquals(Bundle.BundleType.BATCH, theInput.getType());
+			myEntryCounts.add(theInput.getEntry().size());
+
+			Bundle retVal = new Bundle();
+			retVal.setType(Bundle.BundleType.BATCHRESPONSE);
+			for (Bundle.BundleEntryComponent next : theInput.getEntry()) {
+				myRequestUrls.add(next.getRequest().getUrl());
+				String code = ((Parameters) next.getResource()).getParameterValue("code").primitiveValue();
+				Bundle.BundleEntryComponent entry = retVal.addEntry();
+				if (code.startsWith("good")) {
+					entry.setResource(new Parameters().addParameter("result", true).addParameter("display", DISPLAY));
+					entry.getResponse().setStatus("200 OK");
+				} else if (code.startsWith("bad")) {
+					entry.setResource(new Parameters().addParameter("result", false).addParameter("message", ERROR_MESSAGE));
+					entry.getResponse().setStatus("200 OK");
+				} else {
+					OperationOutcome outcome = new OperationOutcome();
+					outcome.addIssue().setSeverity(OperationOutcome.IssueSeverity.ERROR).setDiagnostics("Server failure");
+					entry.setResource(outcome);
+					entry.getResponse().setStatus("400 Bad Request");
+				}
+			}
+			return retVal;
+		}
+	}
+
 	private static class MyConceptMapProvider implements IResourceProvider {
 		private UriType myLastConceptMapUrl;
 		private StringType myLastConceptMapVersion;
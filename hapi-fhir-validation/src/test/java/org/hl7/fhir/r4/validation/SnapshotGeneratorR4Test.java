@@ -10,14 +10,21 @@ import org.apache.commons.io.IOUtils;
 import org.hl7.fhir.common.hapi.validation.support.SnapshotGeneratingValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.StructureDefinition;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -47,6 +54,69 @@ public class SnapshotGeneratorR4Test extends BaseValidationTestWithInlineMocks {
 	}
 
 
+	@Test
+	public void testGenerateSnapshot_CacheDirectory(@TempDir Path theCacheDirectory) throws IOException {
+		DefaultProfileValidationSupport defaultSupport = new DefaultProfileValidationSupport(myFhirCtx);
+		SnapshotGeneratingValidationSupport snapshotGenerator = new SnapshotGeneratingValidationSupport(myFhirCtx);
+		snapshotGenerator.setSnapshotCacheDirectory(theCacheDirectory.resolve("snapshots"));
+		ValidationSupportChain chain = new ValidationSupportChain(defaultSupport, snapshotGenerator);
+
+		StructureDefinition snapshot = (StructureDefinition) chain.generateSnapshot(new ValidationSupportContext(chain), createHumanNameProfile("1.0.0"), null, null, null);
+		int elementCount = snapshot.getSnapshot().getElement().size();
+		assertThat(elementCount).isGreaterThan(1);
+		List<Path> files;
+		try (Stream<Path> list = Files.list(theCacheDirectory.resolve("snapshots"))) {
+			files = list.collect(Collectors.toList());
+		}
+		assertThat(files).hasSize(1);
+
+		// Replace the cached snapshot so that we can tell whether it is used
+		StructureDefinition cached = myFhirCtx.newJsonParser().parseResource(StructureDefinition.class, Files.readString(files.get(0)));
+		cached.getSnapshot().getElement().subList(1, cached.getSnapshot().getElement().size()).clear();
+		Files.writeString(files.get(0), myFhirCtx.newJsonParser().encodeResourceToString(cached));
+
+		// A new generator (e.g. after a restart) uses the cached snapshot
+		snapshotGenerator = new SnapshotGeneratingValidationSupport(myFhirCtx);
+		snapshotGenerator.setSnapshotCacheDirectory(theCacheDirectory.resolve("snapshots"));
+		chain = new ValidationSupportChain(defaultSupport, snapshotGenerator);
+		snapshot = (StructureDefinition) chain.generateSnapshot(new ValidationSupportContext(chain), createHumanNameProfile("1.0.0"), null, null, null);
+		assertThat(snapshot.getSnapshot().getElement()).hasSize(1);
+
+		// A different version of the profile is generated and cached separately
+		snapshot = (StructureDefinition) chain.generateSnapshot(new ValidationSupportContext(chain), createHumanNameProfile("2.0.0"), null, null, null);
+		assertThat(snapshot.getSnapshot().getElement()).hasSize(elementCount);
+		try (Stream<Path> list = Files.list(theCacheDirectory.resolve("snapshots"))) {
+			assertThat(list.count()).isEqualTo(2);
+		}
+
+		// A corrupt cache file is ignored
+		Files.writeString(files.get(0), "{ corrupt");
+		snapshot = (StructureDefinition) chain.generateSnapshot(new ValidationSupportContext(chain), createHumanNameProfile("1.0.0"), null, null, null);
+		assertThat(snapshot.getSnapshot().getElement()).hasSize(elementCount);
+
+		// A cache file without a snapshot is treated as a cache miss
+		cached.setSnapshot(null);
+		Files.writeString(files.get(0), myFhirCtx.newJsonParser().encodeResourceToString(cached));
+		snapshot = (StructureDefinition) chain.generateSnapshot(new ValidationSupportContext(chain), createHumanNameProfile("1.0.0"), null, null, null);
+		assertThat(snapshot.getSnapshot().getElement()).hasSize(elementCount);
+		cached = myFhirCtx.newJsonParser().parseResource(StructureDefinition.class, Files.readString(files.get(0)));
+		assertThat(cached.getSnapshot().getElement()).hasSize(elementCount);
+	}
+
+	private static StructureDefinition createHumanNameProfile(String theVersion) {
+		StructureDefinition retVal = new StructureDefinition();
+		retVal.setUrl("http://example.com/StructureDefinition/name");
+		retVal.setVersion(theVersion);
+		retVal.setName("ExampleName");
+		retVal.setStatus(Enumerations.PublicationStatus.ACTIVE);
+		retVal.setKind(StructureDefinition.StructureDefinitionKind.COMPLEXTYPE);
+		retVal.setAbstract(false);
+		retVal.setType("HumanName");
+		retVal.setBaseDefinition("http://hl7.org/fhir/StructureDefinition/HumanName");
+		retVal.setDerivation(StructureDefinition.TypeDerivationRule.CONSTRAINT);
+		retVal.getDifferential().addElement().setPath("HumanName.family").setMin(1).setId("HumanName.family");
+		return retVal;
+	}
 
 	protected <T extends IBaseResource> T loadResourceFromClasspath(Class<T> type, String resourceName) throws IOException {
 		InputStream stream = SnapshotGeneratorR4Test.class.getResourceAsStream(resourceName);